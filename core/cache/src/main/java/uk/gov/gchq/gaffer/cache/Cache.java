@@ -93,4 +93,14 @@ public class Cache<V> {
             return null;
         }
     }
+
+    /**
+     * Get the hit, miss and eviction counters for the cache.
+     *
+     * @return the cache statistics, or null if they are not recorded
+     */
+    public CacheStatistics getStatistics() {
+        final ICacheService service = CacheServiceLoader.getService();
+        return null != service ? service.getCacheStatistics(cacheName) : null;
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.cache;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+
+import java.io.Serializable;
+
+/**
+ * An immutable snapshot of the usage counters of an {@link ICache}. The counters
+ * are cumulative from when the cache was created, or last cleared.
+ */
+public final class CacheStatistics implements Serializable {
+    private static final long serialVersionUID = -2826536924640432093L;
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+
+    public CacheStatistics(final long hitCount, final long missCount, final long evictionCount, final long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Get the ratio of lookups which found a value in the cache.
+     *
+     * @return the hit rate, or 1.0 if there have been no lookups
+     */
+    public double getHitRate() {
+        final long requestCount = getRequestCount();
+        return 0 == requestCount ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Get the number of entries which have been removed from the cache because
+     * it was full or because they expired, rather than being explicitly removed.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final CacheStatistics that = (CacheStatistics) obj;
+        return new EqualsBuilder()
+                .append(hitCount, that.hitCount)
+                .append(missCount, that.missCount)
+                .append(evictionCount, that.evictionCount)
+                .append(size, that.size)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(hitCount)
+                .append(missCount)
+                .append(evictionCount)
+                .append(size)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("hitCount", hitCount)
+                .append("missCount", missCount)
+                .append("evictionCount", evictionCount)
+                .append("size", size)
+                .toString();
+    }
+}
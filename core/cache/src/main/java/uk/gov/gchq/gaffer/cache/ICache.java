@@ -105,4 +105,14 @@ public interface ICache<K, V> {
      */
     void clear() throws CacheOperationException;
 
+    /**
+     * Get the hit, miss and eviction counters for the cache.
+     *
+     * @return the current cache statistics, or null if the cache does not
+     * record statistics
+     */
+    default CacheStatistics getStatistics() {
+        return null;
+    }
+
 }
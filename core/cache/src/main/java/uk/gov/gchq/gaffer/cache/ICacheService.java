@@ -154,4 +154,15 @@ public interface ICacheService {
     default void clearCache(final String cacheName) throws CacheOperationException {
         getCache(cacheName).clear();
     }
+
+    /**
+     * Get the hit, miss and eviction counters for the specified cache.
+     *
+     * @param cacheName the name of the cache
+     * @return the statistics of the cache, or null if the cache does not
+     * record statistics
+     */
+    default CacheStatistics getCacheStatistics(final String cacheName) {
+        return getCache(cacheName).getStatistics();
+    }
 }
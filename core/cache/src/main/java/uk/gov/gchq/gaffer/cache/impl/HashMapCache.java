@@ -16,96 +16,351 @@
 
 package uk.gov.gchq.gaffer.cache.impl;
 
-import com.google.common.collect.Lists;
-
+import uk.gov.gchq.gaffer.cache.CacheStatistics;
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
- * Simple implementation of the {@link ICache} interface, using a {@link HashMap}
+ * Simple implementation of the {@link ICache} interface, using a {@link java.util.HashMap}
  * as the cache data store.
+ * <p>
+ * By default the cache is unbounded and backed by a {@link ConcurrentHashMap}.
+ * If a maximum size or weight is set then the least recently used entries are
+ * evicted once either limit is exceeded. The weight of an entry is the size in
+ * bytes of its serialised value, so can only be used when values are serialised.
+ * If a time to live is set, entries expire that long after they were last put.
+ * Values can be stored as the objects themselves, or serialised using Java
+ * serialisation or another {@link ToBytesSerialiser}. As with a {@link java.util.HashMap},
+ * a null key can be used.
  *
  * @param <K> The object type that acts as the key for the HashMap
  * @param <V> The value that is stored in the HashMap
  */
 public class HashMapCache<K, V> implements ICache<K, V> {
     private static final JavaSerialiser JAVA_SERIALISER = new JavaSerialiser();
-    private boolean useJavaSerialisation;
-    private HashMap<K, Object> cache = new HashMap<>();
+    // Stands in for a null key, as a ConcurrentHashMap does not accept them
+    private static final Object NULL_KEY = new Object();
+    private final ToBytesSerialiser<Object> serialiser;
+    private final long maxSize;
+    private final long maxWeight;
+    private final long timeToLiveMillis;
+    private final LongSupplier clock;
+    private final boolean bounded;
+    private final Map<Object, CacheEntry> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    // Only non-zero for bounded caches with a maximum weight
+    private final AtomicLong totalWeight = new AtomicLong();
 
     public HashMapCache(final boolean useJavaSerialisation) {
-        this.useJavaSerialisation = useJavaSerialisation;
+        this(useJavaSerialisation, 0, 0, 0);
     }
 
     public HashMapCache() {
         this(false);
     }
 
+    public HashMapCache(final boolean useJavaSerialisation, final long maxSize, final long maxWeight, final long timeToLiveMillis) {
+        this(useJavaSerialisation ? JAVA_SERIALISER : null, maxSize, maxWeight, timeToLiveMillis);
+    }
+
+    /**
+     * Create a cache which serialises its values using the given serialiser.
+     *
+     * @param serialiser       the serialiser for the values, or null to store
+     *                         the value objects themselves
+     * @param maxSize          the maximum number of entries, or 0 for no limit
+     * @param maxWeight        the maximum total size of the serialised values
+     *                         in bytes, or 0 for no limit
+     * @param timeToLiveMillis the time after which entries expire, or 0 if
+     *                         entries should not expire
+     */
+    public HashMapCache(final ToBytesSerialiser serialiser, final long maxSize, final long maxWeight, final long timeToLiveMillis) {
+        this(serialiser, maxSize, maxWeight, timeToLiveMillis, System::currentTimeMillis);
+    }
+
+    HashMapCache(final boolean useJavaSerialisation, final long maxSize, final long maxWeight, final long timeToLiveMillis, final LongSupplier clock) {
+        this(useJavaSerialisation ? JAVA_SERIALISER : null, maxSize, maxWeight, timeToLiveMillis, clock);
+    }
+
+    HashMapCache(final ToBytesSerialiser serialiser, final long maxSize, final long maxWeight, final long timeToLiveMillis, final LongSupplier clock) {
+        if (maxSize < 0 || maxWeight < 0 || timeToLiveMillis < 0) {
+            throw new IllegalArgumentException("The maximum size, maximum weight and time to live of a cache cannot be negative");
+        }
+        if (maxWeight > 0 && null == serialiser) {
+            throw new IllegalArgumentException("A maximum weight can only be set when the values are serialised");
+        }
+        this.serialiser = serialiser;
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.clock = clock;
+        this.bounded = maxSize > 0 || maxWeight > 0;
+        this.cache = bounded ? new LinkedHashMap<>(16, 0.75f, true) : new ConcurrentHashMap<>();
+    }
+
     @Override
     public V get(final K key) {
-        try {
-            return (V) (useJavaSerialisation
-                    ? JAVA_SERIALISER.deserialise((byte[]) cache.get(key))
-                    : cache.get(key));
-        } catch (final SerialisationException e) {
-            throw new RuntimeException(e);
+        final CacheEntry entry;
+        if (bounded) {
+            synchronized (cache) {
+                entry = getLiveEntry(maskNull(key));
+            }
+        } else {
+            entry = getLiveEntry(maskNull(key));
         }
+
+        if (null == entry) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return deserialise(entry.value);
     }
 
     @Override
     public void put(final K key, final V value) {
-        if (useJavaSerialisation) {
-            try {
-                cache.put(key, JAVA_SERIALISER.serialise(value));
-            } catch (final SerialisationException e) {
-                throw new RuntimeException(e);
+        final Object storedValue = serialise(value);
+        final CacheEntry entry = new CacheEntry(
+                storedValue,
+                timeToLiveMillis > 0 ? clock.getAsLong() + timeToLiveMillis : Long.MAX_VALUE,
+                bounded && null != serialiser ? ((byte[]) storedValue).length : 0);
+
+        if (bounded) {
+            synchronized (cache) {
+                final CacheEntry previous = cache.put(maskNull(key), entry);
+                totalWeight.addAndGet(entry.weight - (null != previous ? previous.weight : 0));
+                evictLeastRecentlyUsed();
             }
         } else {
-            cache.<K, V>put(key, value);
+            cache.put(maskNull(key), entry);
         }
     }
 
     @Override
     public void remove(final K key) {
-        cache.remove(key);
+        if (bounded) {
+            synchronized (cache) {
+                final CacheEntry removed = cache.remove(maskNull(key));
+                if (null != removed) {
+                    totalWeight.addAndGet(-removed.weight);
+                }
+            }
+        } else {
+            cache.remove(maskNull(key));
+        }
     }
 
     @Override
     public Collection<V> getAllValues() {
-        ArrayList<V> rtn = Lists.newArrayList();
-        if (useJavaSerialisation) {
-            cache.values()
-                    .forEach((Object o) -> {
-                        try {
-                            rtn.add((V) JAVA_SERIALISER.deserialise((byte[]) o));
-                        } catch (final SerialisationException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
+        final List<Object> storedValues;
+        if (bounded) {
+            synchronized (cache) {
+                removeExpiredEntries();
+                storedValues = new ArrayList<>(cache.size());
+                cache.values().forEach(entry -> storedValues.add(entry.value));
+            }
         } else {
-            rtn.addAll((Collection<V>) cache.values());
+            removeExpiredEntries();
+            storedValues = new ArrayList<>(cache.size());
+            cache.values().forEach(entry -> storedValues.add(entry.value));
         }
+
+        final List<V> rtn = new ArrayList<>(storedValues.size());
+        storedValues.forEach(storedValue -> rtn.add(deserialise(storedValue)));
         return rtn;
     }
 
     @Override
     public Set<K> getAllKeys() {
-        return cache.keySet();
+        if (bounded) {
+            synchronized (cache) {
+                removeExpiredEntries();
+                final Set<K> keys = new HashSet<>(cache.size());
+                cache.keySet().forEach(key -> keys.add(unmaskNull(key)));
+                return keys;
+            }
+        }
+        removeExpiredEntries();
+        return new KeySet();
     }
 
     @Override
     public int size() {
+        if (bounded) {
+            synchronized (cache) {
+                removeExpiredEntries();
+                return cache.size();
+            }
+        }
+        removeExpiredEntries();
         return cache.size();
     }
 
     @Override
     public void clear() {
-        cache.clear();
+        if (bounded) {
+            synchronized (cache) {
+                cache.clear();
+                totalWeight.set(0);
+            }
+        } else {
+            cache.clear();
+        }
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        final int size = size();
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), size);
+    }
+
+    private static Object maskNull(final Object key) {
+        return null == key ? NULL_KEY : key;
+    }
+
+    private static <K> K unmaskNull(final Object key) {
+        return NULL_KEY == key ? null : (K) key;
+    }
+
+    private CacheEntry getLiveEntry(final Object key) {
+        final CacheEntry entry = cache.get(key);
+        if (null != entry && entry.expiryTime <= clock.getAsLong()) {
+            if (cache.remove(key, entry)) {
+                totalWeight.addAndGet(-entry.weight);
+                evictionCount.increment();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private void removeExpiredEntries() {
+        if (timeToLiveMillis > 0) {
+            final long now = clock.getAsLong();
+            final Iterator<CacheEntry> itr = cache.values().iterator();
+            while (itr.hasNext()) {
+                final CacheEntry entry = itr.next();
+                if (entry.expiryTime <= now) {
+                    itr.remove();
+                    totalWeight.addAndGet(-entry.weight);
+                    evictionCount.increment();
+                }
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        final Iterator<CacheEntry> itr = cache.values().iterator();
+        while (itr.hasNext() && ((maxSize > 0 && cache.size() > maxSize) || (maxWeight > 0 && totalWeight.get() > maxWeight))) {
+            final CacheEntry eldest = itr.next();
+            itr.remove();
+            totalWeight.addAndGet(-eldest.weight);
+            evictionCount.increment();
+        }
+    }
+
+    private Object serialise(final V value) {
+        if (null == serialiser) {
+            return value;
+        }
+        try {
+            return null == value ? serialiser.serialiseNull() : serialiser.serialise(value);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private V deserialise(final Object storedValue) {
+        try {
+            if (null == serialiser) {
+                return (V) storedValue;
+            }
+            final byte[] bytes = (byte[]) storedValue;
+            return (V) (0 == bytes.length ? serialiser.deserialiseEmpty() : serialiser.deserialise(bytes));
+        } catch (final SerialisationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A view of the keys of an unbounded cache, with null in place of the
+     * null key sentinel.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            final Iterator<Object> itr = cache.keySet().iterator();
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return itr.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return unmaskNull(itr.next());
+                }
+
+                @Override
+                public void remove() {
+                    itr.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        @Override
+        public boolean contains(final Object key) {
+            return cache.containsKey(maskNull(key));
+        }
+
+        @Override
+        public boolean remove(final Object key) {
+            return null != cache.remove(maskNull(key));
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Object value;
+        private final long expiryTime;
+        private final long weight;
+
+        private CacheEntry(final Object value, final long expiryTime, final long weight) {
+            this.value = value;
+            this.expiryTime = expiryTime;
+            this.weight = weight;
+        }
     }
 }
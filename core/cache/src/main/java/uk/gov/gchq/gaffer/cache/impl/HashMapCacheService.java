@@ -18,27 +18,54 @@ package uk.gov.gchq.gaffer.cache.impl;
 
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.cache.ICacheService;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
 
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Simple implementation of the {@link ICacheService} interface which uses a
  * {@link HashMapCache} as the cache implementation.
+ * <p>
+ * The maximum size, maximum weight and time to live of the caches can be
+ * configured for all caches, or for a single cache by appending "." and the
+ * cache name to the property, e.g. "gaffer.cache.hashmap.maxSize.JobTracker".
+ * Caches which are the only copy of their data, such as the named operation
+ * cache, should not normally be bounded.
+ * <p>
+ * Values can be serialised using Java serialisation, or using any
+ * {@link ToBytesSerialiser} with a no-argument constructor by setting the
+ * "gaffer.cache.hashmap.serialiser.class" property.
  */
 public class HashMapCacheService implements ICacheService {
     public static final String STATIC_CACHE = "gaffer.cache.hashmap.static";
     public static final String JAVA_SERIALISATION_CACHE = "gaffer.cache.hashmap.useJavaSerialisation";
-    private static final HashMap<String, HashMapCache> STATIC_CACHES = new HashMap<>();
-    private final HashMap<String, HashMapCache> nonStaticCaches = new HashMap<>();
-    private boolean useJavaSerialisation = false;
+    public static final String SERIALISER_CLASS = "gaffer.cache.hashmap.serialiser.class";
+    public static final String MAX_SIZE = "gaffer.cache.hashmap.maxSize";
+    public static final String MAX_WEIGHT = "gaffer.cache.hashmap.maxWeight";
+    public static final String TIME_TO_LIVE_SECONDS = "gaffer.cache.hashmap.timeToLiveSeconds";
+    private static final Map<String, HashMapCache> STATIC_CACHES = new ConcurrentHashMap<>();
+    private final Map<String, HashMapCache> nonStaticCaches = new ConcurrentHashMap<>();
+    private ToBytesSerialiser serialiser;
+    private Properties properties = new Properties();
 
-    private HashMap<String, HashMapCache> caches = nonStaticCaches;
+    private Map<String, HashMapCache> caches = nonStaticCaches;
 
     @Override
     public void initialise(final Properties properties) {
+        serialiser = null;
         if (properties != null) {
-            useJavaSerialisation = Boolean.parseBoolean(properties.getProperty(JAVA_SERIALISATION_CACHE));
+            if (null != properties.getProperty(SERIALISER_CLASS)) {
+                serialiser = createSerialiser(properties.getProperty(SERIALISER_CLASS));
+            } else if (Boolean.parseBoolean(properties.getProperty(JAVA_SERIALISATION_CACHE))) {
+                serialiser = new JavaSerialiser();
+            }
+            this.properties = properties;
+        } else {
+            this.properties = new Properties();
         }
 
         if (properties != null && Boolean.parseBoolean(properties.getProperty(STATIC_CACHE))) {
@@ -55,8 +82,36 @@ public class HashMapCacheService implements ICacheService {
 
     @Override
     public <K, V> ICache<K, V> getCache(final String cacheName) {
-        HashMapCache<K, V> cache = caches.computeIfAbsent(cacheName, k -> new HashMapCache<>(useJavaSerialisation));
+        HashMapCache<K, V> cache = caches.computeIfAbsent(cacheName, k -> new HashMapCache<>(
+                serialiser,
+                getLongProperty(MAX_SIZE, cacheName),
+                getLongProperty(MAX_WEIGHT, cacheName),
+                TimeUnit.SECONDS.toMillis(getLongProperty(TIME_TO_LIVE_SECONDS, cacheName))));
 
         return cache;
     }
+
+    private static ToBytesSerialiser createSerialiser(final String className) {
+        try {
+            return Class.forName(className.trim()).asSubclass(ToBytesSerialiser.class).newInstance();
+        } catch (final ClassNotFoundException | ClassCastException | InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to create cache value serialiser: " + className, e);
+        }
+    }
+
+    private long getLongProperty(final String propertyName, final String cacheName) {
+        String value = properties.getProperty(propertyName + "." + cacheName);
+        if (null == value) {
+            value = properties.getProperty(propertyName);
+        }
+
+        if (null == value) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Unable to parse property " + propertyName + " for cache " + cacheName + ": " + value, e);
+        }
+    }
 }
@@ -20,13 +20,18 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.cache.CacheStatistics;
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
 import uk.gov.gchq.gaffer.commonutil.exception.OverwritingException;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+
+import java.util.Properties;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -158,4 +163,75 @@ public class HashMapCacheServiceTest {
         service.putInCache(CACHE_NAME, "test2", 2);
         service.putInCache(CACHE_NAME, "test3", 3);
     }
+
+    @Test
+    public void shouldBoundCachesUsingProperties() throws CacheOperationException {
+        // Given
+        final Properties properties = new Properties();
+        properties.setProperty(HashMapCacheService.MAX_SIZE, "2");
+        properties.setProperty(HashMapCacheService.MAX_SIZE + ".unbounded", "0");
+        service.initialise(properties);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            service.putInCache(CACHE_NAME, "key" + i, i);
+            service.putInCache("unbounded", "key" + i, i);
+        }
+
+        // Then
+        assertEquals(2, service.sizeOfCache(CACHE_NAME));
+        assertEquals(5, service.sizeOfCache("unbounded"));
+        assertEquals(3, service.getCacheStatistics(CACHE_NAME).getEvictionCount());
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidBoundProperty() {
+        // Given
+        final Properties properties = new Properties();
+        properties.setProperty(HashMapCacheService.TIME_TO_LIVE_SECONDS, "ten");
+        service.initialise(properties);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> service.getCache(CACHE_NAME));
+    }
+
+    @Test
+    public void shouldGetCacheStatistics() throws CacheOperationException {
+        // Given
+        service.putInCache(CACHE_NAME, "key", 1);
+
+        // When
+        service.getFromCache(CACHE_NAME, "key");
+        service.getFromCache(CACHE_NAME, "missing");
+
+        // Then
+        assertEquals(new CacheStatistics(1, 1, 0, 1), service.getCacheStatistics(CACHE_NAME));
+    }
+
+    @Test
+    public void shouldSerialiseValuesUsingConfiguredSerialiser() throws CacheOperationException {
+        // Given
+        final Properties properties = new Properties();
+        properties.setProperty(HashMapCacheService.SERIALISER_CLASS, StringSerialiser.class.getName());
+        service.initialise(properties);
+        final String value = "value";
+
+        // When
+        service.putInCache(CACHE_NAME, "key", value);
+        final String result = service.getFromCache(CACHE_NAME, "key");
+
+        // Then
+        assertEquals(value, result);
+        assertNotSame(value, result);
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidSerialiserClass() {
+        // Given
+        final Properties properties = new Properties();
+        properties.setProperty(HashMapCacheService.SERIALISER_CLASS, String.class.getName());
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> service.initialise(properties));
+    }
 }
@@ -16,15 +16,22 @@
 
 package uk.gov.gchq.gaffer.cache.impl;
 
+import com.google.common.collect.Sets;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.cache.CacheStatistics;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -132,4 +139,93 @@ public class HashMapCacheTest {
         final TempClass tempClass = new TempClass();
         map.put("test1", tempClass);
     }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenMaxSizeIsExceeded() {
+        // Given
+        final HashMapCache<String, Integer> boundedCache = new HashMapCache<>(false, 2, 0, 0);
+        boundedCache.put("test1", 1);
+        boundedCache.put("test2", 2);
+        boundedCache.get("test1");
+
+        // When
+        boundedCache.put("test3", 3);
+
+        // Then
+        assertEquals(2, boundedCache.size());
+        assertEquals(Sets.newHashSet("test1", "test3"), boundedCache.getAllKeys());
+        assertEquals(1, boundedCache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void shouldEvictEntriesWhenMaxWeightIsExceeded() throws SerialisationException {
+        // Given
+        final long entryWeight = new JavaSerialiser().serialise(1).length;
+        final HashMapCache<String, Integer> boundedCache = new HashMapCache<>(true, 0, entryWeight * 2, 0);
+
+        // When
+        boundedCache.put("test1", 1);
+        boundedCache.put("test2", 2);
+        boundedCache.put("test3", 3);
+
+        // Then
+        assertEquals(Sets.newHashSet("test2", "test3"), boundedCache.getAllKeys());
+        assertEquals(new Integer(3), boundedCache.get("test3"));
+    }
+
+    @Test
+    public void shouldNotAllowMaxWeightWithoutJavaSerialisation() {
+        assertThrows(IllegalArgumentException.class, () -> new HashMapCache<>(false, 0, 100, 0));
+    }
+
+    @Test
+    public void shouldExpireEntriesAfterTimeToLive() {
+        // Given
+        final AtomicLong time = new AtomicLong(0);
+        final HashMapCache<String, Integer> expiringCache = new HashMapCache<>(false, 0, 0, 1000, time::get);
+        expiringCache.put("test1", 1);
+        time.set(500);
+        expiringCache.put("test2", 2);
+
+        // When
+        time.set(1200);
+
+        // Then
+        assertNull(expiringCache.get("test1"));
+        assertEquals(new Integer(2), expiringCache.get("test2"));
+        assertEquals(1, expiringCache.size());
+        assertEquals(1, expiringCache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void shouldRecordHitsAndMisses() {
+        // Given
+        cache.put("test1", 1);
+
+        // When
+        cache.get("test1");
+        cache.get("test1");
+        cache.get("test2");
+
+        // Then
+        assertEquals(new CacheStatistics(2, 1, 0, 1), cache.getStatistics());
+    }
+
+    @Test
+    public void shouldSupportNullKey() {
+        final HashMapCache<String, Integer> boundedCache = new HashMapCache<>(false, 2, 0, 0);
+
+        for (final HashMapCache<String, Integer> testCache : Arrays.asList(cache, boundedCache)) {
+            testCache.put(null, 1);
+            testCache.put("test1", 2);
+
+            assertEquals(new Integer(1), testCache.get(null));
+            assertEquals(Sets.newHashSet(null, "test1"), testCache.getAllKeys());
+
+            testCache.remove(null);
+
+            assertNull(testCache.get(null));
+            assertEquals(Sets.newHashSet("test1"), testCache.getAllKeys());
+        }
+    }
 }
@@ -331,6 +331,22 @@ public class NamedViewDetail implements AccessControlledResource, Serializable {
         return writeAccessPredicate != null ? deserialise(writeAccessPredicate) : null;
     }
 
+    /**
+     * @return the read access predicate serialised as JSON, or null
+     */
+    @JsonIgnore
+    public String getReadAccessPredicateJson() {
+        return readAccessPredicate;
+    }
+
+    /**
+     * @return the write access predicate serialised as JSON, or null
+     */
+    @JsonIgnore
+    public String getWriteAccessPredicateJson() {
+        return writeAccessPredicate;
+    }
+
     @JsonIgnore
     public AccessPredicate getOrDefaultReadAccessPredicate() {
         final AccessPredicate readAccessPredicate = getReadAccessPredicate();
@@ -361,6 +377,8 @@ public class NamedViewDetail implements AccessControlledResource, Serializable {
         private Map<String, ViewParameterDetail> parameters = Maps.newHashMap();
         private AccessPredicate readAccessPredicate;
         private AccessPredicate writeAccessPredicate;
+        private String readAccessPredicateJson;
+        private String writeAccessPredicateJson;
 
         public Builder name(final String name) {
             this.name = name;
@@ -414,16 +432,58 @@ public class NamedViewDetail implements AccessControlledResource, Serializable {
 
         public Builder readAccessPredicate(final AccessPredicate readAccessPredicate) {
             this.readAccessPredicate = readAccessPredicate;
+            this.readAccessPredicateJson = null;
             return this;
         }
 
         public Builder writeAccessPredicate(final AccessPredicate writeAccessPredicate) {
             this.writeAccessPredicate = writeAccessPredicate;
+            this.writeAccessPredicateJson = null;
+            return this;
+        }
+
+        /**
+         * Sets the read access predicate from its JSON form, as returned by
+         * {@link NamedViewDetail#getReadAccessPredicateJson()}, without
+         * deserialising it.
+         *
+         * @param readAccessPredicateJson the JSON read access predicate
+         * @return this Builder
+         */
+        @JsonIgnore
+        public Builder readAccessPredicateJson(final String readAccessPredicateJson) {
+            this.readAccessPredicateJson = readAccessPredicateJson;
+            this.readAccessPredicate = null;
+            return this;
+        }
+
+        /**
+         * Sets the write access predicate from its JSON form, as returned by
+         * {@link NamedViewDetail#getWriteAccessPredicateJson()}, without
+         * deserialising it.
+         *
+         * @param writeAccessPredicateJson the JSON write access predicate
+         * @return this Builder
+         */
+        @JsonIgnore
+        public Builder writeAccessPredicateJson(final String writeAccessPredicateJson) {
+            this.writeAccessPredicateJson = writeAccessPredicateJson;
+            this.writeAccessPredicate = null;
             return this;
         }
 
         public NamedViewDetail build() {
-            return new NamedViewDetail(name, view, description, creatorId, writers, parameters, readAccessPredicate, writeAccessPredicate);
+            final NamedViewDetail detail = new NamedViewDetail(name, view, description, creatorId, writers, parameters, readAccessPredicate, writeAccessPredicate);
+            if (null != writeAccessPredicateJson) {
+                if (null != writers) {
+                    throw new IllegalArgumentException("Only one of writers or writeAccessPredicate should be supplied.");
+                }
+                detail.writeAccessPredicate = writeAccessPredicateJson;
+            }
+            if (null != readAccessPredicateJson) {
+                detail.readAccessPredicate = readAccessPredicateJson;
+            }
+            return detail;
         }
     }
 }
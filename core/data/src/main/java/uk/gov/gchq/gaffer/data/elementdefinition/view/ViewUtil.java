@@ -18,8 +18,15 @@ package uk.gov.gchq.gaffer.data.elementdefinition.view;
 
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.koryphe.tuple.function.TupleAdaptedFunction;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Utility class containing methods for modifying {@link View} objects.
@@ -68,6 +75,50 @@ public final class ViewUtil {
         }
     }
 
+    /**
+     * Gets the properties that are needed to apply the supplied {@link ViewElementDefinition}:
+     * the properties it returns plus any properties selected by its filters and transformer.
+     * Stores can use this to avoid deserialising properties that would only be removed.
+     *
+     * @param elDef            the element definition to apply
+     * @param schemaProperties all the properties of the element group
+     * @return the required properties, or null if all properties are required
+     */
+    public static Set<String> getRequiredProperties(final ViewElementDefinition elDef, final Collection<String> schemaProperties) {
+        if (null == elDef || elDef.isAllProperties()) {
+            return null;
+        }
+
+        final Set<String> requiredProperties;
+        if (null == elDef.getProperties()) {
+            requiredProperties = new HashSet<>(schemaProperties);
+            requiredProperties.removeAll(elDef.getExcludeProperties());
+        } else {
+            requiredProperties = new HashSet<>(elDef.getProperties());
+        }
+        addSelectedProperties(elDef.getPreAggregationFilterFunctions(), requiredProperties);
+        addSelectedProperties(elDef.getPostAggregationFilterFunctions(), requiredProperties);
+        addSelectedProperties(elDef.getPostTransformFilterFunctions(), requiredProperties);
+        if (null != elDef.getTransformFunctions()) {
+            for (final TupleAdaptedFunction<String, ?, ?> function : elDef.getTransformFunctions()) {
+                addSelection(function.getSelection(), requiredProperties);
+            }
+        }
+        return requiredProperties;
+    }
+
+    /**
+     * Gets the properties selected by the supplied filter functions.
+     *
+     * @param filterFunctions the filter functions
+     * @return the selected properties
+     */
+    public static Set<String> getSelectedProperties(final List<TupleAdaptedPredicate<String, ?>> filterFunctions) {
+        final Set<String> selectedProperties = new HashSet<>();
+        addSelectedProperties(filterFunctions, selectedProperties);
+        return selectedProperties;
+    }
+
     /**
      * Remove specified from the supplied view.
      * Because The {@link View} is unmodifiable it will return a new {@link View} with the group(s) removed.
@@ -99,4 +150,18 @@ public final class ViewUtil {
                 .edges(edges)
                 .build();
     }
+
+    private static void addSelectedProperties(final List<TupleAdaptedPredicate<String, ?>> filterFunctions, final Set<String> properties) {
+        if (null != filterFunctions) {
+            for (final TupleAdaptedPredicate<String, ?> predicate : filterFunctions) {
+                addSelection(predicate.getSelection(), properties);
+            }
+        }
+    }
+
+    private static void addSelection(final String[] selection, final Set<String> properties) {
+        if (null != selection) {
+            Collections.addAll(properties, selection);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.gaffer.data.elementdefinition.view;
 
+import com.google.common.collect.Sets;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.JsonAssert;
@@ -155,6 +156,63 @@ public class ViewUtilTest {
         assertEquals("1", edge.getProperties().get(TestPropertyNames.PROP_1));
     }
 
+    @Test
+    public void shouldRequireAllPropertiesWhenPropertiesNotSet() {
+        //Given
+        final ViewElementDefinition elDef = new ViewElementDefinition.Builder()
+                .build();
+
+        //When
+        final Set<String> requiredProperties = ViewUtil.getRequiredProperties(elDef, Sets.newHashSet(TestPropertyNames.PROP_1));
+
+        //Then
+        assertNull(requiredProperties);
+    }
+
+    @Test
+    public void shouldRequireProvidedPropertiesAndPropertiesSelectedByFunctions() {
+        //Given
+        final ViewElementDefinition elDef = new ViewElementDefinition.Builder()
+                .properties(TestPropertyNames.PROP_1)
+                .transientProperty(TestPropertyNames.TRANSIENT_1, String.class)
+                .preAggregationFilter(new ElementFilter.Builder()
+                        .select(TestPropertyNames.PROP_2)
+                        .execute(new ExampleFilterFunction())
+                        .build())
+                .transformer(new ElementTransformer.Builder()
+                        .select(TestPropertyNames.PROP_3)
+                        .execute(new ExampleTransformFunction())
+                        .project(TestPropertyNames.TRANSIENT_1)
+                        .build())
+                .build();
+
+        //When
+        final Set<String> requiredProperties = ViewUtil.getRequiredProperties(elDef,
+                Sets.newHashSet(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2, TestPropertyNames.PROP_3, TestPropertyNames.PROP_4));
+
+        //Then
+        assertEquals(Sets.newHashSet(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2, TestPropertyNames.PROP_3), requiredProperties);
+    }
+
+    @Test
+    public void shouldRequireAllButExcludedProperties() {
+        //Given
+        final ViewElementDefinition elDef = new ViewElementDefinition.Builder()
+                .excludeProperties(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                .postTransformFilter(new ElementFilter.Builder()
+                        .select(TestPropertyNames.PROP_2)
+                        .execute(new ExampleFilterFunction())
+                        .build())
+                .build();
+
+        //When
+        final Set<String> requiredProperties = ViewUtil.getRequiredProperties(elDef,
+                Sets.newHashSet(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2, TestPropertyNames.PROP_3));
+
+        //Then
+        assertEquals(Sets.newHashSet(TestPropertyNames.PROP_2, TestPropertyNames.PROP_3), requiredProperties);
+    }
+
     @Test
     public void shouldRemoveExcludedProperties() {
         //Given
@@ -489,6 +489,17 @@ public final class Graph {
         return store.getGraphLibrary();
     }
 
+    /**
+     * Releases the resources held by the {@link Store} of this Graph, such as
+     * the threads of its shared operation executor. The Graph should not be
+     * used after it has been shut down.
+     *
+     * @see Store#shutdown()
+     */
+    public void shutdown() {
+        store.shutdown();
+    }
+
     protected GraphConfig getConfig() {
         return config;
     }
@@ -336,6 +336,29 @@ public class GraphTest {
         verify(store).execute(Mockito.any(Output.class), eq(clonedContext));
     }
 
+    @Test
+    public void shouldShutdownStoreWhenGraphIsShutdown() {
+        // Given
+        final Store store = mock(Store.class);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(GRAPH_ID)
+                        .build())
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(new Schema.Builder().build())
+                .build();
+
+        // When
+        graph.shutdown();
+
+        // Then
+        verify(store).shutdown();
+    }
+
     @Test
     public void shouldCreateNewContextInstanceWhenExecuteOutputOperation() throws OperationException, IOException {
         // Given
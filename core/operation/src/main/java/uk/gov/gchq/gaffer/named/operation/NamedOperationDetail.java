@@ -350,6 +350,22 @@ public class NamedOperationDetail implements AccessControlledResource, Serializa
         }
     }
 
+    /**
+     * @return the read access predicate serialised as JSON, or null
+     */
+    @JsonIgnore
+    public String getReadAccessPredicateJson() {
+        return readAccessPredicateJson;
+    }
+
+    /**
+     * @return the write access predicate serialised as JSON, or null
+     */
+    @JsonIgnore
+    public String getWriteAccessPredicateJson() {
+        return writeAccessPredicateJson;
+    }
+
     @JsonIgnore
     public AccessPredicate getOrDefaultReadAccessPredicate() {
         final AccessPredicate readAccessPredicate = getReadAccessPredicate();
@@ -384,6 +400,8 @@ public class NamedOperationDetail implements AccessControlledResource, Serializa
         private Integer score;
         private AccessPredicate readAccessPredicate;
         private AccessPredicate writeAccessPredicate;
+        private String readAccessPredicateJson;
+        private String writeAccessPredicateJson;
 
         public Builder creatorId(final String creatorId) {
             this.creatorId = creatorId;
@@ -446,16 +464,61 @@ public class NamedOperationDetail implements AccessControlledResource, Serializa
 
         public Builder readAccessPredicate(final AccessPredicate readAccessPredicate) {
             this.readAccessPredicate = readAccessPredicate;
+            this.readAccessPredicateJson = null;
             return this;
         }
 
         public Builder writeAccessPredicate(final AccessPredicate writeAccessPredicate) {
             this.writeAccessPredicate = writeAccessPredicate;
+            this.writeAccessPredicateJson = null;
+            return this;
+        }
+
+        /**
+         * Sets the read access predicate from its JSON form, as returned by
+         * {@link NamedOperationDetail#getReadAccessPredicateJson()}, without
+         * deserialising it.
+         *
+         * @param readAccessPredicateJson the JSON read access predicate
+         * @return this Builder
+         */
+        @JsonIgnore
+        public Builder readAccessPredicateJson(final String readAccessPredicateJson) {
+            this.readAccessPredicateJson = readAccessPredicateJson;
+            this.readAccessPredicate = null;
+            return this;
+        }
+
+        /**
+         * Sets the write access predicate from its JSON form, as returned by
+         * {@link NamedOperationDetail#getWriteAccessPredicateJson()}, without
+         * deserialising it.
+         *
+         * @param writeAccessPredicateJson the JSON write access predicate
+         * @return this Builder
+         */
+        @JsonIgnore
+        public Builder writeAccessPredicateJson(final String writeAccessPredicateJson) {
+            this.writeAccessPredicateJson = writeAccessPredicateJson;
+            this.writeAccessPredicate = null;
             return this;
         }
 
         public NamedOperationDetail build() {
-            return new NamedOperationDetail(operationName, labels, inputType, description, creatorId, opChain, readers, writers, parameters, score, readAccessPredicate, writeAccessPredicate);
+            final NamedOperationDetail detail = new NamedOperationDetail(operationName, labels, inputType, description, creatorId, opChain, readers, writers, parameters, score, readAccessPredicate, writeAccessPredicate);
+            if (null != readAccessPredicateJson) {
+                if (null != readers) {
+                    throw new IllegalArgumentException("Only one of readers or readAccessPredicate should be supplied.");
+                }
+                detail.readAccessPredicateJson = readAccessPredicateJson;
+            }
+            if (null != writeAccessPredicateJson) {
+                if (null != writers) {
+                    throw new IllegalArgumentException("Only one of writers or writeAccessPredicate should be supplied.");
+                }
+                detail.writeAccessPredicateJson = writeAccessPredicateJson;
+            }
+            return detail;
         }
 
         private String serialise(final Object pojo) {
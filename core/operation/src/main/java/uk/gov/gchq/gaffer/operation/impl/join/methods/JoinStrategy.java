@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.operation.impl.join.methods;
+
+/**
+ * The strategy used to execute a {@link uk.gov.gchq.gaffer.operation.impl.join.Join}.
+ */
+public enum JoinStrategy {
+    /**
+     * Reads both inputs into memory, up to the collection limit, and returns
+     * the joined results as a list. This is the default strategy.
+     */
+    IN_MEMORY,
+
+    /**
+     * Indexes the matching side in a hash table, up to the collection limit,
+     * then streams the keyed side, lazily joining each key as the results are
+     * iterated. The keyed side is not limited.
+     */
+    STREAMING_HASH,
+
+    /**
+     * As {@link #STREAMING_HASH}, but the matching side is indexed as an array
+     * sorted by key and matches are found using a binary search. This uses less
+     * memory than a hash table, but requires the match method to be a key
+     * function match producing {@link Comparable} keys.
+     */
+    STREAMING_SORTED
+}
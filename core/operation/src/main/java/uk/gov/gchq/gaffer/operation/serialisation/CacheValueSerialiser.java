@@ -0,0 +1,473 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.operation.serialisation;
+
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.NamedViewDetail;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewParameterDetail;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jobtracker.JobDetail;
+import uk.gov.gchq.gaffer.jobtracker.JobStatus;
+import uk.gov.gchq.gaffer.jobtracker.Repeat;
+import uk.gov.gchq.gaffer.named.operation.NamedOperationDetail;
+import uk.gov.gchq.gaffer.named.operation.ParameterDetail;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code CacheValueSerialiser} is a compact binary serialiser for the values
+ * Gaffer stores in its caches: {@link NamedOperationDetail},
+ * {@link NamedViewDetail} and {@link JobDetail}. The fields of these classes are
+ * written directly, which is much quicker to read back than Java serialisation
+ * or JSON. Any other values are written using Java serialisation, so a single
+ * instance can be used for every cache in a cache service.
+ * <p>
+ * The serialised bytes start with a format version. Only the current version
+ * can be read, and values written in any other format are rejected rather
+ * than misread.
+ */
+public class CacheValueSerialiser implements ToBytesSerialiser<Object> {
+    private static final long serialVersionUID = 4906472713186937357L;
+    private static final Charset CHARSET = Charset.forName(CommonConstants.UTF_8);
+    private static final JavaSerialiser JAVA_SERIALISER = new JavaSerialiser();
+
+    private static final byte VERSION = 1;
+
+    private static final byte JAVA_SERIALISED = 0;
+    private static final byte NAMED_OPERATION_DETAIL = 1;
+    private static final byte NAMED_VIEW_DETAIL = 2;
+    private static final byte JOB_DETAIL = 3;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte INTEGER_VALUE = 3;
+    private static final byte BOOLEAN_VALUE = 4;
+    private static final byte DOUBLE_VALUE = 5;
+    private static final byte JAVA_SERIALISED_VALUE = 6;
+
+    @Override
+    public boolean canHandle(final Class clazz) {
+        return Serializable.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public byte[] serialise(final Object object) throws SerialisationException {
+        if (null == object) {
+            return serialiseNull();
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            if (object instanceof NamedOperationDetail) {
+                out.writeByte(NAMED_OPERATION_DETAIL);
+                writeNamedOperationDetail(out, (NamedOperationDetail) object);
+            } else if (object instanceof NamedViewDetail) {
+                out.writeByte(NAMED_VIEW_DETAIL);
+                writeNamedViewDetail(out, (NamedViewDetail) object);
+            } else if (object instanceof JobDetail) {
+                out.writeByte(JOB_DETAIL);
+                writeJobDetail(out, (JobDetail) object);
+            } else {
+                out.writeByte(JAVA_SERIALISED);
+                out.write(JAVA_SERIALISER.serialise(object));
+            }
+        } catch (final IOException e) {
+            throw new SerialisationException("Unable to serialise cache value of class: " + object.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        if (0 == length) {
+            return deserialiseEmpty();
+        }
+        if (length < 2) {
+            throw new SerialisationException("Unable to deserialise cache value, too few bytes: " + length);
+        }
+        if (VERSION != allBytes[offset]) {
+            throw new SerialisationException("Unable to deserialise cache value, unsupported format version: " + allBytes[offset]);
+        }
+
+        final byte type = allBytes[offset + 1];
+        if (JAVA_SERIALISED == type) {
+            return JAVA_SERIALISER.deserialise(allBytes, offset + 2, length - 2);
+        }
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(allBytes, offset + 2, length - 2))) {
+            switch (type) {
+                case NAMED_OPERATION_DETAIL:
+                    return readNamedOperationDetail(in);
+                case NAMED_VIEW_DETAIL:
+                    return readNamedViewDetail(in);
+                case JOB_DETAIL:
+                    return readJobDetail(in);
+                default:
+                    throw new SerialisationException("Unable to deserialise cache value, unknown value type: " + type);
+            }
+        } catch (final IOException | ClassNotFoundException | IllegalArgumentException e) {
+            throw new SerialisationException("Unable to deserialise cache value", e);
+        }
+    }
+
+    @Override
+    public Object deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Object deserialiseEmpty() {
+        return null;
+    }
+
+    @Override
+    public boolean preservesObjectOrdering() {
+        return false;
+    }
+
+    @Override
+    public boolean isConsistent() {
+        return false;
+    }
+
+    private void writeNamedOperationDetail(final DataOutputStream out, final NamedOperationDetail detail) throws IOException {
+        writeString(out, detail.getOperationName());
+        writeStrings(out, detail.getLabels());
+        writeString(out, detail.getInputType());
+        writeString(out, detail.getDescription());
+        writeString(out, detail.getCreatorId());
+        writeString(out, detail.getOperations());
+        writeStrings(out, detail.getReadAccessRoles());
+        writeStrings(out, detail.getWriteAccessRoles());
+        writeNullableInt(out, detail.getScore());
+        writeString(out, detail.getReadAccessPredicateJson());
+        writeString(out, detail.getWriteAccessPredicateJson());
+
+        final Map<String, ParameterDetail> parameters = detail.getParameters();
+        out.writeInt(null != parameters ? parameters.size() : -1);
+        if (null != parameters) {
+            for (final Map.Entry<String, ParameterDetail> entry : parameters.entrySet()) {
+                final ParameterDetail parameter = entry.getValue();
+                writeString(out, entry.getKey());
+                writeString(out, parameter.getDescription());
+                writeString(out, parameter.getValueClass().getName());
+                out.writeBoolean(parameter.isRequired());
+                writeValue(out, parameter.getDefaultValue());
+                final List<?> options = parameter.getOptions();
+                out.writeInt(null != options ? options.size() : -1);
+                if (null != options) {
+                    for (final Object option : options) {
+                        writeValue(out, option);
+                    }
+                }
+            }
+        }
+    }
+
+    private NamedOperationDetail readNamedOperationDetail(final DataInputStream in) throws IOException, ClassNotFoundException {
+        final NamedOperationDetail.Builder builder = new NamedOperationDetail.Builder()
+                .operationName(readString(in))
+                .labels(readStrings(in))
+                .inputType(readString(in))
+                .description(readString(in))
+                .creatorId(readString(in))
+                .operationChain(readString(in))
+                .readers(readStrings(in))
+                .writers(readStrings(in))
+                .score(readNullableInt(in))
+                .readAccessPredicateJson(readString(in))
+                .writeAccessPredicateJson(readString(in));
+
+        final int numParameters = readSize(in);
+        if (numParameters < 0) {
+            builder.parameters(null);
+        } else {
+            final Map<String, ParameterDetail> parameters = new LinkedHashMap<>(numParameters);
+            for (int i = 0; i < numParameters; i++) {
+                final String name = readString(in);
+                final ParameterDetail.Builder parameter = new ParameterDetail.Builder()
+                        .description(readString(in))
+                        .valueClass(Class.forName(readString(in)))
+                        .required(in.readBoolean())
+                        .defaultValue(readValue(in));
+                final int numOptions = readSize(in);
+                if (numOptions >= 0) {
+                    final List<Object> options = new ArrayList<>(numOptions);
+                    for (int j = 0; j < numOptions; j++) {
+                        options.add(readValue(in));
+                    }
+                    parameter.options(options);
+                }
+                parameters.put(name, parameter.build());
+            }
+            builder.parameters(parameters);
+        }
+        return builder.build();
+    }
+
+    private void writeNamedViewDetail(final DataOutputStream out, final NamedViewDetail detail) throws IOException {
+        writeString(out, detail.getName());
+        writeString(out, detail.getView());
+        writeString(out, detail.getDescription());
+        writeString(out, detail.getCreatorId());
+        writeStrings(out, detail.getWriteAccessRoles());
+        writeString(out, detail.getReadAccessPredicateJson());
+        writeString(out, detail.getWriteAccessPredicateJson());
+
+        final Map<String, ViewParameterDetail> parameters = detail.getParameters();
+        out.writeInt(null != parameters ? parameters.size() : -1);
+        if (null != parameters) {
+            for (final Map.Entry<String, ViewParameterDetail> entry : parameters.entrySet()) {
+                final ViewParameterDetail parameter = entry.getValue();
+                writeString(out, entry.getKey());
+                writeString(out, parameter.getDescription());
+                writeString(out, parameter.getValueClass().getName());
+                out.writeBoolean(parameter.isRequired());
+                writeValue(out, parameter.getDefaultValue());
+            }
+        }
+    }
+
+    private NamedViewDetail readNamedViewDetail(final DataInputStream in) throws IOException, ClassNotFoundException {
+        final NamedViewDetail.Builder builder = new NamedViewDetail.Builder()
+                .name(readString(in))
+                .view(readString(in))
+                .description(readString(in))
+                .creatorId(readString(in))
+                .writers(readStrings(in))
+                .readAccessPredicateJson(readString(in))
+                .writeAccessPredicateJson(readString(in));
+
+        final int numParameters = readSize(in);
+        if (numParameters >= 0) {
+            final Map<String, ViewParameterDetail> parameters = new LinkedHashMap<>(numParameters);
+            for (int i = 0; i < numParameters; i++) {
+                final String name = readString(in);
+                parameters.put(name, new ViewParameterDetail.Builder()
+                        .description(readString(in))
+                        .valueClass(Class.forName(readString(in)))
+                        .required(in.readBoolean())
+                        .defaultValue(readValue(in))
+                        .build());
+            }
+            builder.parameters(parameters);
+        }
+        return builder.build();
+    }
+
+    private void writeJobDetail(final DataOutputStream out, final JobDetail detail) throws IOException {
+        writeString(out, detail.getJobId());
+        writeString(out, detail.getParentJobId());
+        final User user = detail.getUser();
+        out.writeBoolean(null != user);
+        if (null != user) {
+            writeString(out, user.getUserId());
+            writeStrings(out, user.getDataAuths());
+            writeStrings(out, user.getOpAuths());
+        }
+        writeString(out, null != detail.getStatus() ? detail.getStatus().name() : null);
+        writeNullableLong(out, detail.getStartTime());
+        writeNullableLong(out, detail.getEndTime());
+        writeString(out, detail.getOpChain());
+        writeString(out, detail.getSerialisedOperationChain());
+        writeString(out, detail.getDescription());
+        final Repeat repeat = detail.getRepeat();
+        out.writeBoolean(null != repeat);
+        if (null != repeat) {
+            out.writeLong(repeat.getInitialDelay());
+            out.writeLong(repeat.getRepeatPeriod());
+            writeString(out, null != repeat.getTimeUnit() ? repeat.getTimeUnit().name() : null);
+        }
+    }
+
+    private JobDetail readJobDetail(final DataInputStream in) throws IOException {
+        final JobDetail detail = new JobDetail();
+        detail.setJobId(readString(in));
+        detail.setParentJobId(readString(in));
+        if (in.readBoolean()) {
+            final String userId = readString(in);
+            final List<String> dataAuths = readStrings(in);
+            final List<String> opAuths = readStrings(in);
+            detail.setUser(new User(userId,
+                    null != dataAuths ? new HashSet<>(dataAuths) : null,
+                    null != opAuths ? new HashSet<>(opAuths) : null));
+        }
+        final String status = readString(in);
+        detail.setStatus(null != status ? JobStatus.valueOf(status) : null);
+        detail.setStartTime(readNullableLong(in));
+        detail.setEndTime(readNullableLong(in));
+        detail.setOpChain(readString(in));
+        detail.setSerialisedOperationChain(readString(in));
+        detail.setDescription(readString(in));
+        if (in.readBoolean()) {
+            final long initialDelay = in.readLong();
+            final long repeatPeriod = in.readLong();
+            final String timeUnit = readString(in);
+            final Repeat repeat = new Repeat();
+            repeat.setInitialDelay(initialDelay);
+            repeat.setRepeatPeriod(repeatPeriod);
+            repeat.setTimeUnit(null != timeUnit ? TimeUnit.valueOf(timeUnit) : null);
+            detail.setRepeat(repeat);
+        }
+        return detail;
+    }
+
+    // Parameter values are usually simple types, anything else is Java serialised
+    private void writeValue(final DataOutputStream out, final Object value) throws IOException {
+        if (null == value) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble((Double) value);
+        } else {
+            out.writeByte(JAVA_SERIALISED_VALUE);
+            writeBytes(out, JAVA_SERIALISER.serialise(value));
+        }
+    }
+
+    private Object readValue(final DataInputStream in) throws IOException {
+        final byte valueType = in.readByte();
+        switch (valueType) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return readString(in);
+            case LONG_VALUE:
+                return in.readLong();
+            case INTEGER_VALUE:
+                return in.readInt();
+            case BOOLEAN_VALUE:
+                return in.readBoolean();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case JAVA_SERIALISED_VALUE:
+                return JAVA_SERIALISER.deserialise(readBytes(in));
+            default:
+                throw new SerialisationException("Unknown parameter value type: " + valueType);
+        }
+    }
+
+    private void writeStrings(final DataOutputStream out, final Collection<String> strings) throws IOException {
+        out.writeInt(null != strings ? strings.size() : -1);
+        if (null != strings) {
+            for (final String string : strings) {
+                writeString(out, string);
+            }
+        }
+    }
+
+    private List<String> readStrings(final DataInputStream in) throws IOException {
+        final int size = readSize(in);
+        if (size < 0) {
+            return null;
+        }
+        final List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    private void writeString(final DataOutputStream out, final String string) throws IOException {
+        writeBytes(out, null != string ? string.getBytes(CHARSET) : null);
+    }
+
+    private String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = readBytes(in);
+        return null != bytes ? new String(bytes, CHARSET) : null;
+    }
+
+    private void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        if (null == bytes) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private byte[] readBytes(final DataInputStream in) throws IOException {
+        final int length = readSize(in);
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // Sizes are written as -1 for null, any other negative size is corrupt
+    private int readSize(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        if (size < -1) {
+            throw new SerialisationException("Invalid size " + size + " in serialised cache value");
+        }
+        return size;
+    }
+
+    private void writeNullableInt(final DataOutputStream out, final Integer value) throws IOException {
+        out.writeBoolean(null != value);
+        if (null != value) {
+            out.writeInt(value);
+        }
+    }
+
+    private Integer readNullableInt(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? Integer.valueOf(in.readInt()) : null;
+    }
+
+    private void writeNullableLong(final DataOutputStream out, final Long value) throws IOException {
+        out.writeBoolean(null != value);
+        if (null != value) {
+            out.writeLong(value);
+        }
+    }
+
+    private Long readNullableLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? Long.valueOf(in.readLong()) : null;
+    }
+}
@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.gaffer.operation.impl.join;
 
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.CollectionUtil;
@@ -65,6 +66,24 @@ public abstract class JoinFunctionTest {
         testJoinFunction(new CustomMatch(), MatchKey.RIGHT, true, getExpectedRightKeyResultsFlattenedForCustomMatch());
     }
 
+    @Test
+    public void shouldProduceTheSameResultsWhenJoiningLazily() {
+        testStreamingJoinFunction(new ElementMatch(), MatchKey.LEFT, false);
+        testStreamingJoinFunction(new ElementMatch(), MatchKey.RIGHT, false);
+        testStreamingJoinFunction(new ElementMatch(), MatchKey.LEFT, true);
+        testStreamingJoinFunction(new ElementMatch(), MatchKey.RIGHT, true);
+        testStreamingJoinFunction(new CustomMatch(), MatchKey.LEFT, true);
+        testStreamingJoinFunction(new CustomMatch(), MatchKey.RIGHT, false);
+    }
+
+    private void testStreamingJoinFunction(final Match match, final MatchKey matchKey, final boolean flatten) {
+        final List<MapTuple> expected = (List<MapTuple>) getJoinFunction().join(leftInput, rightInput, match, matchKey, flatten);
+
+        final List<MapTuple> actual = Lists.newArrayList(getJoinFunction().streamingJoin(leftInput, rightInput, match, matchKey, flatten));
+
+        assertTupleListsEquality(expected, actual);
+    }
+
     private void testJoinFunction(final Match match, final MatchKey matchKey, final boolean flatten, List<MapTuple> expectedOutput) {
         if (null == getJoinFunction()) {
             throw new RuntimeException("No JoinFunction specified by the test.");
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.operation.serialisation;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.access.predicate.AccessPredicate;
+import uk.gov.gchq.gaffer.access.predicate.user.CustomUserPredicate;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.NamedViewDetail;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewParameterDetail;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jobtracker.JobDetail;
+import uk.gov.gchq.gaffer.jobtracker.JobStatus;
+import uk.gov.gchq.gaffer.jobtracker.Repeat;
+import uk.gov.gchq.gaffer.named.operation.NamedOperationDetail;
+import uk.gov.gchq.gaffer.named.operation.ParameterDetail;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToArray;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheValueSerialiserTest {
+    private final CacheValueSerialiser serialiser = new CacheValueSerialiser();
+
+    @Test
+    public void shouldSerialiseAndDeserialiseNamedOperationDetail() throws SerialisationException {
+        // Given
+        final Map<String, ParameterDetail> parameters = new HashMap<>();
+        parameters.put("limit", new ParameterDetail.Builder()
+                .description("the limit")
+                .valueClass(Long.class)
+                .defaultValue(10L)
+                .options(Arrays.asList(10L, 20L))
+                .build());
+        parameters.put("set", new ParameterDetail.Builder()
+                .description("a set")
+                .valueClass(TreeSet.class)
+                .defaultValue(new TreeSet<>(Arrays.asList("a", "b")))
+                .build());
+        parameters.put("required", new ParameterDetail.Builder()
+                .description("required param")
+                .valueClass(String.class)
+                .required(true)
+                .build());
+        final NamedOperationDetail detail = new NamedOperationDetail.Builder()
+                .operationName("op")
+                .labels(Arrays.asList("label1", "label2"))
+                .inputType("java.lang.String")
+                .description("description")
+                .creatorId("creator")
+                .operationChain(new OperationChain.Builder().first(new GetAllElements()).then(new ToArray<>()).build())
+                .readers(Arrays.asList("read1", "read2"))
+                .parameters(parameters)
+                .score(3)
+                .writeAccessPredicate(new AccessPredicate(new CustomUserPredicate()))
+                .build();
+
+        // When
+        final Object result = serialiser.deserialise(serialiser.serialise(detail));
+
+        // Then
+        assertEquals(detail, result);
+        assertEquals(detail.getDescription(), ((NamedOperationDetail) result).getDescription());
+        assertEquals(detail.getWriteAccessPredicateJson(), ((NamedOperationDetail) result).getWriteAccessPredicateJson());
+        assertEquals(detail.getWriteAccessPredicate(), ((NamedOperationDetail) result).getWriteAccessPredicate());
+    }
+
+    @Test
+    public void shouldSerialiseAndDeserialiseNamedViewDetail() throws SerialisationException {
+        // Given
+        final Map<String, ViewParameterDetail> parameters = new HashMap<>();
+        parameters.put("group", new ViewParameterDetail.Builder()
+                .description("the group")
+                .valueClass(String.class)
+                .defaultValue(TestGroups.ENTITY)
+                .build());
+        final NamedViewDetail detail = new NamedViewDetail.Builder()
+                .name("view")
+                .view(new View.Builder().entity(TestGroups.ENTITY).build())
+                .description("description")
+                .creatorId("creator")
+                .writers(Arrays.asList("write1", "write2"))
+                .parameters(parameters)
+                .readAccessPredicate(new AccessPredicate(new CustomUserPredicate()))
+                .build();
+
+        // When
+        final Object result = serialiser.deserialise(serialiser.serialise(detail));
+
+        // Then
+        assertEquals(detail, result);
+        assertEquals(detail.getReadAccessPredicateJson(), ((NamedViewDetail) result).getReadAccessPredicateJson());
+        assertEquals(detail.getReadAccessPredicate(), ((NamedViewDetail) result).getReadAccessPredicate());
+    }
+
+    @Test
+    public void shouldThrowExceptionForNamedViewDetailWithNegativeParameterCount() throws SerialisationException {
+        // Given
+        final NamedViewDetail detail = new NamedViewDetail.Builder()
+                .name("view")
+                .view(new View.Builder().entity(TestGroups.ENTITY).build())
+                .build();
+        final byte[] bytes = serialiser.serialise(detail);
+
+        // The parameter count is the last field written
+        bytes[bytes.length - 4] = (byte) 0xFF;
+        bytes[bytes.length - 3] = (byte) 0xFF;
+        bytes[bytes.length - 2] = (byte) 0xFF;
+        bytes[bytes.length - 1] = (byte) 0xFE;
+
+        // When / Then
+        assertThrows(SerialisationException.class, () -> serialiser.deserialise(bytes));
+    }
+
+    @Test
+    public void shouldSerialiseAndDeserialiseJobDetail() throws SerialisationException {
+        // Given
+        final JobDetail detail = new JobDetail.Builder()
+                .jobId("jobId")
+                .parentJobId("parentJobId")
+                .user(new User.Builder().userId("user").dataAuths("auth1", "auth2").opAuths("opAuth").build())
+                .status(JobStatus.RUNNING)
+                .opChain("opChain")
+                .serialisedOperationChain(new OperationChain.Builder().first(new GetAllElements()).build())
+                .description("description")
+                .repeat(new Repeat(10L, 20L, TimeUnit.MINUTES))
+                .build();
+        detail.setEndTime(20L);
+
+        // When
+        final JobDetail result = (JobDetail) serialiser.deserialise(serialiser.serialise(detail));
+
+        // Then
+        assertEquals(detail, result);
+        assertEquals(detail.getUser().getDataAuths(), result.getUser().getDataAuths());
+        assertEquals(detail.getUser().getOpAuths(), result.getUser().getOpAuths());
+    }
+
+    @Test
+    public void shouldSerialiseAndDeserialiseJobDetailWithNullFields() throws SerialisationException {
+        // Given
+        final JobDetail detail = new JobDetail();
+
+        // When
+        final Object result = serialiser.deserialise(serialiser.serialise(detail));
+
+        // Then
+        assertEquals(detail, result);
+    }
+
+    @Test
+    public void shouldUseJavaSerialisationForOtherValues() throws SerialisationException {
+        // Given
+        final TreeSet<String> value = new TreeSet<>(Arrays.asList("a", "b"));
+
+        // When
+        final Object result = serialiser.deserialise(serialiser.serialise(value));
+
+        // Then
+        assertEquals(value, result);
+    }
+
+    @Test
+    public void shouldSerialiseNullToEmptyBytes() throws SerialisationException {
+        // When
+        final byte[] bytes = serialiser.serialise(null);
+
+        // Then
+        assertEquals(0, bytes.length);
+        assertNull(serialiser.deserialise(bytes));
+    }
+
+    @Test
+    public void shouldThrowExceptionForUnknownFormatVersion() throws SerialisationException {
+        // Given
+        final byte[] bytes = serialiser.serialise(new JobDetail());
+        bytes[0] = 99;
+
+        // When / Then
+        assertThrows(SerialisationException.class, () -> serialiser.deserialise(bytes));
+    }
+
+    @Test
+    public void shouldBeSmallerThanJavaSerialisation() throws SerialisationException {
+        // Given
+        final NamedOperationDetail detail = new NamedOperationDetail.Builder()
+                .operationName("op")
+                .creatorId("creator")
+                .operationChain(new OperationChain.Builder().first(new GetAllElements()).build())
+                .readers(Arrays.asList("read1", "read2"))
+                .build();
+
+        // When
+        final int size = serialiser.serialise(detail).length;
+
+        // Then
+        assertTrue(size < new JavaSerialiser().serialise(detail).length);
+    }
+}
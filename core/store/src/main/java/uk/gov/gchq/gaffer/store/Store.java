@@ -175,7 +175,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.StreamSupport;
 
 import static java.util.Collections.unmodifiableList;
@@ -224,6 +229,8 @@ public abstract class Store {
 
     private boolean jobsRescheduled;
 
+    private ThreadPoolExecutor operationExecutor;
+
     public Store() {
         this(true);
     }
@@ -274,6 +281,7 @@ public abstract class Store {
         this.graphId = graphId;
         this.schema = schema;
         setProperties(properties);
+        shutdownOperationExecutor();
 
         updateJsonSerialiser();
 
@@ -564,6 +572,55 @@ public abstract class Store {
                 ExecutorService.getService() : null;
     }
 
+    /**
+     * Gets the executor shared by the operation handlers of this store to run
+     * work concurrently. It has a bounded number of threads, set by
+     * {@link StoreProperties#OPERATION_EXECUTOR_THREAD_COUNT}, so the number
+     * of threads used by concurrent operations does not grow with the number
+     * of operations. Idle threads are released after a minute.
+     * <p>
+     * Work should be submitted using
+     * {@link uk.gov.gchq.gaffer.store.util.ExecutorUtil} so that a thread
+     * waiting for a task which has not started runs it itself, rather than
+     * waiting for a thread to become free.
+     *
+     * @return the shared operation executor
+     */
+    public synchronized Executor getOperationExecutor() {
+        if (null == operationExecutor) {
+            final int threads = Math.max(1, getProperties().getOperationExecutorThreadCount());
+            LOGGER.debug("Creating operation executor with {} threads for graph {}", threads, graphId);
+            final AtomicInteger threadCount = new AtomicInteger();
+            operationExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread(runnable, "Gaffer operation executor - " + graphId + " - " + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            operationExecutor.allowCoreThreadTimeOut(true);
+        }
+        return operationExecutor;
+    }
+
+    /**
+     * Releases the resources held by this store, such as the threads of the
+     * shared operation executor. Store implementations that start their own
+     * background work should override this to stop it.
+     * <p>
+     * Nothing calls this automatically; the owner of the store, usually via
+     * {@code Graph#shutdown()}, should call it once the store is no longer
+     * needed.
+     */
+    public void shutdown() {
+        shutdownOperationExecutor();
+    }
+
+    private synchronized void shutdownOperationExecutor() {
+        if (null != operationExecutor) {
+            operationExecutor.shutdown();
+            operationExecutor = null;
+        }
+    }
+
     public JobTracker getJobTracker() {
         return jobTracker;
     }
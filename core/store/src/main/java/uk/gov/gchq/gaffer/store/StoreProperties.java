@@ -71,6 +71,13 @@ public class StoreProperties implements Cloneable {
     public static final String EXECUTOR_SERVICE_THREAD_COUNT = "gaffer.store.job.executor.threads";
     public static final String EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT = "50";
 
+    /**
+     * The maximum number of threads in the executor shared by the operation
+     * handlers of a store to run work concurrently. Defaults to twice the
+     * number of available processors.
+     */
+    public static final String OPERATION_EXECUTOR_THREAD_COUNT = "gaffer.store.operation.executor.threads";
+
     public static final String JSON_SERIALISER_CLASS = JSONSerialiser.JSON_SERIALISER_CLASS_KEY;
     public static final String JSON_SERIALISER_MODULES = JSONSerialiser.JSON_SERIALISER_MODULES;
     public static final String STRICT_JSON = JSONSerialiser.STRICT_JSON;
@@ -408,6 +415,15 @@ public class StoreProperties implements Cloneable {
         return Integer.parseInt(get(EXECUTOR_SERVICE_THREAD_COUNT, EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT));
     }
 
+    public Integer getOperationExecutorThreadCount() {
+        final String threads = get(OPERATION_EXECUTOR_THREAD_COUNT);
+        return null == threads ? 2 * Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+    }
+
+    public void setOperationExecutorThreadCount(final Integer threads) {
+        set(OPERATION_EXECUTOR_THREAD_COUNT, null == threads ? null : threads.toString());
+    }
+
     public void addOperationDeclarationPaths(final String... newPaths) {
         final String newPathsCsv = StringUtils.join(newPaths, ",");
         String combinedPaths = getOperationDeclarationPaths();
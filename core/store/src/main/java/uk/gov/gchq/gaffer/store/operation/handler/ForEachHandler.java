@@ -16,24 +16,122 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import com.google.common.collect.Lists;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.Operations;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.DiscardOutput;
 import uk.gov.gchq.gaffer.operation.impl.ForEach;
+import uk.gov.gchq.gaffer.operation.impl.GetVariable;
+import uk.gov.gchq.gaffer.operation.impl.GetVariables;
+import uk.gov.gchq.gaffer.operation.impl.GetWalks;
+import uk.gov.gchq.gaffer.operation.impl.If;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.Map;
+import uk.gov.gchq.gaffer.operation.impl.Reduce;
+import uk.gov.gchq.gaffer.operation.impl.Validate;
+import uk.gov.gchq.gaffer.operation.impl.compare.Max;
+import uk.gov.gchq.gaffer.operation.impl.compare.Min;
+import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
+import uk.gov.gchq.gaffer.operation.impl.function.Aggregate;
+import uk.gov.gchq.gaffer.operation.impl.function.Filter;
+import uk.gov.gchq.gaffer.operation.impl.function.Transform;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToArray;
+import uk.gov.gchq.gaffer.operation.impl.output.ToCsv;
+import uk.gov.gchq.gaffer.operation.impl.output.ToEntitySeeds;
+import uk.gov.gchq.gaffer.operation.impl.output.ToList;
+import uk.gov.gchq.gaffer.operation.impl.output.ToMap;
+import uk.gov.gchq.gaffer.operation.impl.output.ToSet;
+import uk.gov.gchq.gaffer.operation.impl.output.ToSingletonList;
+import uk.gov.gchq.gaffer.operation.impl.output.ToStream;
+import uk.gov.gchq.gaffer.operation.impl.output.ToVertices;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
 
 /**
  * An {@code OperationHandler} for the {@link ForEach} Operation.
+ * <p>
+ * The operation is run for each input in turn by default. The handler has a
+ * threads setting, which can be overridden by system administrators in an
+ * operationDeclarations.json file, to run the operations for up to that many
+ * inputs concurrently on the store's shared operation executor. Each
+ * concurrent operation is executed with its own shallow clone of the
+ * {@link Context} and reads its output in full, and the outputs are returned
+ * in the order of the inputs. If any operation fails, the operations still
+ * running are cancelled.
+ * <p>
+ * Operations are only run concurrently if they are known to be read only,
+ * such as getting elements and converting or limiting the results, or are
+ * chains and conditionals made up only of such operations. Any other
+ * operation, including store specific operations, is run for each input in
+ * turn.
  *
  * @param <I> input type
  * @param <O> output type
  */
 public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O>, Iterable<? extends O>> {
+    private static final List<Class<?>> READ_ONLY_OPERATIONS = Collections.unmodifiableList(Arrays.asList(
+            GetElements.class,
+            GetAllElements.class,
+            GetAdjacentIds.class,
+            GetWalks.class,
+            GetVariable.class,
+            GetVariables.class,
+            Count.class,
+            CountGroups.class,
+            DiscardOutput.class,
+            Limit.class,
+            Map.class,
+            Reduce.class,
+            Validate.class,
+            Max.class,
+            Min.class,
+            Sort.class,
+            Aggregate.class,
+            Filter.class,
+            Transform.class,
+            GenerateElements.class,
+            GenerateObjects.class,
+            ToArray.class,
+            ToCsv.class,
+            ToEntitySeeds.class,
+            ToList.class,
+            ToMap.class,
+            ToSet.class,
+            ToSingletonList.class,
+            ToStream.class,
+            ToVertices.class
+    ));
+
+    private Integer threads = 1;
 
     @Override
     public Iterable<? extends O> doOperation(final ForEach<I, O> forEach, final Context context, final Store store) throws OperationException {
@@ -44,6 +142,10 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
             throw new OperationException("Inputs cannot be null");
         }
 
+        if (threads > 1 && isReadOnly(forEach.getOperation())) {
+            return doOperationConcurrently(forEach, context, store);
+        }
+
         final List<O> results = new ArrayList<>();
         for (final I input : forEach.getInput()) {
             final Operation clonedOperation = forEach.getOperation().shallowClone();
@@ -53,6 +155,124 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
         return results;
     }
 
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final Integer threads) {
+        this.threads = null == threads ? 1 : threads;
+    }
+
+    private List<O> doOperationConcurrently(final ForEach<I, O> forEach, final Context context, final Store store) throws OperationException {
+        final List<I> inputs = Lists.newArrayList(forEach.getInput());
+        final List<O> results = new ArrayList<>(Collections.nCopies(inputs.size(), null));
+        final List<Future<Void>> futures = new ArrayList<>(inputs.size());
+        final Executor executor = store.getOperationExecutor();
+
+        // At most threads operations are submitted at a time. Each operation
+        // adds its index to the completed queue when it finishes, so a
+        // failure is seen as soon as it happens.
+        final BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        final Set<Integer> running = new LinkedHashSet<>();
+        try {
+            for (int numCompleted = 0; numCompleted < inputs.size(); numCompleted++) {
+                while (futures.size() < inputs.size() && running.size() < threads) {
+                    final int index = futures.size();
+                    final Operation clonedOperation = forEach.getOperation().shallowClone();
+                    OperationHandlerUtil.updateOperationInput(clonedOperation, inputs.get(index));
+                    // Executing an operation updates its context, e.g. the job
+                    // details, so each concurrent operation has its own clone.
+                    final Context clonedContext = context.shallowClone();
+                    futures.add(ExecutorUtil.submit(executor, () -> {
+                        try {
+                            results.set(index, materialise(executeOperation(clonedOperation, clonedContext, store)));
+                            return null;
+                        } finally {
+                            completed.add(index);
+                        }
+                    }));
+                    running.add(index);
+                }
+                final int index = takeCompleted(futures, running, completed);
+                running.remove(index);
+                getResult(futures.get(index));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst executing ForEach", e);
+        } finally {
+            for (final int index : running) {
+                futures.get(index).cancel(true);
+            }
+        }
+
+        return results;
+    }
+
+    // Operations that no executor thread has started are run on this thread,
+    // so waiting for them cannot deadlock when every executor thread is busy.
+    private int takeCompleted(final List<Future<Void>> futures, final Set<Integer> running,
+                              final BlockingQueue<Integer> completed) throws InterruptedException {
+        Integer index = completed.poll();
+        final Iterator<Integer> itr = running.iterator();
+        while (null == index && itr.hasNext()) {
+            final Future<Void> future = futures.get(itr.next());
+            if (future instanceof RunnableFuture && !future.isDone()) {
+                // This does nothing if the operation has already been started
+                ((RunnableFuture<Void>) future).run();
+                index = completed.poll();
+            }
+        }
+        return null != index ? index : completed.take();
+    }
+
+    private void getResult(final Future<Void> future) throws OperationException, InterruptedException {
+        try {
+            ExecutorUtil.get(future);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof OperationException) {
+                throw (OperationException) e.getCause();
+            }
+            throw new OperationException("Unable to execute ForEach operation", e.getCause());
+        }
+    }
+
+    // Lazy iterables are read by the thread running the operation, otherwise
+    // the work would be done later by the thread consuming the results.
+    private O materialise(final O result) {
+        if (result instanceof Iterable && !(result instanceof Collection)) {
+            try {
+                return (O) Lists.newArrayList((Iterable) result);
+            } finally {
+                CloseableUtil.close(result);
+            }
+        }
+        return result;
+    }
+
+    private boolean isReadOnly(final Operation operation) {
+        if (null == operation) {
+            return true;
+        }
+        if (operation instanceof OperationChain || operation instanceof If) {
+            for (final Operation nestedOperation : ((Operations<?>) operation).getOperations()) {
+                if (!isReadOnly(nestedOperation)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (final Class<?> readOnlyOperation : READ_ONLY_OPERATIONS) {
+            if (readOnlyOperation == operation.getClass()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private O executeOperation(final Operation operation, final Context context, final Store store) throws OperationException {
         final O result;
         if (operation instanceof Output) {
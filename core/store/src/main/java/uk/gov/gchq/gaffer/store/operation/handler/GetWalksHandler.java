@@ -18,9 +18,11 @@ package uk.gov.gchq.gaffer.store.operation.handler;
 
 import com.google.common.collect.Lists;
 
+import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedCloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
@@ -44,28 +46,43 @@ import uk.gov.gchq.gaffer.operation.impl.output.ToEntitySeeds;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
 import uk.gov.gchq.koryphe.impl.function.IterableFunction;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An operation handler for {@link GetWalks} operations.
  * <p>
  * The handler executes each {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements}
- * operation in the parent GetWalks operation in turn and incrementally creates
- * an in-memory representation of the resulting graph. Once all GetElements
- * operations have been executed, a recursive depth-first search algorithm is
- * used to construct all of the {@link Walk}s that exist in the temporary
- * graph.
+ * operation in the parent GetWalks operation in turn (breadth first) and
+ * incrementally creates an in-memory representation of the resulting graph.
+ * Duplicate seeds are removed from the frontier between hops. Once all
+ * GetElements operations have been executed, the {@link Walk}s that exist in
+ * the temporary graph are constructed lazily, using a depth-first search, as
+ * the results are iterated.
  * <p>
- * The default handler has two settings which can be overridden by system
+ * The default handler has the following settings which can be overridden by system
  * administrators: <ul> <li>maxHops - prevent users from executing GetWalks
- * operations that contain more than a set number of hops.</li> <li>prune -
+ * operations that contain more than a set number of hops.</li>
+ * <li>batchSize - the maximum number of seeds to query in a single
+ * execution of a hop. If not set, all seeds for a hop are queried together.</li>
+ * <li>threads - the number of seed batches that are queried concurrently on
+ * the store's shared operation executor. The default is 1, i.e. batches are
+ * queried in turn.</li> <li>prune -
  * toggle pruning for the in-memory graph representation. Enabling pruning
  * instructs the in-memory graph representation to discard any edges from the
  * previous GetElements operation which do not join up with any edges in the
@@ -88,6 +105,8 @@ import java.util.stream.Collectors;
 public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterable<Walk>> {
     private Integer maxHops = null;
     private boolean prune = true;
+    private Integer batchSize = null;
+    private Integer threads = 1;
 
     @Override
     public Iterable<Walk> doOperation(final GetWalks getWalks, final Context context, final Store store) throws OperationException {
@@ -121,16 +140,17 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         List<?> seeds = originalInput;
 
         // Execute the operations
+        final Executor executor = isBatched() && threads > 1 ? store.getOperationExecutor() : null;
         for (final OperationChain<Iterable<Element>> operation : getWalks.getOperations()) {
             if (isWhileOperation(operation)) {
                 seeds = executeWhileOperation(
                         operation, seeds, resultLimit,
-                        context, store, hops, adjacencyMaps, entityMaps
+                        context, store, hops, adjacencyMaps, entityMaps, executor
                 );
             } else {
                 seeds = executeOperation(
                         operation, seeds, resultLimit,
-                        context, store, hops, adjacencyMaps, entityMaps
+                        context, store, hops, adjacencyMaps, entityMaps, executor
                 );
             }
         }
@@ -144,9 +164,7 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         final GraphWindow graphWindow = new GraphWindow(adjacencyMaps, entityMaps);
 
         // Track/recombine the edge objects and convert to return type
-        return Streams.toStream(originalInput)
-                .flatMap(seed -> walk(seed.getVertex(), null, graphWindow, new LinkedList<>(), new LinkedList<>(), hops, getWalks.isIncludePartial()).stream())
-                .collect(Collectors.toList());
+        return new WalkIterable(originalInput, graphWindow, hops, getWalks.isIncludePartial());
     }
 
     public Integer getMaxHops() {
@@ -165,6 +183,26 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         this.prune = prune;
     }
 
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final Integer threads) {
+        this.threads = null == threads ? 1 : threads;
+    }
+
+    private boolean isBatched() {
+        return null != batchSize && batchSize > 0;
+    }
+
     private boolean isWhileOperation(final OperationChain<Iterable<Element>> operation) {
         return 1 == operation.getOperations().size()
                 && operation.getOperations().get(0) instanceof While;
@@ -177,7 +215,8 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                                           final Store store,
                                           final int hops,
                                           final AdjacencyMaps adjacencyMaps,
-                                          final EntityMaps entityMaps) throws OperationException {
+                                          final EntityMaps entityMaps,
+                                          final Executor executor) throws OperationException {
         List<?> resultSeeds = seeds;
         final While whileOp = (While) operation.getOperations().get(0);
         if (null != whileOp.getOperation()) {
@@ -212,7 +251,7 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                 resultSeeds = executeOperation(
                         (Output) whileOpClone.getOperation(),
                         resultSeeds, resultLimit,
-                        context, store, hops, adjacencyMaps, entityMaps
+                        context, store, hops, adjacencyMaps, entityMaps, executor
                 );
             }
         }
@@ -227,22 +266,24 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                                      final Store store,
                                      final int hops,
                                      final AdjacencyMaps adjacencyMaps,
-                                     final EntityMaps entityMaps) throws OperationException {
-        final Iterable<Element> results = executeOperation(operation, seeds, resultLimit, context, store);
-
+                                     final EntityMaps entityMaps,
+                                     final Executor executor) throws OperationException {
         final AdjacencyMap adjacencyMap = new AdjacencyMap();
         final EntityMap entityMap = new EntityMap();
 
-        final List<Object> nextSeeds = new ArrayList<>();
-        for (final Element e : results) {
-            if (e instanceof Edge) {
-                final Edge edge = (Edge) e;
-                final Object nextSeed = edge.getAdjacentMatchedVertexValue();
-                nextSeeds.add(nextSeed);
-                adjacencyMap.putEdge(edge.getMatchedVertexValue(), nextSeed, edge);
-            } else {
-                final Entity entity = (Entity) e;
-                entityMap.putEntity(entity.getVertex(), entity);
+        // Use a LinkedHashSet to remove duplicate seeds whilst keeping the order
+        final Set<Object> nextSeeds = new LinkedHashSet<>();
+        for (final Iterable<Element> results : executeOperation(operation, seeds, resultLimit, context, store, executor)) {
+            for (final Element e : results) {
+                if (e instanceof Edge) {
+                    final Edge edge = (Edge) e;
+                    final Object nextSeed = edge.getAdjacentMatchedVertexValue();
+                    nextSeeds.add(nextSeed);
+                    adjacencyMap.putEdge(edge.getMatchedVertexValue(), nextSeed, edge);
+                } else {
+                    final Entity entity = (Entity) e;
+                    entityMap.putEntity(entity.getVertex(), entity);
+                }
             }
         }
 
@@ -251,7 +292,89 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         }
         entityMaps.add(entityMap);
 
-        return nextSeeds;
+        return new ArrayList<>(nextSeeds);
+    }
+
+    private List<Iterable<Element>> executeOperation(final Output<Iterable<Element>> operation,
+                                                     final List<?> seeds,
+                                                     final Integer resultLimit,
+                                                     final Context context,
+                                                     final Store store,
+                                                     final Executor executor) throws OperationException {
+        if (!isBatched() || seeds.size() <= batchSize) {
+            return Collections.singletonList(executeOperation(operation, seeds, resultLimit, context, store));
+        }
+
+        // Query the seeds in batches. The results for each batch are read in
+        // full by the thread executing the batch, so the store is queried
+        // concurrently when there are multiple threads.
+        final AtomicLong resultCount = new AtomicLong();
+        final List<Future<List<Element>>> futures = new ArrayList<>();
+        boolean completed = false;
+        try {
+            for (final List<?> batch : Lists.partition(seeds, batchSize)) {
+                final Output<Iterable<Element>> batchOperation = (Output<Iterable<Element>>) operation.shallowClone();
+                final Callable<List<Element>> task = () -> {
+                    final List<Element> batchResults = new ArrayList<>();
+                    for (final Element element : executeOperation(batchOperation, batch, null, context.shallowClone(), store)) {
+                        if (null != resultLimit && resultCount.incrementAndGet() > resultLimit) {
+                            throw new LimitExceededException("Limit of " + resultLimit + " exceeded.");
+                        }
+                        batchResults.add(element);
+                    }
+                    return batchResults;
+                };
+                if (null == executor) {
+                    futures.add(CompletableFuture.completedFuture(callBatch(task)));
+                } else {
+                    // Only allow the configured number of batches to run at once
+                    if (futures.size() >= threads) {
+                        getBatchResults(futures.get(futures.size() - threads));
+                    }
+                    futures.add(ExecutorUtil.submit(executor, task));
+                }
+            }
+
+            final List<Iterable<Element>> results = new ArrayList<>(futures.size());
+            for (final Future<List<Element>> future : futures) {
+                results.add(getBatchResults(future));
+            }
+            completed = true;
+            return results;
+        } finally {
+            if (!completed) {
+                for (final Future<List<Element>> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private List<Element> callBatch(final Callable<List<Element>> task) throws OperationException {
+        try {
+            return task.call();
+        } catch (final OperationException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new OperationException("Unable to execute GetWalks hop", e);
+        }
+    }
+
+    private List<Element> getBatchResults(final Future<List<Element>> future) throws OperationException {
+        try {
+            return ExecutorUtil.get(future);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst executing GetWalks hop", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof OperationException) {
+                throw (OperationException) e.getCause();
+            }
+            throw new OperationException("Unable to execute GetWalks hop", e.getCause());
+        }
     }
 
     private Iterable<Element> executeOperation(final Output<Iterable<Element>> operation,
@@ -272,44 +395,7 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         return new LimitedCloseableIterable<>(store.execute(convertedOp, context), 0, resultLimit, false);
     }
 
-    private List<Walk> walk(final Object curr, final Object prev, final GraphWindow graphWindow, final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue, final int hops, final boolean includePartial) {
-        final List<Walk> walks = new ArrayList<>();
-
-        if (null != prev && hops != edgeQueue.size()) {
-            edgeQueue.offer(graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getEdges(prev, curr));
-        }
-
-        entityQueue.offer(graphWindow.getEntityMaps().get(entityQueue.size()).get(curr));
-
-        if (hops == edgeQueue.size()) {
-            final Walk walk = buildWalk(edgeQueue, entityQueue);
-            walks.add(walk);
-        } else {
-            final Set<Object> dests = graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getDestinations(curr);
-            if (dests.isEmpty()) {
-                if (includePartial) {
-                    final Walk walk = buildWalk(edgeQueue, entityQueue);
-                    walks.add(walk);
-                }
-            } else {
-                for (final Object obj : dests) {
-                    walks.addAll(walk(obj, curr, graphWindow, edgeQueue, entityQueue, hops, includePartial));
-                }
-            }
-        }
-
-        if (!edgeQueue.isEmpty()) {
-            edgeQueue.pollLast();
-        }
-
-        if (!entityQueue.isEmpty()) {
-            entityQueue.pollLast();
-        }
-
-        return walks;
-    }
-
-    private Walk buildWalk(final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue) {
+    private static Walk buildWalk(final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue) {
         final Walk.Builder builder = new Walk.Builder();
 
         final Iterator<Set<Edge>> edgeIterator = edgeQueue.iterator();
@@ -336,4 +422,119 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
             );
         }
     }
+
+    /**
+     * Lazily constructs the {@link Walk}s from each of the seeds, using an
+     * iterative depth-first search of the {@link GraphWindow}.
+     */
+    private static final class WalkIterable implements CloseableIterable<Walk> {
+        private final List<EntityId> seeds;
+        private final GraphWindow graphWindow;
+        private final int hops;
+        private final boolean includePartial;
+
+        private WalkIterable(final List<EntityId> seeds, final GraphWindow graphWindow, final int hops, final boolean includePartial) {
+            this.seeds = seeds;
+            this.graphWindow = graphWindow;
+            this.hops = hops;
+            this.includePartial = includePartial;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close
+        }
+
+        @Override
+        public CloseableIterator<Walk> iterator() {
+            return new WalkIterator();
+        }
+
+        private final class WalkIterator implements CloseableIterator<Walk> {
+            private final Iterator<EntityId> seedIterator = seeds.iterator();
+            private final LinkedList<Object> vertexQueue = new LinkedList<>();
+            private final LinkedList<Iterator<Object>> destinationQueue = new LinkedList<>();
+            private final LinkedList<Set<Edge>> edgeQueue = new LinkedList<>();
+            private final LinkedList<Set<Entity>> entityQueue = new LinkedList<>();
+            private Walk next;
+
+            @Override
+            public boolean hasNext() {
+                if (null == next) {
+                    next = computeNext();
+                }
+                return null != next;
+            }
+
+            @Override
+            public Walk next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Walk walk = next;
+                next = null;
+                return walk;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to close
+            }
+
+            private Walk computeNext() {
+                while (true) {
+                    final Walk walk;
+                    if (destinationQueue.isEmpty()) {
+                        if (!seedIterator.hasNext()) {
+                            return null;
+                        }
+                        walk = visit(seedIterator.next().getVertex(), null);
+                    } else if (destinationQueue.getLast().hasNext()) {
+                        walk = visit(destinationQueue.getLast().next(), vertexQueue.getLast());
+                    } else {
+                        destinationQueue.pollLast();
+                        leave();
+                        walk = null;
+                    }
+
+                    if (null != walk) {
+                        return walk;
+                    }
+                }
+            }
+
+            // Visits a vertex, returning a walk if the vertex completes one.
+            // If the walk continues past the vertex, the destinations of the
+            // vertex are queued to be visited.
+            private Walk visit(final Object curr, final Object prev) {
+                if (null != prev) {
+                    edgeQueue.offer(graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getEdges(prev, curr));
+                }
+                entityQueue.offer(graphWindow.getEntityMaps().get(entityQueue.size()).get(curr));
+                vertexQueue.offer(curr);
+
+                if (hops == edgeQueue.size()) {
+                    final Walk walk = buildWalk(edgeQueue, entityQueue);
+                    leave();
+                    return walk;
+                }
+
+                final Set<Object> dests = graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getDestinations(curr);
+                if (dests.isEmpty()) {
+                    final Walk walk = includePartial ? buildWalk(edgeQueue, entityQueue) : null;
+                    leave();
+                    return walk;
+                }
+
+                destinationQueue.offer(dests.iterator());
+                return null;
+            }
+
+            private void leave() {
+                edgeQueue.pollLast();
+                entityQueue.pollLast();
+                vertexQueue.pollLast();
+            }
+        }
+    }
 }
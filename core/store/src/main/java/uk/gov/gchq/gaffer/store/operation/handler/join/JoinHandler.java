@@ -17,19 +17,32 @@
 package uk.gov.gchq.gaffer.store.operation.handler.join;
 
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
+import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinFunction;
+import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinStrategy;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.join.match.KeyFunctionMatch;
+import uk.gov.gchq.gaffer.store.operation.handler.join.match.SortedKeyFunctionMatch;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.getResultsOrNull;
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.updateOperationInput;
@@ -70,16 +83,167 @@ public class JoinHandler<I> implements OutputOperationHandler<Join<I>, Iterable<
                         context,
                         store);
 
-        final Iterable limitedLeftIterable;
-        final Iterable limitedRightIterable;
+        final JoinStrategy joinStrategy = null != operation.getJoinStrategy() ? operation.getJoinStrategy() : JoinStrategy.IN_MEMORY;
+        if (JoinStrategy.IN_MEMORY != joinStrategy) {
+            return doStreamingJoin(operation, joinStrategy, joinFunction, matchKey, rightIterable, limit);
+        }
 
-        try {
-            limitedLeftIterable = new LimitedCloseableIterable(operation.getInput(), 0, limit, false);
-            limitedRightIterable = new LimitedCloseableIterable(rightIterable, 0, limit, false);
+        try (final CloseableIterable limitedLeftIterable = new LimitedCloseableIterable(operation.getInput(), 0, limit, false);
+             final CloseableIterable limitedRightIterable = new LimitedCloseableIterable(rightIterable, 0, limit, false)) {
             return joinFunction.join(limitedLeftIterable, limitedRightIterable, operation.getMatchMethod(), matchKey, operation.isFlatten());
         } catch (final LimitExceededException e) {
             throw new OperationException("Join exceeded the collectionLimit, a solution is to increasing collectionLimit value in the join operation.", e);
         }
 
     }
+
+    private Iterable<? extends MapTuple> doStreamingJoin(final Join<I> operation,
+                                                         final JoinStrategy joinStrategy,
+                                                         final JoinFunction joinFunction,
+                                                         final MatchKey operationMatchKey,
+                                                         final Iterable<I> rightIterable,
+                                                         final int limit) throws OperationException {
+        Match match = operation.getMatchMethod();
+        if (JoinStrategy.STREAMING_SORTED == joinStrategy) {
+            if (!(match instanceof KeyFunctionMatch)) {
+                throw new OperationException("The " + JoinStrategy.STREAMING_SORTED + " join strategy requires a " + KeyFunctionMatch.class.getSimpleName());
+            }
+            final KeyFunctionMatch keyFunctionMatch = (KeyFunctionMatch) match;
+            match = new SortedKeyFunctionMatch(keyFunctionMatch.getFirstKeyFunction(), keyFunctionMatch.getSecondKeyFunction());
+        }
+
+        MatchKey matchKey = operationMatchKey;
+        final CloseableIterable<?> left = new WrappedCloseableIterable<>(operation.getInput());
+        final CloseableIterable<?> right = new WrappedCloseableIterable<>(rightIterable);
+        final CloseableIterable<?> matchSide = MatchKey.LEFT == matchKey ? right : left;
+        CloseableIterable<?> keys = MatchKey.LEFT == matchKey ? left : right;
+        boolean streaming = false;
+        try {
+            // Only the matching side is read into memory, so only that side is limited
+            List<?> matchCandidates;
+            try (final CloseableIterable<?> limitedMatchCandidates = new LimitedCloseableIterable<>(matchSide, 0, limit, false)) {
+                matchCandidates = Lists.newArrayList(limitedMatchCandidates);
+            }
+
+            // Inner, flattened joins are symmetric, so for key function matches
+            // the smaller side can be indexed and the larger side streamed.
+            if (JoinType.INNER == operation.getJoinType() && operation.isFlatten() && match instanceof KeyFunctionMatch) {
+                final BufferedCloseableIterable<?> bufferedKeys = new BufferedCloseableIterable<>(keys, matchCandidates.size());
+                if (bufferedKeys.isFullyBuffered()) {
+                    final List<?> smallerSide = bufferedKeys.getBuffer();
+                    CloseableUtil.close(keys);
+                    keys = new WrappedCloseableIterable<>(matchCandidates);
+                    matchCandidates = smallerSide;
+                    matchKey = MatchKey.LEFT == matchKey ? MatchKey.RIGHT : MatchKey.LEFT;
+                    match = swapKeyFunctions((KeyFunctionMatch) match);
+                } else {
+                    keys = bufferedKeys;
+                }
+            }
+
+            final Iterable<MapTuple> joined = MatchKey.LEFT == matchKey
+                    ? joinFunction.streamingJoin(keys, matchCandidates, match, matchKey, operation.isFlatten())
+                    : joinFunction.streamingJoin(matchCandidates, keys, match, matchKey, operation.isFlatten());
+            streaming = true;
+            return new StreamingJoinIterable(joined, keys);
+        } catch (final LimitExceededException e) {
+            throw new OperationException("Join exceeded the collectionLimit, a solution is to increasing collectionLimit value in the join operation.", e);
+        } finally {
+            if (!streaming) {
+                CloseableUtil.close(left);
+                CloseableUtil.close(right);
+            }
+        }
+    }
+
+    private static KeyFunctionMatch swapKeyFunctions(final KeyFunctionMatch match) {
+        if (match instanceof SortedKeyFunctionMatch) {
+            return new SortedKeyFunctionMatch(match.getSecondKeyFunction(), match.getFirstKeyFunction());
+        }
+        return new KeyFunctionMatch(match.getSecondKeyFunction(), match.getFirstKeyFunction());
+    }
+
+    /**
+     * An iterable which reads up to a given number of items from another
+     * iterable into a buffer when it is created. If the iterable has fewer
+     * items it is fully buffered. Otherwise the first iterator returns the
+     * buffered items and then continues with the partly read iterator, so the
+     * wrapped iterable is only read once. Any further iterators read the
+     * wrapped iterable again.
+     */
+    private static final class BufferedCloseableIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> iterable;
+        private final List<T> buffer;
+        private CloseableIterator<T> remaining;
+
+        private BufferedCloseableIterable(final CloseableIterable<T> iterable, final int size) {
+            this.iterable = iterable;
+            this.buffer = new ArrayList<>();
+            final CloseableIterator<T> itr = iterable.iterator();
+            while (buffer.size() < size && itr.hasNext()) {
+                buffer.add(itr.next());
+            }
+            if (buffer.size() < size) {
+                CloseableUtil.close(itr);
+            } else {
+                remaining = itr;
+            }
+        }
+
+        private boolean isFullyBuffered() {
+            return null == remaining;
+        }
+
+        private List<T> getBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            if (null == remaining) {
+                return iterable.iterator();
+            }
+            final CloseableIterator<T> itr = remaining;
+            remaining = null;
+            return new WrappedCloseableIterator<T>(Iterators.concat(buffer.iterator(), itr)) {
+                @Override
+                public void close() {
+                    CloseableUtil.close(itr);
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (null != remaining) {
+                CloseableUtil.close(remaining);
+                remaining = null;
+            }
+            CloseableUtil.close(iterable);
+        }
+    }
+
+    /**
+     * The lazily joined tuples of a streaming join. Closing this closes the
+     * streamed side of the join.
+     */
+    private static final class StreamingJoinIterable implements CloseableIterable<MapTuple> {
+        private final Iterable<MapTuple> joined;
+        private final CloseableIterable<?> streamedSide;
+
+        private StreamingJoinIterable(final Iterable<MapTuple> joined, final CloseableIterable<?> streamedSide) {
+            this.joined = joined;
+            this.streamedSide = streamedSide;
+        }
+
+        @Override
+        public CloseableIterator<MapTuple> iterator() {
+            return new WrappedCloseableIterator<>(joined.iterator());
+        }
+
+        @Override
+        public void close() {
+            streamedSide.close();
+        }
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.join.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@code SortedKeyFunctionMatch} is a {@link KeyFunctionMatch} which indexes
+ * the match candidates in arrays sorted by key, rather than in a hash table of
+ * lists. Matches are found using a binary search. This uses significantly less
+ * memory when there are many match candidates.
+ * <p>
+ * Keys are considered equal if they compare as equal. If the keys are not all
+ * {@link Comparable} with each other, for example if they are of mixed types,
+ * the candidates are indexed in a hash table as a {@link KeyFunctionMatch}
+ * would, and keys are considered equal if they are equal.
+ */
+public class SortedKeyFunctionMatch extends KeyFunctionMatch {
+    private static final Comparator<Object> KEY_COMPARATOR = Comparator.nullsFirst((a, b) -> ((Comparable) a).compareTo(b));
+
+    private Object[] sortedKeys = new Object[0];
+    private Object[] sortedCandidates = new Object[0];
+    private boolean hashed;
+
+    public SortedKeyFunctionMatch() {
+        super();
+    }
+
+    public SortedKeyFunctionMatch(final Function firstKeyFunction, final Function secondKeyFunction) {
+        super(firstKeyFunction, secondKeyFunction);
+    }
+
+    @Override
+    public void init(final Iterable matchCandidates) {
+        if (null == matchCandidates) {
+            throw new IllegalArgumentException("Iterable of match candidates cannot be null");
+        }
+
+        hashed = false;
+        final List<Object[]> keyedCandidates = new ArrayList<>();
+        boolean comparable = true;
+        for (final Object matchCandidate : matchCandidates) {
+            final Object key = getSecondKeyFunction().apply(matchCandidate);
+            comparable = comparable && (null == key || key instanceof Comparable);
+            keyedCandidates.add(new Object[]{key, matchCandidate});
+        }
+
+        // The sort is stable, so matches are returned in the order of the candidates
+        final Object[][] sorted = keyedCandidates.toArray(new Object[0][]);
+        if (comparable) {
+            try {
+                Arrays.sort(sorted, (a, b) -> KEY_COMPARATOR.compare(a[0], b[0]));
+            } catch (final ClassCastException e) {
+                comparable = false;
+            }
+        }
+
+        if (!comparable) {
+            final List<Object> candidates = new ArrayList<>(keyedCandidates.size());
+            for (final Object[] keyedCandidate : keyedCandidates) {
+                candidates.add(keyedCandidate[1]);
+            }
+            initHashIndex(candidates);
+            return;
+        }
+
+        sortedKeys = new Object[sorted.length];
+        sortedCandidates = new Object[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sortedKeys[i] = sorted[i][0];
+            sortedCandidates[i] = sorted[i][1];
+        }
+    }
+
+    @Override
+    public List matching(final Object testObject) {
+        if (hashed) {
+            return super.matching(testObject);
+        }
+
+        if (null == getFirstKeyFunction() || null == getSecondKeyFunction()) {
+            throw new IllegalArgumentException("Key functions for left and right input cannot be null");
+        }
+
+        final Object testObjectKey = getFirstKeyFunction().apply(testObject);
+        final List matches = new ArrayList<>();
+        if (null != testObjectKey && !(testObjectKey instanceof Comparable)) {
+            return matches;
+        }
+
+        try {
+            for (int i = lowerBound(testObjectKey); i < sortedKeys.length && 0 == KEY_COMPARATOR.compare(sortedKeys[i], testObjectKey); i++) {
+                matches.add(sortedCandidates[i]);
+            }
+        } catch (final ClassCastException e) {
+            // The key cannot be compared with the keys of the candidates
+            initHashIndex(Arrays.asList(sortedCandidates));
+            return super.matching(testObject);
+        }
+        return matches;
+    }
+
+    /**
+     * Indexes the candidates in a hash table, using {@link KeyFunctionMatch},
+     * for keys that cannot be sorted. Candidates with equal keys must be
+     * given in candidate order.
+     */
+    private void initHashIndex(final List<Object> candidates) {
+        sortedKeys = new Object[0];
+        sortedCandidates = new Object[0];
+        hashed = true;
+        super.init(candidates);
+    }
+
+    private int lowerBound(final Object key) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (KEY_COMPARATOR.compare(sortedKeys[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -45,7 +45,6 @@ import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -53,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
@@ -81,19 +81,25 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
 
     protected ElementFilter validator;
 
-    protected ElementFilter fullValidatorCache;
+    /*
+     * The caches below are created lazily and may be shared between threads,
+     * for example by Accumulo iterators using a cached schema. Each value is
+     * fully built and locked before it is published through a volatile field
+     * or the concurrent map.
+     */
+    protected volatile ElementFilter fullValidatorCache;
 
-    protected ElementFilter fullValidatorWithIsACache;
+    protected volatile ElementFilter fullValidatorWithIsACache;
 
     protected ElementAggregator aggregator;
 
-    protected Set<String> propertiesInAggregatorCache;
+    protected volatile Set<String> propertiesInAggregatorCache;
 
-    protected ElementAggregator fullAggregatorCache;
+    protected volatile ElementAggregator fullAggregatorCache;
 
-    protected ElementAggregator ingestAggregatorCache;
+    protected volatile ElementAggregator ingestAggregatorCache;
 
-    protected final Map<Set<String>, ElementAggregator> queryAggregatorCacheMap = new HashMap<>();
+    protected final Map<Set<String>, ElementAggregator> queryAggregatorCacheMap = new ConcurrentHashMap<>();
 
     protected Schema schemaReference;
 
@@ -197,69 +203,75 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
 
     @JsonIgnore
     public ElementAggregator getFullAggregator() {
-        if (null == fullAggregatorCache) {
-            createFullAggregator();
+        final ElementAggregator fullAggregator = fullAggregatorCache;
+        if (null != fullAggregator) {
+            return fullAggregator;
         }
-        return fullAggregatorCache;
+        return createFullAggregator();
     }
 
     @JsonIgnore
-    private synchronized void createFullAggregator() {
+    private synchronized ElementAggregator createFullAggregator() {
+        // NB Need to check if fullAggregatorCache is null again as there may be two calls to createFullAggregator
+        // in sequence and we don't want to repeat the work of creating the aggregator
         if (null == fullAggregatorCache) {
-            // NB Need to check if fullAggregatorCache is null again as there may be two calls to createFullAggregator
-            // in sequence and we don't want to repeat the work of creating the aggregator
-            fullAggregatorCache = new ElementAggregator();
+            final ElementAggregator fullAggregator = new ElementAggregator();
             if (aggregate) {
                 if (null != aggregator) {
-                    fullAggregatorCache.getComponents().addAll(aggregator.getComponents());
+                    fullAggregator.getComponents().addAll(aggregator.getComponents());
                 }
                 final Set<String> aggregatorProperties = getAggregatorProperties();
                 for (final Entry<String, String> entry : getPropertyMap().entrySet()) {
                     if (!aggregatorProperties.contains(entry.getKey())) {
-                        addTypeAggregateFunction(fullAggregatorCache, entry.getKey(), entry.getValue());
+                        addTypeAggregateFunction(fullAggregator, entry.getKey(), entry.getValue());
                     }
                 }
             }
-            fullAggregatorCache.lock();
+            fullAggregator.lock();
+            fullAggregatorCache = fullAggregator;
         }
+        return fullAggregatorCache;
     }
 
     @JsonIgnore
     public ElementAggregator getIngestAggregator() {
-        if (null == ingestAggregatorCache) {
-            createIngestAggregator();
+        final ElementAggregator ingestAggregator = ingestAggregatorCache;
+        if (null != ingestAggregator) {
+            return ingestAggregator;
         }
-        return ingestAggregatorCache;
+        return createIngestAggregator();
     }
 
     @JsonIgnore
-    private synchronized void createIngestAggregator() {
+    private synchronized ElementAggregator createIngestAggregator() {
+        // NB Need to check if ingestAggregatorCache is null again as there may be two calls to createIngestAggregator
+        // in sequence and we don't want to repeat the work of creating the aggregator
         if (null == ingestAggregatorCache) {
-            // NB Need to check if ingestAggregatorCache is null again as there may be two calls to createIngestAggregator
-            // in sequence and we don't want to repeat the work of creating the aggregator
-            ingestAggregatorCache = new ElementAggregator();
+            final ElementAggregator ingestAggregator = new ElementAggregator();
             if (aggregate) {
                 final Set<String> aggregatorProperties = getAggregatorProperties();
                 if (null != aggregator) {
                     for (final TupleAdaptedBinaryOperator<String, ?> component : aggregator.getComponents()) {
                         final String[] selection = component.getSelection();
                         if (selection.length == 1 && !groupBy.contains(selection[0]) && !selection[0].equals(schemaReference.getVisibilityProperty())) {
-                            ingestAggregatorCache.getComponents().add(component);
+                            ingestAggregator.getComponents().add(component);
                         } else if (!CollectionUtil.containsAny(groupBy, selection)) {
-                            ingestAggregatorCache.getComponents().add(component);
+                            ingestAggregator.getComponents().add(component);
                         }
                     }
                 }
                 for (final Entry<String, String> entry : getPropertyMap().entrySet()) {
                     if (!aggregatorProperties.contains(entry.getKey())) {
                         if (!groupBy.contains(entry.getKey()) && !entry.getKey().equals(schemaReference.getVisibilityProperty())) {
-                            addTypeAggregateFunction(ingestAggregatorCache, entry.getKey(), entry.getValue());
+                            addTypeAggregateFunction(ingestAggregator, entry.getKey(), entry.getValue());
                         }
                     }
                 }
             }
-            ingestAggregatorCache.lock();
+            ingestAggregator.lock();
+            ingestAggregatorCache = ingestAggregator;
         }
+        return ingestAggregatorCache;
     }
 
     @JsonIgnore
@@ -272,17 +284,14 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
 
     @JsonIgnore
     private ElementAggregator getQueryAggregatorForNullViewAggregator(final Set<String> viewGroupBy) {
-        if (null == queryAggregatorCacheMap.get(viewGroupBy))  {
-            populateQueryAggregatorCache(viewGroupBy);
-        }
-        return queryAggregatorCacheMap.get(viewGroupBy);
-    }
-
-    @JsonIgnore
-    private synchronized void populateQueryAggregatorCache(final Set<String> viewGroupBy) {
-        if (null == queryAggregatorCacheMap.get(viewGroupBy)) {
-           queryAggregatorCacheMap.put(viewGroupBy, createQueryAggregator(viewGroupBy, null));
+        // A null view groupBy means the schema groupBy is used. The concurrent
+        // map does not allow null keys, so the aggregator is created each time
+        // if neither is set.
+        final Set<String> mergedGroupBy = null == viewGroupBy ? groupBy : viewGroupBy;
+        if (null == mergedGroupBy) {
+            return createQueryAggregator(null, null);
         }
+        return queryAggregatorCacheMap.computeIfAbsent(mergedGroupBy, key -> createQueryAggregator(key, null));
     }
 
     @JsonIgnore
@@ -577,17 +586,20 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
     }
 
     private Set<String> getAggregatorProperties() {
-        if (null == propertiesInAggregatorCache) {
+        Set<String> aggregatorProperties = propertiesInAggregatorCache;
+        if (null == aggregatorProperties) {
             if (null == aggregator) {
-                propertiesInAggregatorCache = Collections.emptySet();
+                aggregatorProperties = Collections.emptySet();
             } else {
-                propertiesInAggregatorCache = new HashSet<>();
+                final Set<String> properties = new HashSet<>();
                 for (final TupleAdaptedBinaryOperator<String, ?> component : aggregator.getComponents()) {
-                    Collections.addAll(propertiesInAggregatorCache, component.getSelection());
+                    Collections.addAll(properties, component.getSelection());
                 }
+                aggregatorProperties = Collections.unmodifiableSet(properties);
             }
+            propertiesInAggregatorCache = aggregatorProperties;
         }
-        return propertiesInAggregatorCache;
+        return aggregatorProperties;
     }
 
     protected abstract static class BaseBuilder<ELEMENT_DEF extends SchemaElementDefinition,
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+
+/**
+ * Utility methods for running tasks on a store's shared operation executor,
+ * see {@link uk.gov.gchq.gaffer.store.Store#getOperationExecutor()}.
+ * <p>
+ * The executor has a bounded number of threads, and tasks may themselves
+ * submit tasks and wait for them, for example a ForEach running GetWalks
+ * operations. To avoid deadlocks when every thread is waiting, a thread
+ * waiting for a task using {@link #get(Future)} runs the task itself if no
+ * thread has started it yet.
+ */
+public final class ExecutorUtil {
+    private ExecutorUtil() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Submits a task to an executor. If the executor rejects the task, for
+     * example because it has been shut down, the task is left to be run by
+     * the thread that waits for it.
+     *
+     * @param executor the executor to run the task
+     * @param task     the task to run
+     * @param <T>      the type of the task's result
+     * @return the future result of the task
+     */
+    public static <T> Future<T> submit(final Executor executor, final Callable<T> task) {
+        final RunnableFuture<T> future = new FutureTask<>(task);
+        try {
+            executor.execute(future);
+        } catch (final RejectedExecutionException e) {
+            // The task is run by the thread calling get
+        }
+        return future;
+    }
+
+    /**
+     * Waits for a task submitted using {@link #submit(Executor, Callable)}
+     * and returns its result. If the task has not been started by the
+     * executor it is run on the calling thread.
+     *
+     * @param future the future result of the task
+     * @param <T>    the type of the task's result
+     * @return the result of the task
+     * @throws InterruptedException if the calling thread is interrupted whilst waiting
+     * @throws ExecutionException   if the task failed
+     */
+    public static <T> T get(final Future<T> future) throws InterruptedException, ExecutionException {
+        if (future instanceof RunnableFuture && !future.isDone()) {
+            // This does nothing if the task has already been started
+            ((RunnableFuture<T>) future).run();
+        }
+        return future.get();
+    }
+}
@@ -17,27 +17,46 @@
 package uk.gov.gchq.gaffer.store.operation.handler;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
+import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.ForEach;
+import uk.gov.gchq.gaffer.operation.impl.If;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.export.set.ExportToSet;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.operation.io.InputOutput;
+import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 public class ForEachHandlerTest {
+    private static final Executor EXECUTOR = Executors.newCachedThreadPool();
 
     @Test
     public void shouldThrowExceptionWithNullOperation() {
@@ -108,4 +127,232 @@ public class ForEachHandlerTest {
         assertEquals(1, result.size());
         assertSame(output, result.get(0));
     }
+
+    @Test
+    public void shouldExecuteConcurrentlyAndReturnResultsInInputOrder() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            allStarted.countDown();
+            if (!allStarted.await(10, TimeUnit.SECONDS)) {
+                throw new OperationException("Operations were not executed concurrently");
+            }
+            final Iterable<?> input = ((Limit<?>) invocation.getArgument(0)).getInput();
+            return (Iterable<Object>) () -> (Iterator<Object>) input.iterator();
+        });
+
+        final ForEach<Iterable<String>, Iterable<String>> forEach = new ForEach.Builder<Iterable<String>, Iterable<String>>()
+                .input(Arrays.asList(Arrays.asList("1"), Arrays.asList("2"), Arrays.asList("3")))
+                .operation(new Limit<>(10))
+                .build();
+
+        final ForEachHandler<Iterable<String>, Iterable<String>> handler = new ForEachHandler<>();
+        handler.setThreads(3);
+
+        // When
+        final Iterable<? extends Iterable<String>> result = handler.doOperation(forEach, context, store);
+
+        // Then
+        assertEquals(Arrays.asList(Arrays.asList("1"), Arrays.asList("2"), Arrays.asList("3")), result);
+    }
+
+    @Test
+    public void shouldExecuteEachConcurrentOperationWithItsOwnContext() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final User user = new User();
+        final Context context = new Context(user);
+        final Set<Context> contexts = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            contexts.add(invocation.getArgument(1));
+            return Collections.emptyList();
+        });
+
+        final ForEach<Iterable<String>, Iterable<String>> forEach = new ForEach.Builder<Iterable<String>, Iterable<String>>()
+                .input(Arrays.asList(Arrays.asList("1"), Arrays.asList("2"), Arrays.asList("3")))
+                .operation(new Limit<>(10))
+                .build();
+
+        final ForEachHandler<Iterable<String>, Iterable<String>> handler = new ForEachHandler<>();
+        handler.setThreads(3);
+
+        // When
+        handler.doOperation(forEach, context, store);
+
+        // Then
+        assertEquals(3, contexts.size());
+        for (final Context executedContext : contexts) {
+            assertNotSame(context, executedContext);
+            assertSame(user, executedContext.getUser());
+        }
+    }
+
+    @Test
+    public void shouldCancelRunningOperationsWhenOneFails() throws OperationException, InterruptedException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final CountDownLatch blockedStarted = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final Iterable<?> input = ((Limit<?>) invocation.getArgument(0)).getInput();
+            if ("fail".equals(input.iterator().next())) {
+                blockedStarted.await(10, TimeUnit.SECONDS);
+                throw new OperationException("Failed");
+            }
+            blockedStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+            }
+            return input;
+        });
+
+        final ForEach<Iterable<String>, Iterable<String>> forEach = new ForEach.Builder<Iterable<String>, Iterable<String>>()
+                .input(Arrays.asList(Arrays.asList("block"), Arrays.asList("fail")))
+                .operation(new Limit<>(10))
+                .build();
+
+        final ForEachHandler<Iterable<String>, Iterable<String>> handler = new ForEachHandler<>();
+        handler.setThreads(2);
+
+        // When / Then
+        try {
+            handler.doOperation(forEach, context, store);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Failed", e.getMessage());
+        }
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldExecuteInTurnWhenOperationsExportResults() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final Set<Thread> threads = new HashSet<>();
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return null;
+        });
+
+        final ForEach<Iterable<String>, Object> forEach = new ForEach.Builder<Iterable<String>, Object>()
+                .input(Arrays.asList(Arrays.asList("1"), Arrays.asList("2")))
+                .operation(new OperationChain.Builder()
+                        .first(new Limit<>(10))
+                        .then(new ExportToSet<>())
+                        .build())
+                .build();
+
+        final ForEachHandler<Iterable<String>, Object> handler = new ForEachHandler<>();
+        handler.setThreads(2);
+
+        // When
+        handler.doOperation(forEach, context, store);
+
+        // Then
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void shouldExecuteInTurnWhenOperationIsNotKnownToBeReadOnly() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final Set<Thread> threads = new HashSet<>();
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return null;
+        });
+
+        final ForEach<Iterable<String>, Object> forEach = new ForEach.Builder<Iterable<String>, Object>()
+                .input(Arrays.asList(Arrays.asList("1"), Arrays.asList("2")))
+                .operation(new ExportToSet<>())
+                .build();
+
+        final ForEachHandler<Iterable<String>, Object> handler = new ForEachHandler<>();
+        handler.setThreads(2);
+
+        // When
+        handler.doOperation(forEach, context, store);
+
+        // Then
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void shouldExecuteInTurnWhenConditionalOperationExportsResults() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final Set<Thread> threads = new HashSet<>();
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return null;
+        });
+
+        final ForEach<Iterable<String>, Object> forEach = new ForEach.Builder<Iterable<String>, Object>()
+                .input(Arrays.asList(Arrays.asList("1"), Arrays.asList("2")))
+                .operation(new If.Builder<Object, Object>()
+                        .condition(true)
+                        .then(new ExportToSet<>())
+                        .otherwise(new Limit<>(10))
+                        .build())
+                .build();
+
+        final ForEachHandler<Iterable<String>, Object> handler = new ForEachHandler<>();
+        handler.setThreads(2);
+
+        // When
+        handler.doOperation(forEach, context, store);
+
+        // Then
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
+
+    @Test
+    @Timeout(10)
+    public void shouldNotDeadlockWhenSharedExecutorHasNoFreeThreads() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        given(store.getOperationExecutor()).willReturn(executor);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation ->
+                ((Limit<?>) invocation.getArgument(0)).getInput());
+
+        final ForEach<Iterable<String>, Iterable<String>> forEach = new ForEach.Builder<Iterable<String>, Iterable<String>>()
+                .input(Arrays.asList(Arrays.asList("1"), Arrays.asList("2"), Arrays.asList("3")))
+                .operation(new Limit<>(10))
+                .build();
+
+        final ForEachHandler<Iterable<String>, Iterable<String>> handler = new ForEachHandler<>();
+        handler.setThreads(2);
+
+        // When
+        try {
+            final Iterable<? extends Iterable<String>> result = handler.doOperation(forEach, context, store);
+
+            // Then
+            assertEquals(Arrays.asList(Arrays.asList("1"), Arrays.asList("2"), Arrays.asList("3")), result);
+        } finally {
+            blocked.countDown();
+            executor.shutdownNow();
+        }
+    }
 }
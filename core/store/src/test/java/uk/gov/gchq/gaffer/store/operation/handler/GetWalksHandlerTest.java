@@ -17,22 +17,52 @@
 package uk.gov.gchq.gaffer.store.operation.handler;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.graph.Walk;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.GetWalks;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToEntitySeeds;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 public class GetWalksHandlerTest {
+    private static final Executor EXECUTOR = ForkJoinPool.commonPool();
+
     @Test
     public void shouldHandleNullInput() throws Exception {
         // Given
@@ -67,4 +97,99 @@ public class GetWalksHandlerTest {
         // Then
         assertNotNull(deserialisedObj);
     }
+
+    @Test
+    public void shouldReturnTheSameWalksWhenSeedsAreQueriedInParallelBatches() throws Exception {
+        // Given
+        final GetWalks operation = getWalksOperation();
+        final Store store = getStore(new ArrayList<>());
+        final GetWalksHandler batchedHandler = new GetWalksHandler();
+        batchedHandler.setBatchSize(1);
+        batchedHandler.setThreads(4);
+
+        // When
+        final List<Walk> expected = Lists.newArrayList(new GetWalksHandler().doOperation(operation, new Context(new User()), store));
+        final List<Walk> result = Lists.newArrayList(batchedHandler.doOperation(operation, new Context(new User()), store));
+
+        // Then
+        assertThat(expected.size(), is(2));
+        assertThat(result, is(expected));
+    }
+
+    @Test
+    public void shouldRemoveDuplicateSeedsBetweenHops() throws Exception {
+        // Given
+        final GetWalks operation = getWalksOperation();
+        final List<Object> queriedSeeds = new ArrayList<>();
+        final Store store = getStore(queriedSeeds);
+
+        // When
+        Lists.newArrayList(new GetWalksHandler().doOperation(operation, new Context(new User()), store));
+
+        // Then
+        assertThat(queriedSeeds, is(Arrays.asList("A", "B", "C", "D")));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenBatchedResultsExceedTheLimit() throws Exception {
+        // Given
+        final GetWalks operation = getWalksOperation();
+        operation.setInput(Arrays.asList(new EntitySeed("A"), new EntitySeed("B"), new EntitySeed("C")));
+        // Each batch returns at most 3 edges, but the 3 batches return 5 in total
+        operation.setResultsLimit(3);
+        final List<Object> queriedSeeds = new ArrayList<>();
+        final Store store = getStore(queriedSeeds);
+        final GetWalksHandler handler = new GetWalksHandler();
+        handler.setBatchSize(1);
+        handler.setThreads(2);
+
+        // When / Then
+        assertThrows(LimitExceededException.class, () -> handler.doOperation(operation, new Context(new User()), store));
+        assertThat(queriedSeeds.contains("A"), is(true));
+    }
+
+    private static GetWalks getWalksOperation() {
+        final GetElements getElements = new GetElements.Builder()
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+        return new GetWalks.Builder()
+                .input(new EntitySeed("A"))
+                .operations(getElements, getElements.shallowClone())
+                .build();
+    }
+
+    // Creates a store containing the edges A-B, A-C, A-D, B-D and C-D, which
+    // records the seeds it is queried with.
+    private static Store getStore(final List<Object> queriedSeeds) throws OperationException {
+        final Map<Object, List<Object>> adjacentVertices = new HashMap<>();
+        adjacentVertices.put("A", Arrays.asList("B", "C", "D"));
+        adjacentVertices.put("B", Collections.singletonList("D"));
+        adjacentVertices.put("C", Collections.singletonList("D"));
+
+        final Store store = mock(Store.class);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final OperationChain<?> chain = invocation.getArgument(0);
+            final List<Element> results = new ArrayList<>();
+            for (final Object input : ((ToEntitySeeds) chain.getOperations().get(0)).getInput()) {
+                final Object seed = input instanceof EntityId ? ((EntityId) input).getVertex() : input;
+                synchronized (queriedSeeds) {
+                    queriedSeeds.add(seed);
+                }
+                for (final Object dest : adjacentVertices.getOrDefault(seed, Collections.emptyList())) {
+                    results.add(new Edge.Builder()
+                            .group(TestGroups.EDGE)
+                            .source(seed)
+                            .dest(dest)
+                            .directed(true)
+                            .matchedVertex(EdgeId.MatchedVertex.SOURCE)
+                            .build());
+                }
+            }
+            return new WrappedCloseableIterable<>(results);
+        });
+        return store;
+    }
 }
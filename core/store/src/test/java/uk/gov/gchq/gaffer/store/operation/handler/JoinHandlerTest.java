@@ -16,26 +16,39 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterables;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
+import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinStrategy;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
+import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.join.JoinHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.join.match.ElementMatch;
 import uk.gov.gchq.gaffer.store.operation.handler.join.match.KeyFunctionMatch;
 import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 public class JoinHandlerTest {
@@ -104,4 +117,206 @@ public class JoinHandlerTest {
             assertEquals("A match method must be supplied", e.getMessage());
         }
     }
+
+    @Test
+    public void shouldReturnSameResultsForAllJoinStrategies() throws OperationException {
+        // Given
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        final List<Integer> left = Arrays.asList(1, 2, 3, 3, 4);
+        final List<Integer> right = Arrays.asList(2, 3, 5);
+        given(store.execute(any(Output.class), any(Context.class))).willReturn(right);
+
+        for (final JoinType joinType : JoinType.values()) {
+            for (final MatchKey matchKey : MatchKey.values()) {
+                for (final boolean flatten : Arrays.asList(true, false)) {
+                    final List<Map> expected = getJoinResults(handler, left, joinType, matchKey, flatten, JoinStrategy.IN_MEMORY);
+
+                    for (final JoinStrategy joinStrategy : Arrays.asList(JoinStrategy.STREAMING_HASH, JoinStrategy.STREAMING_SORTED)) {
+                        // When
+                        final List<Map> actual = getJoinResults(handler, left, joinType, matchKey, flatten, joinStrategy);
+
+                        // Then
+                        assertEquals(HashMultiset.create(expected), HashMultiset.create(actual),
+                                joinType + " " + matchKey + " " + flatten + " " + joinStrategy);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldOnlyLimitTheMatchedSideWhenStreaming() throws OperationException {
+        // Given
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        given(store.execute(any(Output.class), any(Context.class))).willReturn(Arrays.asList(1, 2));
+
+        final Join<Integer> joinOp = new Join.Builder<Integer>()
+                .input(Arrays.asList(1, 2, 3, 4, 5))
+                .operation(new GetAllElements())
+                .joinType(JoinType.OUTER)
+                .matchKey(MatchKey.LEFT)
+                .matchMethod(new KeyFunctionMatch())
+                .joinStrategy(JoinStrategy.STREAMING_HASH)
+                .collectionLimit(2)
+                .build();
+
+        // When
+        final Iterable<? extends MapTuple> results = handler.doOperation(joinOp, context, store);
+
+        // Then
+        assertEquals(3, Iterables.size(results));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenSortedStrategyIsUsedWithoutKeyFunctionMatch() {
+        // Given
+        final JoinHandler<Object> handler = new JoinHandler<>();
+
+        final Join<Object> joinOp = new Join.Builder<>()
+                .input(Arrays.asList(1, 2, 3))
+                .joinType(JoinType.FULL)
+                .matchKey(MatchKey.LEFT)
+                .matchMethod(new ElementMatch())
+                .joinStrategy(JoinStrategy.STREAMING_SORTED)
+                .build();
+
+        // When / Then
+        try {
+            handler.doOperation(joinOp, context, store);
+            fail("exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains(KeyFunctionMatch.class.getSimpleName()));
+        }
+    }
+
+    @Test
+    public void shouldCloseInputsOfStreamingJoin() throws OperationException {
+        // Given
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        final TrackedCloseableIterable<Integer> left = new TrackedCloseableIterable<>(Arrays.asList(1, 2, 3));
+        final TrackedCloseableIterable<Integer> right = new TrackedCloseableIterable<>(Arrays.asList(2, 3, 4));
+        given(store.execute(any(Output.class), any(Context.class))).willReturn(right);
+
+        final Join<Integer> joinOp = new Join.Builder<Integer>()
+                .input(left)
+                .operation(new GetAllElements())
+                .joinType(JoinType.FULL)
+                .matchKey(MatchKey.LEFT)
+                .matchMethod(new KeyFunctionMatch())
+                .joinStrategy(JoinStrategy.STREAMING_HASH)
+                .build();
+
+        // When
+        final Iterable<? extends MapTuple> results = handler.doOperation(joinOp, context, store);
+
+        // Then - the matched side is read into memory and closed straight away
+        assertTrue(right.closed);
+        assertFalse(left.closed);
+        assertEquals(3, Iterables.size(results));
+        ((CloseableIterable) results).close();
+        assertTrue(left.closed);
+    }
+
+    @Test
+    public void shouldJoinSmallerSideOfUnsizedInputsWhenStreaming() throws OperationException {
+        // Given
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        final List<Integer> left = Arrays.asList(1, 2, 3, 3, 4, 5, 6);
+        final List<Integer> right = Arrays.asList(2, 3);
+        given(store.execute(any(Output.class), any(Context.class))).willReturn(new TrackedCloseableIterable<>(right));
+
+        for (final MatchKey matchKey : MatchKey.values()) {
+            final List<Map> expected = getJoinResults(handler, left, JoinType.INNER, matchKey, true, JoinStrategy.IN_MEMORY);
+
+            // When
+            final Join<Integer> joinOp = new Join.Builder<Integer>()
+                    .input(new TrackedCloseableIterable<>(left))
+                    .operation(new GetAllElements())
+                    .joinType(JoinType.INNER)
+                    .matchKey(matchKey)
+                    .flatten(true)
+                    .matchMethod(new KeyFunctionMatch())
+                    .joinStrategy(JoinStrategy.STREAMING_HASH)
+                    .build();
+            final List<Map> actual = new ArrayList<>();
+            handler.doOperation(joinOp, context, store).forEach(tuple -> actual.add(tuple.getValues()));
+
+            // Then
+            assertEquals(HashMultiset.create(expected), HashMultiset.create(actual), matchKey.toString());
+        }
+    }
+
+    @Test
+    public void shouldReadEachInputOnceWhenFindingSmallerSideOfStreamingJoin() throws OperationException {
+        // Given
+        final JoinHandler<Integer> handler = new JoinHandler<>();
+        final List<Integer> smaller = Arrays.asList(2, 3);
+        final List<Integer> larger = Arrays.asList(1, 2, 3, 3, 4, 5, 6);
+
+        for (final MatchKey matchKey : MatchKey.values()) {
+            for (final boolean leftIsSmaller : Arrays.asList(true, false)) {
+                final TrackedCloseableIterable<Integer> left = new TrackedCloseableIterable<>(leftIsSmaller ? smaller : larger);
+                final TrackedCloseableIterable<Integer> right = new TrackedCloseableIterable<>(leftIsSmaller ? larger : smaller);
+                given(store.execute(any(Output.class), any(Context.class))).willReturn(right);
+
+                final Join<Integer> joinOp = new Join.Builder<Integer>()
+                        .input(left)
+                        .operation(new GetAllElements())
+                        .joinType(JoinType.INNER)
+                        .matchKey(matchKey)
+                        .flatten(true)
+                        .matchMethod(new KeyFunctionMatch())
+                        .joinStrategy(JoinStrategy.STREAMING_HASH)
+                        .build();
+
+                // When
+                final Iterable<? extends MapTuple> results = handler.doOperation(joinOp, context, store);
+
+                // Then
+                assertEquals(3, Iterables.size(results));
+                assertEquals(1, left.iterations, matchKey + ", left is smaller: " + leftIsSmaller);
+                assertEquals(1, right.iterations, matchKey + ", left is smaller: " + leftIsSmaller);
+            }
+        }
+    }
+
+    private List<Map> getJoinResults(final JoinHandler<Integer> handler, final List<Integer> left,
+                                     final JoinType joinType, final MatchKey matchKey, final boolean flatten,
+                                     final JoinStrategy joinStrategy) throws OperationException {
+        final Join<Integer> joinOp = new Join.Builder<Integer>()
+                .input(left)
+                .operation(new GetAllElements())
+                .joinType(joinType)
+                .matchKey(matchKey)
+                .flatten(flatten)
+                .matchMethod(new KeyFunctionMatch())
+                .joinStrategy(joinStrategy)
+                .build();
+
+        final List<Map> results = new ArrayList<>();
+        handler.doOperation(joinOp, context, store).forEach(tuple -> results.add(tuple.getValues()));
+        return results;
+    }
+
+    // A closeable iterable which is not a Collection, so its size is unknown
+    private static final class TrackedCloseableIterable<T> implements CloseableIterable<T> {
+        private final List<T> items;
+        private boolean closed;
+        private int iterations;
+
+        private TrackedCloseableIterable(final List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            iterations++;
+            return new WrappedCloseableIterator<>(items.iterator());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
 }
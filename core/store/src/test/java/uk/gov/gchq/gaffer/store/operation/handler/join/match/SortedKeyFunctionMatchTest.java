@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.operation.handler.join.match;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.impl.function.ToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SortedKeyFunctionMatchTest {
+
+    @Test
+    public void shouldMatchTheSameCandidatesAsKeyFunctionMatch() {
+        // Given
+        final List<Integer> candidates = Arrays.asList(5, 3, 1, 3, 9, 7, 3, 1);
+        final KeyFunctionMatch hashMatch = new KeyFunctionMatch();
+        final SortedKeyFunctionMatch sortedMatch = new SortedKeyFunctionMatch();
+        hashMatch.init(candidates);
+        sortedMatch.init(candidates);
+
+        for (int i = 0; i < 11; i++) {
+            // When
+            final List sortedMatches = sortedMatch.matching(i);
+
+            // Then
+            assertEquals(hashMatch.matching(i), sortedMatches);
+        }
+    }
+
+    @Test
+    public void shouldReturnMatchesInCandidateOrder() {
+        // Given
+        final SortedKeyFunctionMatch match = new SortedKeyFunctionMatch(new ToString(), new ToString());
+        match.init(Lists.newArrayList(1L, 2, "1", 1));
+
+        // When
+        final List matches = match.matching(1);
+
+        // Then
+        assertEquals(Lists.newArrayList(1L, "1", 1), matches);
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenNoCandidatesMatch() {
+        // Given
+        final SortedKeyFunctionMatch match = new SortedKeyFunctionMatch();
+        match.init(new ArrayList<>());
+
+        // When
+        final List matches = match.matching(1);
+
+        // Then
+        assertEquals(new ArrayList<>(), matches);
+    }
+
+    @Test
+    public void shouldMatchLikeKeyFunctionMatchWhenKeysAreNotComparable() {
+        // Given
+        final Object key = new Object();
+        final List<Object> candidates = Lists.newArrayList(key, 1, key);
+        final KeyFunctionMatch hashMatch = new KeyFunctionMatch();
+        final SortedKeyFunctionMatch sortedMatch = new SortedKeyFunctionMatch();
+        hashMatch.init(candidates);
+        sortedMatch.init(candidates);
+
+        // When / Then
+        assertEquals(hashMatch.matching(key), sortedMatch.matching(key));
+        assertEquals(hashMatch.matching(1), sortedMatch.matching(1));
+        assertEquals(Lists.newArrayList(key, key), sortedMatch.matching(key));
+    }
+
+    @Test
+    public void shouldMatchLikeKeyFunctionMatchWhenCandidateKeysHaveMixedTypes() {
+        // Given
+        final List<Object> candidates = Lists.newArrayList(1, "1", 2L, 1, "2");
+        final KeyFunctionMatch hashMatch = new KeyFunctionMatch();
+        final SortedKeyFunctionMatch sortedMatch = new SortedKeyFunctionMatch();
+        hashMatch.init(candidates);
+        sortedMatch.init(candidates);
+
+        for (final Object testObject : Arrays.asList(1, "1", 2L, 2, "2", "3")) {
+            // When / Then
+            assertEquals(hashMatch.matching(testObject), sortedMatch.matching(testObject));
+        }
+    }
+
+    @Test
+    public void shouldMatchLikeKeyFunctionMatchWhenTestKeyHasDifferentType() {
+        // Given
+        final List<Object> candidates = Lists.newArrayList(3, 1, 2, 1);
+        final KeyFunctionMatch hashMatch = new KeyFunctionMatch();
+        final SortedKeyFunctionMatch sortedMatch = new SortedKeyFunctionMatch();
+        hashMatch.init(candidates);
+        sortedMatch.init(candidates);
+
+        for (final Object testObject : Arrays.asList("1", 1, 1L, 2, 4)) {
+            // When / Then
+            assertEquals(hashMatch.matching(testObject), sortedMatch.matching(testObject));
+        }
+    }
+}
@@ -33,14 +33,23 @@ import uk.gov.gchq.koryphe.impl.predicate.Exists;
 import uk.gov.gchq.koryphe.impl.predicate.IsA;
 import uk.gov.gchq.koryphe.impl.predicate.IsXMoreThanY;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
@@ -751,6 +760,51 @@ public abstract class SchemaElementDefinitionTest<T extends SchemaElementDefinit
         assertSame(aggregator, elementDef.getQueryAggregator(Sets.newHashSet(), null));
     }
 
+    @Test
+    public void shouldReturnTheSameLockedAggregatorsWhenCalledConcurrently() throws Exception {
+        // Given
+        final T elementDef = createBuilder()
+                .property("property1", PROPERTY_STRING_TYPE)
+                .property("property2", PROPERTY_STRING_TYPE)
+                .groupBy("property1")
+                .build();
+        setupSchema(elementDef);
+
+        final int numThreads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<List<ElementAggregator>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return Arrays.asList(
+                            elementDef.getFullAggregator(),
+                            elementDef.getIngestAggregator(),
+                            elementDef.getQueryAggregator(null, null));
+                }));
+            }
+
+            // When
+            start.countDown();
+            final List<ElementAggregator> expected = futures.get(0).get(10, TimeUnit.SECONDS);
+
+            // Then
+            for (final Future<List<ElementAggregator>> future : futures) {
+                final List<ElementAggregator> aggregators = future.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(expected.get(i), aggregators.get(i));
+                }
+                for (final ElementAggregator aggregator : aggregators) {
+                    assertThrows(UnsupportedOperationException.class, () -> aggregator.getComponents().add(null));
+                }
+            }
+            assertSame(expected.get(2), elementDef.getQueryAggregator(Sets.newHashSet("property1"), null));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void shouldMergeDifferentSchemaElementDefinitions() {
         // Given
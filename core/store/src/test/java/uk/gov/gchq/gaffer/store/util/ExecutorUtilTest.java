@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExecutorUtilTest {
+
+    @Test
+    @Timeout(10)
+    public void shouldRunNestedTasksOnASingleThreadWithoutDeadlocking() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            // The outer task holds the only thread and waits for the inner tasks
+            final Future<Integer> outer = ExecutorUtil.submit(executor, () -> {
+                final List<Future<Integer>> inner = new ArrayList<>();
+                for (int i = 1; i <= 3; i++) {
+                    final int value = i;
+                    inner.add(ExecutorUtil.submit(executor, () -> value));
+                }
+                int sum = 0;
+                for (final Future<Integer> future : inner) {
+                    sum += ExecutorUtil.get(future);
+                }
+                return sum;
+            });
+
+            assertEquals(6, (int) ExecutorUtil.get(outer));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRunTaskOnCallingThreadWhenExecutorIsShutdown() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        final Future<String> future = ExecutorUtil.submit(executor, () -> Thread.currentThread().getName());
+
+        assertEquals(Thread.currentThread().getName(), ExecutorUtil.get(future));
+    }
+
+    @Test
+    public void shouldThrowExecutionExceptionWhenTaskFails() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Object> future = ExecutorUtil.submit(executor, () -> {
+                throw new IllegalStateException("failed");
+            });
+
+            final ExecutionException e = assertThrows(ExecutionException.class, () -> ExecutorUtil.get(future));
+            assertEquals("failed", e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
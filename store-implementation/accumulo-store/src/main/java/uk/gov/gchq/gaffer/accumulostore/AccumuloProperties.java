@@ -45,26 +45,37 @@ public class AccumuloProperties extends StoreProperties {
     public static final String NAMESPACE = "accumulo.namespace";
     public static final String THREADS_FOR_BATCH_SCANNER = "accumulo.batchScannerThreads";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "accumulo.entriesForBatchScanner";
+    public static final String PREFETCH_DEPTH_FOR_BATCH_SCANNER = "accumulo.prefetchDepthForBatchScanner";
     public static final String CLIENT_SIDE_BLOOM_FILTER_SIZE = "accumulo.clientSideBloomFilterSize";
     public static final String FALSE_POSITIVE_RATE = "accumulo.falsePositiveRate";
     public static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR = "accumulo.maxBloomFilterToPassToAnIterator";
+    public static final String BLOCKED_BLOOM_FILTER = "accumulo.blockedBloomFilter";
+    public static final String SCAN_METRICS_SINK_CLASS = "accumulo.scanMetricsSinkClass";
+    public static final String SLOW_QUERY_THRESHOLD_MILLIS = "accumulo.slowQueryThresholdMillis";
     public static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER = "accumulo.maxBufferSizeForBatchWriterInBytes";
     public static final String MAX_TIME_OUT_FOR_BATCH_WRITER = "accumulo.maxTimeOutForBatchWriterInMilliseconds";
     public static final String NUM_THREADS_FOR_BATCH_WRITER = "accumulo.numThreadsForBatchWriter";
+    public static final String NUM_THREADS_FOR_INGEST_ENCODING = "accumulo.numThreadsForIngestEncoding";
+    public static final String INGEST_ENCODING_BATCH_SIZE = "accumulo.ingestEncodingBatchSize";
     public static final String TABLE_REPLICATION_FACTOR = "accumulo.file.replication";
     public static final String ENABLE_VALIDATOR_ITERATOR = "gaffer.store.accumulo.enable.validator.iterator";
     public static final String HDFS_SKIP_PERMISSIONS = "accumulostore.operation.hdfs.skip_permissions";
 
     // default values
     private static final String NUM_THREADS_FOR_BATCH_WRITER_DEFAULT = "10";
+    private static final String NUM_THREADS_FOR_INGEST_ENCODING_DEFAULT = "1";
+    private static final String INGEST_ENCODING_BATCH_SIZE_DEFAULT = "1000";
     private static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    private static final String PREFETCH_DEPTH_FOR_BATCH_SCANNER_DEFAULT = "0";
     private static final String CLIENT_SIDE_BLOOM_FILTER_SIZE_DEFAULT = "838860800";
     private static final String FALSE_POSITIVE_RATE_DEFAULT = "0.0002";
     private static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR_DEFAULT = "8388608";
+    private static final String BLOCKED_BLOOM_FILTER_DEFAULT = "false";
     private static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER_DEFAULT = "100000000";
     private static final String MAX_TIME_OUT_FOR_BATCH_WRITER_DEFAULT = "1000";
     private static final String THREADS_FOR_BATCH_SCANNER_DEFAULT = "10";
     public static final String ENABLE_VALIDATOR_ITERATOR_DEFAULT = "true";
+    public static final String SLOW_QUERY_THRESHOLD_MILLIS_DEFAULT = "10000";
 
     public AccumuloProperties() {
         super(AccumuloStore.class);
@@ -151,6 +162,49 @@ public class AccumuloProperties extends StoreProperties {
         return Long.parseLong(get(MAX_BUFFER_SIZE_FOR_BATCH_WRITER, MAX_BUFFER_SIZE_FOR_BATCH_WRITER_DEFAULT));
     }
 
+    /**
+     * Sets the number of threads that should be used to convert elements into
+     * Accumulo mutations when adding elements. If this is more than 1, batches
+     * of elements are converted concurrently on the store's shared operation
+     * executor, with at most twice this number of batches in flight, and the
+     * mutations are passed to the batch writer in the order of the elements.
+     *
+     * @param numThreadsForIngestEncoding The number of threads to convert elements with.
+     */
+    public void setNumThreadsForIngestEncoding(final String numThreadsForIngestEncoding) {
+        set(NUM_THREADS_FOR_INGEST_ENCODING, numThreadsForIngestEncoding);
+    }
+
+    /**
+     * Gets the number of threads that should be used to convert elements into
+     * Accumulo mutations when adding elements.
+     *
+     * @return The number of threads to convert elements with.
+     */
+    public int getNumThreadsForIngestEncoding() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST_ENCODING, NUM_THREADS_FOR_INGEST_ENCODING_DEFAULT));
+    }
+
+    /**
+     * Sets the number of elements in each batch converted by an ingest
+     * encoding thread.
+     *
+     * @param ingestEncodingBatchSize The number of elements in each batch.
+     */
+    public void setIngestEncodingBatchSize(final String ingestEncodingBatchSize) {
+        set(INGEST_ENCODING_BATCH_SIZE, ingestEncodingBatchSize);
+    }
+
+    /**
+     * Gets the number of elements in each batch converted by an ingest
+     * encoding thread.
+     *
+     * @return The number of elements in each batch.
+     */
+    public int getIngestEncodingBatchSize() {
+        return Integer.parseInt(get(INGEST_ENCODING_BATCH_SIZE, INGEST_ENCODING_BATCH_SIZE_DEFAULT));
+    }
+
     /**
      * Gets the list of Zookeeper servers.
      *
@@ -303,6 +357,29 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Gets the number of batch scanners that should be opened ahead of the
+     * one currently being read when seeds are split across several batch
+     * scanners. 0 means each batch scanner is only opened once the previous
+     * one has been fully read.
+     *
+     * @return the number of batch scanners to open ahead.
+     */
+    public int getPrefetchDepthForBatchScanner() {
+        return Integer.parseInt(get(PREFETCH_DEPTH_FOR_BATCH_SCANNER, PREFETCH_DEPTH_FOR_BATCH_SCANNER_DEFAULT));
+    }
+
+    /**
+     * Sets the number of batch scanners that should be opened ahead of the
+     * one currently being read when seeds are split across several batch
+     * scanners.
+     *
+     * @param prefetchDepthForBatchScanner the number of batch scanners to open ahead.
+     */
+    public void setPrefetchDepthForBatchScanner(final String prefetchDepthForBatchScanner) {
+        set(PREFETCH_DEPTH_FOR_BATCH_SCANNER, prefetchDepthForBatchScanner);
+    }
+
     /**
      * Gets the size that should be used for the creation of bloom filters on the
      * client side.
@@ -369,6 +446,68 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR, maxBloomFilterToPassToAnIterator);
     }
 
+    /**
+     * Gets the flag determining whether blocked bloom filters, which only
+     * touch a single cache line per lookup, should be used instead of
+     * standard bloom filters.
+     *
+     * @return true if blocked bloom filters should be used.
+     */
+    public boolean getBlockedBloomFilter() {
+        return Boolean.parseBoolean(get(BLOCKED_BLOOM_FILTER, BLOCKED_BLOOM_FILTER_DEFAULT));
+    }
+
+    /**
+     * Sets the flag determining whether blocked bloom filters should be used
+     * instead of standard bloom filters.
+     *
+     * @param blockedBloomFilter true if blocked bloom filters should be used.
+     */
+    public void setBlockedBloomFilter(final boolean blockedBloomFilter) {
+        set(BLOCKED_BLOOM_FILTER, Boolean.toString(blockedBloomFilter));
+    }
+
+    /**
+     * Gets the class name of the
+     * {@link uk.gov.gchq.gaffer.accumulostore.retriever.metrics.ScanMetricsSink}
+     * that the metrics for each query should be sent to.
+     *
+     * @return the class name of the scan metrics sink, or null if the metrics
+     * should not be sent to a sink.
+     */
+    public String getScanMetricsSinkClass() {
+        return get(SCAN_METRICS_SINK_CLASS);
+    }
+
+    /**
+     * Sets the class name of the
+     * {@link uk.gov.gchq.gaffer.accumulostore.retriever.metrics.ScanMetricsSink}
+     * that the metrics for each query should be sent to.
+     *
+     * @param scanMetricsSinkClass the class name of the scan metrics sink
+     */
+    public void setScanMetricsSinkClass(final String scanMetricsSinkClass) {
+        set(SCAN_METRICS_SINK_CLASS, scanMetricsSinkClass);
+    }
+
+    /**
+     * Gets the time in milliseconds after which a query is reported as slow.
+     *
+     * @return the slow query threshold in milliseconds.
+     */
+    public long getSlowQueryThresholdMillis() {
+        return Long.parseLong(get(SLOW_QUERY_THRESHOLD_MILLIS, SLOW_QUERY_THRESHOLD_MILLIS_DEFAULT));
+    }
+
+    /**
+     * Sets the time in milliseconds after which a query is reported as slow.
+     *
+     * @param slowQueryThresholdMillis the slow query threshold in milliseconds.
+     */
+    public void setSlowQueryThresholdMillis(final String slowQueryThresholdMillis) {
+        set(SLOW_QUERY_THRESHOLD_MILLIS, slowQueryThresholdMillis);
+    }
+
     /**
      * Gets the key package that should be used in conjunction with this table.
      *
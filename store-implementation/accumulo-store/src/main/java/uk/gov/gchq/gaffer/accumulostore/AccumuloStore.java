@@ -40,9 +40,12 @@ import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.inputformat.ElementInputFormat;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage;
+import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.CountGroupsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.CountHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GenerateSplitPointsFromSampleHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAllElementsHandler;
@@ -62,6 +65,8 @@ import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsBetweenSets;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
+import uk.gov.gchq.gaffer.accumulostore.optimiser.PushdownOperationChainOptimiser;
+import uk.gov.gchq.gaffer.accumulostore.retriever.metrics.ScanMetricsSink;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
@@ -78,6 +83,8 @@ import uk.gov.gchq.gaffer.hdfs.operation.SampleDataForSplitPoints;
 import uk.gov.gchq.gaffer.hdfs.operation.handler.HdfsSplitStoreFromFileHandler;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.GenerateSplitPointsFromSample;
 import uk.gov.gchq.gaffer.operation.impl.SampleElementsForSplitPoints;
 import uk.gov.gchq.gaffer.operation.impl.SplitStore;
@@ -99,16 +106,23 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
 import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
 import uk.gov.gchq.gaffer.user.User;
 import uk.gov.gchq.koryphe.ValidationResult;
 import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -152,6 +166,7 @@ public class AccumuloStore extends Store {
     public static final String FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS = "Failed to create an accumulo {} from element of type {} when trying to insert elements";
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloStore.class);
     private AccumuloKeyPackage keyPackage;
+    private ScanMetricsSink scanMetricsSink;
     private Connector connection = null;
 
     @Override
@@ -190,6 +205,30 @@ public class AccumuloStore extends Store {
             throw new StoreException("Unable to construct an instance of key package: " + keyPackageClass, e);
         }
         this.keyPackage.setSchema(getSchema());
+
+        final String scanMetricsSinkClass = getProperties().getScanMetricsSinkClass();
+        if (null == scanMetricsSinkClass) {
+            this.scanMetricsSink = null;
+        } else {
+            try {
+                this.scanMetricsSink = Class.forName(scanMetricsSinkClass).asSubclass(ScanMetricsSink.class).newInstance();
+            } catch (final InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+                throw new StoreException("Unable to construct an instance of scan metrics sink: " + scanMetricsSinkClass, e);
+            }
+            this.scanMetricsSink.initialise(getProperties());
+        }
+
+        // Limits and counts are only pushed down if the key package provides
+        // the iterators to apply them on the tablet servers
+        final IteratorSettingFactory iteratorFactory = keyPackage.getIteratorFactory();
+        final boolean limitPushdown = null != iteratorFactory.getLimitIteratorSetting(1L);
+        final boolean countPushdown = null != iteratorFactory.getCountIteratorSetting();
+        if (limitPushdown || countPushdown) {
+            final PushdownOperationChainOptimiser pushdownOptimiser = new PushdownOperationChainOptimiser(limitPushdown, countPushdown);
+            if (!getOperationChainOptimisers().contains(pushdownOptimiser)) {
+                addOperationChainOptimisers(Collections.singletonList(pushdownOptimiser));
+            }
+        }
     }
 
     /**
@@ -379,6 +418,8 @@ public class AccumuloStore extends Store {
         addOperationHandler(GenerateSplitPointsFromSample.class, new GenerateSplitPointsFromSampleHandler());
         addOperationHandler(SampleDataForSplitPoints.class, new SampleDataForSplitPointsHandler());
         addOperationHandler(ImportAccumuloKeyValueFiles.class, new ImportAccumuloKeyValueFilesHandler());
+        addOperationHandler(Count.class, new CountHandler());
+        addOperationHandler(CountGroups.class, new CountGroupsHandler());
 
         if (null == getSchema().getVertexSerialiser() || getSchema().getVertexSerialiser().preservesObjectOrdering()) {
             addOperationHandler(SummariseGroupOverRanges.class, new SummariseGroupOverRangesHandler());
@@ -425,60 +466,137 @@ public class AccumuloStore extends Store {
     }
 
     protected void insertGraphElements(final Iterable<? extends Element> elements) throws StoreException {
+        if (null == elements) {
+            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+        }
+
         // Create BatchWriter
         final BatchWriter writer = TableUtils.createBatchWriter(this);
-        // Loop through elements, convert to mutations, and add to
-        // BatchWriter.as
-        // The BatchWriter takes care of batching them up, sending them without
-        // too high a latency, etc.
-        if (null != elements) {
-            for (final Element element : elements) {
-
-                final Pair<Key, Key> keys;
-                try {
-                    keys = keyPackage.getKeyConverter().getKeysFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
-                    continue;
-                }
-                final Value value;
-                try {
-                    value = keyPackage.getKeyConverter().getValueFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
-                    continue;
-                }
-                final Mutation m = new Mutation(keys.getFirst().getRow());
-                m.put(keys.getFirst().getColumnFamily(), keys.getFirst().getColumnQualifier(),
-                        new ColumnVisibility(keys.getFirst().getColumnVisibility()), keys.getFirst().getTimestamp(), value);
-                try {
-                    writer.addMutation(m);
-                } catch (final MutationsRejectedException e) {
-                    LOGGER.error("Failed to create an accumulo key mutation");
-                    continue;
+        try {
+            // Loop through elements, convert to mutations, and add to
+            // BatchWriter.
+            // The BatchWriter takes care of batching them up, sending them without
+            // too high a latency, etc.
+            if (getProperties().getNumThreadsForIngestEncoding() > 1) {
+                insertGraphElementsConcurrently(elements, writer);
+            } else {
+                for (final Element element : elements) {
+                    addMutations(writer, getMutations(element));
                 }
-                // If the GraphElement is a Vertex then there will only be 1 key,
-                // and the second will be null.
-                // If the GraphElement is an Edge then there will be 2 keys.
-                if (null != keys.getSecond()) {
-                    final Mutation m2 = new Mutation(keys.getSecond().getRow());
-                    m2.put(keys.getSecond().getColumnFamily(), keys.getSecond().getColumnQualifier(),
-                            new ColumnVisibility(keys.getSecond().getColumnVisibility()), keys.getSecond().getTimestamp(),
-                            value);
-                    try {
-                        writer.addMutation(m2);
-                    } catch (final MutationsRejectedException e) {
-                        LOGGER.error("Failed to create an accumulo key mutation");
+            }
+        } finally {
+            try {
+                writer.close();
+            } catch (final MutationsRejectedException e) {
+                LOGGER.warn("Accumulo batch writer failed to close", e);
+            }
+        }
+    }
+
+    private void insertGraphElementsConcurrently(final Iterable<? extends Element> elements, final BatchWriter writer) throws StoreException {
+        final int numThreads = getProperties().getNumThreadsForIngestEncoding();
+        final int batchSize = getProperties().getIngestEncodingBatchSize();
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(AccumuloProperties.INGEST_ENCODING_BATCH_SIZE + " must be at least 1");
+        }
+
+        // Batches are converted concurrently on the shared operation executor
+        // but handed to the BatchWriter in the order they were submitted. The
+        // number of batches in flight is bounded so a large input is not
+        // converted far ahead of the writer.
+        final Executor executor = getOperationExecutor();
+        final Deque<Future<List<Mutation>>> pending = new ArrayDeque<>();
+        boolean completed = false;
+        try {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (final Element element : elements) {
+                batch.add(element);
+                if (batch.size() >= batchSize) {
+                    pending.add(submitBatch(executor, batch));
+                    batch = new ArrayList<>(batchSize);
+                    while (pending.size() >= numThreads * 2) {
+                        addMutations(writer, getBatchResult(pending.remove()));
                     }
                 }
             }
-        } else {
-            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+            if (!batch.isEmpty()) {
+                pending.add(submitBatch(executor, batch));
+            }
+            while (!pending.isEmpty()) {
+                addMutations(writer, getBatchResult(pending.remove()));
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                for (final Future<List<Mutation>> future : pending) {
+                    future.cancel(true);
+                }
+            }
         }
+    }
+
+    private Future<List<Mutation>> submitBatch(final Executor executor, final List<Element> batch) {
+        return ExecutorUtil.submit(executor, () -> {
+            final List<Mutation> mutations = new ArrayList<>(batch.size() * 2);
+            for (final Element element : batch) {
+                mutations.addAll(getMutations(element));
+            }
+            return mutations;
+        });
+    }
+
+    private List<Mutation> getBatchResult(final Future<List<Mutation>> future) throws StoreException {
         try {
-            writer.close();
-        } catch (final MutationsRejectedException e) {
-            LOGGER.warn("Accumulo batch writer failed to close", e);
+            return ExecutorUtil.get(future);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException("Interrupted whilst converting elements to mutations", e);
+        } catch (final ExecutionException e) {
+            throw new StoreException("Failed to convert elements to mutations: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private List<Mutation> getMutations(final Element element) {
+        final Pair<Key, Key> keys;
+        try {
+            keys = keyPackage.getKeyConverter().getKeysFromElement(element);
+        } catch (final AccumuloElementConversionException e) {
+            LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
+            return Collections.emptyList();
+        }
+        final Value value;
+        try {
+            value = keyPackage.getKeyConverter().getValueFromElement(element);
+        } catch (final AccumuloElementConversionException e) {
+            LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
+            return Collections.emptyList();
+        }
+
+        // If the GraphElement is a Vertex then there will only be 1 key,
+        // and the second will be null.
+        // If the GraphElement is an Edge then there will be 2 keys.
+        final List<Mutation> mutations = new ArrayList<>(2);
+        mutations.add(createMutation(keys.getFirst(), value));
+        if (null != keys.getSecond()) {
+            mutations.add(createMutation(keys.getSecond(), value));
+        }
+        return mutations;
+    }
+
+    private Mutation createMutation(final Key key, final Value value) {
+        final Mutation m = new Mutation(key.getRow());
+        m.put(key.getColumnFamily(), key.getColumnQualifier(),
+                new ColumnVisibility(key.getColumnVisibility()), key.getTimestamp(), value);
+        return m;
+    }
+
+    private void addMutations(final BatchWriter writer, final List<Mutation> mutations) {
+        for (final Mutation m : mutations) {
+            try {
+                writer.addMutation(m);
+            } catch (final MutationsRejectedException e) {
+                LOGGER.error("Failed to create an accumulo key mutation");
+            }
         }
     }
 
@@ -492,6 +610,16 @@ public class AccumuloStore extends Store {
         return keyPackage;
     }
 
+    /**
+     * Gets the {@link ScanMetricsSink} that the metrics for each query are
+     * sent to.
+     *
+     * @return the scan metrics sink, or null if one has not been configured.
+     */
+    public ScanMetricsSink getScanMetricsSink() {
+        return scanMetricsSink;
+    }
+
     /**
      * Gets the TabletServers.
      *
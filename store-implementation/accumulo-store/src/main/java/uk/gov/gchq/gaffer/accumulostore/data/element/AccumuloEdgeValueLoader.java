@@ -25,6 +25,8 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import java.util.Set;
+
 public class AccumuloEdgeValueLoader extends AccumuloElementValueLoader {
     private static final long serialVersionUID = 6857884477152298375L;
     private final boolean includeMatchedVertex;
@@ -39,6 +41,17 @@ public class AccumuloEdgeValueLoader extends AccumuloElementValueLoader {
         this.includeMatchedVertex = includeMatchedVertex;
     }
 
+    public AccumuloEdgeValueLoader(final String group,
+                                   final Key key,
+                                   final Value value,
+                                   final AccumuloElementConverter elementConverter,
+                                   final Schema schema,
+                                   final boolean includeMatchedVertex,
+                                   final Set<String> requiredProperties) {
+        super(group, key, value, elementConverter, schema, requiredProperties);
+        this.includeMatchedVertex = includeMatchedVertex;
+    }
+
     @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "element provided should always be an Edge")
     @Override
     public void loadIdentifiers(final Element edge) {
@@ -27,6 +27,8 @@ import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
 
+import java.util.Set;
+
 /**
  * The Accumulo ElementConverter Interface details the methods necessary to
  * convert Gaffer {@link Element}s to Accumulo {@link Key}s and {@link Value}s
@@ -95,6 +97,21 @@ public interface AccumuloElementConverter {
      */
     Properties getPropertiesFromValue(final String group, final Value value);
 
+    /**
+     * Converts an Accumulo {@link org.apache.accumulo.core.data.Value} to a
+     * {@link uk.gov.gchq.gaffer.data.element.Properties} object, only
+     * deserialising the required properties.
+     *
+     * @param group              the element group
+     * @param value              the Value containing the serialised properties
+     * @param requiredProperties the properties to deserialise, or null for all properties
+     * @return A set of {@link uk.gov.gchq.gaffer.data.element.Properties} that represent
+     * the required properties stored within the {@link Value}
+     */
+    default Properties getPropertiesFromValue(final String group, final Value value, final Set<String> requiredProperties) {
+        return getPropertiesFromValue(group, value);
+    }
+
     /**
      * Gets a new {@link ElementId} from an Accumulo {@link Key}.
      *
@@ -104,6 +121,21 @@ public interface AccumuloElementConverter {
      */
     ElementId getElementId(final Key key, final boolean includeMatchedVertex);
 
+    /**
+     * Gets the serialised vertex at the other end of an Edge from the vertex
+     * that the Edge's row key was stored under, without deserialising either
+     * vertex.
+     * <p>
+     * By default this returns null, in which case the edge id is deserialised
+     * from the key and the adjacent vertex is serialised again.
+     *
+     * @param row the row key of an Element
+     * @return the serialised adjacent vertex, or null if the row key is for an Entity or this is not supported
+     */
+    default byte[] getSerialisedAdjacentVertex(final byte[] row) {
+        return null;
+    }
+
     /**
      * Gets a new {@link Element} from an Accumulo {@link Key}.
      *
@@ -126,6 +158,21 @@ public interface AccumuloElementConverter {
      */
     Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex);
 
+    /**
+     * Returns an {@link Element} populated with the required properties
+     * defined within the {@link Key} and {@link Value}. Other properties are
+     * not deserialised, although implementations may still include them.
+     *
+     * @param key                  the accumulo Key containing serialised parts of the Element
+     * @param value                the accumulo Value containing serialised properties of the Element
+     * @param includeMatchedVertex if true then the matchedVertex field is set on Edges
+     * @param requiredProperties   the properties to deserialise, or null for all properties
+     * @return Returns an {@link Element} populated with the required properties
+     */
+    default Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex, final Set<String> requiredProperties) {
+        return getFullElement(key, value, includeMatchedVertex);
+    }
+
     /**
      * Helper Used to create Bloom Filters, method Serialises a given object
      * (from an {@link uk.gov.gchq.gaffer.data.element.id.EntityId} ) with the Identifier
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A process-wide cache of the {@link Schema}s, {@link View}s and
+ * {@link AccumuloElementConverter}s that Gaffer iterators build from their
+ * options.
+ * <p>
+ * Accumulo initialises a new iterator stack for every scan session and every
+ * tablet, so without this cache each short query would parse the schema and
+ * view JSON and reflectively construct an element converter several times over.
+ * Entries are keyed by a SHA-256 hash of the option strings, so a change to
+ * the schema or view produces a new entry rather than a stale hit. The cache
+ * holds at most {@value #DEFAULT_MAX_SIZE} entries by default, evicting the
+ * least recently used; this can be changed with the
+ * {@value #MAX_SIZE_SYSTEM_PROPERTY} system property on the tablet servers.
+ * <p>
+ * The cached objects are shared between iterators on different threads, so
+ * they must not be modified by their users.
+ */
+public final class IteratorOptionsCache {
+    public static final String MAX_SIZE_SYSTEM_PROPERTY = "gaffer.accumulo.iterator.optionsCache.maxSize";
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IteratorOptionsCache.class);
+    private static final String SCHEMA_PREFIX = "schema:";
+    private static final String VIEW_PREFIX = "view:";
+    private static final String CONVERTER_PREFIX = "converter:";
+
+    private static final int MAX_SIZE = Integer.getInteger(MAX_SIZE_SYSTEM_PROPERTY, DEFAULT_MAX_SIZE);
+    private static final Map<String, CacheEntry> CACHE = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        private static final long serialVersionUID = -5071587829587123517L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder PARSE_TIME_NANOS = new LongAdder();
+    private static final LongAdder PARSE_TIME_SAVED_NANOS = new LongAdder();
+
+    private IteratorOptionsCache() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Gets the {@link Schema} deserialised from the given json, parsing it only
+     * if an identical schema is not already cached.
+     *
+     * @param schemaJson the schema json from the iterator options
+     * @return the deserialised schema
+     */
+    public static Schema getSchema(final String schemaJson) {
+        if (null == schemaJson) {
+            throw new IllegalArgumentException("Schema json is required");
+        }
+        return (Schema) get(SCHEMA_PREFIX + hash(schemaJson), () -> Schema.fromJson(StringUtil.toBytes(schemaJson)));
+    }
+
+    /**
+     * Gets the {@link View} deserialised from the given json, parsing it only
+     * if an identical view is not already cached.
+     *
+     * @param viewJson the view json from the iterator options
+     * @return the deserialised view
+     */
+    public static View getView(final String viewJson) {
+        if (null == viewJson) {
+            throw new IllegalArgumentException("View json is required");
+        }
+        return (View) get(VIEW_PREFIX + hash(viewJson), () -> View.fromJson(StringUtil.toBytes(viewJson)));
+    }
+
+    /**
+     * Gets an {@link AccumuloElementConverter} of the given class for the
+     * schema deserialised from the given json, constructing one only if an
+     * identical converter is not already cached.
+     *
+     * @param converterClass the class name of the element converter
+     * @param schemaJson     the schema json from the iterator options
+     * @return the element converter
+     * @throws ReflectiveOperationException if the element converter cannot be constructed
+     */
+    public static AccumuloElementConverter getElementConverter(final String converterClass, final String schemaJson) throws ReflectiveOperationException {
+        if (null == converterClass) {
+            throw new ClassNotFoundException("Element converter class is required");
+        }
+        final Schema schema = getSchema(schemaJson);
+        final String key = CONVERTER_PREFIX + converterClass + ":" + hash(schemaJson);
+        try {
+            return (AccumuloElementConverter) get(key, () -> {
+                try {
+                    return Class.forName(converterClass)
+                            .asSubclass(AccumuloElementConverter.class)
+                            .getConstructor(Schema.class)
+                            .newInstance(schema);
+                } catch (final ReflectiveOperationException e) {
+                    throw new ConstructionException(e);
+                }
+            });
+        } catch (final ConstructionException e) {
+            throw (ReflectiveOperationException) e.getCause();
+        }
+    }
+
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * @return the total time, in nanoseconds, spent parsing and constructing
+     * the objects that were not already cached
+     */
+    public static long getParseTimeNanos() {
+        return PARSE_TIME_NANOS.sum();
+    }
+
+    /**
+     * @return the total time, in nanoseconds, that cache hits have saved,
+     * based on how long each cached object originally took to create
+     */
+    public static long getParseTimeSavedNanos() {
+        return PARSE_TIME_SAVED_NANOS.sum();
+    }
+
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * Removes all cached objects and resets the statistics.
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+        HITS.reset();
+        MISSES.reset();
+        PARSE_TIME_NANOS.reset();
+        PARSE_TIME_SAVED_NANOS.reset();
+    }
+
+    private static Object get(final String key, final Supplier<Object> factory) {
+        synchronized (CACHE) {
+            final CacheEntry entry = CACHE.get(key);
+            if (null != entry) {
+                HITS.increment();
+                PARSE_TIME_SAVED_NANOS.add(entry.createTimeNanos);
+                return entry.value;
+            }
+        }
+
+        // Create outside of the lock so a slow parse does not block other
+        // iterators. Concurrent misses for the same key may both create the
+        // object, in which case the first one cached wins.
+        final long start = System.nanoTime();
+        final Object value = factory.get();
+        final long createTimeNanos = System.nanoTime() - start;
+        MISSES.increment();
+        PARSE_TIME_NANOS.add(createTimeNanos);
+        LOGGER.debug("Created {} for iterator options cache in {}ns. Cache totals: {} hits, {} misses, {}ns parsing, {}ns saved by hits",
+                key, createTimeNanos, getHitCount(), getMissCount(), getParseTimeNanos(), getParseTimeSavedNanos());
+
+        synchronized (CACHE) {
+            final CacheEntry existing = CACHE.putIfAbsent(key, new CacheEntry(value, createTimeNanos));
+            return null != existing ? existing.value : value;
+        }
+    }
+
+    private static String hash(final String value) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+        final byte[] bytes = digest.digest(StringUtil.toBytes(value));
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static final class CacheEntry {
+        private final Object value;
+        private final long createTimeNanos;
+
+        private CacheEntry(final Object value, final long createTimeNanos) {
+            this.value = value;
+            this.createTimeNanos = createTimeNanos;
+        }
+    }
+
+    private static final class ConstructionException extends RuntimeException {
+        private static final long serialVersionUID = 2771593025651306521L;
+
+        private ConstructionException(final ReflectiveOperationException cause) {
+            super(cause);
+        }
+    }
+}
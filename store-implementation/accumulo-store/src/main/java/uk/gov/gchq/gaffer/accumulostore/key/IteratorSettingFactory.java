@@ -18,11 +18,13 @@ package uk.gov.gchq.gaffer.accumulostore.key;
 
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 
 /**
  * The iterator settings factory is designed to enable the AccumuloStore to
@@ -46,6 +48,28 @@ public interface IteratorSettingFactory {
      */
     IteratorSetting getBloomFilterIteratorSetting(final BloomFilter filter) throws IteratorSettingException;
 
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will filter elements based on their
+     * vertices membership in a given {@link Filter}, such as a
+     * {@link uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter}, to a
+     * {@link org.apache.accumulo.core.client.Scanner}.
+     * <p>
+     * By default only a {@link BloomFilter} is supported, which is passed to
+     * {@link #getBloomFilterIteratorSetting(BloomFilter)}.
+     *
+     * @param filter the filter
+     * @return A new {@link IteratorSetting} for an Iterator capable of filtering elements based on checking its serialised form for membership in a {@link Filter}
+     * @throws IteratorSettingException if an iterator setting could not be created, or the type of filter is not supported
+     */
+    default IteratorSetting getBloomFilterIteratorSetting(final Filter filter) throws IteratorSettingException {
+        if (filter instanceof BloomFilter) {
+            return getBloomFilterIteratorSetting((BloomFilter) filter);
+        }
+        throw new IteratorSettingException("Filters of type " + (null == filter ? null : filter.getClass().getName())
+                + " are not supported by " + getClass().getName());
+    }
+
     /**
      * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
      * can be used to apply an iterator that will filter elements based on
@@ -141,6 +165,50 @@ public interface IteratorSettingFactory {
      */
     IteratorSetting getElementPropertyRangeQueryFilter(final GraphFilters operation);
 
+    /**
+     * Returns an Iterator that will return just the serialised adjacent
+     * vertices of the edges being queried, rather than the full edges, for
+     * use with GetAdjacentIds. Returns null if the view has post transform
+     * filters, as the full edges are then needed by the client.
+     * <p>
+     * By default this returns null, so the full edges are returned.
+     *
+     * @param operation the operation
+     * @param store     the accumulo store
+     * @return A new {@link IteratorSetting} for an Iterator that will return adjacent vertices, or null if this is not possible
+     */
+    default IteratorSetting getAdjacentIdIteratorSetting(final GetAdjacentIds operation, final AccumuloStore store) {
+        return null;
+    }
+
+    /**
+     * Returns an Iterator that will stop returning elements once the given
+     * limit has been reached. This is applied after all the other scan time
+     * iterators.
+     *
+     * <p>
+     * By default this returns null, so the limit is only applied by the client.
+     *
+     * @param limit the maximum number of elements to return for each range
+     * @return A new {@link IteratorSetting} for an Iterator that will limit the number of elements returned, or null if not supported
+     */
+    default IteratorSetting getLimitIteratorSetting(final long limit) {
+        return null;
+    }
+
+    /**
+     * Returns an Iterator that will return the number of elements in each
+     * group instead of the elements themselves. This is applied after all the
+     * other scan time iterators.
+     * <p>
+     * By default this returns null, so the elements are counted by the client.
+     *
+     * @return A new {@link IteratorSetting} for an Iterator that will count the elements of each group, or null if not supported
+     */
+    default IteratorSetting getCountIteratorSetting() {
+        return null;
+    }
+
     /**
      * Returns the iterator settings for a given iterator name. Allowed iterator
      * names are: Aggregator, Validator and Bloom_Filter.
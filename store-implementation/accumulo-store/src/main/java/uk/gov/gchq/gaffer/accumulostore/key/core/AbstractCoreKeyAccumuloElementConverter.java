@@ -53,10 +53,23 @@ import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractCoreKeyAccumuloElementConverter implements AccumuloElementConverter {
+    /**
+     * Buffers that grow larger than this are discarded after use rather than
+     * being kept for the next element.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
     protected final Schema schema;
     private final String timestampProperty;
     private final Set<String> aggregatedGroups;
 
+    /**
+     * A serialisation buffer per thread, reused for each element converted
+     * on that thread to avoid allocating a new buffer for every value and
+     * column qualifier.
+     */
+    private final ThreadLocal<ReusableByteArrayOutputStream> buffers = ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
+
     public AbstractCoreKeyAccumuloElementConverter(final Schema schema) {
         this.schema = schema;
         this.timestampProperty = null != schema ? schema.getConfig(AccumuloStoreConstants.TIMESTAMP_PROPERTY) : null;
@@ -72,6 +85,17 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return getEdgeId(row, includeMatchedVertex);
     }
 
+    @Override
+    public byte[] getSerialisedAdjacentVertex(final byte[] row) {
+        if (doesKeyRepresentEntity(row)) {
+            return null;
+        }
+        final byte[][] result = new byte[2][];
+        final EdgeDirection direction = getSourceAndDestinationFromRowKey(row, result);
+        // The row key is stored under the source unless the edge is reversed
+        return EdgeDirection.DIRECTED_REVERSED == direction ? result[0] : result[1];
+    }
+
     @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "If an element is not an Entity it must be an Edge")
     @Override
     public Pair<Key, Key> getKeysFromElement(final Element element) {
@@ -120,16 +144,19 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @SuppressWarnings("Convert2streamapi")
     @Override
     public Value getValueFromProperties(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
         final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-
-        for (final String propertyName : elementDefinition.getProperties()) {
-            if (isStoredInValue(propertyName, elementDefinition)) {
-                serialiseSizeAndPropertyValue(propertyName, elementDefinition, properties, stream);
+        final ReusableByteArrayOutputStream stream = getBuffer();
+        try {
+            for (final String propertyName : elementDefinition.getProperties()) {
+                if (isStoredInValue(propertyName, elementDefinition)) {
+                    serialiseSizeAndPropertyValue(propertyName, elementDefinition, properties, stream);
+                }
             }
-        }
 
-        return new Value(stream.toByteArray());
+            return new Value(stream.toByteArray());
+        } finally {
+            releaseBuffer(stream);
+        }
     }
 
     @Override
@@ -139,6 +166,11 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public Properties getPropertiesFromValue(final String group, final Value value) {
+        return getPropertiesFromValue(group, value, null);
+    }
+
+    @Override
+    public Properties getPropertiesFromValue(final String group, final Value value, final Set<String> requiredProperties) {
         final Properties properties = new Properties();
         if (isNotEmpty(value)) {
             final byte[] bytes = value.get();
@@ -150,7 +182,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
                 final String propertyName = propertyNames.next();
                 try {
                     if (isStoredInValue(propertyName, elementDefinition)) {
-                        delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
+                        delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName, requiredProperties);
                     }
                 } catch (final SerialisationException e) {
                     throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
@@ -172,8 +204,18 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex) {
+        return getFullElement(key, value, includeMatchedVertex, null);
+    }
+
+    @Override
+    public Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex, final Set<String> requiredProperties) {
+        // Only the properties stored in the value are skipped if they are not
+        // required, the key is converted by getElementFromKey so subclasses
+        // that override it are still used.
         final Element element = getElementFromKey(key, includeMatchedVertex);
-        element.copyProperties(getPropertiesFromValue(element.getGroup(), value));
+        if (null == requiredProperties || !requiredProperties.isEmpty()) {
+            element.copyProperties(getPropertiesFromValue(element.getGroup(), value, requiredProperties));
+        }
         return element;
     }
 
@@ -258,14 +300,41 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public byte[] buildColumnQualifier(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
         final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        final ReusableByteArrayOutputStream stream = getBuffer();
+        try {
+            for (final String groupByPropertyName : elementDefinition.getGroupBy()) {
+                serialiseSizeAndPropertyValue(groupByPropertyName, elementDefinition, properties, stream);
+            }
+
+            return stream.toByteArray();
+        } finally {
+            releaseBuffer(stream);
+        }
+    }
 
-        for (final String groupByPropertyName : elementDefinition.getGroupBy()) {
-            serialiseSizeAndPropertyValue(groupByPropertyName, elementDefinition, properties, stream);
+    private ReusableByteArrayOutputStream getBuffer() {
+        final ReusableByteArrayOutputStream stream = buffers.get();
+        if (stream.inUse) {
+            // Re-entrant use on the same thread, e.g. from a subclass - fall
+            // back to a fresh buffer.
+            return new ReusableByteArrayOutputStream();
         }
+        stream.inUse = true;
+        return stream;
+    }
 
-        return stream.toByteArray();
+    private void releaseBuffer(final ReusableByteArrayOutputStream stream) {
+        if (!stream.inUse) {
+            // A fresh buffer from re-entrant use, the thread's buffer is
+            // still in use by the outer call so must not be touched.
+            return;
+        }
+        stream.inUse = false;
+        stream.reset();
+        if (stream.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            buffers.remove();
+        }
     }
 
     private SchemaElementDefinition getSchemaElementDefinition(final String group) {
@@ -305,7 +374,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
             while (propertyNames.hasNext() && delimiterPosition < arrayLength) {
                 final String propertyName = propertyNames.next();
                 try {
-                    delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
+                    delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName, null);
                 } catch (final SerialisationException e) {
                     throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
                 }
@@ -314,7 +383,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return properties;
     }
 
-    private int addDeserialisedProperty(final byte[] bytes, final int carriage, final Properties properties, final SchemaElementDefinition elementDefinition, final String propertyName) throws SerialisationException {
+    private int addDeserialisedProperty(final byte[] bytes, final int carriage, final Properties properties, final SchemaElementDefinition elementDefinition, final String propertyName, final Set<String> requiredProperties) throws SerialisationException {
         int rtn = carriage;
         final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
         final ToBytesSerialiser serialiser = (null != typeDefinition) ? (ToBytesSerialiser) typeDefinition.getSerialiser() : null;
@@ -323,8 +392,11 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
             final int currentPropLength = getCurrentPropLength(bytes, rtn);
             int from = rtn += numBytesForLength;
             rtn += currentPropLength;
-            Object deserialisedObject = getDeserialisedObject(serialiser, bytes, from, currentPropLength);
-            properties.put(propertyName, deserialisedObject);
+            // Properties that are not required are skipped over without being deserialised
+            if (null == requiredProperties || requiredProperties.contains(propertyName)) {
+                Object deserialisedObject = getDeserialisedObject(serialiser, bytes, from, currentPropLength);
+                properties.put(propertyName, deserialisedObject);
+            }
         }
         return rtn;
     }
@@ -535,4 +607,11 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
+    private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+        private boolean inUse;
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
 }
@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.accumulostore.key.core;
 
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,7 +27,10 @@ import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyBloomFilterIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyGroupByAggregatorIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.AdjacentIdIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementCountIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementLimitIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPostAggregationFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPreAggregationFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.RowIDAggregator;
@@ -35,6 +39,7 @@ import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorSettingBuilder;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
@@ -44,6 +49,11 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
 
     @Override
     public IteratorSetting getBloomFilterIteratorSetting(final BloomFilter filter) throws IteratorSettingException {
+        return getBloomFilterIteratorSetting((Filter) filter);
+    }
+
+    @Override
+    public IteratorSetting getBloomFilterIteratorSetting(final Filter filter) throws IteratorSettingException {
         final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, CoreKeyBloomFilterIterator.class)
                 .bloomFilter(filter)
@@ -187,6 +197,52 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
         return is;
     }
 
+    @Override
+    public IteratorSetting getAdjacentIdIteratorSetting(final GetAdjacentIds operation, final AccumuloStore store) {
+        if (operation.getView().hasPostTransformFilters()) {
+            LOGGER.debug("Returning null from getAdjacentIdIteratorSetting as view.hasPostTransformFilters = {}",
+                    operation.getView().hasPostTransformFilters());
+            return null;
+        }
+
+        final boolean deduplicate = Boolean.parseBoolean(operation.getOption(AccumuloStoreConstants.OPERATION_DEDUPLICATE_ADJACENT_IDS));
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.ADJACENT_ID_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.ADJACENT_ID_ITERATOR_NAME, AdjacentIdIterator.class)
+                .schema(store.getSchema())
+                .keyConverter(store.getKeyPackage().getKeyConverter())
+                .option(AccumuloStoreConstants.DEDUPLICATE_ADJACENT_IDS, Boolean.toString(deduplicate))
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}, "
+                        + "schema = {}, keyConverter = {}, deduplicate = {}",
+                AdjacentIdIterator.class.getName(),
+                AccumuloStoreConstants.ADJACENT_ID_ITERATOR_PRIORITY,
+                store.getSchema(), store.getKeyPackage().getKeyConverter(), deduplicate);
+        return is;
+    }
+
+    @Override
+    public IteratorSetting getLimitIteratorSetting(final long limit) {
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.LIMIT_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.LIMIT_ITERATOR_NAME, ElementLimitIterator.class)
+                .option(AccumuloStoreConstants.LIMIT, Long.toString(limit))
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}, limit = {}",
+                ElementLimitIterator.class.getName(),
+                AccumuloStoreConstants.LIMIT_ITERATOR_PRIORITY, limit);
+        return is;
+    }
+
+    @Override
+    public IteratorSetting getCountIteratorSetting() {
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.COUNT_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.COUNT_ITERATOR_NAME, ElementCountIterator.class)
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}",
+                ElementCountIterator.class.getName(),
+                AccumuloStoreConstants.COUNT_ITERATOR_PRIORITY);
+        return is;
+    }
+
     public boolean queryTimeAggregatorRequired(final View view, final AccumuloStore store) {
         Schema schema = store.getSchema();
         if (!schema.isAggregationEnabled()) {
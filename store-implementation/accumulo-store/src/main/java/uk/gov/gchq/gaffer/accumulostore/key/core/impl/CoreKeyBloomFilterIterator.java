@@ -40,12 +40,16 @@ import java.util.Map;
 
 /**
  * The CoreKeyBloomFilterIterator filters out Edges based on their non searched
- * for vertex's membership of the provided {@link BloomFilter}.
+ * for vertex's membership of the provided
+ * {@link org.apache.hadoop.util.bloom.Filter}. This is a
+ * {@link BloomFilter} unless the {@link AccumuloStoreConstants#BLOOM_FILTER_CLASS}
+ * option names another implementation, such as a
+ * {@link uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter}.
  */
 public class CoreKeyBloomFilterIterator extends Filter {
     private static final Logger LOGGER = LoggerFactory.getLogger(CoreKeyBloomFilterIterator.class);
 
-    protected BloomFilter filter;
+    protected org.apache.hadoop.util.bloom.Filter filter;
 
     @Override
     public boolean accept(final Key key, final Value value) {
@@ -68,7 +72,14 @@ public class CoreKeyBloomFilterIterator extends Filter {
                      final IteratorEnvironment env) throws IOException {
         super.init(source, options, env);
 
-        filter = new BloomFilter();
+        final String filterClass = options.get(AccumuloStoreConstants.BLOOM_FILTER_CLASS);
+        try {
+            filter = null == filterClass ? new BloomFilter() : Class.forName(filterClass)
+                    .asSubclass(org.apache.hadoop.util.bloom.Filter.class).newInstance();
+        } catch (final ReflectiveOperationException | ClassCastException e) {
+            throw new BloomFilterIteratorException("Failed to create bloom filter of class " + filterClass, e);
+        }
+
         final byte[] bytes;
         try {
             bytes = options.get(AccumuloStoreConstants.BLOOM_FILTER).getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
@@ -102,6 +113,8 @@ public class CoreKeyBloomFilterIterator extends Filter {
         return new IteratorOptionsBuilder(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, "Bloom Filter")
                 .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER,
                         "Required: The serialised form of the bloom filter that keys will be tested against")
+                .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER_CLASS,
+                        "Optional: The class of the bloom filter, defaults to " + BloomFilter.class.getName())
                 .build();
     }
 
@@ -18,13 +18,21 @@ package uk.gov.gchq.gaffer.accumulostore.key.core.impl;
 import org.apache.accumulo.core.data.Key;
 
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.accumulostore.utils.PrimitivePropertiesAggregator;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 public class CoreKeyGroupByAggregatorIterator extends CoreKeyGroupByCombiner {
+    /**
+     * The primitive aggregators for each group, or null for groups whose
+     * properties have to be deserialised to be aggregated.
+     */
+    private final Map<String, PrimitivePropertiesAggregator> primitiveAggregators = new HashMap<>();
 
     @Override
     public Properties reduce(final String group, final Key key, final Iterator<Properties> iter, final Set<String> groupBy, final ElementAggregator viewAggregator) {
@@ -46,6 +54,17 @@ public class CoreKeyGroupByAggregatorIterator extends CoreKeyGroupByCombiner {
         return aggregatedProps;
     }
 
+    @Override
+    protected PrimitivePropertiesAggregator getPrimitivePropertiesAggregator(final String group, final Set<String> groupBy, final ElementAggregator viewAggregator) {
+        // The view, and therefore the groupBy and view aggregator for each
+        // group, is fixed for the lifetime of the iterator.
+        if (!primitiveAggregators.containsKey(group)) {
+            primitiveAggregators.put(group, PrimitivePropertiesAggregator.create(schema, group,
+                    schema.getElement(group).getQueryAggregator(groupBy, viewAggregator)));
+        }
+        return primitiveAggregators.get(group);
+    }
+
     @Override
     public IteratorOptions describeOptions() {
         return new IteratorOptionsBuilder(super.describeOptions())
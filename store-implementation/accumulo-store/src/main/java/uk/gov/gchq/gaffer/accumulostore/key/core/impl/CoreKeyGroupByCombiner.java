@@ -34,23 +34,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.IteratorOptionsCache;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AggregationException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.ByteUtils;
 import uk.gov.gchq.gaffer.accumulostore.utils.BytesAndRange;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
-import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.PrimitivePropertiesAggregator;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
-import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -93,6 +92,7 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
         private final AccumuloElementConverter elementConverter;
         private final Set<String> groupBy;
         private final Set<String> schemaGroupBy;
+        private BytesAndRange topKeyGroupByBytes;
         private boolean hasNext;
 
         /**
@@ -145,25 +145,15 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
                 throw new NoSuchElementException();
             }
 
-            final byte[] topColumnQualifier = source.getTopKey().getColumnQualifierData().getBackingArray();
-            final byte[] topColumnVisibility = source.getTopKey().getColumnVisibilityData().getBackingArray();
-            final long topTimestamp = source.getTopKey().getTimestamp();
-            final Value topValue = new Value(source.getTopValue());
-
-            try {
-                source.next();
-                hasNext = _hasNext();
-            } catch (final IOException e) {
-                throw new RuntimeException(e); // Looks like a bad idea, but
-                // this is what the in-built Combiner iterator does
-            }
-
+            // The properties are deserialised before the source is advanced,
+            // so the source's key and value do not need to be copied.
+            final Key sourceTopKey = source.getTopKey();
             final Properties properties = new Properties();
             try {
-                properties.putAll(elementConverter.getPropertiesFromColumnQualifier(group, topColumnQualifier));
-                properties.putAll(elementConverter.getPropertiesFromColumnVisibility(group, topColumnVisibility));
-                properties.putAll(elementConverter.getPropertiesFromValue(group, topValue));
-                properties.putAll(elementConverter.getPropertiesFromTimestamp(group, topTimestamp));
+                properties.putAll(elementConverter.getPropertiesFromColumnQualifier(group, sourceTopKey.getColumnQualifierData().getBackingArray()));
+                properties.putAll(elementConverter.getPropertiesFromColumnVisibility(group, sourceTopKey.getColumnVisibilityData().getBackingArray()));
+                properties.putAll(elementConverter.getPropertiesFromValue(group, source.getTopValue()));
+                properties.putAll(elementConverter.getPropertiesFromTimestamp(group, sourceTopKey.getTimestamp()));
                 if (null == groupBy) {
                     if (null != schemaGroupBy) {
                         properties.remove(schemaGroupBy);
@@ -175,9 +165,33 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
                 throw new RuntimeException(e);
             }
 
+            advance();
             return properties;
         }
 
+        /**
+         * Aggregates the serialised values of all the remaining versions of
+         * the key, without deserialising them into {@link Properties}.
+         *
+         * @param aggregator the aggregator to add the values to
+         */
+        public void aggregate(final PrimitivePropertiesAggregator aggregator) {
+            while (hasNext) {
+                aggregator.aggregate(source.getTopValue());
+                advance();
+            }
+        }
+
+        private void advance() {
+            try {
+                source.next();
+                hasNext = _hasNext();
+            } catch (final IOException e) {
+                throw new RuntimeException(e); // Looks like a bad idea, but
+                // this is what the in-built Combiner iterator does
+            }
+        }
+
         /**
          * unsupported
          */
@@ -201,16 +215,19 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
                 return false;
             }
 
-            final BytesAndRange groupByPropBytes1;
+            // The group by bytes of the top key are the same for every
+            // version, so they are only extracted once.
             final BytesAndRange groupByPropBytes2;
             try {
-                groupByPropBytes1 = elementConverter.getPropertiesAsBytesFromColumnQualifier(group, colQual1, groupBy.size());
+                if (null == topKeyGroupByBytes) {
+                    topKeyGroupByBytes = elementConverter.getPropertiesAsBytesFromColumnQualifier(group, colQual1, groupBy.size());
+                }
                 groupByPropBytes2 = elementConverter.getPropertiesAsBytesFromColumnQualifier(group, colQual2, groupBy.size());
             } catch (final AccumuloElementConversionException e) {
                 throw new RuntimeException(e);
             }
 
-            return ByteUtils.areKeyBytesEqual(groupByPropBytes1, groupByPropBytes2);
+            return ByteUtils.areKeyBytesEqual(topKeyGroupByBytes, groupByPropBytes2);
         }
     }
 
@@ -281,15 +298,27 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
                 groupBy = schema.getElement(group).getGroupBy();
             }
 
-            final Iterator<Properties> iter = new KeyValueIterator(
+            final KeyValueIterator iter = new KeyValueIterator(
                     getSource(), group, elementConverter, schema, groupBy);
-            final Properties aggregatedProperties = reduce(group, workKey, iter, groupBy, elementDef.getAggregator());
+            final PrimitivePropertiesAggregator primitiveAggregator = canAggregateValuesOnly(group, groupBy)
+                    ? getPrimitivePropertiesAggregator(group, groupBy, elementDef.getAggregator()) : null;
+            Properties aggregatedProperties = null;
+            if (null == primitiveAggregator) {
+                aggregatedProperties = reduce(group, workKey, iter, groupBy, elementDef.getAggregator());
+            } else {
+                primitiveAggregator.reset();
+                iter.aggregate(primitiveAggregator);
+            }
 
             try {
                 final Properties properties = elementConverter.getPropertiesFromColumnQualifier(group, workKey.getColumnQualifierData().getBackingArray());
                 properties.putAll(elementConverter.getPropertiesFromColumnVisibility(group, workKey.getColumnVisibilityData().getBackingArray()));
-                properties.putAll(aggregatedProperties);
-                topValue = elementConverter.getValueFromProperties(group, properties);
+                if (null == primitiveAggregator) {
+                    properties.putAll(aggregatedProperties);
+                    topValue = elementConverter.getValueFromProperties(group, properties);
+                } else {
+                    topValue = primitiveAggregator.getValue();
+                }
                 topKey = new Key(workKey.getRowData().getBackingArray(), columnFamily,
                         elementConverter.buildColumnQualifier(group, properties),
                         elementConverter.buildColumnVisibility(group, properties),
@@ -328,6 +357,32 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
         }
     }
 
+    // Only the properties stored in the value need to be aggregated when the
+    // versions of a key all have the same column qualifier and the group does
+    // not have a visibility or timestamp property.
+    private boolean canAggregateValuesOnly(final String group, final Set<String> groupBy) {
+        final SchemaElementDefinition elementDef = schema.getElement(group);
+        return (null == groupBy || groupBy.equals(elementDef.getGroupBy()))
+                && (null == schema.getVisibilityProperty() || !elementDef.containsProperty(schema.getVisibilityProperty()))
+                && (null == schema.getConfig(AccumuloStoreConstants.TIMESTAMP_PROPERTY) || !elementDef.containsProperty(schema.getConfig(AccumuloStoreConstants.TIMESTAMP_PROPERTY)));
+    }
+
+    /**
+     * Gets a {@link PrimitivePropertiesAggregator} to aggregate the serialised
+     * values of a group directly, instead of calling
+     * {@link #reduce(String, Key, Iterator, Set, ElementAggregator)}. This is
+     * only called when the versions of a key differ only in their values.
+     * By default this returns null, so reduce is always used.
+     *
+     * @param group          the schema group taken from the key
+     * @param groupBy        the groupBy properties
+     * @param viewAggregator an optional view aggregator
+     * @return the primitive aggregator, or null if reduce should be used
+     */
+    protected PrimitivePropertiesAggregator getPrimitivePropertiesAggregator(final String group, final Set<String> groupBy, final ElementAggregator viewAggregator) {
+        return null;
+    }
+
     /**
      * Reduces an iterator of {@link Properties} into a single Properties object.
      *
@@ -358,29 +413,17 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
     @Override
     public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options, final IteratorEnvironment env) throws IOException {
         super.init(source, options, env);
-        try {
-            schema = Schema.fromJson(options.get(AccumuloStoreConstants.SCHEMA).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the schema", e);
-        }
+        final String schemaJson = options.get(AccumuloStoreConstants.SCHEMA);
+        schema = IteratorOptionsCache.getSchema(schemaJson);
         LOGGER.debug("Initialising CoreKeyGroupByCombiner with schema {}", schema);
-        try {
-            view = View.fromJson(options.get(AccumuloStoreConstants.VIEW).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the view", e);
-        }
+        view = IteratorOptionsCache.getView(options.get(AccumuloStoreConstants.VIEW));
         LOGGER.debug("Initialising CoreKeyGroupByCombiner with view {}", view);
 
         final String elementConverterClass = options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
         try {
-            elementConverter = Class
-                    .forName(elementConverterClass)
-                    .asSubclass(AccumuloElementConverter.class)
-                    .getConstructor(Schema.class)
-                    .newInstance(schema);
+            elementConverter = IteratorOptionsCache.getElementConverter(elementConverterClass, schemaJson);
             LOGGER.debug("Creating AccumuloElementConverter of class {}", elementConverterClass);
-        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+        } catch (final ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
             throw new AggregationException("Failed to create element converter of the class name provided ("
                     + elementConverterClass + ")", e);
         }
@@ -24,4 +24,8 @@ public class IteratorSettingException extends AccumuloException {
     public IteratorSettingException(final String message, final Throwable e) {
         super(message, e);
     }
+
+    public IteratorSettingException(final String message) {
+        super(message);
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.IteratorOptionsCache;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.ElementId;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The AdjacentIdIterator is used by GetAdjacentIds to return just the
+ * serialised adjacent vertex of each edge rather than the whole edge.
+ * <p>
+ * The adjacent vertex of an edge only depends on its row key, so all the
+ * key-value pairs in a row are read and a single key-value pair is returned
+ * for the row. The key returned is the last key in the row, so if the scan is
+ * restarted after that key the row is not read again. The value holds the
+ * number of key-value pairs in the row, so the client can return the same
+ * number of adjacent ids as it would have done for the full edges, followed
+ * by the serialised adjacent vertex.
+ * <p>
+ * If the {@link AccumuloStoreConstants#DEDUPLICATE_ADJACENT_IDS} option is
+ * true then each adjacent vertex is only returned once for each range, up to
+ * {@link #MAX_DEDUPLICATED_VERTICES} vertices. The de-duplication is best
+ * effort, so the client may still receive the same vertex more than once.
+ */
+public class AdjacentIdIterator extends WrappingIterator implements OptionDescriber {
+    public static final int MAX_DEDUPLICATED_VERTICES = 100000;
+    private static final int COUNT_LENGTH = 4;
+
+    private final Set<ByteSequence> returnedVertices = new HashSet<>();
+    private AccumuloElementConverter elementConverter;
+    private ToBytesSerialiser vertexSerialiser;
+    private boolean deduplicate;
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options, final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        validateOptions(options);
+        final String schemaJson = options.get(AccumuloStoreConstants.SCHEMA);
+        final String elementConverterClass = options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
+        try {
+            elementConverter = IteratorOptionsCache.getElementConverter(elementConverterClass, schemaJson);
+        } catch (final ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
+            throw new SchemaException("Failed to load element converter from class name provided : " + elementConverterClass, e);
+        }
+        vertexSerialiser = (ToBytesSerialiser) IteratorOptionsCache.getSchema(schemaJson).getVertexSerialiser();
+        deduplicate = Boolean.parseBoolean(options.get(AccumuloStoreConstants.DEDUPLICATE_ADJACENT_IDS));
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        returnedVertices.clear();
+        super.seek(range, columnFamilies, inclusive);
+        findTop();
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    @Override
+    public boolean hasTop() {
+        return null != topKey;
+    }
+
+    @Override
+    public void next() throws IOException {
+        findTop();
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final AdjacentIdIterator copy = new AdjacentIdIterator();
+        copy.setSource(getSource().deepCopy(env));
+        copy.elementConverter = elementConverter;
+        copy.vertexSerialiser = vertexSerialiser;
+        copy.deduplicate = deduplicate;
+        return copy;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.ADJACENT_ID_ITERATOR_NAME,
+                "Returns the serialised adjacent vertex for each row instead of the edges")
+                .addSchemaNamedOption()
+                .addElementConverterClassNamedOption()
+                .addNamedOption(AccumuloStoreConstants.DEDUPLICATE_ADJACENT_IDS,
+                        "Optional - set to true to only return each adjacent vertex once")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!options.containsKey(AccumuloStoreConstants.SCHEMA)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SCHEMA);
+        }
+        if (!options.containsKey(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of adjacent ids that a value returned by this iterator
+     * represents.
+     *
+     * @param value the value returned by this iterator
+     * @return the number of adjacent ids
+     */
+    public static int getCount(final Value value) {
+        return ByteBuffer.wrap(value.get(), 0, COUNT_LENGTH).getInt();
+    }
+
+    /**
+     * Gets the serialised adjacent vertex from a value returned by this
+     * iterator.
+     *
+     * @param value the value returned by this iterator
+     * @return the serialised adjacent vertex
+     */
+    public static byte[] getSerialisedVertex(final Value value) {
+        final byte[] bytes = value.get();
+        return Arrays.copyOfRange(bytes, COUNT_LENGTH, bytes.length);
+    }
+
+    private void findTop() throws IOException {
+        topKey = null;
+        topValue = null;
+        final SortedKeyValueIterator<Key, Value> source = getSource();
+        while (source.hasTop()) {
+            final byte[] row = source.getTopKey().getRowData().toArray();
+            final ByteSequence rowSequence = new ArrayByteSequence(row);
+            final Key lastKey = new Key();
+            int count = 0;
+            while (source.hasTop() && rowSequence.equals(source.getTopKey().getRowData())) {
+                lastKey.set(source.getTopKey());
+                count++;
+                source.next();
+            }
+
+            byte[] adjacentVertex = elementConverter.getSerialisedAdjacentVertex(row);
+            if (null == adjacentVertex) {
+                adjacentVertex = getSerialisedAdjacentVertex(lastKey);
+                if (null == adjacentVertex) {
+                    continue;
+                }
+            }
+            if (deduplicate) {
+                if (returnedVertices.contains(new ArrayByteSequence(adjacentVertex))) {
+                    continue;
+                }
+                if (returnedVertices.size() < MAX_DEDUPLICATED_VERTICES) {
+                    returnedVertices.add(new ArrayByteSequence(adjacentVertex));
+                }
+                count = 1;
+            }
+
+            topKey = lastKey;
+            topValue = new Value(ByteBuffer.allocate(COUNT_LENGTH + adjacentVertex.length)
+                    .putInt(count)
+                    .put(adjacentVertex)
+                    .array());
+            return;
+        }
+    }
+
+    // Converters that cannot read the serialised adjacent vertex from the row
+    // return null, so the edge id is deserialised and its vertex serialised.
+    private byte[] getSerialisedAdjacentVertex(final Key key) throws IOException {
+        final ElementId elementId = elementConverter.getElementId(key, true);
+        if (!(elementId instanceof EdgeId)) {
+            return null;
+        }
+        return vertexSerialiser.serialise(((EdgeId) elementId).getAdjacentMatchedVertexValue());
+    }
+}
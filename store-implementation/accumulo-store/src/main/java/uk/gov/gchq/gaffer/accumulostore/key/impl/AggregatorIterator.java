@@ -25,19 +25,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.IteratorOptionsCache;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AggregationException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
-import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.PrimitivePropertiesAggregator;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
-import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -53,6 +52,12 @@ public class AggregatorIterator extends Combiner {
     private Schema schema;
     private AccumuloElementConverter elementConverter;
 
+    /**
+     * The primitive aggregators for each group, or null for groups whose
+     * properties have to be deserialised to be aggregated.
+     */
+    private final Map<String, PrimitivePropertiesAggregator> primitiveAggregators = new HashMap<>();
+
     @Override
     public Value reduce(final Key key, final Iterator<Value> iter) {
         // Get first Value. If this is the only Value then return it straight
@@ -62,6 +67,16 @@ public class AggregatorIterator extends Combiner {
             return value;
         }
         final String group = elementConverter.getGroupFromColumnFamily(key.getColumnFamilyData().getBackingArray());
+        final PrimitivePropertiesAggregator primitiveAggregator = getPrimitiveAggregator(group);
+        if (null != primitiveAggregator) {
+            primitiveAggregator.reset();
+            primitiveAggregator.aggregate(value);
+            while (iter.hasNext()) {
+                primitiveAggregator.aggregate(iter.next());
+            }
+            return primitiveAggregator.getValue();
+        }
+
         Properties properties;
         final ElementAggregator aggregator = schema.getElement(group).getIngestAggregator();
         try {
@@ -86,27 +101,29 @@ public class AggregatorIterator extends Combiner {
         }
     }
 
+    private PrimitivePropertiesAggregator getPrimitiveAggregator(final String group) {
+        if (!primitiveAggregators.containsKey(group)) {
+            final PrimitivePropertiesAggregator primitiveAggregator =
+                    PrimitivePropertiesAggregator.create(schema, group, schema.getElement(group).getIngestAggregator());
+            LOGGER.debug("Aggregating group {} using primitive aggregation = {}", group, null != primitiveAggregator);
+            primitiveAggregators.put(group, primitiveAggregator);
+        }
+        return primitiveAggregators.get(group);
+    }
+
     @Override
     public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options,
                      final IteratorEnvironment env) throws IOException {
         super.init(source, options, env);
-        try {
-            schema = Schema.fromJson(options.get(AccumuloStoreConstants.SCHEMA).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the schema from json", e);
-        }
+        final String schemaJson = options.get(AccumuloStoreConstants.SCHEMA);
+        schema = IteratorOptionsCache.getSchema(schemaJson);
         LOGGER.debug("Initialising AggregatorIterator with schema {}", schema);
 
         final String elementConverterClass = options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
         try {
-            elementConverter = Class
-                    .forName(elementConverterClass)
-                    .asSubclass(AccumuloElementConverter.class)
-                    .getConstructor(Schema.class)
-                    .newInstance(schema);
+            elementConverter = IteratorOptionsCache.getElementConverter(elementConverterClass, schemaJson);
             LOGGER.debug("Creating AccumuloElementConverter of class {}", elementConverterClass);
-        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+        } catch (final ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
             throw new AggregationException("Failed to create element converter of the class name provided ("
                     + elementConverterClass + ")", e);
         }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ElementCountIterator counts the key-value pairs in each range it is
+ * seeked to, by column family, and returns a single key-value pair holding
+ * those counts instead of the key-value pairs themselves. It is applied after
+ * all the other scan time iterators so the counts are the number of elements
+ * of each group that would have been returned to the client.
+ * <p>
+ * The key returned is the last key counted, so if the scan is restarted after
+ * that key nothing is counted twice. The value can be read with
+ * {@link #decodeCounts(Value)} and the counts from each range added together
+ * by the client.
+ */
+public class ElementCountIterator extends WrappingIterator implements OptionDescriber {
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        super.seek(range, columnFamilies, inclusive);
+        countRange();
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    @Override
+    public boolean hasTop() {
+        return null != topKey;
+    }
+
+    @Override
+    public void next() throws IOException {
+        topKey = null;
+        topValue = null;
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final ElementCountIterator copy = new ElementCountIterator();
+        copy.setSource(getSource().deepCopy(env));
+        return copy;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.COUNT_ITERATOR_NAME,
+                "Returns the number of key-value pairs in each column family instead of the key-value pairs")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        return true;
+    }
+
+    /**
+     * Reads the counts from a value returned by this iterator.
+     *
+     * @param value the value returned by this iterator
+     * @return the number of key-value pairs counted for each column family
+     * @throws IOException if the value could not be read
+     */
+    public static Map<ByteSequence, Long> decodeCounts(final Value value) throws IOException {
+        final Map<ByteSequence, Long> counts = new HashMap<>();
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(value.get()))) {
+            final int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                final byte[] columnFamily = new byte[input.readInt()];
+                input.readFully(columnFamily);
+                counts.put(new ArrayByteSequence(columnFamily), input.readLong());
+            }
+        }
+        return counts;
+    }
+
+    private void countRange() throws IOException {
+        topKey = null;
+        topValue = null;
+        final SortedKeyValueIterator<Key, Value> source = getSource();
+        final Map<ByteSequence, Long> counts = new HashMap<>();
+        final Key lastKey = new Key();
+        boolean counted = false;
+        while (source.hasTop()) {
+            final Key key = source.getTopKey();
+            final ByteSequence columnFamily = key.getColumnFamilyData();
+            final Long count = counts.get(columnFamily);
+            if (null == count) {
+                counts.put(new ArrayByteSequence(columnFamily.toArray()), 1L);
+            } else {
+                counts.put(columnFamily, count + 1);
+            }
+            lastKey.set(key);
+            counted = true;
+            source.next();
+        }
+        if (counted) {
+            topKey = lastKey;
+            topValue = encodeCounts(counts);
+        }
+    }
+
+    private static Value encodeCounts(final Map<ByteSequence, Long> counts) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(counts.size());
+            for (final Map.Entry<ByteSequence, Long> entry : counts.entrySet()) {
+                final byte[] columnFamily = entry.getKey().toArray();
+                output.writeInt(columnFamily.length);
+                output.write(columnFamily);
+                output.writeLong(entry.getValue());
+            }
+        }
+        return new Value(bytes.toByteArray());
+    }
+}
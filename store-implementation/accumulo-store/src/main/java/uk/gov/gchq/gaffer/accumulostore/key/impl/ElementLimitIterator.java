@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The ElementLimitIterator stops returning key-value pairs once the limit
+ * provided has been reached. It is applied after all the other scan time
+ * iterators so each key-value pair it returns is an element that will be
+ * returned to the client.
+ * <p>
+ * The limit is applied each time the iterator is seeked, so a tablet server
+ * may return more than the limit in total. The limit must therefore still be
+ * applied by the client; this iterator just stops the tablet servers sending
+ * results that would be discarded.
+ */
+public class ElementLimitIterator extends WrappingIterator implements OptionDescriber {
+    private long limit;
+    private long count;
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options, final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        validateOptions(options);
+        limit = Long.parseLong(options.get(AccumuloStoreConstants.LIMIT));
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        count = 0;
+        super.seek(range, columnFamilies, inclusive);
+    }
+
+    @Override
+    public boolean hasTop() {
+        return count < limit && super.hasTop();
+    }
+
+    @Override
+    public void next() throws IOException {
+        count++;
+        super.next();
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final ElementLimitIterator copy = new ElementLimitIterator();
+        copy.setSource(getSource().deepCopy(env));
+        copy.limit = limit;
+        return copy;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.LIMIT_ITERATOR_NAME,
+                "Only returns up to the given number of key-value pairs for each range")
+                .addNamedOption(AccumuloStoreConstants.LIMIT, "The maximum number of key-value pairs to return")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!options.containsKey(AccumuloStoreConstants.LIMIT)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.LIMIT);
+        }
+        if (Long.parseLong(options.get(AccumuloStoreConstants.LIMIT)) < 0) {
+            throw new IllegalArgumentException(AccumuloStoreConstants.LIMIT + " must not be negative");
+        }
+        return true;
+    }
+}
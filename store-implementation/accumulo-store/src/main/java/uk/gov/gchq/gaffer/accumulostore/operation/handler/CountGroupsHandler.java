@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@code CountGroupsHandler} handles {@link CountGroups} operations. If the
+ * input is from an {@link AccumuloItemRetriever} that has count pushdown
+ * enabled, the elements are counted on the tablet servers.
+ * <p>
+ * If the operation has a limit the elements are read and counted as normal.
+ * The limit applies to the elements in the order they are read, which the
+ * counts from the tablet servers cannot reproduce.
+ *
+ * @see uk.gov.gchq.gaffer.accumulostore.optimiser.PushdownOperationChainOptimiser
+ */
+public class CountGroupsHandler extends uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler {
+    @Override
+    public GroupCounts doOperation(final CountGroups operation,
+                                   final Context context, final Store store)
+            throws OperationException {
+        if (null != operation.getLimit()
+                || !(operation.getInput() instanceof AccumuloItemRetriever)
+                || !((AccumuloItemRetriever<?, ?>) operation.getInput()).isCountPushdownEnabled()) {
+            return super.doOperation(operation, context, store);
+        }
+
+        final Map<String, Long> counts;
+        try {
+            counts = ((AccumuloItemRetriever<?, ?>) operation.getInput()).getGroupCounts();
+        } catch (final RetrieverException e) {
+            throw new OperationException("Failed to count groups", e);
+        }
+
+        final Map<String, Integer> entityGroups = new HashMap<>();
+        final Map<String, Integer> edgeGroups = new HashMap<>();
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (store.getSchema().getEntityGroups().contains(entry.getKey())) {
+                entityGroups.put(entry.getKey(), entry.getValue().intValue());
+            } else {
+                edgeGroups.put(entry.getKey(), entry.getValue().intValue());
+            }
+        }
+
+        final GroupCounts groupCounts = new GroupCounts();
+        groupCounts.setEntityGroups(entityGroups);
+        groupCounts.setEdgeGroups(edgeGroups);
+        CloseableUtil.close(operation);
+        return groupCounts;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+
+/**
+ * A {@code CountHandler} handles {@link Count} operations. If the input is
+ * from an {@link AccumuloItemRetriever} that has count pushdown enabled, the
+ * elements are counted on the tablet servers, otherwise the input is counted
+ * as normal.
+ *
+ * @param <T> the type of items being counted
+ * @see uk.gov.gchq.gaffer.accumulostore.optimiser.PushdownOperationChainOptimiser
+ */
+public class CountHandler<T> extends uk.gov.gchq.gaffer.store.operation.handler.CountHandler<T> {
+    @Override
+    public Long doOperation(final Count operation, final Context context, final Store store)
+            throws OperationException {
+        if (operation.getInput() instanceof AccumuloItemRetriever
+                && ((AccumuloItemRetriever<?, ?>) operation.getInput()).isCountPushdownEnabled()) {
+            final AccumuloItemRetriever<?, ?> retriever = (AccumuloItemRetriever<?, ?>) operation.getInput();
+            try {
+                return retriever.getGroupCounts().values().stream().mapToLong(Long::longValue).sum();
+            } catch (final RetrieverException e) {
+                throw new OperationException("Failed to count elements", e);
+            } finally {
+                retriever.close();
+            }
+        }
+        return super.doOperation(operation, context, store);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.optimiser;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.optimiser.AbstractOperationChainOptimiser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * The {@code PushdownOperationChainOptimiser} allows a {@link Limit},
+ * {@link Count} or {@link CountGroups} that directly follows a
+ * {@link GetElements} or {@link GetAllElements} to be applied on the tablet
+ * servers.
+ * <p>
+ * The get operation is given an option that tells the retriever to add a
+ * limit iterator, so each tablet server only returns up to the limit, or
+ * tells the count handlers to count the elements on the tablet servers. The
+ * {@link Limit}, {@link Count} and {@link CountGroups} operations are left in
+ * the chain, so the results are the same as without this optimiser.
+ * Operations whose view has post transform filters are not changed as those
+ * filters are applied by the client, and a {@link CountGroups} with a limit
+ * is not pushed down as the limit is applied to the elements as they are read.
+ * <p>
+ * Limits and counts are only pushed down if the store's iterator setting
+ * factory provides the iterators to apply them.
+ */
+public class PushdownOperationChainOptimiser extends AbstractOperationChainOptimiser {
+    private final boolean limitPushdown;
+    private final boolean countPushdown;
+
+    public PushdownOperationChainOptimiser() {
+        this(true, true);
+    }
+
+    public PushdownOperationChainOptimiser(final boolean limitPushdown, final boolean countPushdown) {
+        this.limitPushdown = limitPushdown;
+        this.countPushdown = countPushdown;
+    }
+
+    @Override
+    protected List<Operation> addPreOperations(final Operation previousOp, final Operation currentOp) {
+        return emptyList();
+    }
+
+    @Override
+    protected List<Operation> optimiseCurrentOperation(final Operation previousOp, final Operation currentOp, final Operation nextOp) {
+        if (!isPushdownGetOperation(currentOp) || null == nextOp) {
+            return singletonList(currentOp);
+        }
+
+        if (limitPushdown && Limit.class.equals(nextOp.getClass()) && null != ((Limit) nextOp).getResultLimit()) {
+            final Limit limit = (Limit) nextOp;
+            // If the results are not being truncated then one extra element
+            // is needed so the limit handler can tell the limit was exceeded.
+            final long resultLimit = Boolean.FALSE.equals(limit.getTruncate()) ? limit.getResultLimit() + 1L : limit.getResultLimit();
+            return singletonList(withOption(currentOp, AccumuloStoreConstants.OPERATION_LIMIT_PUSHDOWN, Long.toString(resultLimit)));
+        }
+
+        if (countPushdown && (Count.class.equals(nextOp.getClass())
+                || (CountGroups.class.equals(nextOp.getClass()) && null == ((CountGroups) nextOp).getLimit()))) {
+            return singletonList(withOption(currentOp, AccumuloStoreConstants.OPERATION_COUNT_PUSHDOWN, "true"));
+        }
+
+        return singletonList(currentOp);
+    }
+
+    @Override
+    protected List<Operation> addPostOperations(final Operation currentOp, final Operation nextOp) {
+        return emptyList();
+    }
+
+    @Override
+    protected List<Operation> optimiseAll(final List<Operation> ops) {
+        return ops;
+    }
+
+    private boolean isPushdownGetOperation(final Operation operation) {
+        if (null != operation
+                && (GetElements.class.equals(operation.getClass()) || GetAllElements.class.equals(operation.getClass()))) {
+            final View view = ((GraphFilters) operation).getView();
+            return null == view || !view.hasPostTransformFilters();
+        }
+        return false;
+    }
+
+    private Operation withOption(final Operation operation, final String name, final String value) {
+        final Operation optimisedOp = operation.shallowClone();
+        final Map<String, String> options = null != operation.getOptions() ? new HashMap<>(operation.getOptions()) : new HashMap<>();
+        options.put(name, value);
+        optimisedOp.setOptions(options);
+        return optimisedOp;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (null == o || getClass() != o.getClass()) {
+            return false;
+        }
+        final PushdownOperationChainOptimiser that = (PushdownOperationChainOptimiser) o;
+        return limitPushdown == that.limitPushdown && countPushdown == that.countPushdown;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), limitPushdown, countPushdown);
+    }
+}
@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.accumulostore.retriever;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
@@ -28,6 +29,8 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementCountIterator;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
@@ -40,9 +43,11 @@ import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.io.IOException;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -53,6 +58,7 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
 
     protected final boolean includeMatchedVertex;
     private final Iterable<? extends I_ITEM> ids;
+    private final IteratorSetting limitIteratorSetting;
 
     protected AccumuloItemRetriever(final AccumuloStore store, final OP operation,
                                     final User user, final boolean includeMatchedVertex,
@@ -60,6 +66,7 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
         super(store, operation, user, iteratorSettings);
         this.includeMatchedVertex = includeMatchedVertex;
         this.ids = operation instanceof Input ? ((Input<Iterable<? extends I_ITEM>>) operation).getInput() : null;
+        this.limitIteratorSetting = createLimitIteratorSetting();
     }
 
     /**
@@ -70,8 +77,9 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
     @Override
     public CloseableIterator<Element> iterator() {
         CloseableUtil.close(iterator);
+        startScanMetrics();
 
-        final Iterator<? extends I_ITEM> idIterator = null != ids ? ids.iterator() : Collections.emptyIterator();
+        final Iterator<? extends I_ITEM> idIterator = createIdIterator();
         if (!idIterator.hasNext()) {
             return new EmptyCloseableIterator<>();
         }
@@ -86,38 +94,109 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
         return iterator;
     }
 
+    /**
+     * Whether the number of elements returned by this retriever can be
+     * counted on the tablet servers using {@link #getGroupCounts()}, rather
+     * than by reading every element. This is only the case if the
+     * {@link AccumuloStoreConstants#OPERATION_COUNT_PUSHDOWN} option has been
+     * set on the operation, the view has no post transform filters, as
+     * they are applied by the client, and the iterator setting factory
+     * provides a count iterator.
+     *
+     * @return true if the elements can be counted on the tablet servers
+     */
+    public boolean isCountPushdownEnabled() {
+        return Boolean.parseBoolean(operation.getOption(AccumuloStoreConstants.OPERATION_COUNT_PUSHDOWN))
+                && !operation.getView().hasPostTransformFilters()
+                && null != iteratorSettingFactory.getCountIteratorSetting();
+    }
+
+    /**
+     * Counts the elements of each group that this retriever would return.
+     * The elements are counted on the tablet servers and only the counts are
+     * sent back to the client.
+     *
+     * @return the number of elements in each group
+     * @throws RetrieverException if the elements could not be counted
+     */
+    public Map<String, Long> getGroupCounts() throws RetrieverException {
+        final Map<String, Long> groupCounts = new HashMap<>();
+        final Iterator<? extends I_ITEM> idIterator = createIdIterator();
+        if (!idIterator.hasNext()) {
+            return groupCounts;
+        }
+
+        final IteratorSetting countIteratorSetting = iteratorSettingFactory.getCountIteratorSetting();
+        try (final SeedBatchScanner<I_ITEM> scanner = new SeedBatchScanner<>(idIterator,
+                store.getProperties().getMaxEntriesForBatchScanner(),
+                store.getProperties().getPrefetchDepthForBatchScanner(),
+                store.getOperationExecutor(),
+                this::addToRanges,
+                ranges -> {
+                    // The limit iterator is not added so every element is counted.
+                    final BatchScanner batchScanner = super.getScanner(ranges);
+                    batchScanner.addScanIterator(countIteratorSetting);
+                    return batchScanner;
+                })) {
+            while (scanner.hasNext()) {
+                final Map<ByteSequence, Long> counts = ElementCountIterator.decodeCounts(scanner.next().getValue());
+                for (final Map.Entry<ByteSequence, Long> count : counts.entrySet()) {
+                    groupCounts.merge(elementConverter.getGroupFromColumnFamily(count.getKey().toArray()),
+                            count.getValue(), Long::sum);
+                }
+            }
+        } catch (final TableNotFoundException | StoreException | IOException e) {
+            throw new RetrieverException("Failed to count elements", e);
+        }
+        return groupCounts;
+    }
+
+    @Override
+    protected BatchScanner getScanner(final Set<Range> ranges) throws TableNotFoundException, StoreException {
+        final BatchScanner scanner = super.getScanner(ranges);
+        if (null != limitIteratorSetting) {
+            scanner.addScanIterator(limitIteratorSetting);
+            LOGGER.debug("Added iterator to BatchScanner: {}", limitIteratorSetting);
+        }
+        return scanner;
+    }
+
+    protected Iterator<? extends I_ITEM> createIdIterator() {
+        return null != ids ? ids.iterator() : Collections.emptyIterator();
+    }
+
     protected abstract void addToRanges(final I_ITEM seed, final Set<Range> ranges) throws RangeFactoryException;
 
+    private IteratorSetting createLimitIteratorSetting() {
+        final String limit = operation.getOption(AccumuloStoreConstants.OPERATION_LIMIT_PUSHDOWN);
+        if (null == limit || operation.getView().hasPostTransformFilters()) {
+            return null;
+        }
+        return iteratorSettingFactory.getLimitIteratorSetting(Long.parseLong(limit));
+    }
+
     protected class ElementIterator implements CloseableIterator<Element> {
         private final Iterator<? extends I_ITEM> idsIterator;
-        private int count;
-        private BatchScanner scanner;
-        private Iterator<Entry<Key, Value>> scannerIterator;
+        private final SeedBatchScanner<I_ITEM> scanner;
         private Element nextElm;
 
         public ElementIterator(final Iterator<? extends I_ITEM> idIterator) throws RetrieverException {
             idsIterator = idIterator;
-            count = 0;
-            final Set<Range> ranges = new HashSet<>();
-            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                count++;
-                try {
-                    addToRanges(idsIterator.next(), ranges);
-                } catch (final RangeFactoryException e) {
-                    LOGGER.error("Failed to create a range from given seed pair", e);
-                }
-            }
 
-            // Create BatchScanner, appropriately configured (i.e. ranges,
+            // Create BatchScanners, appropriately configured (i.e. ranges,
             // iterators, etc).
             try {
-                scanner = getScanner(ranges);
+                scanner = new SeedBatchScanner<>(idsIterator,
+                        store.getProperties().getMaxEntriesForBatchScanner(),
+                        store.getProperties().getPrefetchDepthForBatchScanner(),
+                        store.getOperationExecutor(),
+                        AccumuloItemRetriever.this::addToRanges,
+                        AccumuloItemRetriever.this::getScanner);
             } catch (final Exception e) {
                 CloseableUtil.close(idsIterator);
                 CloseableUtil.close(ids);
                 throw new RetrieverException(e);
             }
-            scannerIterator = scanner.iterator();
         }
 
         @Override
@@ -126,56 +205,38 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
             if (null != nextElm) {
                 return true;
             }
-            while (scannerIterator.hasNext()) {
-                final Entry<Key, Value> entry = scannerIterator.next();
+            // The scanner moves on to the batch scanner for the next chunk of
+            // seeds once the current one is spent.
+            while (scannerHasNext(scanner)) {
+                final Entry<Key, Value> entry = scannerNext(scanner);
+                final long conversionStart = scanMetrics.startTimer();
                 try {
+                    final String group = elementConverter.getGroupFromColumnFamily(entry.getKey().getColumnFamilyData().getBackingArray());
                     nextElm = elementConverter.getFullElement(
                             entry.getKey(),
                             entry.getValue(),
-                            includeMatchedVertex);
+                            includeMatchedVertex,
+                            getRequiredProperties(group));
                 } catch (final AccumuloElementConversionException e) {
+                    scanMetrics.recordConversionFailure();
                     LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null",
                             e);
                     continue;
                 }
+                scanMetrics.recordConversion(conversionStart);
                 doTransformation(nextElm);
                 if (doPostFilter(nextElm)) {
                     ViewUtil.removeProperties(operation.getView(), nextElm);
+                    scanMetrics.recordElementReturned();
                     return true;
                 } else {
+                    scanMetrics.recordElementFilteredOut();
                     nextElm = null;
                 }
             }
-            // If current scanner is spent then go back to the iterator
-            // through the provided entities, and see if there are more.
-            // If so create the next scanner, if there are no more entities
-            // then return false.
-            while (idsIterator.hasNext() && !scannerIterator.hasNext()) {
-                count = 0;
-                final Set<Range> ranges = new HashSet<>();
-                while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                    count++;
-                    try {
-                        addToRanges(idsIterator.next(), ranges);
-                    } catch (final RangeFactoryException e) {
-                        LOGGER.error("Failed to create a range from given seed", e);
-                    }
-                }
-                scanner.close();
-                try {
-                    scanner = getScanner(ranges);
-                } catch (final TableNotFoundException | StoreException e) {
-                    LOGGER.error("{} returning iterator doesn't have any more elements", e.getMessage(), e);
-                    return false;
-                }
-                scannerIterator = scanner.iterator();
-            }
-            if (!scannerIterator.hasNext()) {
-                scanner.close();
-                return false;
-            } else {
-                return hasNext();
-            }
+            scanner.close();
+            finishScanMetrics();
+            return false;
         }
 
         @Override
@@ -197,9 +258,7 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
 
         @Override
         public void close() {
-            if (null != scanner) {
-                scanner.close();
-            }
+            scanner.close();
         }
     }
 }
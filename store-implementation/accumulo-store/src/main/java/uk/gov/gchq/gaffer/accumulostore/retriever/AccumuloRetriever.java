@@ -19,7 +19,9 @@ package uk.gov.gchq.gaffer.accumulostore.retriever;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.io.Text;
 import org.slf4j.Logger;
@@ -29,18 +31,27 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.RangeFactory;
+import uk.gov.gchq.gaffer.accumulostore.retriever.metrics.ScanMetrics;
+import uk.gov.gchq.gaffer.accumulostore.retriever.metrics.ScanMetricsSink;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM> implements CloseableIterable<O_ITEM> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloRetriever.class);
@@ -54,6 +65,9 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
     protected final OP operation;
     protected final AccumuloElementConverter elementConverter;
     protected final IteratorSetting[] iteratorSettings;
+    private final Map<String, Optional<Set<String>>> requiredProperties = new ConcurrentHashMap<>();
+    private final ScanMetricsSink scanMetricsSink;
+    protected volatile ScanMetrics scanMetrics;
 
     protected AccumuloRetriever(final AccumuloStore store, final OP operation,
                                 final User user, final IteratorSetting... iteratorSettings)
@@ -71,6 +85,8 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
         } else {
             this.authorisations = new Authorizations();
         }
+        this.scanMetricsSink = store.getScanMetricsSink();
+        this.scanMetrics = createScanMetrics();
     }
 
     /**
@@ -99,11 +115,77 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
         return true;
     }
 
+    /**
+     * Gets the properties of the group that are needed to apply the view and
+     * return the element, so other properties do not need to be deserialised.
+     *
+     * @param group the element group
+     * @return the required properties, or null if all properties are required
+     */
+    protected Set<String> getRequiredProperties(final String group) {
+        // Retrievers can be iterated by several threads, and the map cannot
+        // hold null values, so "all properties" is stored as an empty Optional.
+        return requiredProperties.computeIfAbsent(group, g -> {
+            final SchemaElementDefinition schemaElementDef = store.getSchema().getElement(g);
+            return null == schemaElementDef ? Optional.empty()
+                    : Optional.ofNullable(ViewUtil.getRequiredProperties(operation.getView().getElement(g), schemaElementDef.getProperties()));
+        }).orElse(null);
+    }
+
     @Override
     public void close() {
         if (null != iterator) {
             iterator.close();
         }
+        finishScanMetrics();
+    }
+
+    /**
+     * Gets the metrics for the most recent query run by this retriever.
+     *
+     * @return the scan metrics
+     */
+    public ScanMetrics getScanMetrics() {
+        return scanMetrics;
+    }
+
+    /**
+     * Starts recording the metrics for a new query. This should be called
+     * each time a new iterator is created. The metrics for any previous query
+     * are finished first.
+     */
+    protected void startScanMetrics() {
+        if (scanMetrics.getScanners() > 0) {
+            finishScanMetrics();
+            scanMetrics = createScanMetrics();
+        }
+    }
+
+    /**
+     * Finishes recording the metrics for the current query, and sends them
+     * to the store's {@link ScanMetricsSink} if the query has scanned any
+     * ranges.
+     */
+    protected void finishScanMetrics() {
+        final ScanMetrics metrics = scanMetrics;
+        if (metrics.getScanners() > 0 && metrics.finish() && null != scanMetricsSink) {
+            scanMetricsSink.record(metrics);
+        }
+    }
+
+    protected boolean scannerHasNext(final Iterator<Map.Entry<Key, Value>> scanner) {
+        final long timerStart = scanMetrics.startTimer();
+        final boolean hasNext = scanner.hasNext();
+        scanMetrics.recordScannerWait(timerStart);
+        return hasNext;
+    }
+
+    protected Map.Entry<Key, Value> scannerNext(final Iterator<Map.Entry<Key, Value>> scanner) {
+        final long timerStart = scanMetrics.startTimer();
+        final Map.Entry<Key, Value> entry = scanner.next();
+        scanMetrics.recordScannerWait(timerStart);
+        scanMetrics.recordEntryReceived();
+        return entry;
     }
 
     /**
@@ -129,6 +211,9 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
                 }
             }
         }
+        // The batch scanner merges overlapping and contiguous ranges itself
+        // before looking up the tablets for them.
+        scanMetrics.recordScanner(ranges.size());
         scanner.setRanges(ranges);
         LOGGER.debug("Added {} ranges to BatchScanner", ranges.size());
 
@@ -152,4 +237,9 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
     protected boolean postFilter(final Element element, final ElementFilter postFilter) {
         return null == postFilter || postFilter.test(element);
     }
+
+    private ScanMetrics createScanMetrics() {
+        return new ScanMetrics(operation.getClass().getSimpleName(),
+                null != scanMetricsSink || Boolean.parseBoolean(operation.getOption(AccumuloStoreConstants.OPERATION_SCAN_METRICS)));
+    }
 }
@@ -23,6 +23,7 @@ import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +32,7 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionE
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
 import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloSingleIDRetriever;
+import uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
@@ -46,6 +48,7 @@ import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -55,6 +58,12 @@ import java.util.Set;
 public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? extends EntityId>, CloseableIterable<? extends Element>> & GraphFilters>
         extends AccumuloRetriever<OP, Element> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloSetRetriever.class);
+    /**
+     * If more than this proportion of the edges that pass the bloom filter
+     * on the tablet servers are rejected by the client, the filter is
+     * rebuilt with a lower false positive rate when possible.
+     */
+    private static final double MAX_OBSERVED_FALSE_POSITIVE_PROPORTION = 0.1;
     private boolean readEntriesIntoMemory;
 
     public AccumuloSetRetriever(final AccumuloStore store, final OP operation, final User user)
@@ -91,6 +100,7 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
     @Override
     public CloseableIterator<Element> iterator() {
         CloseableUtil.close(iterator);
+        startScanMetrics();
 
         if (!hasSeeds()) {
             return new EmptyCloseableIterator<>();
@@ -129,12 +139,38 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         return vertices;
     }
 
-    protected void addToBloomFilter(final Iterable<? extends Object> vertices, final BloomFilter filter)
+    /**
+     * Creates a bloom filter to pass to the iterators, sized for the given
+     * number of items.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @return a new bloom filter
+     */
+    protected Filter createBloomFilter(final double falsePositiveRate, final int numItemsToBeAdded) {
+        return BloomFilterUtils.getBloomFilter(falsePositiveRate, numItemsToBeAdded,
+                store.getProperties().getMaxBloomFilterToPassToAnIterator(),
+                store.getProperties().getBlockedBloomFilter());
+    }
+
+    /**
+     * Gets the number of items in the given seeds if it is known without
+     * iterating through them, otherwise the default provided.
+     *
+     * @param seeds       the seeds
+     * @param defaultSize the size to use if the number of seeds is not known
+     * @return the number of seeds
+     */
+    protected int getSizeIfKnown(final Iterable<?> seeds, final int defaultSize) {
+        return seeds instanceof Collection ? ((Collection<?>) seeds).size() : defaultSize;
+    }
+
+    protected void addToBloomFilter(final Iterable<? extends Object> vertices, final Filter filter)
             throws RetrieverException {
         addToBloomFilter(vertices.iterator(), filter);
     }
 
-    protected void addToBloomFilter(final Iterator<? extends Object> vertices, final BloomFilter filter)
+    protected void addToBloomFilter(final Iterator<? extends Object> vertices, final Filter filter)
             throws RetrieverException {
         try {
             while (vertices.hasNext()) {
@@ -145,8 +181,8 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         }
     }
 
-    protected void addToBloomFilter(final Iterator<? extends EntityId> seeds, final BloomFilter filter1,
-                                    final BloomFilter filter2) throws RetrieverException {
+    protected void addToBloomFilter(final Iterator<? extends EntityId> seeds, final Filter filter1,
+                                    final Filter filter2) throws RetrieverException {
         try {
             while (seeds.hasNext()) {
                 addToBloomFilter(seeds.next(), filter1, filter2);
@@ -156,13 +192,13 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         }
     }
 
-    protected void addToBloomFilter(final EntityId seed, final BloomFilter filter1, final BloomFilter filter2)
+    protected void addToBloomFilter(final EntityId seed, final Filter filter1, final Filter filter2)
             throws RetrieverException {
         addToBloomFilter(seed.getVertex(), filter1);
         addToBloomFilter(seed.getVertex(), filter2);
     }
 
-    private void addToBloomFilter(final Object vertex, final BloomFilter filter) throws RetrieverException {
+    private void addToBloomFilter(final Object vertex, final Filter filter) throws RetrieverException {
         try {
             filter.add(new org.apache.hadoop.util.bloom.Key(elementConverter.serialiseVertex(vertex)));
         } catch (final AccumuloElementConversionException e) {
@@ -175,7 +211,7 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         private Iterator<Element> iterator;
         private Element nextElm;
 
-        protected void initialise(final BloomFilter filter) throws RetrieverException {
+        protected void initialise(final Filter filter) throws RetrieverException {
             IteratorSetting bloomFilter = null;
             IteratorSetting[] iteratorSettings1 = Arrays.copyOf(iteratorSettings, iteratorSettings.length + 1);
             try {
@@ -268,21 +304,28 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         protected Iterator<? extends EntityId> idsAIterator;
         // The Bloom filter that is maintained client-side
         // as a secondary defeat of false positives.
-        protected BloomFilter clientSideFilter;
+        protected Filter clientSideFilter;
         protected Set<Object> currentSeeds;
         protected BatchScanner scanner;
-        protected BloomFilter filter;
+        protected Filter filter;
+        // The number of items and false positive rate the filter passed to
+        // the iterators was sized for.
+        protected int filterCapacity;
+        protected double filterFalsePositiveRate;
         private Iterator<Entry<Key, Value>> scannerIterator;
         private Element nextElm;
         private int count;
+        private long edgesReceived;
+        private long edgesRejected;
 
         public AbstractElementIteratorFromBatches() {
             // Set up client side filter
-            clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize());
+            clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize(),
+                    store.getProperties().getBlockedBloomFilter());
             // Create Bloom filter to be passed to iterators.
-            filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
-                    store.getProperties().getMaxEntriesForBatchScanner(),
-                    store.getProperties().getMaxBloomFilterToPassToAnIterator());
+            filterCapacity = getExpectedNumberOfFilterItems();
+            filterFalsePositiveRate = store.getProperties().getFalsePositiveRate();
+            filter = createBloomFilter(filterFalsePositiveRate, filterCapacity);
             currentSeeds = new HashSet<>();
         }
 
@@ -293,25 +336,37 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
             }
             try {
                 while (_hasNext()) {
-                    final Entry<Key, Value> entry = scannerIterator.next();
+                    final Entry<Key, Value> entry = scannerNext(scannerIterator);
+                    final long conversionStart = scanMetrics.startTimer();
                     try {
                         nextElm = elementConverter.getFullElement(entry.getKey(), entry.getValue(), true);
                     } catch (final AccumuloElementConversionException e) {
+                        scanMetrics.recordConversionFailure();
                         LOGGER.error("Failed to create next element from key and value entry set", e);
                         continue;
                     }
+                    scanMetrics.recordConversion(conversionStart);
+                    final boolean isEdge = nextElm instanceof Edge;
+                    if (isEdge) {
+                        edgesReceived++;
+                    }
                     if (secondaryCheck(nextElm)) {
                         doTransformation(nextElm);
                         if (doPostFilter(nextElm)) {
+                            scanMetrics.recordElementReturned();
                             return true;
                         }
+                    } else if (isEdge) {
+                        edgesRejected++;
                     }
+                    scanMetrics.recordElementFilteredOut();
                 }
             } catch (final RetrieverException e) {
                 LOGGER.debug("Failed to retrieve elements into iterator : {} returning iterator has no more elements", e.getMessage(), e);
                 return false;
             }
 
+            finishScanMetrics();
             return false;
         }
 
@@ -338,10 +393,68 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
             if (null != scanner) {
                 scanner.close();
             }
+            LOGGER.debug("{} of {} edges that passed the bloom filter were rejected by the client",
+                    edgesRejected, edgesReceived);
         }
 
         protected abstract void updateBloomFilterIfRequired(final EntityId seed) throws RetrieverException;
 
+        /**
+         * Gets the number of items that the bloom filter passed to the
+         * iterators should initially be sized for.
+         *
+         * @return the expected number of items in the filter
+         */
+        protected int getExpectedNumberOfFilterItems() {
+            return store.getProperties().getMaxEntriesForBatchScanner();
+        }
+
+        /**
+         * Called after each batch of seeds has been read, before the scanner
+         * for the batch is created. By default the bloom filter is not
+         * changed.
+         *
+         * @throws RetrieverException if the bloom filter could not be updated
+         */
+        protected void resizeBloomFilterIfRequired() throws RetrieverException {
+            // no action required.
+        }
+
+        /**
+         * Rebuilds the bloom filter passed to the iterators from the given
+         * items if it has become too small for them, or if too many of the
+         * edges it has let through have been rejected by the client. The
+         * filter is only rebuilt if the new filter would be larger.
+         *
+         * @param filterItems all the items that should be in the filter
+         * @throws RetrieverException if the items could not be added to the filter
+         */
+        protected void resizeBloomFilterIfRequired(final Set<Object> filterItems) throws RetrieverException {
+            int newCapacity = filterCapacity;
+            double newFalsePositiveRate = filterFalsePositiveRate;
+            if (filterItems.size() > filterCapacity) {
+                newCapacity = (int) Math.min(Integer.MAX_VALUE, 2L * filterItems.size());
+            }
+            if (edgesRejected > MAX_OBSERVED_FALSE_POSITIVE_PROPORTION * edgesReceived) {
+                newFalsePositiveRate = filterFalsePositiveRate / 2;
+            }
+            if (newCapacity == filterCapacity && newFalsePositiveRate == filterFalsePositiveRate) {
+                return;
+            }
+
+            final Filter newFilter = createBloomFilter(newFalsePositiveRate, newCapacity);
+            if (getVectorSize(newFilter) > getVectorSize(filter)) {
+                LOGGER.debug("Resizing bloom filter for {} items with a false positive rate of {}, {} of {} edges were rejected by the client",
+                        newCapacity, newFalsePositiveRate, edgesRejected, edgesReceived);
+                addToBloomFilter(filterItems, newFilter);
+                filter = newFilter;
+                filterCapacity = newCapacity;
+                filterFalsePositiveRate = newFalsePositiveRate;
+                edgesReceived = 0;
+                edgesRejected = 0;
+            }
+        }
+
         protected void updateScanner() throws RetrieverException {
             // Read through the first N entities (where N =
             // maxEntriesForBatchScanner), create the associated ranges
@@ -359,6 +472,7 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
                 }
                 updateBloomFilterIfRequired(seed);
             }
+            resizeBloomFilterIfRequired();
 
             try {
                 scanner = getScanner(ranges);
@@ -375,6 +489,16 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
             scannerIterator = scanner.iterator();
         }
 
+        private int getVectorSize(final Filter bloomFilter) {
+            if (bloomFilter instanceof BlockedBloomFilter) {
+                return ((BlockedBloomFilter) bloomFilter).getVectorSize();
+            }
+            if (bloomFilter instanceof BloomFilter) {
+                return ((BloomFilter) bloomFilter).getVectorSize();
+            }
+            return Integer.MAX_VALUE;
+        }
+
         /**
          * Check whether this is valid, i.e. one end is in the current set of
          * seeds that are being queried for and the other matches the Bloom
@@ -388,14 +512,14 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
 
         private boolean _hasNext() throws RetrieverException {
             // If current scanner has next then return true.
-            if (scannerIterator.hasNext()) {
+            if (scannerHasNext(scannerIterator)) {
                 return true;
             }
             // If current scanner is spent then go back to the iterator
             // through the provided entities, and see if there are more.
             // If so create the next scanner, if there are no more entities
             // then return false.
-            while (idsAIterator.hasNext() && !scannerIterator.hasNext()) {
+            while (idsAIterator.hasNext() && !scannerHasNext(scannerIterator)) {
                 updateScanner();
             }
             if (!scannerIterator.hasNext()) {
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * A {@code SeedBatchScanner} reads the entries for an iterator of seeds by
+ * splitting the seeds into chunks and reading each chunk with its own
+ * {@link BatchScanner}.
+ * <p>
+ * With a prefetch depth of 0 each batch scanner is only created once the
+ * previous one has been fully read. With a prefetch depth greater than 0 the
+ * ranges for up to that many following chunks are built, and their batch
+ * scanners opened, on the store's shared operation executor while the current
+ * chunk is read. This hides the gap at each chunk boundary at the cost of
+ * holding more batch scanners open at once. Closing this iterator closes every
+ * batch scanner it has opened, including any prefetched ones.
+ * <p>
+ * Prefetched chunks may be opened concurrently, so they can be returned in a
+ * different order to their seeds. As a {@link BatchScanner} does not return
+ * entries in order this makes no difference to the caller.
+ *
+ * @param <I> the type of seed
+ */
+public class SeedBatchScanner<I> implements CloseableIterator<Map.Entry<Key, Value>> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeedBatchScanner.class);
+
+    private final Iterator<? extends I> seeds;
+    private final int chunkSize;
+    private final int prefetchDepth;
+    private final RangeBuilder<I> rangeBuilder;
+    private final ScannerFactory scannerFactory;
+    private final Deque<Future<Chunk>> prefetched = new ArrayDeque<>();
+    private final List<BatchScanner> openScanners = new ArrayList<>();
+    private final Executor executor;
+    private final Object seedsLock = new Object();
+
+    private Chunk current;
+    private boolean closed;
+    private volatile boolean seedsExhausted;
+
+    public SeedBatchScanner(final Iterator<? extends I> seeds,
+                            final int chunkSize,
+                            final int prefetchDepth,
+                            final Executor executor,
+                            final RangeBuilder<I> rangeBuilder,
+                            final ScannerFactory scannerFactory) throws TableNotFoundException, StoreException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.seeds = seeds;
+        this.chunkSize = chunkSize;
+        this.prefetchDepth = null == executor ? 0 : Math.max(0, prefetchDepth);
+        this.executor = executor;
+        this.rangeBuilder = rangeBuilder;
+        this.scannerFactory = scannerFactory;
+
+        // The first chunk is always opened on the calling thread so that
+        // failures to create a scanner are reported to the caller.
+        final Set<Range> ranges = readRanges();
+        current = openChunk(null == ranges ? new HashSet<>() : ranges);
+        fillPrefetchQueue();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (null != current && !current.iterator.hasNext()) {
+            closeScanner(current.scanner);
+            current = nextChunk();
+        }
+        return null != current;
+    }
+
+    @Override
+    public Map.Entry<Key, Value> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.iterator.next();
+    }
+
+    @Override
+    public void close() {
+        final List<BatchScanner> scannersToClose;
+        synchronized (openScanners) {
+            closed = true;
+            scannersToClose = new ArrayList<>(openScanners);
+            openScanners.clear();
+        }
+        // Chunks that are already being opened close their own scanner once
+        // they see this iterator has been closed.
+        for (final Future<Chunk> future : prefetched) {
+            future.cancel(false);
+        }
+        prefetched.clear();
+        for (final BatchScanner scanner : scannersToClose) {
+            scanner.close();
+        }
+        current = null;
+    }
+
+    private Chunk nextChunk() {
+        if (0 == prefetchDepth) {
+            try {
+                return openNextChunk();
+            } catch (final TableNotFoundException | StoreException e) {
+                LOGGER.error("{} returning iterator doesn't have any more elements", e.getMessage(), e);
+                return null;
+            }
+        }
+
+        Future<Chunk> future;
+        while (null != (future = prefetched.poll())) {
+            final Chunk chunk;
+            try {
+                chunk = ExecutorUtil.get(future);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.error("Interrupted whilst waiting for the next batch scanner, returning iterator doesn't have any more elements", e);
+                close();
+                return null;
+            } catch (final ExecutionException e) {
+                LOGGER.error("{} returning iterator doesn't have any more elements", e.getCause().getMessage(), e.getCause());
+                close();
+                return null;
+            }
+            fillPrefetchQueue();
+            // A prefetched chunk is null if another prefetch used up the
+            // remaining seeds first, so any later chunks are still checked.
+            if (null != chunk) {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    private void fillPrefetchQueue() {
+        while (prefetched.size() < prefetchDepth && !seedsExhausted) {
+            prefetched.add(ExecutorUtil.submit(executor, this::openNextChunk));
+        }
+    }
+
+    private Chunk openNextChunk() throws TableNotFoundException, StoreException {
+        final Set<Range> ranges = readRanges();
+        return null == ranges ? null : openChunk(ranges);
+    }
+
+    /**
+     * Reads the next chunk of seeds and builds their ranges. The seeds are
+     * only read by one thread at a time.
+     *
+     * @return the ranges, or null if there are no seeds left
+     */
+    private Set<Range> readRanges() {
+        synchronized (seedsLock) {
+            if (!seeds.hasNext()) {
+                seedsExhausted = true;
+                return null;
+            }
+            int count = 0;
+            final Set<Range> ranges = new HashSet<>();
+            while (seeds.hasNext() && count < chunkSize) {
+                count++;
+                try {
+                    rangeBuilder.addToRanges(seeds.next(), ranges);
+                } catch (final RangeFactoryException e) {
+                    LOGGER.error("Failed to create a range from given seed", e);
+                }
+            }
+            seedsExhausted = !seeds.hasNext();
+            return ranges;
+        }
+    }
+
+    private Chunk openChunk(final Set<Range> ranges) throws TableNotFoundException, StoreException {
+        final BatchScanner scanner = scannerFactory.getScanner(ranges);
+        synchronized (openScanners) {
+            if (closed) {
+                scanner.close();
+                return new Chunk(null, Collections.emptyIterator());
+            }
+            openScanners.add(scanner);
+        }
+        // Creating the iterator starts the batch scanner fetching entries.
+        return new Chunk(scanner, scanner.iterator());
+    }
+
+    private void closeScanner(final BatchScanner scanner) {
+        if (null != scanner) {
+            synchronized (openScanners) {
+                openScanners.remove(scanner);
+            }
+            scanner.close();
+        }
+    }
+
+    /**
+     * Adds the ranges for a seed to a set of ranges.
+     *
+     * @param <I> the type of seed
+     */
+    @FunctionalInterface
+    public interface RangeBuilder<I> {
+        void addToRanges(final I seed, final Set<Range> ranges) throws RangeFactoryException;
+    }
+
+    /**
+     * Creates a configured {@link BatchScanner} for a set of ranges.
+     */
+    @FunctionalInterface
+    public interface ScannerFactory {
+        BatchScanner getScanner(final Set<Range> ranges) throws TableNotFoundException, StoreException;
+    }
+
+    private static final class Chunk {
+        private final BatchScanner scanner;
+        private final Iterator<Map.Entry<Key, Value>> iterator;
+
+        private Chunk(final BatchScanner scanner, final Iterator<Map.Entry<Key, Value>> iterator) {
+            this.scanner = scanner;
+            this.iterator = iterator;
+        }
+    }
+}
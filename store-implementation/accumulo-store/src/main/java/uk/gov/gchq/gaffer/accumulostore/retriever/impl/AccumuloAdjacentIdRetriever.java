@@ -16,8 +16,6 @@
 
 package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
-import org.apache.accumulo.core.client.BatchScanner;
-import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
@@ -28,8 +26,11 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.AdjacentIdIterator;
 import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloRetriever;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.accumulostore.retriever.SeedBatchScanner;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
@@ -41,11 +42,14 @@ import uk.gov.gchq.gaffer.data.element.id.ElementId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -58,6 +62,7 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
 
     private final Iterable<? extends ElementId> ids;
     private final Set<String> transformGroups;
+    private final boolean adjacentIdsFromServer;
 
     public AccumuloAdjacentIdRetriever(final AccumuloStore store, final GetAdjacentIds operation,
                                        final User user)
@@ -66,9 +71,12 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
                 store.getKeyPackage().getIteratorFactory().getEdgeEntityDirectionFilterIteratorSetting(operation),
                 store.getKeyPackage().getIteratorFactory().getElementPreAggregationFilterIteratorSetting(operation.getView(), store),
                 store.getKeyPackage().getIteratorFactory().getQueryTimeAggregatorIteratorSetting(operation.getView(), store),
-                store.getKeyPackage().getIteratorFactory().getElementPostAggregationFilterIteratorSetting(operation.getView(), store));
+                store.getKeyPackage().getIteratorFactory().getElementPostAggregationFilterIteratorSetting(operation.getView(), store),
+                store.getKeyPackage().getIteratorFactory().getAdjacentIdIteratorSetting(operation, store));
         this.ids = operation.getInput();
         transformGroups = getGroupsWithTransforms(operation.getView());
+        adjacentIdsFromServer = Arrays.stream(iteratorSettings)
+                .anyMatch(setting -> null != setting && AccumuloStoreConstants.ADJACENT_ID_ITERATOR_NAME.equals(setting.getName()));
     }
 
     /**
@@ -79,6 +87,7 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
     @Override
     public CloseableIterator<EntityId> iterator() {
         CloseableUtil.close(iterator);
+        startScanMetrics();
 
         if (!operation.getView().hasEdges()) {
             return new EmptyCloseableIterator<>();
@@ -101,32 +110,27 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
 
     private final class EntityIdIterator implements CloseableIterator<EntityId> {
         private final Iterator<? extends ElementId> idsIterator;
-        private int count;
-        private BatchScanner scanner;
-        private Iterator<Map.Entry<Key, Value>> scannerIterator;
+        private final ToBytesSerialiser vertexSerialiser;
+        private final SeedBatchScanner<ElementId> scanner;
         private EntityId nextId;
+        private Object repeatedVertex;
+        private int repeats;
 
         private EntityIdIterator(final Iterator<? extends ElementId> idIterator) throws RetrieverException {
             idsIterator = idIterator;
-            count = 0;
-            final Set<Range> ranges = new HashSet<>();
-            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                count++;
-                try {
-                    addToRanges(idsIterator.next(), ranges);
-                } catch (final RangeFactoryException e) {
-                    LOGGER.error("Failed to create a range from given seed pair", e);
-                }
-            }
-
+            vertexSerialiser = (ToBytesSerialiser) store.getSchema().getVertexSerialiser();
             try {
-                scanner = getScanner(ranges);
+                scanner = new SeedBatchScanner<>(idsIterator,
+                        store.getProperties().getMaxEntriesForBatchScanner(),
+                        store.getProperties().getPrefetchDepthForBatchScanner(),
+                        store.getOperationExecutor(),
+                        AccumuloAdjacentIdRetriever.this::addToRanges,
+                        ranges -> getScanner(ranges));
             } catch (final Exception e) {
                 CloseableUtil.close(idsIterator);
                 CloseableUtil.close(ids);
                 throw new RetrieverException(e);
             }
-            scannerIterator = scanner.iterator();
         }
 
         @Override
@@ -135,8 +139,34 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
             if (null != nextId) {
                 return true;
             }
-            while (scannerIterator.hasNext()) {
-                final Map.Entry<Key, Value> entry = scannerIterator.next();
+            if (repeats > 0) {
+                repeats--;
+                nextId = new EntitySeed(repeatedVertex);
+                scanMetrics.recordElementReturned();
+                return true;
+            }
+            // The scanner moves on to the batch scanner for the next chunk of
+            // seeds once the current one is spent.
+            while (scannerHasNext(scanner)) {
+                final Map.Entry<Key, Value> entry = scannerNext(scanner);
+                final long conversionStart = scanMetrics.startTimer();
+
+                if (adjacentIdsFromServer) {
+                    // The tablet servers have already extracted the adjacent
+                    // vertex, along with the number of edges it came from.
+                    try {
+                        repeatedVertex = vertexSerialiser.deserialise(AdjacentIdIterator.getSerialisedVertex(entry.getValue()));
+                    } catch (final SerialisationException e) {
+                        scanMetrics.recordConversionFailure();
+                        LOGGER.error("Failed to deserialise adjacent vertex returning next EntityId as null", e);
+                        continue;
+                    }
+                    scanMetrics.recordConversion(conversionStart);
+                    repeats = AdjacentIdIterator.getCount(entry.getValue()) - 1;
+                    nextId = new EntitySeed(repeatedVertex);
+                    scanMetrics.recordElementReturned();
+                    return true;
+                }
 
                 final String group = StringUtil.toString(entry.getKey().getColumnFamilyData().getBackingArray());
                 ElementId elementId = null;
@@ -148,23 +178,29 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
                                 entry.getValue(),
                                 true);
                     } catch (final AccumuloElementConversionException e) {
+                        scanMetrics.recordConversionFailure();
                         LOGGER.error("Failed to re-create an element from a key value entry set returning next EntityId as null",
                                 e);
                         continue;
                     }
+                    scanMetrics.recordConversion(conversionStart);
                     if (null != element) {
                         doTransformation(element);
                         if (doPostFilter(element)) {
                             elementId = element;
+                        } else {
+                            scanMetrics.recordElementFilteredOut();
                         }
                     }
                 } else {
                     try {
                         elementId = elementConverter.getElementId(entry.getKey(), true);
                     } catch (final AccumuloElementConversionException e) {
+                        scanMetrics.recordConversionFailure();
                         LOGGER.error("Failed to create element id returning next EntityId as null", e);
                         continue;
                     }
+                    scanMetrics.recordConversion(conversionStart);
                 }
 
                 if (null != elementId) {
@@ -174,43 +210,16 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
                         } else {
                             nextId = new EntitySeed(((EdgeId) elementId).getDestination());
                         }
+                        scanMetrics.recordElementReturned();
                         return true;
                     } else {
                         LOGGER.error("Unexpected EntityId returned, returning next result as null");
                     }
                 }
             }
-
-            // If current scanner is spent then go back to the iterator
-            // through the provided entities, and see if there are more.
-            // If so create the next scanner, if there are no more entities
-            // then return false.
-            while (idsIterator.hasNext() && !scannerIterator.hasNext()) {
-                count = 0;
-                final Set<Range> ranges = new HashSet<>();
-                while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                    count++;
-                    try {
-                        addToRanges(idsIterator.next(), ranges);
-                    } catch (final RangeFactoryException e) {
-                        LOGGER.error("Failed to create a range from given seed", e);
-                    }
-                }
-                scanner.close();
-                try {
-                    scanner = getScanner(ranges);
-                } catch (final TableNotFoundException | StoreException e) {
-                    LOGGER.error("{} returning iterator doesn't have any more elements", e.getMessage(), e);
-                    return false;
-                }
-                scannerIterator = scanner.iterator();
-            }
-            if (!scannerIterator.hasNext()) {
-                scanner.close();
-                return false;
-            } else {
-                return hasNext();
-            }
+            scanner.close();
+            finishScanMetrics();
+            return false;
         }
 
         @Override
@@ -232,9 +241,7 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
 
         @Override
         public void close() {
-            if (null != scanner) {
-                scanner.close();
-            }
+            scanner.close();
         }
     }
 
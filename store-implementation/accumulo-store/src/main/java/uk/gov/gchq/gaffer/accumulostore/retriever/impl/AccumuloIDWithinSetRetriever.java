@@ -17,7 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import org.apache.accumulo.core.client.IteratorSetting;
-import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.apache.hadoop.util.bloom.Key;
 
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
@@ -25,7 +25,6 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionE
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
 import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloSetRetriever;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
-import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -122,8 +121,7 @@ public class AccumuloIDWithinSetRetriever extends AccumuloSetRetriever<GetElemen
 
             // Create Bloom filter, read through set of entities and add them to
             // Bloom filter
-            final BloomFilter filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
-                    vertices.size(), store.getProperties().getMaxBloomFilterToPassToAnIterator());
+            final Filter filter = createBloomFilter(store.getProperties().getFalsePositiveRate(), vertices.size());
             addToBloomFilter(vertices, filter);
 
             initialise(filter);
@@ -157,6 +155,18 @@ public class AccumuloIDWithinSetRetriever extends AccumuloSetRetriever<GetElemen
             addToBloomFilter(seed, filter, clientSideFilter);
         }
 
+        @Override
+        protected int getExpectedNumberOfFilterItems() {
+            // The filter accumulates the seeds from every batch
+            return getSizeIfKnown(seeds, super.getExpectedNumberOfFilterItems());
+        }
+
+        @Override
+        protected void resizeBloomFilterIfRequired() throws RetrieverException {
+            // The current seeds hold every seed added to the filter so far.
+            resizeBloomFilterIfRequired(currentSeeds);
+        }
+
         @Override
         protected boolean secondaryCheck(final Element elm) {
             if (Entity.class.isInstance(elm)) {
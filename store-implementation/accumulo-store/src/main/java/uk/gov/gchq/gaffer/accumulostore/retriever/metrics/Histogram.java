@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of non-negative values, with a bucket for each
+ * power of two. Bucket 0 holds the value 0 and bucket i holds the values from
+ * 2<sup>i-1</sup> to 2<sup>i</sup>-1, so percentiles are accurate to within a
+ * factor of two.
+ */
+public class Histogram {
+    public static final int NUM_BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+    public void record(final long value) {
+        counts.incrementAndGet(getBucket(value));
+        count.increment();
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getBucketCount(final int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Gets an upper bound on the given percentile of the recorded values.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the largest value in the bucket containing the percentile, or 0
+     * if no values have been recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long total = getCount();
+        if (0 == total) {
+            return 0L;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public static int getBucket(final long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        return Math.min(NUM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(value));
+    }
+
+    public static long getBucketUpperBound(final int bucket) {
+        if (bucket >= NUM_BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("Histogram[count=").append(getCount())
+                .append(", max=").append(getMax());
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            final long bucketCount = counts.get(bucket);
+            if (bucketCount > 0) {
+                builder.append(", <=").append(getBucketUpperBound(bucket)).append('=').append(bucketCount);
+            }
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.metrics;
+
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+
+/**
+ * A {@link ScanMetricsSink} that keeps {@link Histogram}s of the metrics
+ * recorded for every query on a store. The histograms can be read using
+ * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloStore#getScanMetricsSink()}
+ * and published to a monitoring system.
+ */
+public class HistogramScanMetricsSink implements ScanMetricsSink {
+    private final Histogram durationMillis = new Histogram();
+    private final Histogram scannerWaitMillis = new Histogram();
+    private final Histogram conversionMillis = new Histogram();
+    private final Histogram rangesScanned = new Histogram();
+    private final Histogram entriesReceived = new Histogram();
+    private final Histogram elementsFilteredOut = new Histogram();
+    private final Histogram elementsReturned = new Histogram();
+
+    @Override
+    public void record(final ScanMetrics metrics) {
+        durationMillis.record(metrics.getDurationMillis());
+        scannerWaitMillis.record(metrics.getScannerWaitMillis());
+        conversionMillis.record(metrics.getConversionMillis());
+        rangesScanned.record(metrics.getRangesScanned());
+        entriesReceived.record(metrics.getEntriesReceived());
+        elementsFilteredOut.record(metrics.getElementsFilteredOut());
+        elementsReturned.record(metrics.getElementsReturned());
+    }
+
+    public Histogram getDurationMillis() {
+        return durationMillis;
+    }
+
+    public Histogram getScannerWaitMillis() {
+        return scannerWaitMillis;
+    }
+
+    public Histogram getConversionMillis() {
+        return conversionMillis;
+    }
+
+    public Histogram getRangesScanned() {
+        return rangesScanned;
+    }
+
+    public Histogram getEntriesReceived() {
+        return entriesReceived;
+    }
+
+    public Histogram getElementsFilteredOut() {
+        return elementsFilteredOut;
+    }
+
+    public Histogram getElementsReturned() {
+        return elementsReturned;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("durationMillis", durationMillis)
+                .append("scannerWaitMillis", scannerWaitMillis)
+                .append("conversionMillis", conversionMillis)
+                .append("rangesScanned", rangesScanned)
+                .append("entriesReceived", entriesReceived)
+                .append("elementsFilteredOut", elementsFilteredOut)
+                .append("elementsReturned", elementsReturned)
+                .toString();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+
+/**
+ * A {@link ScanMetricsSink} that logs the metrics for each query. Queries
+ * that take at least {@link AccumuloProperties#SLOW_QUERY_THRESHOLD_MILLIS}
+ * are logged as warnings so slow queries can be diagnosed from the logs,
+ * other queries are logged at debug level.
+ */
+public class LoggingScanMetricsSink implements ScanMetricsSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingScanMetricsSink.class);
+
+    private long slowQueryThresholdMillis = Long.parseLong(AccumuloProperties.SLOW_QUERY_THRESHOLD_MILLIS_DEFAULT);
+
+    @Override
+    public void initialise(final AccumuloProperties properties) {
+        slowQueryThresholdMillis = properties.getSlowQueryThresholdMillis();
+    }
+
+    @Override
+    public void record(final ScanMetrics metrics) {
+        if (metrics.getDurationMillis() >= slowQueryThresholdMillis) {
+            LOGGER.warn("Slow query took {}ms: {}", metrics.getDurationMillis(), metrics);
+        } else {
+            LOGGER.debug("Query took {}ms: {}", metrics.getDurationMillis(), metrics);
+        }
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.metrics;
+
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code ScanMetrics} records where the time goes while a retriever reads
+ * elements from Accumulo for a single query: the ranges that were scanned, the
+ * time spent waiting for the batch scanners, the entries that were returned by
+ * the tablet servers, the time spent converting them into elements and the
+ * number of elements that were dropped by the client.
+ * <p>
+ * The counters are always recorded. The timings are only recorded if the
+ * metrics are timed, as they require calls to {@link System#nanoTime()} for
+ * every entry.
+ * <p>
+ * The entries returned by the tablet servers are the output of the whole
+ * iterator stack - the number of entries removed by each iterator is not
+ * visible to the client.
+ */
+public class ScanMetrics {
+    private final String operationName;
+    private final boolean timed;
+    private final long startTime;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile long endTime;
+
+    private final LongAdder scanners = new LongAdder();
+    private final LongAdder rangesScanned = new LongAdder();
+    private final LongAdder entriesReceived = new LongAdder();
+    private final LongAdder elementsConverted = new LongAdder();
+    private final LongAdder conversionFailures = new LongAdder();
+    private final LongAdder elementsFilteredOut = new LongAdder();
+    private final LongAdder elementsReturned = new LongAdder();
+    private final LongAdder scannerWaitNanos = new LongAdder();
+    private final LongAdder conversionNanos = new LongAdder();
+
+    public ScanMetrics(final String operationName, final boolean timed) {
+        this.operationName = operationName;
+        this.timed = timed;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Starts timing an action.
+     *
+     * @return the time to pass to the method that records the end of the
+     * action, or 0 if the metrics are not timed
+     */
+    public long startTimer() {
+        return timed ? System.nanoTime() : 0L;
+    }
+
+    public void recordScanner(final int numRanges) {
+        scanners.increment();
+        rangesScanned.add(numRanges);
+    }
+
+    public void recordScannerWait(final long timerStart) {
+        if (timed) {
+            scannerWaitNanos.add(System.nanoTime() - timerStart);
+        }
+    }
+
+    public void recordEntryReceived() {
+        entriesReceived.increment();
+    }
+
+    public void recordConversion(final long timerStart) {
+        elementsConverted.increment();
+        if (timed) {
+            conversionNanos.add(System.nanoTime() - timerStart);
+        }
+    }
+
+    public void recordConversionFailure() {
+        conversionFailures.increment();
+    }
+
+    public void recordElementFilteredOut() {
+        elementsFilteredOut.increment();
+    }
+
+    public void recordElementReturned() {
+        elementsReturned.increment();
+    }
+
+    /**
+     * Marks the query as finished, fixing its duration.
+     *
+     * @return true if this is the first time the query has been finished
+     */
+    public boolean finish() {
+        if (finished.compareAndSet(false, true)) {
+            endTime = System.nanoTime();
+            return true;
+        }
+        return false;
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    public boolean isTimed() {
+        return timed;
+    }
+
+    public boolean isFinished() {
+        return finished.get();
+    }
+
+    /**
+     * Gets the time since the query started, or the total time taken by the
+     * query if it has finished.
+     *
+     * @return the duration of the query in milliseconds
+     */
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((finished.get() ? endTime : System.nanoTime()) - startTime);
+    }
+
+    public long getScanners() {
+        return scanners.sum();
+    }
+
+    public long getRangesScanned() {
+        return rangesScanned.sum();
+    }
+
+    public long getEntriesReceived() {
+        return entriesReceived.sum();
+    }
+
+    public long getElementsConverted() {
+        return elementsConverted.sum();
+    }
+
+    public long getConversionFailures() {
+        return conversionFailures.sum();
+    }
+
+    public long getElementsFilteredOut() {
+        return elementsFilteredOut.sum();
+    }
+
+    public long getElementsReturned() {
+        return elementsReturned.sum();
+    }
+
+    public long getScannerWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(scannerWaitNanos.sum());
+    }
+
+    public long getConversionMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(conversionNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("operationName", operationName)
+                .append("durationMillis", getDurationMillis())
+                .append("scanners", getScanners())
+                .append("rangesScanned", getRangesScanned())
+                .append("entriesReceived", getEntriesReceived())
+                .append("elementsConverted", getElementsConverted())
+                .append("conversionFailures", getConversionFailures())
+                .append("elementsFilteredOut", getElementsFilteredOut())
+                .append("elementsReturned", getElementsReturned())
+                .append("scannerWaitMillis", getScannerWaitMillis())
+                .append("conversionMillis", getConversionMillis())
+                .toString();
+    }
+}
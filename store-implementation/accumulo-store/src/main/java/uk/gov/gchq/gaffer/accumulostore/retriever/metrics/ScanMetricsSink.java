@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.metrics;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+
+/**
+ * A {@code ScanMetricsSink} receives the {@link ScanMetrics} for each query
+ * run by the Accumulo retrievers once the query has finished.
+ * <p>
+ * The sink is configured by setting the
+ * {@link AccumuloProperties#SCAN_METRICS_SINK_CLASS} store property to the
+ * name of a class with a public no-argument constructor. A single instance is
+ * shared by all the queries on a store, so implementations must be thread
+ * safe.
+ */
+public interface ScanMetricsSink {
+    /**
+     * Initialises the sink from the store properties.
+     *
+     * @param properties the store properties
+     */
+    default void initialise(final AccumuloProperties properties) {
+        // no initialisation required by default
+    }
+
+    /**
+     * Records the metrics for a finished query.
+     *
+     * @param metrics the metrics for the query
+     */
+    void record(final ScanMetrics metrics);
+}
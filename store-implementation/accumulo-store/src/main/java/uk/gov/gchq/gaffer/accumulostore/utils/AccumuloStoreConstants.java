@@ -28,6 +28,9 @@ public final class AccumuloStoreConstants {
     public static final String COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_NAME = "Column_Qualifier_Aggregator";
     public static final String ROW_ID_AGGREGATOR_ITERATOR_NAME = "Row_ID_Aggregator";
     public static final String RANGE_ELEMENT_PROPERTY_FILTER_ITERATOR_NAME = "Range_Element_Property_Filter";
+    public static final String LIMIT_ITERATOR_NAME = "Limit";
+    public static final String COUNT_ITERATOR_NAME = "Count";
+    public static final String ADJACENT_ID_ITERATOR_NAME = "Adjacent_Id";
 
     // Converter class to be used in iterators must be on classpath of all
     // iterators
@@ -57,7 +60,10 @@ public final class AccumuloStoreConstants {
     public static final String DEDUPLICATE_UNDIRECTED_EDGES = "Deduplicate_Undirected_Edges";
     public static final String BLOOM_FILTER = "Bloom_Filter";
     public static final String BLOOM_FILTER_CHARSET = "ISO-8859-1";
+    public static final String BLOOM_FILTER_CLASS = "Bloom_Filter_Class";
     public static final String COLUMN_FAMILY = "columnFamily";
+    public static final String LIMIT = "Limit";
+    public static final String DEDUPLICATE_ADJACENT_IDS = "Deduplicate_Adjacent_Ids";
 
     // Iterator priorities
     // Applied during major compactions, minor compactions  and scans.
@@ -78,9 +84,19 @@ public final class AccumuloStoreConstants {
     public static final int COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY = 36;
     // Applied only during scans.
     public static final int ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_PRIORITY = 37;
+    // Applied only during scans.
+    public static final int ADJACENT_ID_ITERATOR_PRIORITY = 38;
+    // Applied only during scans, after all the other scan iterators.
+    public static final int LIMIT_ITERATOR_PRIORITY = 40;
+    // Applied only during scans, after all the other scan iterators.
+    public static final int COUNT_ITERATOR_PRIORITY = 41;
 
     // Operations options
     public static final String ADD_ELEMENTS_FROM_HDFS_SKIP_IMPORT = "accumulostore.operation.hdfs.skip_import";
+    public static final String OPERATION_LIMIT_PUSHDOWN = "accumulostore.operation.limit_pushdown";
+    public static final String OPERATION_COUNT_PUSHDOWN = "accumulostore.operation.count_pushdown";
+    public static final String OPERATION_DEDUPLICATE_ADJACENT_IDS = "accumulostore.operation.deduplicate_adjacent_ids";
+    public static final String OPERATION_SCAN_METRICS = "accumulostore.operation.scan_metrics";
 
     // General use constants
     public static final byte[] EMPTY_BYTES = new byte[0];
@@ -18,12 +18,15 @@ package uk.gov.gchq.gaffer.accumulostore.utils;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.apache.hadoop.util.hash.Hash;
 
 /**
  * Utilities for the creation of Bloom Filters
  */
 public final class BloomFilterUtils {
+    private static final int MAX_BLOCKED_BLOOM_FILTER_HASHES = 24;
+
     private BloomFilterUtils() {
         // private to prevent this class being instantiated.
         // All methods are static and should be called directly.
@@ -89,4 +92,138 @@ public final class BloomFilterUtils {
     public static BloomFilter getBloomFilter(final int size) {
         return new BloomFilter(size, 13, Hash.MURMUR_HASH);
     }
+
+    /**
+     * Returns a {@link Filter} of the necessary size to achieve the given
+     * false positive rate (subject to the given maximum size). This is either
+     * a {@link BlockedBloomFilter} or a
+     * {@link org.apache.hadoop.util.bloom.BloomFilter}.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @param maximumSize       the maximum size
+     * @param blocked           true if a {@link BlockedBloomFilter} should be created
+     * @return A new Filter with the desired Settings
+     */
+    public static Filter getBloomFilter(final double falsePositiveRate, final int numItemsToBeAdded,
+                                        final int maximumSize, final boolean blocked) {
+        if (blocked) {
+            return getBlockedBloomFilter(falsePositiveRate, numItemsToBeAdded, maximumSize);
+        }
+        return getBloomFilter(falsePositiveRate, Math.max(1, numItemsToBeAdded), maximumSize);
+    }
+
+    /**
+     * Returns a {@link Filter} of the given size. This is either a
+     * {@link BlockedBloomFilter} or a
+     * {@link org.apache.hadoop.util.bloom.BloomFilter}.
+     *
+     * @param size    the size of the bloom filter to create
+     * @param blocked true if a {@link BlockedBloomFilter} should be created
+     * @return A new Filter of the desired size
+     */
+    public static Filter getBloomFilter(final int size, final boolean blocked) {
+        if (blocked) {
+            return new BlockedBloomFilter(size, 13);
+        }
+        return getBloomFilter(size);
+    }
+
+    /**
+     * Returns a {@link BlockedBloomFilter} of the necessary size to achieve
+     * the given false positive rate (subject to the given maximum size),
+     * configured with the optimal number of hash functions.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @param maximumSize       the maximum size
+     * @return A new BlockedBloomFilter with the desired Settings
+     */
+    public static BlockedBloomFilter getBlockedBloomFilter(final double falsePositiveRate, final int numItemsToBeAdded,
+                                                           final int maximumSize) {
+        final int size = calculateBlockedBloomFilterSize(falsePositiveRate, numItemsToBeAdded, maximumSize);
+        return new BlockedBloomFilter(size, calculateBlockedBloomFilterNumHashes(size, numItemsToBeAdded));
+    }
+
+    /**
+     * Calculates the size of the {@link BlockedBloomFilter} needed to achieve
+     * the desired false positive rate given that the specified number of
+     * items will be added to the set, but with the maximum size limited as
+     * specified. This starts from the size of the equivalent
+     * {@link org.apache.hadoop.util.bloom.BloomFilter} and grows it until the
+     * expected false positive rate of the blocked filter is low enough.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @param maximumSize       the maximum size
+     * @return the size of the blocked bloom filter needed, a multiple of the block size.
+     */
+    public static int calculateBlockedBloomFilterSize(final double falsePositiveRate, final int numItemsToBeAdded,
+                                                      final int maximumSize) {
+        final int numItems = Math.max(1, numItemsToBeAdded);
+        final long maxSize = Math.max(BlockedBloomFilter.BLOCK_SIZE, maximumSize - (maximumSize % BlockedBloomFilter.BLOCK_SIZE));
+        long size = roundUpToBlock(calculateBloomFilterSize(falsePositiveRate, numItems, Integer.MAX_VALUE));
+        while (size < maxSize
+                && calculateBlockedBloomFilterFalsePositiveRate(size, numItems, calculateBlockedBloomFilterNumHashes(size, numItems)) > falsePositiveRate) {
+            size = roundUpToBlock(size + Math.max(BlockedBloomFilter.BLOCK_SIZE, size / 16));
+        }
+        return (int) Math.min(size, maxSize);
+    }
+
+    /**
+     * Calculates the number of hash functions that gives the lowest false
+     * positive rate for a {@link BlockedBloomFilter} of the given size, to
+     * which the given number of items will be added.
+     *
+     * @param bloomFilterSize   the size of the bloom filter
+     * @param numItemsToBeAdded the number of items to be added
+     * @return An integer representing the optimal number of hashes to use
+     */
+    public static int calculateBlockedBloomFilterNumHashes(final long bloomFilterSize, final int numItemsToBeAdded) {
+        final int numItems = Math.max(1, numItemsToBeAdded);
+        int bestNumHashes = 1;
+        double bestFalsePositiveRate = 1.0;
+        for (int numHashes = 1; numHashes <= MAX_BLOCKED_BLOOM_FILTER_HASHES; numHashes++) {
+            final double falsePositiveRate = calculateBlockedBloomFilterFalsePositiveRate(bloomFilterSize, numItems, numHashes);
+            if (falsePositiveRate < bestFalsePositiveRate) {
+                bestFalsePositiveRate = falsePositiveRate;
+                bestNumHashes = numHashes;
+            }
+        }
+        return bestNumHashes;
+    }
+
+    /**
+     * Calculates the expected false positive rate of a
+     * {@link BlockedBloomFilter}. The number of items in each block follows a
+     * Poisson distribution, so this is the false positive rate of a single
+     * block averaged over the number of items it may contain.
+     *
+     * @param bloomFilterSize   the size of the bloom filter
+     * @param numItemsToBeAdded the number of items to be added
+     * @param numHashes         the number of hashes
+     * @return the expected false positive rate
+     */
+    public static double calculateBlockedBloomFilterFalsePositiveRate(final long bloomFilterSize, final int numItemsToBeAdded,
+                                                                      final int numHashes) {
+        final double itemsPerBlock = (double) Math.max(1, numItemsToBeAdded) * BlockedBloomFilter.BLOCK_SIZE
+                / Math.max(BlockedBloomFilter.BLOCK_SIZE, bloomFilterSize);
+        final double logItemsPerBlock = Math.log(itemsPerBlock);
+        final int maxItemsInBlock = (int) Math.ceil(itemsPerBlock + 10 * Math.sqrt(itemsPerBlock) + 10);
+        final double bitNotSetByOneHash = 1.0 - 1.0 / BlockedBloomFilter.BLOCK_SIZE;
+        double logProbability = -itemsPerBlock;
+        double falsePositiveRate = 0.0;
+        for (int i = 0; i <= maxItemsInBlock; i++) {
+            if (i > 0) {
+                logProbability += logItemsPerBlock - Math.log(i);
+            }
+            final double fractionOfBitsSet = 1.0 - Math.pow(bitNotSetByOneHash, (double) numHashes * i);
+            falsePositiveRate += Math.exp(logProbability) * Math.pow(fractionOfBitsSet, numHashes);
+        }
+        return Math.min(1.0, falsePositiveRate);
+    }
+
+    private static long roundUpToBlock(final long size) {
+        return Math.max(1, (size + BlockedBloomFilter.BLOCK_SIZE - 1) / BlockedBloomFilter.BLOCK_SIZE) * BlockedBloomFilter.BLOCK_SIZE;
+    }
 }
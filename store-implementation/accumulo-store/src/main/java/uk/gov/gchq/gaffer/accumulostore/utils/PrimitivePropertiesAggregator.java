@@ -0,0 +1,377 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.data.Value;
+
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AggregationException;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawSerialisationUtils;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.RawIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.RawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Min;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@code PrimitivePropertiesAggregator} aggregates the serialised values of
+ * an element group directly from the bytes of the Accumulo {@link Value}s,
+ * without creating a {@link uk.gov.gchq.gaffer.data.element.Properties} for
+ * each version.
+ * <p>
+ * It can only be used for groups where every property stored in the value is
+ * a {@link Long} or {@link Integer}, serialised with one of the standard
+ * numeric serialisers and aggregated on its own with {@link Sum},
+ * {@link Max} or {@link Min}. The aggregated values are held in primitive
+ * accumulators and only serialised once, when the result is requested.
+ * The result is identical to deserialising each value and applying the
+ * {@link ElementAggregator}.
+ * <p>
+ * Instances are not thread safe and are intended to be reused by a single
+ * iterator for each key.
+ */
+public final class PrimitivePropertiesAggregator {
+    private enum Operation {
+        SUM, MAX, MIN
+    }
+
+    private enum Encoding {
+        COMPACT_RAW, ORDERED_LONG, ORDERED_INTEGER, RAW_LONG, RAW_INTEGER
+    }
+
+    private final ToBytesSerialiser[] serialisers;
+    private final Encoding[] encodings;
+    private final Operation[] operations;
+    private final boolean[] integers;
+    private final long[] accumulators;
+    private final boolean[] present;
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+    private PrimitivePropertiesAggregator(final int numProperties) {
+        serialisers = new ToBytesSerialiser[numProperties];
+        encodings = new Encoding[numProperties];
+        operations = new Operation[numProperties];
+        integers = new boolean[numProperties];
+        accumulators = new long[numProperties];
+        present = new boolean[numProperties];
+    }
+
+    /**
+     * Creates a {@code PrimitivePropertiesAggregator} for the properties that
+     * are stored in the value of a group, if the properties and aggregator
+     * are supported.
+     *
+     * @param schema     the schema
+     * @param group      the group
+     * @param aggregator the aggregator to apply
+     * @return the aggregator, or null if the group must be aggregated by
+     * deserialising its properties
+     */
+    public static PrimitivePropertiesAggregator create(final Schema schema, final String group,
+                                                       final ElementAggregator aggregator) {
+        final SchemaElementDefinition elementDefinition = schema.getElement(group);
+        if (null == elementDefinition) {
+            return null;
+        }
+
+        // The properties stored in the value, in the order they are serialised
+        final String timestampProperty = schema.getConfig(AccumuloStoreConstants.TIMESTAMP_PROPERTY);
+        final List<String> valueProperties = new ArrayList<>();
+        for (final String property : elementDefinition.getProperties()) {
+            if (!elementDefinition.getGroupBy().contains(property)
+                    && !property.equals(schema.getVisibilityProperty())
+                    && !property.equals(timestampProperty)) {
+                valueProperties.add(property);
+            }
+        }
+        return create(elementDefinition, valueProperties, aggregator);
+    }
+
+    private static PrimitivePropertiesAggregator create(final SchemaElementDefinition elementDefinition,
+                                                        final List<String> valueProperties,
+                                                        final ElementAggregator aggregator) {
+        if (null == aggregator || valueProperties.isEmpty()) {
+            return null;
+        }
+
+        final PrimitivePropertiesAggregator primitiveAggregator = new PrimitivePropertiesAggregator(valueProperties.size());
+        for (final TupleAdaptedBinaryOperator<String, ?> component : aggregator.getComponents()) {
+            int index = -1;
+            for (final String property : component.getSelection()) {
+                final int propertyIndex = valueProperties.indexOf(property);
+                if (propertyIndex > -1) {
+                    if (index > -1) {
+                        // The component aggregates more than one property
+                        return null;
+                    }
+                    index = propertyIndex;
+                }
+            }
+            // Components that do not select any value properties only see
+            // null values, so they have no effect.
+            if (index > -1) {
+                if (null != primitiveAggregator.operations[index]) {
+                    return null;
+                }
+                final Operation operation = getOperation(component.getBinaryOperator());
+                if (null == operation) {
+                    return null;
+                }
+                primitiveAggregator.operations[index] = operation;
+            }
+        }
+
+        for (int i = 0; i < valueProperties.size(); i++) {
+            final String property = valueProperties.get(i);
+            final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(property);
+            if (null == primitiveAggregator.operations[i] || null == typeDefinition
+                    || !(typeDefinition.getSerialiser() instanceof ToBytesSerialiser)) {
+                return null;
+            }
+            final ToBytesSerialiser serialiser = (ToBytesSerialiser) typeDefinition.getSerialiser();
+            final Encoding encoding = getEncoding(serialiser);
+            final Class<?> propertyClass = elementDefinition.getPropertyClass(property);
+            if (null == encoding || !(Long.class.equals(propertyClass) || Integer.class.equals(propertyClass))
+                    || !serialiser.canHandle(propertyClass)) {
+                return null;
+            }
+            primitiveAggregator.serialisers[i] = serialiser;
+            primitiveAggregator.encodings[i] = encoding;
+            primitiveAggregator.integers[i] = Integer.class.equals(propertyClass);
+        }
+
+        return primitiveAggregator;
+    }
+
+    /**
+     * Clears the aggregated values, ready to aggregate the versions of a new
+     * key.
+     */
+    public void reset() {
+        for (int i = 0; i < present.length; i++) {
+            present[i] = false;
+            accumulators[i] = 0L;
+        }
+    }
+
+    /**
+     * Aggregates a serialised value into the current result.
+     *
+     * @param value the value to aggregate
+     */
+    public void aggregate(final Value value) {
+        if (null == value) {
+            return;
+        }
+        aggregate(value.get(), 0, value.getSize());
+    }
+
+    /**
+     * Aggregates a serialised value into the current result.
+     *
+     * @param bytes  the bytes containing the value
+     * @param offset the offset of the value
+     * @param length the length of the value
+     */
+    public void aggregate(final byte[] bytes, final int offset, final int length) {
+        final int end = offset + length;
+        int position = offset;
+        try {
+            for (int i = 0; i < operations.length && position < end; i++) {
+                final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[position]);
+                final int propertyLength = (int) CompactRawSerialisationUtils.readLong(bytes, position);
+                position += numBytesForLength;
+                if (propertyLength > 0) {
+                    accumulate(i, decode(i, bytes, position, propertyLength));
+                }
+                position += propertyLength;
+            }
+        } catch (final SerialisationException e) {
+            throw new AggregationException("Failed to deserialise a property from an Accumulo value", e);
+        }
+    }
+
+    /**
+     * Serialises the aggregated properties into a {@link Value}, in the same
+     * format as {@link uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter#getValueFromProperties}.
+     *
+     * @return the aggregated value
+     */
+    @SuppressWarnings("unchecked")
+    public Value getValue() {
+        stream.reset();
+        try {
+            for (int i = 0; i < operations.length; i++) {
+                final byte[] bytes;
+                if (!present[i]) {
+                    bytes = serialisers[i].serialiseNull();
+                } else if (integers[i]) {
+                    bytes = serialisers[i].serialise((int) accumulators[i]);
+                } else {
+                    bytes = serialisers[i].serialise(accumulators[i]);
+                }
+                CompactRawSerialisationUtils.write(bytes.length, stream);
+                stream.write(bytes);
+            }
+        } catch (final IOException e) {
+            throw new AggregationException("Failed to serialise the aggregated properties", e);
+        }
+        return new Value(stream.toByteArray());
+    }
+
+    private void accumulate(final int index, final long value) {
+        if (!present[index]) {
+            accumulators[index] = value;
+            present[index] = true;
+            return;
+        }
+        switch (operations[index]) {
+            case SUM:
+                // Integer sums overflow in the same way when the result is
+                // cast back to an int.
+                accumulators[index] += value;
+                break;
+            case MAX:
+                if (value > accumulators[index]) {
+                    accumulators[index] = value;
+                }
+                break;
+            case MIN:
+                if (value < accumulators[index]) {
+                    accumulators[index] = value;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + operations[index]);
+        }
+    }
+
+    private long decode(final int index, final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        switch (encodings[index]) {
+            case COMPACT_RAW:
+                return CompactRawSerialisationUtils.readLong(bytes, offset);
+            case ORDERED_LONG:
+                return decodeOrderedLong(bytes, offset, length);
+            case ORDERED_INTEGER:
+                return decodeOrderedInteger(bytes, offset, length);
+            case RAW_LONG:
+                return decodeRaw(bytes, offset, Long.BYTES);
+            case RAW_INTEGER:
+                return (int) decodeRaw(bytes, offset, Integer.BYTES);
+            default:
+                throw new IllegalStateException("Unknown encoding " + encodings[index]);
+        }
+    }
+
+    // The decode methods mirror the deserialise methods of the serialisers,
+    // but read from a range of the value without copying it.
+    private static long decodeOrderedLong(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        final byte lengthByte = bytes[offset];
+        if (lengthByte < 0 || lengthByte > 16) {
+            throw new SerialisationException("Unexpected length " + (0xff & lengthByte));
+        }
+        long l = 0;
+        int shift = 0;
+        for (int i = offset + length - 1; i > offset; i--) {
+            l += (bytes[i] & 0xffL) << shift;
+            shift += 8;
+        }
+        if (lengthByte > 8) {
+            l |= -1L << ((16 - lengthByte) << 3);
+        }
+        return l ^ 0x8000000000000000L;
+    }
+
+    private static long decodeOrderedInteger(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        final byte lengthByte = bytes[offset];
+        if (lengthByte < 0 || lengthByte > 8) {
+            throw new SerialisationException("Unexpected length " + (0xff & lengthByte));
+        }
+        int i = 0;
+        int shift = 0;
+        for (int idx = offset + length - 1; idx > offset; idx--) {
+            i = (int) ((long) i + ((bytes[idx] & 0xffL) << shift));
+            shift += 8;
+        }
+        if (lengthByte > 4) {
+            i |= -1 << ((8 - lengthByte) << 3);
+        }
+        return i ^ 0x80000000;
+    }
+
+    private static long decodeRaw(final byte[] bytes, final int offset, final int numBytes) {
+        long l = 0;
+        for (int i = 0; i < numBytes; i++) {
+            l |= (bytes[offset + i] & 0xffL) << (i << 3);
+        }
+        return l;
+    }
+
+    private static Operation getOperation(final BinaryOperator<?> binaryOperator) {
+        if (null == binaryOperator) {
+            return null;
+        }
+        final Class<?> operatorClass = binaryOperator.getClass();
+        if (Sum.class.equals(operatorClass)) {
+            return Operation.SUM;
+        }
+        if (Max.class.equals(operatorClass)) {
+            return Operation.MAX;
+        }
+        if (Min.class.equals(operatorClass)) {
+            return Operation.MIN;
+        }
+        return null;
+    }
+
+    private static Encoding getEncoding(final ToBytesSerialiser serialiser) {
+        final Class<?> serialiserClass = serialiser.getClass();
+        if (CompactRawLongSerialiser.class.equals(serialiserClass)
+                || CompactRawIntegerSerialiser.class.equals(serialiserClass)) {
+            return Encoding.COMPACT_RAW;
+        }
+        if (OrderedLongSerialiser.class.equals(serialiserClass)) {
+            return Encoding.ORDERED_LONG;
+        }
+        if (OrderedIntegerSerialiser.class.equals(serialiserClass)) {
+            return Encoding.ORDERED_INTEGER;
+        }
+        if (RawLongSerialiser.class.equals(serialiserClass)) {
+            return Encoding.RAW_LONG;
+        }
+        if (RawIntegerSerialiser.class.equals(serialiserClass)) {
+            return Encoding.RAW_INTEGER;
+        }
+        return null;
+    }
+}
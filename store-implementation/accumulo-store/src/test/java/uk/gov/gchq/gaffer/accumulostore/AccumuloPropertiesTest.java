@@ -19,12 +19,14 @@ package uk.gov.gchq.gaffer.accumulostore;
 import com.fasterxml.jackson.databind.Module;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.accumulostore.retriever.metrics.LoggingScanMetricsSink;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiserModules;
 import uk.gov.gchq.gaffer.sketches.serialisation.json.SketchesJsonModules;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AccumuloPropertiesTest {
@@ -70,6 +72,8 @@ public class AccumuloPropertiesTest {
         final String KEY_PACKAGE_CLASS = "gaffer.store.accumulo.keypackage.class";
         final String REPLICATION_FACTOR = "accumulo.file.replication";
         final String NAMESPACE = "gaffer.namespace";
+        final String NUM_THREADS_INGEST_ENCODING = "4";
+        final String INGEST_ENCODING_BATCH_SIZE = "250";
 
         // When
         props.setNumThreadsForBatchWriter(NUM_THREADS_WRITER);
@@ -81,10 +85,15 @@ public class AccumuloPropertiesTest {
         props.setClientSideBloomFilterSize(CLIENT_SIDE_BLOOM);
         props.setFalsePositiveRate(FALSE_POSITIVE_RATE);
         props.setMaxBloomFilterToPassToAnIterator(MAX_BLOOM_FILTER);
+        props.setBlockedBloomFilter(true);
+        props.setScanMetricsSinkClass(LoggingScanMetricsSink.class.getName());
+        props.setSlowQueryThresholdMillis("500");
         props.setKeyPackageClass(KEY_PACKAGE_CLASS);
         props.setTableFileReplicationFactor(REPLICATION_FACTOR);
         props.setEnableValidatorIterator(true);
         props.setNamespace(NAMESPACE);
+        props.setNumThreadsForIngestEncoding(NUM_THREADS_INGEST_ENCODING);
+        props.setIngestEncodingBatchSize(INGEST_ENCODING_BATCH_SIZE);
 
         // Then
         assertEquals(Integer.parseInt(NUM_THREADS_WRITER), props.getNumThreadsForBatchWriter());
@@ -96,13 +105,27 @@ public class AccumuloPropertiesTest {
         assertEquals(Integer.parseInt(CLIENT_SIDE_BLOOM), props.getClientSideBloomFilterSize());
         assertEquals(Double.parseDouble(FALSE_POSITIVE_RATE), props.getFalsePositiveRate(), 0.0001D);
         assertEquals(Integer.parseInt(MAX_BLOOM_FILTER), props.getMaxBloomFilterToPassToAnIterator());
+        assertTrue(props.getBlockedBloomFilter());
+        assertEquals(LoggingScanMetricsSink.class.getName(), props.getScanMetricsSinkClass());
+        assertEquals(500L, props.getSlowQueryThresholdMillis());
         assertEquals(KEY_PACKAGE_CLASS, props.getKeyPackageClass());
         assertEquals(REPLICATION_FACTOR, props.getTableFileReplicationFactor());
         assertTrue(props.getEnableValidatorIterator());
         assertEquals(NAMESPACE, props.getNamespace());
+        assertEquals(Integer.parseInt(NUM_THREADS_INGEST_ENCODING), props.getNumThreadsForIngestEncoding());
+        assertEquals(Integer.parseInt(INGEST_ENCODING_BATCH_SIZE), props.getIngestEncodingBatchSize());
 
     }
 
+    @Test
+    public void shouldNotUseBlockedBloomFiltersByDefault() {
+        // Given
+        final AccumuloProperties props = new AccumuloProperties();
+
+        // When / Then
+        assertFalse(props.getBlockedBloomFilter());
+    }
+
     public static final class TestCustomJsonModules1 implements JSONSerialiserModules {
         public static List<Module> modules;
 
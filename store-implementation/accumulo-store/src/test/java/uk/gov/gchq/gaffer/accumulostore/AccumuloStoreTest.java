@@ -40,6 +40,7 @@ import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
@@ -57,6 +58,7 @@ import uk.gov.gchq.gaffer.operation.impl.Validate;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.serialisation.Serialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
@@ -80,7 +82,9 @@ import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
 import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -352,6 +356,100 @@ public class AccumuloStoreTest {
         }
     }
 
+    @Test
+    public void shouldInsertAllElementsWhenEncodingConcurrently() throws Exception {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setNumThreadsForIngestEncoding("3");
+        properties.setIngestEncodingBatchSize("7");
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise("concurrentEncodingGraph", SCHEMA, properties);
+
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Entity entity = new Entity(TestGroups.ENTITY, "vertex" + i);
+            entity.putProperty(TestPropertyNames.PROP_1, i);
+            entity.putProperty(TestPropertyNames.COUNT, 1);
+            elements.add(entity);
+        }
+
+        // When
+        store.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new Context(new User()));
+
+        // Then
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .build(), new Context(new User()))) {
+            assertEquals(elements.size(), Iterables.size(results));
+            for (final Element element : elements) {
+                assertTrue(Iterables.contains(results, element));
+            }
+        }
+    }
+
+    @Test
+    public void shouldInsertAllEdgesWhenEncodingConcurrently() throws Exception {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setNumThreadsForIngestEncoding("3");
+        properties.setIngestEncodingBatchSize("7");
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise("concurrentEdgeEncodingGraph", SCHEMA, properties);
+
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            elements.add(createEdge("source" + i, "destination" + i, true, i));
+            elements.add(createEdge("destination" + i, "source" + i, true, i));
+            elements.add(createEdge("undirectedSource" + i, "undirectedDestination" + i, false, i));
+            elements.add(createEdge("self" + i, "self" + i, true, i));
+            elements.add(createEdge("undirectedSelf" + i, "undirectedSelf" + i, false, i));
+        }
+
+        // When
+        store.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new Context(new User()));
+
+        // Then
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), new Context(new User()))) {
+            assertEquals(elements.size(), Iterables.size(results));
+            for (final Element element : elements) {
+                assertTrue(Iterables.contains(results, element));
+            }
+        }
+
+        // Both directions of the reversed edges are found from either vertex
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetElements.Builder()
+                .input(new EntitySeed("destination0"))
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), new Context(new User()))) {
+            assertEquals(2, Iterables.size(results));
+            assertTrue(Iterables.contains(results, createEdge("source0", "destination0", true, 0)));
+            assertTrue(Iterables.contains(results, createEdge("destination0", "source0", true, 0)));
+        }
+    }
+
+    private Edge createEdge(final String source, final String destination, final boolean directed, final int property) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(directed)
+                .property(TestPropertyNames.PROP_1, property)
+                .property(TestPropertyNames.COUNT, 1)
+                .build();
+    }
+
     @Test
     public void testStoreReturnsHandlersForRegisteredOperationsGaffer1() {
         testStoreReturnsHandlersForRegisteredOperations(GAFFER_1_KEY_STORE);
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.integration.performance;
+
+import org.apache.accumulo.core.client.impl.BaseIteratorEnvironment;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyGroupByAggregatorIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorSettingBuilder;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the aggregation of hot keys, with many versions each, by the
+ * compaction time {@link AggregatorIterator} and the query time
+ * {@link CoreKeyGroupByAggregatorIterator}, for a schema that can be
+ * aggregated from the serialised values and an equivalent schema that has to
+ * be aggregated by deserialising the properties. Reports the number of
+ * versions aggregated per second.
+ */
+public class AggregationIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregationIT.class);
+    private static final int NUM_KEYS = 100;
+    private static final int NUM_VERSIONS = 2000;
+    private static final int NUM_TRIALS = 5;
+
+    @Test
+    public void shouldAggregateHotKeysFasterFromSerialisedValues() throws IOException {
+        final Schema primitiveSchema = createSchema(new Sum(), new Max());
+        final Schema propertiesSchema = createSchema(new NonPrimitiveSum(), new NonPrimitiveMax());
+        final TreeMap<Key, Value> data = createData(primitiveSchema);
+        final View view = new View.Builder().edge(TestGroups.EDGE).build();
+
+        final Map<String, String> primitiveCompactionOptions = getCompactionOptions(primitiveSchema);
+        final Map<String, String> propertiesCompactionOptions = getCompactionOptions(propertiesSchema);
+        final Map<String, String> primitiveQueryOptions = getQueryOptions(primitiveSchema, view);
+        final Map<String, String> propertiesQueryOptions = getQueryOptions(propertiesSchema, view);
+
+        final List<Value> primitiveResults = aggregate(new AggregatorIterator(), primitiveCompactionOptions, data);
+        assertEquals(NUM_KEYS, primitiveResults.size());
+        assertEquals(primitiveResults, aggregate(new AggregatorIterator(), propertiesCompactionOptions, data));
+        assertEquals(primitiveResults, aggregate(new CoreKeyGroupByAggregatorIterator(), primitiveQueryOptions, data));
+        assertEquals(primitiveResults, aggregate(new CoreKeyGroupByAggregatorIterator(), propertiesQueryOptions, data));
+
+        LOGGER.info("Compaction: {} versions/s from serialised values, {} versions/s from properties",
+                getBestRate(new AggregatorIterator(), primitiveCompactionOptions, data),
+                getBestRate(new AggregatorIterator(), propertiesCompactionOptions, data));
+        LOGGER.info("Query: {} versions/s from serialised values, {} versions/s from properties",
+                getBestRate(new CoreKeyGroupByAggregatorIterator(), primitiveQueryOptions, data),
+                getBestRate(new CoreKeyGroupByAggregatorIterator(), propertiesQueryOptions, data));
+    }
+
+    private static Schema createSchema(final BinaryOperator<?> sum, final BinaryOperator<?> max) {
+        return new Schema.Builder()
+                .type("string", String.class)
+                .type("true", Boolean.class)
+                .type("long.sum", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(sum)
+                        .build())
+                .type("long.max", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(max)
+                        .build())
+                .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .directed("true")
+                        .property(TestPropertyNames.COUNT, "long.sum")
+                        .property(TestPropertyNames.PROP_1, "long.sum")
+                        .property(TestPropertyNames.PROP_2, "long.max")
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+    }
+
+    private static TreeMap<Key, Value> createData(final Schema schema) {
+        final AccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(schema);
+        final TreeMap<Key, Value> data = new TreeMap<>();
+        for (int i = 0; i < NUM_KEYS; i++) {
+            for (int version = 0; version < NUM_VERSIONS; version++) {
+                final Edge edge = new Edge.Builder()
+                        .group(TestGroups.EDGE)
+                        .source("source" + i)
+                        .dest("dest" + i)
+                        .directed(true)
+                        .property(TestPropertyNames.COUNT, 1L)
+                        .property(TestPropertyNames.PROP_1, (long) version * i)
+                        .property(TestPropertyNames.PROP_2, (long) (version * 31 % NUM_VERSIONS))
+                        .build();
+                final Key key = converter.getKeysFromEdge(edge).getFirst();
+                data.put(new Key(key.getRow(), key.getColumnFamily(), key.getColumnQualifier(),
+                        key.getColumnVisibility(), version), converter.getValueFromElement(edge));
+            }
+        }
+        return data;
+    }
+
+    private static Map<String, String> getCompactionOptions(final Schema schema) {
+        return new IteratorSettingBuilder(AccumuloStoreConstants.AGGREGATOR_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.AGGREGATOR_ITERATOR_NAME, AggregatorIterator.class)
+                .all()
+                .schema(schema)
+                .keyConverter(ByteEntityAccumuloElementConverter.class)
+                .build()
+                .getOptions();
+    }
+
+    private static Map<String, String> getQueryOptions(final Schema schema, final View view) {
+        return new IteratorSettingBuilder(AccumuloStoreConstants.COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_NAME, CoreKeyGroupByAggregatorIterator.class)
+                .all()
+                .schema(schema)
+                .view(view)
+                .keyConverter(ByteEntityAccumuloElementConverter.class)
+                .build()
+                .getOptions();
+    }
+
+    private static List<Value> aggregate(final SortedKeyValueIterator<Key, Value> iterator, final Map<String, String> options,
+                                         final TreeMap<Key, Value> data) throws IOException {
+        iterator.init(new SortedMapIterator(data), options, new FullMajorCompactionEnvironment());
+        iterator.seek(new Range(), Collections.emptyList(), false);
+        final List<Value> results = new ArrayList<>();
+        while (iterator.hasTop()) {
+            results.add(new Value(iterator.getTopValue()));
+            iterator.next();
+        }
+        return results;
+    }
+
+    private static double getBestRate(final SortedKeyValueIterator<Key, Value> iterator, final Map<String, String> options,
+                                      final TreeMap<Key, Value> data) throws IOException {
+        double maxRate = -1.0;
+        for (int i = 0; i < NUM_TRIALS; i++) {
+            final long start = System.nanoTime();
+            aggregate(iterator, options, data);
+            final long end = System.nanoTime();
+            maxRate = Math.max(maxRate, data.size() / ((end - start) / 1e9));
+        }
+        return maxRate;
+    }
+
+    private static class FullMajorCompactionEnvironment extends BaseIteratorEnvironment {
+        @Override
+        public IteratorScope getIteratorScope() {
+            return IteratorScope.majc;
+        }
+
+        @Override
+        public boolean isFullMajorCompaction() {
+            return true;
+        }
+    }
+
+    /**
+     * A {@link Sum} that is not recognised by the primitive aggregation, so
+     * the properties are deserialised to be aggregated.
+     */
+    public static class NonPrimitiveSum extends Sum {
+    }
+
+    /**
+     * A {@link Max} that is not recognised by the primitive aggregation, so
+     * the properties are deserialised to be aggregated.
+     */
+    public static class NonPrimitiveMax extends Max {
+    }
+}
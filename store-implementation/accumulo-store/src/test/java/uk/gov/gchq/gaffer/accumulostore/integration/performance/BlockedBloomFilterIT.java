@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.integration.performance;
+
+import org.apache.hadoop.util.bloom.Filter;
+import org.apache.hadoop.util.bloom.Key;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter;
+import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the {@link BlockedBloomFilter} with the
+ * {@link org.apache.hadoop.util.bloom.BloomFilter} used previously, for
+ * filters sized for the same number of seeds and false positive rate. Reports
+ * the pruning rate (the proportion of vertices that are not seeds which are
+ * rejected by the filter), the size of the filter and the lookup throughput.
+ */
+public class BlockedBloomFilterIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockedBloomFilterIT.class);
+    private static final double FALSE_POSITIVE_RATE = 0.0002;
+    private static final double MAX_FALSE_POSITIVE_RATE = 3 * FALSE_POSITIVE_RATE;
+    private static final int MAX_SIZE = Integer.MAX_VALUE;
+    private static final int NUM_LOOKUPS = 1000000;
+    private static final int NUM_TRIALS = 5;
+
+    @Test
+    public void shouldPruneAtLeastAsWellAsBloomFilter() {
+        for (final int numSeeds : new int[]{1000, 50000, 500000}) {
+            final Random random = new Random(numSeeds);
+            final Key[] seeds = createKeys(random, numSeeds);
+            final Key[] lookups = createKeys(random, NUM_LOOKUPS);
+
+            final Filter bloomFilter = BloomFilterUtils.getBloomFilter(FALSE_POSITIVE_RATE, numSeeds, MAX_SIZE, false);
+            final Filter blockedFilter = BloomFilterUtils.getBloomFilter(FALSE_POSITIVE_RATE, numSeeds, MAX_SIZE, true);
+            bloomFilter.add(seeds);
+            blockedFilter.add(seeds);
+
+            final double bloomPruningRate = getPruningRate(bloomFilter, lookups);
+            final double blockedPruningRate = getPruningRate(blockedFilter, lookups);
+            final double bloomRate = getBestLookUpRate(bloomFilter, lookups);
+            final double blockedRate = getBestLookUpRate(blockedFilter, lookups);
+            LOGGER.info("{} seeds: bloom filter of {} bits pruned {} at {} lookups/s, blocked bloom filter of {} bits pruned {} at {} lookups/s",
+                    numSeeds,
+                    BloomFilterUtils.calculateBloomFilterSize(FALSE_POSITIVE_RATE, numSeeds, MAX_SIZE), bloomPruningRate, bloomRate,
+                    ((BlockedBloomFilter) blockedFilter).getVectorSize(), blockedPruningRate, blockedRate);
+
+            for (final Key seed : seeds) {
+                assertTrue(blockedFilter.membershipTest(seed));
+            }
+            // The keys are generated from a fixed seed, but allow some
+            // margin over the target false positive rate
+            final double blockedFalsePositiveRate = 1.0 - blockedPruningRate;
+            assertTrue("False positive rate " + blockedFalsePositiveRate + " exceeds " + MAX_FALSE_POSITIVE_RATE,
+                    blockedFalsePositiveRate <= MAX_FALSE_POSITIVE_RATE);
+        }
+    }
+
+    private static Key[] createKeys(final Random random, final int numKeys) {
+        final Key[] keys = new Key[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            keys[i] = new Key(("vertex" + random.nextLong()).getBytes());
+        }
+        return keys;
+    }
+
+    private static double getPruningRate(final Filter filter, final Key[] lookups) {
+        int pruned = 0;
+        for (final Key lookup : lookups) {
+            if (!filter.membershipTest(lookup)) {
+                pruned++;
+            }
+        }
+        return (double) pruned / lookups.length;
+    }
+
+    private static double getBestLookUpRate(final Filter filter, final Key[] lookups) {
+        double maxRate = -1.0;
+        for (int i = 0; i < NUM_TRIALS; i++) {
+            final long start = System.nanoTime();
+            getPruningRate(filter, lookups);
+            final long end = System.nanoTime();
+            maxRate = Math.max(maxRate, lookups.length / ((end - start) / 1e9));
+        }
+        return maxRate;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.accumulostore.key;
 
+import com.google.common.collect.Sets;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.junit.jupiter.api.BeforeEach;
@@ -242,6 +243,57 @@ public abstract class AbstractAccumuloElementConverterTest<T extends AccumuloEle
         assertEquals(8, deSerialisedProperties.get(AccumuloPropertyNames.COUNT));
     }
 
+    @Test
+    public void shouldOnlyDeserialiseRequiredPropertiesFromValue() {
+        // Given
+        final Properties properties = new Properties();
+        properties.put(AccumuloPropertyNames.PROP_1, 60);
+        properties.put(AccumuloPropertyNames.PROP_2, 166);
+        properties.put(AccumuloPropertyNames.PROP_3, 299);
+        properties.put(AccumuloPropertyNames.COUNT, 8);
+        final Value value = converter.getValueFromProperties(TestGroups.EDGE, properties);
+
+        // When
+        final Properties deSerialisedProperties = converter.getPropertiesFromValue(TestGroups.EDGE, value,
+                Sets.newHashSet(AccumuloPropertyNames.PROP_2, AccumuloPropertyNames.COUNT));
+
+        // Then
+        assertEquals(2, deSerialisedProperties.size());
+        assertEquals(166, deSerialisedProperties.get(AccumuloPropertyNames.PROP_2));
+        assertEquals(8, deSerialisedProperties.get(AccumuloPropertyNames.COUNT));
+    }
+
+    @Test
+    public void shouldOnlyDeserialiseRequiredPropertiesFromValueWhenGettingFullElement() {
+        // Given
+        final Edge edge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("1")
+                .dest("2")
+                .directed(true)
+                .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                .property(AccumuloPropertyNames.COLUMN_QUALIFIER_2, 2)
+                .property(AccumuloPropertyNames.PROP_1, 60)
+                .property(AccumuloPropertyNames.PROP_2, 166)
+                .build();
+        final Pair<Key, Key> keys = converter.getKeysFromElement(edge);
+        final Value value = converter.getValueFromElement(edge);
+
+        // When
+        final Edge projectedEdge = (Edge) converter.getFullElement(keys.getFirst(), value, false,
+                Sets.newHashSet(AccumuloPropertyNames.COLUMN_QUALIFIER_2, AccumuloPropertyNames.PROP_1));
+        final Edge fullEdge = (Edge) converter.getFullElement(keys.getFirst(), value, false, null);
+
+        // Then
+        assertEquals("1", projectedEdge.getSource());
+        assertEquals("2", projectedEdge.getDestination());
+        assertEquals(2, projectedEdge.getProperty(AccumuloPropertyNames.COLUMN_QUALIFIER_2));
+        assertEquals(60, projectedEdge.getProperty(AccumuloPropertyNames.PROP_1));
+        assertEquals(1, projectedEdge.getProperty(AccumuloPropertyNames.COLUMN_QUALIFIER));
+        assertNull(projectedEdge.getProperty(AccumuloPropertyNames.PROP_2));
+        assertEquals(converter.getFullElement(keys.getFirst(), value, false), fullEdge);
+    }
+
     @Test
     public void shouldSerialiseAndDeSerialiseBetweenPropertyAndValueMissingMiddleProperty() {
         Properties properties = new Properties();
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IteratorOptionsCacheTest {
+
+    @BeforeEach
+    public void before() {
+        IteratorOptionsCache.clear();
+    }
+
+    @Test
+    public void shouldParseSchemaOnceForIdenticalJson() {
+        // Given
+        final String schemaJson = getSchemaJson(TestGroups.EDGE);
+
+        // When
+        final Schema first = IteratorOptionsCache.getSchema(schemaJson);
+        final Schema second = IteratorOptionsCache.getSchema(new String(schemaJson));
+
+        // Then
+        assertSame(first, second);
+        assertTrue(first.getEdgeGroups().contains(TestGroups.EDGE));
+        assertEquals(1, IteratorOptionsCache.getMissCount());
+        assertEquals(1, IteratorOptionsCache.getHitCount());
+        assertTrue(IteratorOptionsCache.getParseTimeNanos() > 0);
+        assertTrue(IteratorOptionsCache.getParseTimeSavedNanos() > 0);
+    }
+
+    @Test
+    public void shouldParseDifferentSchemasSeparately() {
+        // When
+        final Schema first = IteratorOptionsCache.getSchema(getSchemaJson(TestGroups.EDGE));
+        final Schema second = IteratorOptionsCache.getSchema(getSchemaJson(TestGroups.EDGE_2));
+
+        // Then
+        assertNotSame(first, second);
+        assertTrue(second.getEdgeGroups().contains(TestGroups.EDGE_2));
+        assertEquals(2, IteratorOptionsCache.getMissCount());
+        assertEquals(0, IteratorOptionsCache.getHitCount());
+    }
+
+    @Test
+    public void shouldCacheViews() {
+        // Given
+        final String viewJson = StringUtil.toString(new View.Builder()
+                .edge(TestGroups.EDGE)
+                .build()
+                .toCompactJson());
+
+        // When
+        final View first = IteratorOptionsCache.getView(viewJson);
+        final View second = IteratorOptionsCache.getView(viewJson);
+
+        // Then
+        assertSame(first, second);
+        assertTrue(first.getEdgeGroups().contains(TestGroups.EDGE));
+    }
+
+    @Test
+    public void shouldCacheElementConvertersPerClassAndSchema() throws ReflectiveOperationException {
+        // Given
+        final String schemaJson = getSchemaJson(TestGroups.EDGE);
+
+        // When
+        final AccumuloElementConverter byteEntity = IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter byteEntity2 = IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter classic = IteratorOptionsCache.getElementConverter(ClassicAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter otherSchema = IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), getSchemaJson(TestGroups.EDGE_2));
+
+        // Then
+        assertSame(byteEntity, byteEntity2);
+        assertTrue(byteEntity instanceof ByteEntityAccumuloElementConverter);
+        assertTrue(classic instanceof ClassicAccumuloElementConverter);
+        assertNotSame(byteEntity, otherSchema);
+    }
+
+    @Test
+    public void shouldThrowExceptionForUnknownElementConverterClass() {
+        // When / Then
+        assertThrows(ClassNotFoundException.class,
+                () -> IteratorOptionsCache.getElementConverter("unknown.ConverterClass", getSchemaJson(TestGroups.EDGE)));
+    }
+
+    @Test
+    public void shouldResetOnClear() {
+        // Given
+        IteratorOptionsCache.getSchema(getSchemaJson(TestGroups.EDGE));
+
+        // When
+        IteratorOptionsCache.clear();
+
+        // Then
+        assertEquals(0, IteratorOptionsCache.size());
+        assertEquals(0, IteratorOptionsCache.getMissCount());
+        assertEquals(0, IteratorOptionsCache.getParseTimeNanos());
+    }
+
+    private String getSchemaJson(final String group) {
+        return StringUtil.toString(new Schema.Builder()
+                .type("string", String.class)
+                .edge(group, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .build()
+                .toCompactJson());
+    }
+}
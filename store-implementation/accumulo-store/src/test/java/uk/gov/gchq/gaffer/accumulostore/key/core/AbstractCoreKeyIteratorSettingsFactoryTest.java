@@ -16,6 +16,10 @@
 package uk.gov.gchq.gaffer.accumulostore.key.core;
 
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
+import org.apache.hadoop.util.bloom.Key;
+import org.apache.hadoop.util.hash.Hash;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
@@ -49,6 +53,21 @@ public abstract class AbstractCoreKeyIteratorSettingsFactoryTest {
         this.factory = factory;
     }
 
+    @Test
+    public void shouldCreateSameBloomFilterIteratorSettingForBloomFilterAndFilter() throws Exception {
+        // Given
+        final BloomFilter filter = new BloomFilter(100, 2, Hash.MURMUR_HASH);
+        filter.add(new Key(new byte[]{1, 2, 3}));
+
+        // When
+        final IteratorSetting bloomFilterSetting = factory.getBloomFilterIteratorSetting(filter);
+        final IteratorSetting filterSetting = factory.getBloomFilterIteratorSetting((Filter) filter);
+
+        // Then
+        assertEquals(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, bloomFilterSetting.getName());
+        assertEquals(filterSetting, bloomFilterSetting);
+    }
+
     @Test
     public void shouldReturnNullValidatorIteratorIfNoSchemaValidation() throws Exception {
         // Given
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountGroupsHandlerTest {
+    private static final int NUM_ENTRIES = 50;
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(CountGroupsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(CountGroupsHandlerTest.class));
+    private static final View VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY)
+            .edge(TestGroups.EDGE)
+            .edge(TestGroups.EDGE_2)
+            .build();
+
+    private AccumuloStore store;
+
+    @BeforeEach
+    public void reInitialise() throws StoreException, OperationException {
+        store = new SingleUseMiniAccumuloStore();
+        store.initialise("countGroupsGraph", SCHEMA, PROPERTIES.clone());
+        store.execute(new AddElements.Builder().input(createElements()).build(), new Context());
+    }
+
+    @Test
+    public void shouldCountGroupsOnTabletServers() throws OperationException {
+        // Given
+        final OperationChain<GroupCounts> chain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder().view(VIEW).build())
+                .then(new CountGroups())
+                .build();
+
+        // When
+        final GroupCounts groupCounts = store.execute(chain, new Context());
+
+        // Then
+        assertEquals(NUM_ENTRIES, groupCounts.getEntityGroups().get(TestGroups.ENTITY).intValue());
+        assertEquals(NUM_ENTRIES + NUM_ENTRIES / 2, groupCounts.getEdgeGroups().get(TestGroups.EDGE).intValue());
+        assertEquals(NUM_ENTRIES / 2, groupCounts.getEdgeGroups().get(TestGroups.EDGE_2).intValue());
+        assertFalse(groupCounts.isLimitHit());
+    }
+
+    @Test
+    public void shouldReadElementsWhenLimitIsNotExceeded() throws OperationException {
+        // Given
+        final OperationChain<GroupCounts> chain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder().view(VIEW).build())
+                .then(new CountGroups(NUM_ENTRIES * 3))
+                .build();
+
+        // When
+        final GroupCounts groupCounts = store.execute(chain, new Context());
+
+        // Then
+        assertEquals(NUM_ENTRIES, groupCounts.getEntityGroups().get(TestGroups.ENTITY).intValue());
+        assertFalse(groupCounts.isLimitHit());
+    }
+
+    @Test
+    public void shouldReadElementsWhenLimitIsExceeded() throws OperationException {
+        // Given
+        final OperationChain<GroupCounts> chain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder().view(VIEW).build())
+                .then(new CountGroups(10))
+                .build();
+
+        // When
+        final GroupCounts groupCounts = store.execute(chain, new Context());
+
+        // Then
+        int total = 0;
+        for (final Integer count : groupCounts.getEntityGroups().values()) {
+            total += count;
+        }
+        for (final Integer count : groupCounts.getEdgeGroups().values()) {
+            total += count;
+        }
+        assertEquals(10, total);
+        assertTrue(groupCounts.isLimitHit());
+    }
+
+    private static List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(0 == i % 2 ? TestGroups.EDGE : TestGroups.EDGE_2)
+                    .source("" + i)
+                    .dest("B")
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("" + i)
+                    .dest("C")
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class CountHandlerTest {
+    private static final int NUM_ENTRIES = 100;
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(CountHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(CountHandlerTest.class));
+    private static final View VIEW = new View.Builder().edge(TestGroups.EDGE).entity(TestGroups.ENTITY).build();
+
+    private AccumuloStore store;
+
+    @BeforeEach
+    public void reInitialise() throws StoreException, OperationException {
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        store = new SingleUseMiniAccumuloStore();
+        store.initialise("countGraph", SCHEMA, properties);
+        store.execute(new AddElements.Builder().input(createElements()).build(), new Context());
+    }
+
+    @Test
+    public void shouldCountAllElementsOnTabletServers() throws OperationException {
+        // Given
+        final OperationChain<Long> chain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder().view(VIEW).build())
+                .then(new Count<>())
+                .build();
+
+        // When
+        final Long count = store.execute(chain, new Context());
+
+        // Then
+        assertEquals(NUM_ENTRIES * 2, count.longValue());
+    }
+
+    @Test
+    public void shouldCountSeededElementsOnTabletServers() throws OperationException {
+        // Given
+        final List<EntitySeed> seeds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            seeds.add(new EntitySeed("" + i));
+        }
+        seeds.add(new EntitySeed("B"));
+        final OperationChain<Long> chain = new OperationChain.Builder()
+                .first(new GetElements.Builder().input(seeds).view(VIEW).build())
+                .then(new Count<>())
+                .build();
+
+        // When
+        final Long count = store.execute(chain, new Context());
+
+        // Then - 20 entities, the 20 edges from their seeds and all the edges to B
+        assertEquals(20 + 20 + NUM_ENTRIES, count.longValue());
+    }
+
+    @Test
+    public void shouldUseGroupCountsFromRetrieverWhenCountPushdownIsEnabled() throws Exception {
+        // Given
+        final AccumuloItemRetriever<?, ?> retriever = mock(AccumuloItemRetriever.class);
+        final Map<String, Long> groupCounts = new HashMap<>();
+        groupCounts.put(TestGroups.ENTITY, 3L);
+        groupCounts.put(TestGroups.EDGE, 4L);
+        given(retriever.isCountPushdownEnabled()).willReturn(true);
+        given(retriever.getGroupCounts()).willReturn(groupCounts);
+        final Count<Element> count = new Count<>();
+        count.setInput((Iterable) retriever);
+
+        // When
+        final Long result = new CountHandler<Element>().doOperation(count, new Context(new User()), store);
+
+        // Then
+        assertEquals(7L, result.longValue());
+        verify(retriever, never()).iterator();
+        verify(retriever).close();
+    }
+
+    @Test
+    public void shouldLimitElementsOnTabletServers() throws OperationException {
+        // Given
+        final OperationChain<Iterable<? extends Element>> chain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder().view(VIEW).build())
+                .then(new Limit<>(5))
+                .build();
+
+        // When
+        final Iterable<? extends Element> results = store.execute(chain, new Context());
+
+        // Then
+        int size = 0;
+        for (final Element ignored : results) {
+            size++;
+        }
+        assertEquals(5, size);
+        ((CloseableIterable<?>) results).close();
+    }
+
+    @Test
+    public void shouldStillThrowWhenLimitIsExceededWithoutTruncation() throws OperationException {
+        // Given
+        final OperationChain<Iterable<? extends Element>> chain = new OperationChain.Builder()
+                .first(new GetAllElements.Builder().view(VIEW).build())
+                .then(new Limit<>(5, false))
+                .build();
+
+        // When
+        final Iterable<? extends Element> results = store.execute(chain, new Context());
+
+        // Then
+        assertThrows(LimitExceededException.class, () -> {
+            for (final Element ignored : results) {
+                // Read all the results
+            }
+        });
+    }
+
+    private static List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("" + i)
+                    .dest("B")
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.optimiser;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PushdownOperationChainOptimiserTest {
+    private final PushdownOperationChainOptimiser optimiser = new PushdownOperationChainOptimiser();
+
+    @Test
+    public void shouldPushLimitDownToGetAllElements() {
+        // Given
+        final GetAllElements getAllElements = new GetAllElements();
+        final OperationChain<?> chain = new OperationChain<>(getAllElements, new Limit<>(10));
+
+        // When
+        final OperationChain<?> optimisedChain = optimiser.optimise(chain);
+
+        // Then
+        final Operation optimisedGetAllElements = optimisedChain.getOperations().get(0);
+        assertEquals("10", optimisedGetAllElements.getOption(AccumuloStoreConstants.OPERATION_LIMIT_PUSHDOWN));
+        assertSame(chain.getOperations().get(1), optimisedChain.getOperations().get(1));
+        assertNull(getAllElements.getOption(AccumuloStoreConstants.OPERATION_LIMIT_PUSHDOWN));
+    }
+
+    @Test
+    public void shouldPushLimitPlusOneDownWhenLimitDoesNotTruncate() {
+        // Given
+        final OperationChain<?> chain = new OperationChain<>(
+                new GetElements.Builder().input(new EntitySeed("1")).build(),
+                new Limit<>(10, false));
+
+        // When
+        final OperationChain<?> optimisedChain = optimiser.optimise(chain);
+
+        // Then
+        assertEquals("11", optimisedChain.getOperations().get(0).getOption(AccumuloStoreConstants.OPERATION_LIMIT_PUSHDOWN));
+    }
+
+    @Test
+    public void shouldPushCountDownToGetElements() {
+        // Given
+        final OperationChain<?> countChain = new OperationChain<>(
+                new GetElements.Builder().input(new EntitySeed("1")).build(),
+                new Count<>());
+        final OperationChain<?> countGroupsChain = new OperationChain<>(new GetAllElements(), new CountGroups());
+
+        // When
+        final OperationChain<?> optimisedCountChain = optimiser.optimise(countChain);
+        final OperationChain<?> optimisedCountGroupsChain = optimiser.optimise(countGroupsChain);
+
+        // Then
+        assertEquals("true", optimisedCountChain.getOperations().get(0).getOption(AccumuloStoreConstants.OPERATION_COUNT_PUSHDOWN));
+        assertEquals("true", optimisedCountGroupsChain.getOperations().get(0).getOption(AccumuloStoreConstants.OPERATION_COUNT_PUSHDOWN));
+    }
+
+    @Test
+    public void shouldNotPushCountGroupsDownWhenItHasALimit() {
+        // Given
+        final OperationChain<?> chain = new OperationChain<>(new GetAllElements(), new CountGroups(10));
+
+        // When
+        final OperationChain<?> optimisedChain = optimiser.optimise(chain);
+
+        // Then
+        assertNull(optimisedChain.getOperations().get(0).getOption(AccumuloStoreConstants.OPERATION_COUNT_PUSHDOWN));
+    }
+
+    @Test
+    public void shouldNotPushDownWhenViewHasPostTransformFilters() {
+        // Given
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select("property")
+                                .execute(new Exists())
+                                .build())
+                        .build())
+                .build();
+        final OperationChain<?> chain = new OperationChain<>(new GetAllElements.Builder().view(view).build(), new Count<>());
+
+        // When
+        final OperationChain<?> optimisedChain = optimiser.optimise(chain);
+
+        // Then
+        assertEquals(chain.getOperations(), optimisedChain.getOperations());
+    }
+
+    @Test
+    public void shouldNotPushDownToOtherOperations() {
+        // Given
+        final OperationChain<?> chain = new OperationChain<>(
+                new GetAdjacentIds.Builder().input(new EntitySeed("1")).build(),
+                new Count<>());
+
+        // When
+        final OperationChain<?> optimisedChain = optimiser.optimise(chain);
+
+        // Then
+        assertEquals(chain.getOperations(), optimisedChain.getOperations());
+    }
+
+    @Test
+    public void shouldOnlyPushDownWhatTheIteratorFactorySupports() {
+        // Given
+        final PushdownOperationChainOptimiser countOnlyOptimiser = new PushdownOperationChainOptimiser(false, true);
+        final OperationChain<?> limitChain = new OperationChain<>(new GetAllElements(), new Limit<>(10));
+        final OperationChain<?> countChain = new OperationChain<>(new GetAllElements(), new Count<>());
+
+        // When
+        final OperationChain<?> optimisedLimitChain = countOnlyOptimiser.optimise(limitChain);
+        final OperationChain<?> optimisedCountChain = countOnlyOptimiser.optimise(countChain);
+
+        // Then
+        assertNull(optimisedLimitChain.getOperations().get(0).getOption(AccumuloStoreConstants.OPERATION_LIMIT_PUSHDOWN));
+        assertEquals("true", optimisedCountChain.getOperations().get(0).getOption(AccumuloStoreConstants.OPERATION_COUNT_PUSHDOWN));
+    }
+}
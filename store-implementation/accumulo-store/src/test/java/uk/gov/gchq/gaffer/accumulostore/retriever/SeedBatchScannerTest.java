@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class SeedBatchScannerTest {
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+
+    @AfterAll
+    public static void shutdownExecutor() {
+        EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnEntryForEverySeedWithoutPrefetching() throws Exception {
+        shouldReturnEntryForEverySeed(0);
+    }
+
+    @Test
+    public void shouldReturnEntryForEverySeedWhenPrefetchingOnSharedExecutor() throws Exception {
+        shouldReturnEntryForEverySeed(3);
+    }
+
+    @Test
+    public void shouldCloseEveryOpenScannerWhenClosed() throws Exception {
+        // Given
+        final List<BatchScanner> scanners = Collections.synchronizedList(new ArrayList<>());
+        final SeedBatchScanner<String> scanner = new SeedBatchScanner<>(seeds(10).iterator(), 2, 2, EXECUTOR,
+                (seed, ranges) -> ranges.add(new Range(seed)),
+                ranges -> {
+                    final BatchScanner batchScanner = createBatchScanner(ranges);
+                    scanners.add(batchScanner);
+                    return batchScanner;
+                });
+
+        // When
+        scanner.next();
+        scanner.close();
+
+        // Then
+        for (final BatchScanner batchScanner : new ArrayList<>(scanners)) {
+            verify(batchScanner).close();
+        }
+    }
+
+    private void shouldReturnEntryForEverySeed(final int prefetchDepth) throws Exception {
+        // Given
+        final List<String> seeds = seeds(25);
+
+        // When
+        final Set<String> rows = new HashSet<>();
+        int count = 0;
+        try (final SeedBatchScanner<String> scanner = new SeedBatchScanner<>(seeds.iterator(), 4, prefetchDepth, EXECUTOR,
+                (seed, ranges) -> ranges.add(new Range(seed)),
+                SeedBatchScannerTest::createBatchScanner)) {
+            while (scanner.hasNext()) {
+                rows.add(scanner.next().getKey().getRow().toString());
+                count++;
+            }
+        }
+
+        // Then
+        assertEquals(seeds.size(), count);
+        assertEquals(new HashSet<>(seeds), rows);
+    }
+
+    private static List<String> seeds(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "seed" + i)
+                .collect(Collectors.toList());
+    }
+
+    private static BatchScanner createBatchScanner(final Set<Range> ranges) {
+        final List<Map.Entry<Key, Value>> entries = new ArrayList<>();
+        for (final Range range : ranges) {
+            entries.add(new AbstractMap.SimpleEntry<>(range.getStartKey(), new Value()));
+        }
+        final BatchScanner batchScanner = mock(BatchScanner.class);
+        given(batchScanner.iterator()).willReturn(entries.iterator());
+        return batchScanner;
+    }
+}
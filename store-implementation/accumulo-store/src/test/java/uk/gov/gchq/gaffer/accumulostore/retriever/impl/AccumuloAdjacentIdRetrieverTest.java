@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AccumuloAdjacentIdRetrieverTest {
+    private static final int NUM_SEEDS = 10;
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(AccumuloAdjacentIdRetrieverTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(AccumuloAdjacentIdRetrieverTest.class));
+    private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.openStream(AccumuloAdjacentIdRetrieverTest.class, "/accumuloStoreClassicKeys.properties"));
+
+    @Test
+    public void shouldReturnAnAdjacentIdForEachEdgeByteEntityStore() throws Exception {
+        shouldReturnAnAdjacentIdForEachEdge(createStore(PROPERTIES));
+    }
+
+    @Test
+    public void shouldReturnAnAdjacentIdForEachEdgeGaffer1Store() throws Exception {
+        shouldReturnAnAdjacentIdForEachEdge(createStore(CLASSIC_PROPERTIES));
+    }
+
+    private void shouldReturnAnAdjacentIdForEachEdge(final AccumuloStore store) throws Exception {
+        // Given
+        final GetAdjacentIds operation = createOperation(new View.Builder().edge(TestGroups.EDGE).build());
+
+        // When
+        final List<String> results = getAdjacentVertices(store, operation);
+
+        // Then - each seed has 2 edges to B, stored in the same row, and 1 edge to C
+        assertEquals(createExpected(2, 1), results);
+    }
+
+    @Test
+    public void shouldDeduplicateAdjacentIdsOnTabletServersByteEntityStore() throws Exception {
+        shouldDeduplicateAdjacentIdsOnTabletServers(createStore(PROPERTIES));
+    }
+
+    @Test
+    public void shouldDeduplicateAdjacentIdsOnTabletServersGaffer1Store() throws Exception {
+        shouldDeduplicateAdjacentIdsOnTabletServers(createStore(CLASSIC_PROPERTIES));
+    }
+
+    private void shouldDeduplicateAdjacentIdsOnTabletServers(final AccumuloStore store) throws Exception {
+        // Given
+        final GetAdjacentIds operation = createOperation(new View.Builder().edge(TestGroups.EDGE).build());
+        operation.addOption(AccumuloStoreConstants.OPERATION_DEDUPLICATE_ADJACENT_IDS, "true");
+
+        // When
+        final List<String> results = getAdjacentVertices(store, operation);
+
+        // Then
+        assertEquals(createExpected(1, 1), results);
+    }
+
+    @Test
+    public void shouldApplyPostTransformFiltersOnClient() throws Exception {
+        // Given
+        final AccumuloStore store = createStore(PROPERTIES);
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(AccumuloPropertyNames.COLUMN_QUALIFIER)
+                                .execute(new IsEqual(1))
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final List<String> results = getAdjacentVertices(store, createOperation(view));
+
+        // Then
+        assertEquals(createExpected(1, 1), results);
+    }
+
+    private static AccumuloStore createStore(final AccumuloProperties properties) throws StoreException, OperationException {
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise("adjacentIdGraph", SCHEMA, properties.clone());
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            elements.add(createEdge("" + i, "B", 1));
+            elements.add(createEdge("" + i, "B", 2));
+            elements.add(createEdge("" + i, "C", 1));
+        }
+        store.execute(new AddElements.Builder().input(elements).build(), new Context());
+        return store;
+    }
+
+    private static Edge createEdge(final String source, final String destination, final int columnQualifier) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .property(AccumuloPropertyNames.COLUMN_QUALIFIER, columnQualifier)
+                .build();
+    }
+
+    private static GetAdjacentIds createOperation(final View view) {
+        final List<EntitySeed> seeds = new ArrayList<>();
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            seeds.add(new EntitySeed("" + i));
+        }
+        return new GetAdjacentIds.Builder()
+                .input(seeds)
+                .view(view)
+                .build();
+    }
+
+    private static List<String> getAdjacentVertices(final AccumuloStore store, final GetAdjacentIds operation) throws Exception {
+        final List<String> results = new ArrayList<>();
+        try (final AccumuloAdjacentIdRetriever retriever = new AccumuloAdjacentIdRetriever(store, operation, new User())) {
+            for (final EntityId entityId : retriever) {
+                results.add((String) entityId.getVertex());
+            }
+        }
+        Collections.sort(results);
+        return results;
+    }
+
+    private static List<String> createExpected(final int edgesToB, final int edgesToC) {
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < NUM_SEEDS * edgesToB; i++) {
+            expected.add("B");
+        }
+        for (int i = 0; i < NUM_SEEDS * edgesToC; i++) {
+            expected.add("C");
+        }
+        return expected;
+    }
+}
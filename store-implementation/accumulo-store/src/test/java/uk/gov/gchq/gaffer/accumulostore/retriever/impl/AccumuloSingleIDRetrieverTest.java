@@ -25,8 +25,11 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.retriever.metrics.HistogramScanMetricsSink;
+import uk.gov.gchq.gaffer.accumulostore.retriever.metrics.ScanMetrics;
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
@@ -50,6 +53,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class AccumuloSingleIDRetrieverTest {
@@ -100,6 +104,71 @@ public class AccumuloSingleIDRetrieverTest {
         //Should find both i-B and i-C edges and entities i
     }
 
+    @Test
+    public void shouldReturnAllElementsWhenPrefetchingBatchScanners() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        properties.setPrefetchDepthForBatchScanner("2");
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise("prefetchGraph", SCHEMA, properties);
+        setupGraph(store, NUM_ENTRIES);
+
+        final Set<ElementId> ids = new HashSet<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final View view = new View.Builder().edge(TestGroups.EDGE).entity(TestGroups.ENTITY).build();
+        final GetElements operation = new GetElements.Builder().view(view).input(ids).build();
+
+        // When
+        final AccumuloSingleIDRetriever<?> retriever = new AccumuloSingleIDRetriever<>(store, operation, new User());
+
+        // Then
+        assertEquals(NUM_ENTRIES * 3, Iterables.size(retriever));
+        try (final CloseableIterator<Element> partiallyRead = retriever.iterator()) {
+            for (int i = 0; i < 10; i++) {
+                partiallyRead.next();
+            }
+        }
+    }
+
+    @Test
+    public void shouldRecordScanMetricsAndSendThemToTheSink() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setScanMetricsSinkClass(HistogramScanMetricsSink.class.getName());
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise("scanMetricsGraph", SCHEMA, properties);
+        setupGraph(store, NUM_ENTRIES);
+
+        final Set<ElementId> ids = new HashSet<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final View view = new View.Builder().edge(TestGroups.EDGE).entity(TestGroups.ENTITY).build();
+        final GetElements operation = new GetElements.Builder().view(view).input(ids).build();
+
+        // When
+        final AccumuloSingleIDRetriever<?> retriever = new AccumuloSingleIDRetriever<>(store, operation, new User());
+        final int size = Iterables.size(retriever);
+
+        // Then
+        final ScanMetrics metrics = retriever.getScanMetrics();
+        assertEquals(NUM_ENTRIES * 3, size);
+        assertTrue(metrics.isFinished());
+        assertTrue(metrics.isTimed());
+        assertEquals("GetElements", metrics.getOperationName());
+        assertEquals(1, metrics.getScanners());
+        assertEquals(NUM_ENTRIES * 3, metrics.getElementsReturned());
+        assertEquals(metrics.getEntriesReceived(),
+                metrics.getElementsReturned() + metrics.getElementsFilteredOut() + metrics.getConversionFailures());
+
+        final HistogramScanMetricsSink sink = (HistogramScanMetricsSink) store.getScanMetricsSink();
+        assertEquals(1, sink.getDurationMillis().getCount());
+        assertEquals(NUM_ENTRIES * 3, sink.getElementsReturned().getMax());
+    }
+
     @Test
     public void testEntityIdQueryEdgesOnly() throws AccumuloException, StoreException {
         testEntityIdQueryEdgesOnly(BYTE_ENTITY_STORE);
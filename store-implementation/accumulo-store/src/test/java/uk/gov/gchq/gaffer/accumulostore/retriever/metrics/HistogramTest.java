@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HistogramTest {
+
+    @Test
+    public void shouldPutValuesInPowerOfTwoBuckets() {
+        assertEquals(0, Histogram.getBucket(0));
+        assertEquals(1, Histogram.getBucket(1));
+        assertEquals(2, Histogram.getBucket(2));
+        assertEquals(2, Histogram.getBucket(3));
+        assertEquals(3, Histogram.getBucket(4));
+        assertEquals(10, Histogram.getBucket(1023));
+        assertEquals(11, Histogram.getBucket(1024));
+        assertEquals(Histogram.NUM_BUCKETS - 1, Histogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldReturnZeroPercentileWhenEmpty() {
+        // Given
+        final Histogram histogram = new Histogram();
+
+        // When / Then
+        assertEquals(0, histogram.getCount());
+        assertEquals(0L, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void shouldReturnUpperBoundOfBucketContainingPercentile() {
+        // Given
+        final Histogram histogram = new Histogram();
+
+        // When
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        // Then
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        assertEquals(63L, histogram.getPercentile(50));
+        assertEquals(100L, histogram.getPercentile(99));
+        assertEquals(1L, histogram.getPercentile(1));
+    }
+}
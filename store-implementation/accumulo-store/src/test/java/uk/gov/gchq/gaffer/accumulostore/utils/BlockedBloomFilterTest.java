@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
+import org.apache.hadoop.util.bloom.Key;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockedBloomFilterTest {
+    private static final int NUM_ITEMS = 10000;
+    private static final int NUM_NON_ITEMS = 100000;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    @Test
+    public void shouldContainEveryItemAdded() {
+        // Given
+        final BlockedBloomFilter filter = BloomFilterUtils.getBlockedBloomFilter(FALSE_POSITIVE_RATE, NUM_ITEMS, Integer.MAX_VALUE);
+
+        // When
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            filter.add(key("item" + i));
+        }
+
+        // Then
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            assertTrue(filter.membershipTest(key("item" + i)));
+        }
+    }
+
+    @Test
+    public void shouldAchieveRequestedFalsePositiveRate() {
+        // Given
+        final BlockedBloomFilter filter = BloomFilterUtils.getBlockedBloomFilter(FALSE_POSITIVE_RATE, NUM_ITEMS, Integer.MAX_VALUE);
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            filter.add(key("item" + i));
+        }
+
+        // When
+        final double falsePositiveRate = getFalsePositiveRate(filter);
+
+        // Then
+        assertTrue(falsePositiveRate < 2 * FALSE_POSITIVE_RATE, "False positive rate was " + falsePositiveRate);
+    }
+
+    @Test
+    public void shouldHaveSimilarFalsePositiveRateToBloomFilterOfSameSize() {
+        // Given
+        final int size = BloomFilterUtils.calculateBloomFilterSize(0.01, NUM_ITEMS, Integer.MAX_VALUE);
+        final BlockedBloomFilter blockedFilter = new BlockedBloomFilter(size,
+                BloomFilterUtils.calculateBlockedBloomFilterNumHashes(size, NUM_ITEMS));
+        final BloomFilter bloomFilter = BloomFilterUtils.getBloomFilter(0.01, NUM_ITEMS, Integer.MAX_VALUE);
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            blockedFilter.add(key("item" + i));
+            bloomFilter.add(key("item" + i));
+        }
+
+        // When
+        final double blockedFalsePositiveRate = getFalsePositiveRate(blockedFilter);
+        final double bloomFalsePositiveRate = getFalsePositiveRate(bloomFilter);
+
+        // Then
+        assertTrue(blockedFalsePositiveRate < 2 * bloomFalsePositiveRate,
+                "Blocked false positive rate was " + blockedFalsePositiveRate + ", bloom false positive rate was " + bloomFalsePositiveRate);
+    }
+
+    @Test
+    public void shouldRoundUpToWholeBlocks() {
+        // When
+        final BlockedBloomFilter filter = new BlockedBloomFilter(BlockedBloomFilter.BLOCK_SIZE + 1, 5);
+
+        // Then
+        assertEquals(2 * BlockedBloomFilter.BLOCK_SIZE, filter.getVectorSize());
+        assertEquals(5, filter.getNbHash());
+    }
+
+    @Test
+    public void shouldSizeFilterForNumberOfItemsUpToMaximum() {
+        // When
+        final int smallSize = BloomFilterUtils.calculateBlockedBloomFilterSize(FALSE_POSITIVE_RATE, 10, Integer.MAX_VALUE);
+        final int largeSize = BloomFilterUtils.calculateBlockedBloomFilterSize(FALSE_POSITIVE_RATE, NUM_ITEMS, Integer.MAX_VALUE);
+        final int maxSize = BloomFilterUtils.calculateBlockedBloomFilterSize(FALSE_POSITIVE_RATE, NUM_ITEMS, 10000);
+
+        // Then
+        assertTrue(smallSize < largeSize);
+        assertTrue(largeSize >= BloomFilterUtils.calculateBloomFilterSize(FALSE_POSITIVE_RATE, NUM_ITEMS, Integer.MAX_VALUE));
+        assertEquals(0, largeSize % BlockedBloomFilter.BLOCK_SIZE);
+        assertTrue(maxSize <= 10000);
+        assertEquals(0, maxSize % BlockedBloomFilter.BLOCK_SIZE);
+    }
+
+    @Test
+    public void shouldWriteAndReadFilter() throws IOException {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(1000, 5);
+        filter.add(key("ABC"));
+        filter.add(key("DEF"));
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        filter.write(new DataOutputStream(baos));
+        final String serialised = new String(baos.toByteArray(), AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
+
+        // When
+        final BlockedBloomFilter read = new BlockedBloomFilter();
+        read.readFields(new DataInputStream(new ByteArrayInputStream(serialised.getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET))));
+
+        // Then
+        assertEquals(filter.getVectorSize(), read.getVectorSize());
+        assertEquals(filter.getNbHash(), read.getNbHash());
+        assertEquals(8 + filter.getVectorSize() / Byte.SIZE, baos.size());
+        assertTrue(read.membershipTest(key("ABC")));
+        assertTrue(read.membershipTest(key("DEF")));
+        assertFalse(read.membershipTest(key("lkjhgfdsa")));
+    }
+
+    @Test
+    public void shouldOrFilters() {
+        // Given
+        final BlockedBloomFilter filter1 = new BlockedBloomFilter(1000, 5);
+        final BlockedBloomFilter filter2 = new BlockedBloomFilter(1000, 5);
+        filter1.add(key("ABC"));
+        filter2.add(key("DEF"));
+
+        // When
+        filter1.or(filter2);
+
+        // Then
+        assertTrue(filter1.membershipTest(key("ABC")));
+        assertTrue(filter1.membershipTest(key("DEF")));
+    }
+
+    @Test
+    public void shouldNotCombineFiltersOfDifferentSizes() {
+        // Given
+        final BlockedBloomFilter filter1 = new BlockedBloomFilter(1000, 5);
+        final BlockedBloomFilter filter2 = new BlockedBloomFilter(2000, 5);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> filter1.and(filter2));
+    }
+
+    private static double getFalsePositiveRate(final Filter filter) {
+        int falsePositives = 0;
+        for (int i = 0; i < NUM_NON_ITEMS; i++) {
+            if (filter.membershipTest(key("nonItem" + i))) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / NUM_NON_ITEMS;
+    }
+
+    private static Key key(final String value) {
+        return new Key(value.getBytes());
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.data.Value;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.serialisation.Serialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.RawIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.RawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Min;
+import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PrimitivePropertiesAggregatorTest {
+    private static final String LONG_COMPACT_SUM = "longCompactSum";
+    private static final String LONG_ORDERED_MAX = "longOrderedMax";
+    private static final String LONG_RAW_MIN = "longRawMin";
+    private static final String INT_COMPACT_MIN = "intCompactMin";
+    private static final String INT_ORDERED_SUM = "intOrderedSum";
+    private static final String INT_RAW_MAX = "intRawMax";
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", String.class)
+            .type("true", Boolean.class)
+            .type(LONG_COMPACT_SUM, type(Long.class, new CompactRawLongSerialiser(), new Sum()))
+            .type(LONG_ORDERED_MAX, type(Long.class, new OrderedLongSerialiser(), new Max()))
+            .type(LONG_RAW_MIN, type(Long.class, new RawLongSerialiser(), new Min()))
+            .type(INT_COMPACT_MIN, type(Integer.class, new CompactRawIntegerSerialiser(), new Min()))
+            .type(INT_ORDERED_SUM, type(Integer.class, new OrderedIntegerSerialiser(), new Sum()))
+            .type(INT_RAW_MAX, type(Integer.class, new RawIntegerSerialiser(), new Max()))
+            .type("stringConcat", type(String.class, new StringSerialiser(), new StringConcat()))
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .property(TestPropertyNames.PROP_1, LONG_COMPACT_SUM)
+                    .property(TestPropertyNames.PROP_2, LONG_ORDERED_MAX)
+                    .property(TestPropertyNames.PROP_3, LONG_RAW_MIN)
+                    .property(TestPropertyNames.PROP_4, INT_COMPACT_MIN)
+                    .property(TestPropertyNames.PROP_5, INT_ORDERED_SUM)
+                    .property(TestPropertyNames.COUNT, INT_RAW_MAX)
+                    .build())
+            .edge(TestGroups.EDGE_2, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .property(TestPropertyNames.PROP_1, LONG_COMPACT_SUM)
+                    .property(TestPropertyNames.STRING, "stringConcat")
+                    .build())
+            .build();
+
+    private final ByteEntityAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(SCHEMA);
+
+    @Test
+    public void shouldAggregateTheSameAsTheElementAggregator() {
+        // Given
+        final ElementAggregator elementAggregator = SCHEMA.getElement(TestGroups.EDGE).getIngestAggregator();
+        final PrimitivePropertiesAggregator aggregator = PrimitivePropertiesAggregator.create(SCHEMA, TestGroups.EDGE, elementAggregator);
+        final Random random = new Random(1234);
+
+        for (int test = 0; test < 100; test++) {
+            final List<Value> values = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(20); i++) {
+                values.add(converter.getValueFromProperties(TestGroups.EDGE, randomProperties(random)));
+            }
+
+            // When
+            aggregator.reset();
+            Properties expected = null;
+            for (final Value value : values) {
+                aggregator.aggregate(value);
+                final Properties properties = converter.getPropertiesFromValue(TestGroups.EDGE, value);
+                expected = null == expected ? properties : elementAggregator.apply(expected, properties);
+            }
+
+            // Then
+            assertArrayEquals(converter.getValueFromProperties(TestGroups.EDGE, expected).get(), aggregator.getValue().get());
+        }
+    }
+
+    @Test
+    public void shouldResetBetweenKeys() {
+        // Given
+        final PrimitivePropertiesAggregator aggregator = PrimitivePropertiesAggregator.create(SCHEMA, TestGroups.EDGE,
+                SCHEMA.getElement(TestGroups.EDGE).getIngestAggregator());
+        final Properties properties = randomProperties(new Random(5678));
+        final Value value = converter.getValueFromProperties(TestGroups.EDGE, properties);
+        aggregator.aggregate(value);
+        aggregator.aggregate(value);
+
+        // When
+        aggregator.reset();
+        aggregator.aggregate(value);
+
+        // Then
+        assertArrayEquals(value.get(), aggregator.getValue().get());
+    }
+
+    @Test
+    public void shouldNotCreateAggregatorForUnsupportedAggregateFunctions() {
+        // When
+        final PrimitivePropertiesAggregator aggregator = PrimitivePropertiesAggregator.create(SCHEMA, TestGroups.EDGE_2,
+                SCHEMA.getElement(TestGroups.EDGE_2).getIngestAggregator());
+
+        // Then
+        assertNull(aggregator);
+    }
+
+    @Test
+    public void shouldNotCreateAggregatorForComponentsSelectingMultipleProperties() {
+        // Given
+        final ElementAggregator elementAggregator = new ElementAggregator.Builder()
+                .select(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                .execute(new Sum())
+                .build();
+
+        // When
+        final PrimitivePropertiesAggregator aggregator = PrimitivePropertiesAggregator.create(SCHEMA, TestGroups.EDGE, elementAggregator);
+
+        // Then
+        assertNull(aggregator);
+    }
+
+    @Test
+    public void shouldCreateAggregatorForViewAggregators() {
+        // Given
+        final ElementAggregator viewAggregator = new ElementAggregator.Builder()
+                .select(TestPropertyNames.PROP_1)
+                .execute(new Max())
+                .build();
+
+        // When
+        final PrimitivePropertiesAggregator aggregator = PrimitivePropertiesAggregator.create(SCHEMA, TestGroups.EDGE,
+                SCHEMA.getElement(TestGroups.EDGE).getQueryAggregator(null, viewAggregator));
+
+        // Then
+        assertNotNull(aggregator);
+    }
+
+    private static Properties randomProperties(final Random random) {
+        final Properties properties = new Properties();
+        // Some properties are left null to check they are aggregated in the
+        // same way as the element aggregator.
+        if (random.nextInt(5) > 0) {
+            properties.put(TestPropertyNames.PROP_1, random.nextLong() >> random.nextInt(64));
+        }
+        if (random.nextInt(5) > 0) {
+            properties.put(TestPropertyNames.PROP_2, random.nextLong() >> random.nextInt(64));
+        }
+        if (random.nextInt(5) > 0) {
+            properties.put(TestPropertyNames.PROP_3, random.nextLong() >> random.nextInt(64));
+        }
+        if (random.nextInt(5) > 0) {
+            properties.put(TestPropertyNames.PROP_4, random.nextInt() >> random.nextInt(32));
+        }
+        if (random.nextInt(5) > 0) {
+            properties.put(TestPropertyNames.PROP_5, random.nextInt() >> random.nextInt(32));
+        }
+        if (random.nextInt(5) > 0) {
+            properties.put(TestPropertyNames.COUNT, random.nextInt() >> random.nextInt(32));
+        }
+        return properties;
+    }
+
+    private static TypeDefinition type(final Class<?> clazz, final Serialiser serialiser,
+                                       final BinaryOperator<?> aggregateFunction) {
+        return new TypeDefinition.Builder()
+                .clazz(clazz)
+                .serialiser(serialiser)
+                .aggregateFunction(aggregateFunction)
+                .build();
+    }
+}
@@ -42,9 +42,23 @@ public class HBaseProperties extends StoreProperties {
     public static final String WRITE_BUFFER_SIZE = "hbase.writeBufferSize";
     public static final String DEPENDENCY_JARS_HDFS_DIR_PATH = "hbase.hdfs.jars.path";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "hbase.entriesForBatchScanner";
+    public static final String BUFFERED_MUTATOR_INGEST = "hbase.bufferedMutatorIngest";
+    public static final String BUFFERED_MUTATOR_WRITE_BUFFER_SIZE_BYTES = "hbase.bufferedMutatorWriteBufferSizeBytes";
+    public static final String NUM_THREADS_FOR_INGEST_ENCODING = "hbase.numThreadsForIngestEncoding";
+    public static final String INGEST_ENCODING_BATCH_SIZE = "hbase.ingestEncodingBatchSize";
+    public static final String MAX_INGEST_BATCHES_IN_FLIGHT = "hbase.maxIngestBatchesInFlight";
+    public static final String REGION_PARALLEL_SCAN = "hbase.regionParallelScan";
+    public static final String NUM_THREADS_FOR_REGION_SCANS = "hbase.numThreadsForRegionScans";
+    public static final String REGION_SCAN_BUFFER_SIZE = "hbase.regionScanBufferSize";
+    public static final String MAX_ROW_RANGES_FOR_SMALL_SCANS = "hbase.maxRowRangesForSmallScans";
 
     public static final int WRITE_BUFFER_SIZE_DEFAULT = 1000000;
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    public static final String NUM_THREADS_FOR_INGEST_ENCODING_DEFAULT = "1";
+    public static final String INGEST_ENCODING_BATCH_SIZE_DEFAULT = "1000";
+    public static final String NUM_THREADS_FOR_REGION_SCANS_DEFAULT = "10";
+    public static final String REGION_SCAN_BUFFER_SIZE_DEFAULT = "1000";
+    public static final String MAX_ROW_RANGES_FOR_SMALL_SCANS_DEFAULT = "0";
 
     public HBaseProperties() {
         super(HBaseStore.class);
@@ -164,6 +178,165 @@ public class HBaseProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Whether elements should be added using an asynchronous HBase
+     * {@link org.apache.hadoop.hbase.client.BufferedMutator}, instead of
+     * synchronous batches of puts.
+     *
+     * @return true if elements should be added using a BufferedMutator
+     */
+    public boolean getBufferedMutatorIngest() {
+        return Boolean.parseBoolean(get(BUFFERED_MUTATOR_INGEST, "false"));
+    }
+
+    /**
+     * Sets whether elements should be added using an asynchronous HBase
+     * {@link org.apache.hadoop.hbase.client.BufferedMutator}.
+     *
+     * @param bufferedMutatorIngest true if elements should be added using a
+     *                              BufferedMutator
+     */
+    public void setBufferedMutatorIngest(final boolean bufferedMutatorIngest) {
+        set(BUFFERED_MUTATOR_INGEST, String.valueOf(bufferedMutatorIngest));
+    }
+
+    /**
+     * Gets the size in bytes of the write buffer of the BufferedMutator used
+     * to add elements. This limits the size of the puts that are waiting to
+     * be sent to the region servers.
+     *
+     * @return the write buffer size in bytes, or null to use the HBase
+     * client's hbase.client.write.buffer setting
+     */
+    public Long getBufferedMutatorWriteBufferSizeBytes() {
+        final String size = get(BUFFERED_MUTATOR_WRITE_BUFFER_SIZE_BYTES, null);
+        return null == size ? null : Long.parseLong(size);
+    }
+
+    public void setBufferedMutatorWriteBufferSizeBytes(final String size) {
+        set(BUFFERED_MUTATOR_WRITE_BUFFER_SIZE_BYTES, size);
+    }
+
+    /**
+     * Gets the number of batches of elements expected to be converted into
+     * HBase puts concurrently when adding elements with a BufferedMutator.
+     * The batches are converted on the store's shared operation executor, so
+     * this is only used for the default maximum number of batches in flight.
+     *
+     * @return the number of batches expected to be converted concurrently
+     */
+    public int getNumThreadsForIngestEncoding() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST_ENCODING, NUM_THREADS_FOR_INGEST_ENCODING_DEFAULT));
+    }
+
+    public void setNumThreadsForIngestEncoding(final String numThreadsForIngestEncoding) {
+        set(NUM_THREADS_FOR_INGEST_ENCODING, numThreadsForIngestEncoding);
+    }
+
+    /**
+     * Gets the number of elements in each batch converted by an ingest
+     * encoding thread. The puts for each batch are flushed to HBase together.
+     *
+     * @return the number of elements in each batch
+     */
+    public int getIngestEncodingBatchSize() {
+        return Integer.parseInt(get(INGEST_ENCODING_BATCH_SIZE, INGEST_ENCODING_BATCH_SIZE_DEFAULT));
+    }
+
+    public void setIngestEncodingBatchSize(final String ingestEncodingBatchSize) {
+        set(INGEST_ENCODING_BATCH_SIZE, ingestEncodingBatchSize);
+    }
+
+    /**
+     * Gets the maximum number of batches of elements that can be read from
+     * the input and converted ahead of the BufferedMutator. When this limit
+     * is reached, reading the input blocks until the BufferedMutator accepts
+     * the oldest batch. By default this is twice the number of ingest
+     * encoding threads.
+     *
+     * @return the maximum number of batches in flight
+     */
+    public int getMaxIngestBatchesInFlight() {
+        final String maxBatches = get(MAX_INGEST_BATCHES_IN_FLIGHT, null);
+        if (null == maxBatches) {
+            return 2 * getNumThreadsForIngestEncoding();
+        }
+        return Integer.parseInt(maxBatches);
+    }
+
+    public void setMaxIngestBatchesInFlight(final String maxIngestBatchesInFlight) {
+        set(MAX_INGEST_BATCHES_IN_FLIGHT, maxIngestBatchesInFlight);
+    }
+
+    /**
+     * Gets whether queries should be split into one scan per region, with
+     * the scans run concurrently.
+     *
+     * @return true if queries should scan the regions in parallel
+     */
+    public boolean getRegionParallelScan() {
+        return Boolean.parseBoolean(get(REGION_PARALLEL_SCAN, "false"));
+    }
+
+    public void setRegionParallelScan(final boolean regionParallelScan) {
+        set(REGION_PARALLEL_SCAN, String.valueOf(regionParallelScan));
+    }
+
+    /**
+     * Gets the maximum number of regions or row ranges each query scans
+     * concurrently when region parallel scanning or small scans are used.
+     * The scans are run by the query's thread and the store's shared
+     * operation executor.
+     *
+     * @return the number of threads used to scan regions
+     */
+    public int getNumThreadsForRegionScans() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_REGION_SCANS, NUM_THREADS_FOR_REGION_SCANS_DEFAULT));
+    }
+
+    public void setNumThreadsForRegionScans(final String numThreadsForRegionScans) {
+        set(NUM_THREADS_FOR_REGION_SCANS, numThreadsForRegionScans);
+    }
+
+    /**
+     * Gets the number of rows that the region scans can buffer before they
+     * block waiting for the results to be consumed.
+     *
+     * @return the region scan buffer size
+     */
+    public int getRegionScanBufferSize() {
+        return Integer.parseInt(get(REGION_SCAN_BUFFER_SIZE, REGION_SCAN_BUFFER_SIZE_DEFAULT));
+    }
+
+    public void setRegionScanBufferSize(final String regionScanBufferSize) {
+        set(REGION_SCAN_BUFFER_SIZE, regionScanBufferSize);
+    }
+
+    /**
+     * Gets the maximum number of row ranges, after merging, that a batch of
+     * seeds can produce for each range to be fetched with its own small scan.
+     * Batches with more row ranges are fetched with a scan using a
+     * MultiRowRangeFilter. When greater than 0, regions containing a single
+     * row range are also fetched with a small scan if region parallel
+     * scanning is enabled. Running several small scans concurrently only
+     * helps if the ranges are spread across region servers.
+     * <p>
+     * Small scans are off by default. A small scan returns all the rows of its
+     * range in a single RPC, so a range for a vertex with many edges is held
+     * in memory on the region server and the client at once, and can exceed
+     * the RPC timeout. Only enable them if no seed has a large number of
+     * edges.
+     *
+     * @return the maximum number of row ranges to use small scans for
+     */
+    public int getMaxRowRangesForSmallScans() {
+        return Integer.parseInt(get(MAX_ROW_RANGES_FOR_SMALL_SCANS, MAX_ROW_RANGES_FOR_SMALL_SCANS_DEFAULT));
+    }
+
+    public void setMaxRowRangesForSmallScans(final String maxRowRangesForSmallScans) {
+        set(MAX_ROW_RANGES_FOR_SMALL_SCANS, maxRowRangesForSmallScans);
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
@@ -21,9 +21,13 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Pair;
 
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
@@ -39,6 +43,7 @@ import uk.gov.gchq.gaffer.hbasestore.operation.handler.SampleElementsForSplitPoi
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.SplitStoreFromIterableHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.hdfs.handler.AddElementsFromHdfsHandler;
 import uk.gov.gchq.gaffer.hbasestore.retriever.HBaseRetriever;
+import uk.gov.gchq.gaffer.hbasestore.utils.SchemaFingerprint;
 import uk.gov.gchq.gaffer.hbasestore.utils.TableUtils;
 import uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs;
 import uk.gov.gchq.gaffer.hdfs.operation.handler.HdfsSplitStoreFromFileHandler;
@@ -108,6 +113,7 @@ public class HBaseStore extends Store {
                     MATCHED_VERTEX
             ));
     private Connection connection;
+    private byte[] schemaFingerprint;
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties)
@@ -127,6 +133,7 @@ public class HBaseStore extends Store {
     public void preInitialise(final String graphId, final Schema schema, final StoreProperties properties)
             throws StoreException {
         setProperties(properties);
+        schemaFingerprint = null;
         final String deprecatedTableName = getProperties().getTableName();
         if (null == graphId && null != deprecatedTableName) {
             // Deprecated
@@ -159,6 +166,19 @@ public class HBaseStore extends Store {
         return connection;
     }
 
+    /**
+     * Gets the fingerprint of the schema, which is sent with each scan in
+     * place of the schema itself.
+     *
+     * @return the fingerprint of the schema.
+     */
+    public byte[] getSchemaFingerprint() {
+        if (null == schemaFingerprint) {
+            schemaFingerprint = SchemaFingerprint.create(getSchema().toCompactJson());
+        }
+        return schemaFingerprint;
+    }
+
     public TableName getTableName() {
         return TableName.valueOf(getGraphId());
     }
@@ -180,6 +200,43 @@ public class HBaseStore extends Store {
         }
     }
 
+    /**
+     * Gets a {@link BufferedMutator} for the table, which sends puts to the
+     * region servers asynchronously.
+     *
+     * @param listener the listener that is notified of puts that could not
+     *                 be written
+     * @return the buffered mutator.
+     * @throws StoreException if the buffered mutator could not be created.
+     */
+    public BufferedMutator getBufferedMutator(final BufferedMutator.ExceptionListener listener) throws StoreException {
+        final BufferedMutatorParams params = new BufferedMutatorParams(getTableName())
+                .listener(listener);
+        final Long writeBufferSize = getProperties().getBufferedMutatorWriteBufferSizeBytes();
+        if (null != writeBufferSize) {
+            params.writeBufferSize(writeBufferSize);
+        }
+        try {
+            return getConnection().getBufferedMutator(params);
+        } catch (final IOException e) {
+            throw new StoreException(e);
+        }
+    }
+
+    /**
+     * Gets the start and end rows of each region of the table.
+     *
+     * @return the start rows and end rows of the regions.
+     * @throws StoreException if the region boundaries could not be fetched.
+     */
+    public Pair<byte[][], byte[][]> getRegionStartEndKeys() throws StoreException {
+        try (final RegionLocator locator = getConnection().getRegionLocator(getTableName())) {
+            return locator.getStartEndKeys();
+        } catch (final IOException e) {
+            throw new StoreException(e);
+        }
+    }
+
     public <OP extends Output<CloseableIterable<? extends Element>> & GraphFilters> HBaseRetriever<OP>
     createRetriever(final OP operation,
                     final User user,
@@ -27,23 +27,46 @@ import org.apache.hadoop.hbase.regionserver.Store;
 import org.apache.hadoop.hbase.regionserver.compactions.CompactionRequest;
 import org.apache.hadoop.hbase.util.Bytes;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryScanner;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.StoreScanner;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
 import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.hbasestore.utils.SchemaFingerprint;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * The Gaffer coprocessor applies aggregation, validation and the operation view
+ * on the region servers. The schema is read once from the coprocessor
+ * configuration when the region is opened. Scans only send a fingerprint of
+ * the client's schema, and the processors created for each view are shared
+ * between scans using a {@link QueryProcessorsCache}.
+ */
 public class GafferCoprocessor extends BaseRegionObserver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GafferCoprocessor.class);
+    private static final QueryProcessorsCache PROCESSORS_CACHE = new QueryProcessorsCache(
+            QueryProcessorsCache.DEFAULT_MAX_SIZE, QueryProcessorsCache.DEFAULT_MAX_BYTES);
+
     private Schema schema;
+    private byte[] schemaFingerprint;
     private ElementSerialisation serialisation;
+    private final AtomicBoolean loggedSchemaMismatch = new AtomicBoolean();
 
     @Override
     public void start(final CoprocessorEnvironment e) throws IOException {
         final String schemaJson = StringUtil.unescapeComma(e.getConfiguration().get(HBaseStoreConstants.SCHEMA));
-        schema = Schema.fromJson(Bytes.toBytes(schemaJson));
+        final byte[] schemaBytes = Bytes.toBytes(schemaJson);
+        schema = Schema.fromJson(schemaBytes);
+        schemaFingerprint = SchemaFingerprint.create(schemaBytes);
         serialisation = new ElementSerialisation(schema);
     }
 
@@ -73,6 +96,15 @@ public class GafferCoprocessor extends BaseRegionObserver {
 
     @Override
     public RegionScanner postScannerOpen(final ObserverContext<RegionCoprocessorEnvironment> e, final Scan scan, final RegionScanner scanner) throws IOException {
-        return new QueryScanner(scanner, scan, schema, serialisation);
+        final byte[] clientSchemaFingerprint = scan.getAttribute(HBaseStoreConstants.SCHEMA_FINGERPRINT);
+        if (null != clientSchemaFingerprint && !Arrays.equals(schemaFingerprint, clientSchemaFingerprint)
+                && loggedSchemaMismatch.compareAndSet(false, true)) {
+            LOGGER.warn("The schema of a scan on region {} does not match the schema the table was created with,"
+                    + " the table schema will be used", e.getEnvironment().getRegionInfo().getRegionNameAsString());
+        }
+
+        final List<GafferScannerProcessor> processors = PROCESSORS_CACHE.getProcessors(
+                schemaFingerprint, scan, () -> QueryScanner.createProcessors(scan, schema, serialisation));
+        return new QueryScanner(scanner, scan, serialisation, processors);
     }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.hadoop.hbase.client.Scan;
+
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, least recently used cache of the {@link GafferScannerProcessor}s
+ * created for query scans. This means the view sent with a scan only has to be
+ * parsed the first time it is seen, rather than in every region for every scan.
+ * <p>
+ * The cache is bounded by both the number of entries and the total size of
+ * the serialised scan options they are keyed on, which is roughly in
+ * proportion to the size of the views held by the processors. Options larger
+ * than the maximum size are not cached.
+ * <p>
+ * Entries are keyed on the fingerprint of the schema the processors were
+ * created with as well as the scan options, so processors are never shared
+ * between tables or between versions of a schema. The processors do not hold
+ * any per scan state and the validators and aggregators they lazily create
+ * from the schema element definitions are safely published, so they can be
+ * shared by concurrent scans.
+ */
+public class QueryProcessorsCache {
+    public static final int DEFAULT_MAX_SIZE = 100;
+    public static final long DEFAULT_MAX_BYTES = 10L * 1024L * 1024L;
+
+    private final Map<Key, List<GafferScannerProcessor>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxSize;
+    private final long maxBytes;
+    private long totalBytes;
+
+    public QueryProcessorsCache(final int maxSize) {
+        this(maxSize, DEFAULT_MAX_BYTES);
+    }
+
+    public QueryProcessorsCache(final int maxSize, final long maxBytes) {
+        if (maxSize < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("The maximum cache size and bytes must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the processors for a scan, creating and caching them if the scan
+     * options have not been seen before for the schema.
+     *
+     * @param schemaFingerprint the fingerprint of the schema used to create the processors
+     * @param scan              the scan containing the view and other options
+     * @param factory           creates the processors if they are not cached
+     * @return the processors for the scan
+     */
+    public List<GafferScannerProcessor> getProcessors(final byte[] schemaFingerprint,
+                                                      final Scan scan,
+                                                      final Supplier<List<GafferScannerProcessor>> factory) {
+        final Key key = new Key(schemaFingerprint, scan);
+        synchronized (cache) {
+            final List<GafferScannerProcessor> processors = cache.get(key);
+            if (null != processors) {
+                return processors;
+            }
+        }
+
+        // Create the processors outside the lock so a slow view does not
+        // block scans with other views.
+        final List<GafferScannerProcessor> processors = Collections.unmodifiableList(factory.get());
+        if (key.bytes <= maxBytes) {
+            synchronized (cache) {
+                final List<GafferScannerProcessor> previous = cache.put(key, processors);
+                if (null == previous) {
+                    totalBytes += key.bytes;
+                }
+                evict();
+            }
+        }
+        return processors;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getTotalBytes() {
+        synchronized (cache) {
+            return totalBytes;
+        }
+    }
+
+    private void evict() {
+        final Iterator<Key> keys = cache.keySet().iterator();
+        while ((cache.size() > maxSize || totalBytes > maxBytes) && keys.hasNext()) {
+            totalBytes -= keys.next().bytes;
+            keys.remove();
+        }
+    }
+
+    private static final class Key {
+        private final byte[] schemaFingerprint;
+        private final byte[] view;
+        private final byte[] directedType;
+        private final byte[] extraProcessors;
+        private final long bytes;
+        private final int hashCode;
+
+        private Key(final byte[] schemaFingerprint, final Scan scan) {
+            this.schemaFingerprint = schemaFingerprint;
+            this.view = scan.getAttribute(HBaseStoreConstants.VIEW);
+            this.directedType = scan.getAttribute(HBaseStoreConstants.DIRECTED_TYPE);
+            this.extraProcessors = scan.getAttribute(HBaseStoreConstants.EXTRA_PROCESSORS);
+            this.bytes = length(schemaFingerprint) + length(view) + length(directedType) + length(extraProcessors);
+            this.hashCode = new HashCodeBuilder(17, 37)
+                    .append(schemaFingerprint)
+                    .append(view)
+                    .append(directedType)
+                    .append(extraProcessors)
+                    .toHashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (null == obj || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final Key key = (Key) obj;
+            return new EqualsBuilder()
+                    .append(schemaFingerprint, key.schemaFingerprint)
+                    .append(view, key.view)
+                    .append(directedType, key.directedType)
+                    .append(extraProcessors, key.extraProcessors)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        private static int length(final byte[] bytes) {
+            return null == bytes ? 0 : bytes.length;
+        }
+    }
+}
@@ -81,6 +81,10 @@ public abstract class GafferScanner implements InternalScanner {
         }
     }
 
+    public List<GafferScannerProcessor> getProcessors() {
+        return processors;
+    }
+
     protected InternalScanner getScanner() {
         return scanner;
     }
@@ -48,10 +48,17 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
                         final Scan scan,
                         final Schema schema,
                         final ElementSerialisation serialisation) {
-        super(scanner, serialisation, createProcessors(scan, schema, serialisation), isIncludeMatchedVertex(scan));
+        this(scanner, scan, serialisation, createProcessors(scan, schema, serialisation));
     }
 
-    protected static List<GafferScannerProcessor> createProcessors(
+    public QueryScanner(final RegionScanner scanner,
+                        final Scan scan,
+                        final ElementSerialisation serialisation,
+                        final List<GafferScannerProcessor> processors) {
+        super(scanner, serialisation, processors, isIncludeMatchedVertex(scan));
+    }
+
+    public static List<GafferScannerProcessor> createProcessors(
             final Scan scan,
             final Schema schema,
             final ElementSerialisation serialisation) {
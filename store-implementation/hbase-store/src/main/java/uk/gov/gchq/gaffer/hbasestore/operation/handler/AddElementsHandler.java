@@ -16,12 +16,21 @@
 
 package uk.gov.gchq.gaffer.hbasestore.operation.handler;
 
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
 import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -30,24 +39,49 @@ import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * HBase will skip 'puts' if there are multiple 'puts' with the same rowId and column qualifier.
  * To work around this issue, we need to aggregate elements within each batch before adding them to HBase.
  * Due to this, optimising the batch size could have a big impact on performance.
  * Configure the batch size using store property: hbase.writeBufferSize
+ * <p>
+ * If the store property hbase.bufferedMutatorIngest is true, elements are
+ * instead converted into puts in batches of hbase.ingestEncodingBatchSize on
+ * the store's shared operation executor and passed to a {@link BufferedMutator}.
+ * At most hbase.maxIngestBatchesInFlight batches are converted ahead of the
+ * mutator, so reading the input is slowed to the rate the region servers can
+ * accept the puts. The mutator is flushed after each batch, so as above
+ * elements should be aggregated within each batch; the batch size is
+ * configured using hbase.ingestEncodingBatchSize rather than
+ * hbase.writeBufferSize.
  */
 public class AddElementsHandler implements OperationHandler<AddElements> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AddElementsHandler.class);
+
     @Override
     public Void doOperation(final AddElements operation,
                             final Context context, final Store store)
             throws OperationException {
-        addElements(operation, (HBaseStore) store);
+        final HBaseStore hbaseStore = (HBaseStore) store;
+        if (hbaseStore.getProperties().getBufferedMutatorIngest()) {
+            addElementsWithBufferedMutator(operation, hbaseStore);
+        } else {
+            addElements(operation, hbaseStore);
+        }
         return null;
     }
 
@@ -97,6 +131,108 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
         }
     }
 
+    private void addElementsWithBufferedMutator(final AddElements addElementsOperation, final HBaseStore store)
+            throws OperationException {
+        if (null == addElementsOperation.getInput()) {
+            return;
+        }
+
+        final int batchSize = store.getProperties().getIngestEncodingBatchSize();
+        final int maxBatchesInFlight = store.getProperties().getMaxIngestBatchesInFlight();
+        if (batchSize < 1 || maxBatchesInFlight < 1) {
+            throw new IllegalArgumentException(HBaseProperties.INGEST_ENCODING_BATCH_SIZE + " and "
+                    + HBaseProperties.MAX_INGEST_BATCHES_IN_FLIGHT + " must be at least 1");
+        }
+
+        final ElementSerialisation serialisation = new ElementSerialisation(store.getSchema());
+        final boolean skipInvalidElements = !addElementsOperation.isValidate() || addElementsOperation.isSkipInvalidElements();
+        final FailedPutListener listener = new FailedPutListener(serialisation);
+
+        // Batches are converted concurrently but handed to the mutator in
+        // the order they were submitted. The number of batches in flight is
+        // bounded so a large input is not converted far ahead of the mutator.
+        final Executor executor = store.getOperationExecutor();
+        final Deque<Future<List<Put>>> pending = new ArrayDeque<>();
+        boolean completed = false;
+        try (final BufferedMutator mutator = store.getBufferedMutator(listener)) {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (final Element element : addElementsOperation.getInput()) {
+                if (null == element) {
+                    continue;
+                }
+                batch.add(element);
+                if (batch.size() >= batchSize) {
+                    pending.add(submitBatch(executor, serialisation, batch, skipInvalidElements));
+                    batch = new ArrayList<>(batchSize);
+                    while (pending.size() >= maxBatchesInFlight) {
+                        writeBatch(mutator, pending.remove());
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                pending.add(submitBatch(executor, serialisation, batch, skipInvalidElements));
+            }
+            while (!pending.isEmpty()) {
+                writeBatch(mutator, pending.remove());
+            }
+            completed = true;
+        } catch (final IOException | StoreException e) {
+            throw new OperationException("Failed to add elements", e);
+        } finally {
+            if (!completed) {
+                for (final Future<List<Put>> future : pending) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        listener.throwIfFailed();
+    }
+
+    private Future<List<Put>> submitBatch(final Executor executor, final ElementSerialisation serialisation,
+                                          final List<Element> batch, final boolean skipInvalidElements) {
+        return ExecutorUtil.submit(executor, () -> {
+            final List<Put> puts = new ArrayList<>(batch.size() * 2);
+            for (final Element element : batch) {
+                try {
+                    final Pair<Put, Put> putPair = serialisation.getPuts(element);
+                    puts.add(putPair.getFirst());
+                    if (null != putPair.getSecond()) {
+                        puts.add(putPair.getSecond());
+                    }
+                } catch (final Exception e) {
+                    if (!skipInvalidElements) {
+                        throw new OperationException("Failed to convert element into puts: " + element, e);
+                    }
+                    LOGGER.debug("Skipping element that could not be converted into puts: {}", element, e);
+                }
+            }
+            return puts;
+        });
+    }
+
+    // Each batch is flushed before the next is written, as HBase can skip
+    // puts with the same row, column and timestamp written together.
+    private void writeBatch(final BufferedMutator mutator, final Future<List<Put>> future)
+            throws OperationException, IOException {
+        final List<Put> puts = getBatchResult(future);
+        if (!puts.isEmpty()) {
+            mutator.mutate(puts);
+            mutator.flush();
+        }
+    }
+
+    private List<Put> getBatchResult(final Future<List<Put>> future) throws OperationException {
+        try {
+            return ExecutorUtil.get(future);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst converting elements to puts", e);
+        } catch (final ExecutionException e) {
+            throw new OperationException("Failed to add elements: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     private void executePuts(final Table table, final List<Put> puts) throws IOException {
         if (!puts.isEmpty()) {
             table.put(puts);
@@ -105,4 +241,49 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             }
         }
     }
+
+    /**
+     * Records the puts that the {@link BufferedMutator} failed to write,
+     * logging the element each put was created from. The listener is called
+     * from the mutator's background threads.
+     */
+    private static final class FailedPutListener implements BufferedMutator.ExceptionListener {
+        private final ElementSerialisation serialisation;
+        private final AtomicLong numFailures = new AtomicLong();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        private FailedPutListener(final ElementSerialisation serialisation) {
+            this.serialisation = serialisation;
+        }
+
+        @Override
+        public void onException(final RetriesExhaustedWithDetailsException exception, final BufferedMutator mutator) {
+            for (int i = 0; i < exception.getNumExceptions(); i++) {
+                numFailures.incrementAndGet();
+                firstFailure.compareAndSet(null, exception.getCause(i));
+                LOGGER.error("Failed to add element {}", getElement(exception.getRow(i)), exception.getCause(i));
+            }
+        }
+
+        private Object getElement(final Row row) {
+            if (row instanceof Put) {
+                for (final List<Cell> cells : ((Put) row).getFamilyCellMap().values()) {
+                    for (final Cell cell : cells) {
+                        try {
+                            return serialisation.getElement(cell, false);
+                        } catch (final SerialisationException e) {
+                            LOGGER.debug("Failed to recreate the element from a failed put", e);
+                        }
+                    }
+                }
+            }
+            return Bytes.toStringBinary(row.getRow());
+        }
+
+        private void throwIfFailed() throws OperationException {
+            if (numFailures.get() > 0) {
+                throw new OperationException("Failed to add " + numFailures.get() + " puts to HBase", firstFailure.get());
+            }
+        }
+    }
 }
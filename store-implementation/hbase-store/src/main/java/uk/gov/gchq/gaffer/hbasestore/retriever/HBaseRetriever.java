@@ -23,6 +23,7 @@ import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.security.visibility.Authorizations;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
 
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
@@ -54,6 +55,17 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+/**
+ * Retrieves elements from HBase, either for a set of seeds or for the whole
+ * table. If a batch of seeds produces no more than
+ * hbase.maxRowRangesForSmallScans row ranges then each range is fetched with
+ * its own small scan. Otherwise each batch of seeds is fetched with a single
+ * scan. If the store property hbase.regionParallelScan is true then each scan
+ * is instead split by region and the regions are scanned concurrently using a
+ * {@link RegionParallelScanner}.
+ *
+ * @param <OP> the type of operation
+ */
 public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Element>> & GraphFilters> implements CloseableIterable<Element> {
     private final ElementSerialisation serialisation;
     private final RowRangeFactory rowRangeFactory;
@@ -64,6 +76,8 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
     private final OP operation;
     private final byte[] extraProcessors;
     private final boolean includeMatchedVertex;
+    private final byte[] schemaFingerprint;
+    private final byte[] viewJson;
 
     private CloseableIterator<Element> iterator;
     private Iterator<? extends ElementId> idsIterator;
@@ -88,6 +102,8 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         }
 
         this.includeMatchedVertex = includeMatchedVertex;
+        this.schemaFingerprint = store.getSchemaFingerprint();
+        this.viewJson = operation.getView().toCompactJson();
 
         if (null != extraProcessors && extraProcessors.length > 0) {
             this.extraProcessors = StringUtil.toCsv(extraProcessors);
@@ -154,8 +170,9 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         try {
             final Scan scan = new Scan();
 
+            List<MultiRowRangeFilter.RowRange> rowRanges = null;
             if (null != idsIterator) {
-                final List<MultiRowRangeFilter.RowRange> rowRanges = new ArrayList<>();
+                rowRanges = new ArrayList<>();
                 final int maxEntriesForBatchScanner = store.getProperties().getMaxEntriesForBatchScanner();
                 int count = 0;
                 while (idsIterator.hasNext() && count < maxEntriesForBatchScanner) {
@@ -171,9 +188,11 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
             }
 
             scan.setAuthorizations(authorisations);
-            scan.setAttribute(HBaseStoreConstants.SCHEMA, store.getSchema().toCompactJson());
+            if (null != schemaFingerprint) {
+                scan.setAttribute(HBaseStoreConstants.SCHEMA_FINGERPRINT, schemaFingerprint);
+            }
             scan.setAttribute(HBaseStoreConstants.INCLUDE_MATCHED_VERTEX, Bytes.toBytes(Boolean.toString(includeMatchedVertex)));
-            scan.setAttribute(HBaseStoreConstants.VIEW, operation.getView().toCompactJson());
+            scan.setAttribute(HBaseStoreConstants.VIEW, viewJson);
             if (null != operation.getDirectedType()) {
                 scan.setAttribute(HBaseStoreConstants.DIRECTED_TYPE, Bytes.toBytes(operation.getDirectedType().name()));
             }
@@ -181,6 +200,30 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
                 scan.setAttribute(HBaseStoreConstants.EXTRA_PROCESSORS, extraProcessors);
             }
             scan.setMaxVersions();
+
+            // A small number of row ranges, for example from a single seed,
+            // are fetched with a small scan each. Otherwise the ranges are
+            // fetched with the MultiRowRangeFilter scan, split by region if
+            // region parallel scanning is enabled.
+            if (null != rowRanges) {
+                rowRanges = MultiRowRangeFilter.sortAndMerge(rowRanges);
+                if (rowRanges.size() <= store.getProperties().getMaxRowRangesForSmallScans()) {
+                    return new RegionParallelScanner(store,
+                            RegionParallelScanner.getRowRangeScans(scan, rowRanges),
+                            store.getProperties().getNumThreadsForRegionScans(),
+                            store.getProperties().getRegionScanBufferSize());
+                }
+            }
+
+            if (store.getProperties().getRegionParallelScan()) {
+                final Pair<byte[][], byte[][]> regions = store.getRegionStartEndKeys();
+                return new RegionParallelScanner(store,
+                        RegionParallelScanner.getRegionScans(scan, rowRanges, regions.getFirst(), regions.getSecond(),
+                                store.getProperties().getMaxRowRangesForSmallScans() > 0),
+                        store.getProperties().getNumThreadsForRegionScans(),
+                        store.getProperties().getRegionScanBufferSize());
+            }
+
             table = store.getTable();
             return new WrappedCloseableIterable<>(table.getScanner(scan));
         } catch (final IOException | StoreException e) {
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link CloseableIterable} of {@link Result}s that runs a list of
+ * {@link Scan}s, such as one per region or one per row range, concurrently on
+ * the calling thread and at most numThreads - 1 threads of the store's shared
+ * operation executor and merges the results. The results from each scan are returned in row order,
+ * but the results from different scans are interleaved.
+ * <p>
+ * The scanning threads pass their results through a bounded buffer, so a
+ * slow consumer blocks the scans rather than the results being held in memory.
+ * When the buffer is empty the calling thread runs any scan that has not yet
+ * been started itself, so the scans still complete if the executor is busy.
+ * A single scan is run on the calling thread.
+ */
+public class RegionParallelScanner implements CloseableIterable<Result> {
+    private static final Result END_OF_SCAN = new Result();
+    private static final byte[] ZERO_BYTE = new byte[]{0};
+
+    private final HBaseStore store;
+    private final List<Scan> scans;
+    private final int numThreads;
+    private final int bufferSize;
+
+    private CloseableIterator<Result> iterator;
+
+    public RegionParallelScanner(final HBaseStore store,
+                                 final List<Scan> scans,
+                                 final int numThreads,
+                                 final int bufferSize) {
+        if (numThreads < 1 || bufferSize < 1) {
+            throw new IllegalArgumentException("The number of threads and buffer size must be at least 1");
+        }
+        this.store = store;
+        this.scans = scans;
+        this.numThreads = numThreads;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Splits a scan into one scan per region. If row ranges are provided then
+     * each region's scan only includes the parts of the ranges that fall in
+     * that region and regions containing none of the ranges are not scanned.
+     * A region containing a single range is fetched with a scan of just that
+     * range, which is a small scan if small scans are enabled.
+     *
+     * @param scan       the scan to split, each region's scan is a copy of this
+     * @param rowRanges  the row ranges to scan, or null to scan every row
+     * @param startKeys  the start row of each region, empty for the first
+     * @param endKeys    the end row of each region, empty for the last
+     * @param smallScans whether regions containing a single range should use a small scan
+     * @return the scans for each region
+     * @throws IOException if a scan could not be copied
+     */
+    public static List<Scan> getRegionScans(final Scan scan,
+                                            final List<RowRange> rowRanges,
+                                            final byte[][] startKeys,
+                                            final byte[][] endKeys,
+                                            final boolean smallScans) throws IOException {
+        final List<RowRange> sortedRanges = null == rowRanges ? null : MultiRowRangeFilter.sortAndMerge(rowRanges);
+        final List<Scan> regionScans = new ArrayList<>(startKeys.length);
+        for (int i = 0; i < startKeys.length; i++) {
+            final Scan regionScan;
+            if (null == sortedRanges) {
+                regionScan = new Scan(scan);
+                regionScan.setStartRow(startKeys[i]);
+            } else {
+                final List<RowRange> regionRanges = getRangesInRegion(sortedRanges, startKeys[i], endKeys[i]);
+                if (regionRanges.isEmpty()) {
+                    continue;
+                }
+                if (1 == regionRanges.size()) {
+                    regionScans.add(createRangeScan(scan, regionRanges.get(0), smallScans));
+                    continue;
+                }
+                regionScan = new Scan(scan);
+                regionScan.setStartRow(regionRanges.get(0).getStartRow());
+                regionScan.setFilter(new MultiRowRangeFilter(regionRanges));
+            }
+            regionScan.setStopRow(endKeys[i]);
+            regionScans.add(regionScan);
+        }
+        return regionScans;
+    }
+
+    /**
+     * Creates a small scan for each row range. A small scan opens the scanner,
+     * fetches the results and closes the scanner in a single RPC, so for a
+     * few short row ranges this is cheaper than a single scan that has to
+     * seek between the ranges with a {@link MultiRowRangeFilter}.
+     *
+     * @param scan      the scan to copy, its filter is not copied
+     * @param rowRanges the row ranges to scan
+     * @return a scan for each of the merged row ranges
+     * @throws IOException if a scan could not be copied
+     */
+    public static List<Scan> getRowRangeScans(final Scan scan, final List<RowRange> rowRanges) throws IOException {
+        final List<RowRange> sortedRanges = MultiRowRangeFilter.sortAndMerge(rowRanges);
+        final List<Scan> rangeScans = new ArrayList<>(sortedRanges.size());
+        for (final RowRange range : sortedRanges) {
+            rangeScans.add(createRangeScan(scan, range, true));
+        }
+        return rangeScans;
+    }
+
+    private static Scan createRangeScan(final Scan scan, final RowRange range, final boolean small) throws IOException {
+        final Scan rangeScan = new Scan(scan);
+        rangeScan.setFilter(null);
+        // Scan start rows are inclusive and stop rows are exclusive, so
+        // move past the start row or stop row by appending a zero byte.
+        final byte[] start = range.getStartRow();
+        rangeScan.setStartRow(isEmpty(start) || range.isStartRowInclusive() ? start : Bytes.add(start, ZERO_BYTE));
+        final byte[] stop = range.getStopRow();
+        rangeScan.setStopRow(isEmpty(stop) || !range.isStopRowInclusive() ? stop : Bytes.add(stop, ZERO_BYTE));
+        rangeScan.setSmall(small);
+        return rangeScan;
+    }
+
+    // The ranges are sorted and do not overlap. Region start rows are
+    // inclusive and end rows are exclusive, an empty row means unbounded.
+    private static List<RowRange> getRangesInRegion(final List<RowRange> sortedRanges,
+                                                    final byte[] regionStart,
+                                                    final byte[] regionEnd) {
+        final List<RowRange> regionRanges = new ArrayList<>();
+        for (final RowRange range : sortedRanges) {
+            final byte[] start = range.getStartRow();
+            final byte[] stop = range.getStopRow();
+            final boolean startsBeforeRegionEnd = isEmpty(regionEnd) || isEmpty(start)
+                    || Bytes.compareTo(start, regionEnd) < 0;
+            if (!startsBeforeRegionEnd) {
+                break;
+            }
+            final boolean endsAfterRegionStart = isEmpty(regionStart) || isEmpty(stop)
+                    || Bytes.compareTo(stop, regionStart) > 0
+                    || (range.isStopRowInclusive() && Bytes.equals(stop, regionStart));
+            if (!endsAfterRegionStart) {
+                continue;
+            }
+
+            final boolean clipStart = !isEmpty(regionStart) && (isEmpty(start) || Bytes.compareTo(start, regionStart) < 0);
+            final boolean clipStop = !isEmpty(regionEnd) && (isEmpty(stop) || Bytes.compareTo(stop, regionEnd) >= 0);
+            if (clipStart || clipStop) {
+                regionRanges.add(new RowRange(
+                        clipStart ? regionStart : start, clipStart || range.isStartRowInclusive(),
+                        clipStop ? regionEnd : stop, !clipStop && range.isStopRowInclusive()));
+            } else {
+                regionRanges.add(range);
+            }
+        }
+        return regionRanges;
+    }
+
+    private static boolean isEmpty(final byte[] row) {
+        return null == row || 0 == row.length;
+    }
+
+    @Override
+    public CloseableIterator<Result> iterator() {
+        // By design, only 1 iterator can be open at a time
+        close();
+        if (1 == scans.size()) {
+            iterator = new SingleScanIterator(scans.get(0));
+        } else {
+            iterator = new RegionParallelIterator();
+        }
+        return iterator;
+    }
+
+    @Override
+    public void close() {
+        if (null != iterator) {
+            iterator.close();
+            iterator = null;
+        }
+    }
+
+    private final class SingleScanIterator implements CloseableIterator<Result> {
+        private final Table table;
+        private final ResultScanner scanner;
+        private final Iterator<Result> results;
+
+        private SingleScanIterator(final Scan scan) {
+            try {
+                table = store.getTable();
+            } catch (final StoreException e) {
+                throw new RuntimeException(e);
+            }
+            try {
+                scanner = table.getScanner(scan);
+            } catch (final IOException e) {
+                CloseableUtil.close(table);
+                throw new RuntimeException(e);
+            }
+            results = scanner.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return results.hasNext();
+        }
+
+        @Override
+        public Result next() {
+            return results.next();
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(scanner);
+            CloseableUtil.close(table);
+        }
+    }
+
+    private final class RegionParallelIterator implements CloseableIterator<Result> {
+        private final BlockingQueue<Result> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final Queue<Scan> unclaimedScans = new ConcurrentLinkedQueue<>(scans);
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final List<Future<?>> workers = new ArrayList<>();
+        private int remainingScans;
+        private SingleScanIterator inlineScan;
+        private Result next;
+        private volatile boolean closed;
+
+        private RegionParallelIterator() {
+            remainingScans = scans.size();
+            // Each worker claims scans until there are none left. The calling
+            // thread also claims scans when it has no results to return, so
+            // it counts as one of the threads.
+            final Executor executor = store.getOperationExecutor();
+            final int numWorkers = Math.min(numThreads - 1, scans.size());
+            for (int i = 0; i < numWorkers; i++) {
+                workers.add(ExecutorUtil.submit(executor, this::scanRegions));
+            }
+        }
+
+        private Void scanRegions() {
+            Scan scan = unclaimedScans.poll();
+            while (null != scan && !closed) {
+                if (!scanRegion(scan)) {
+                    break;
+                }
+                scan = unclaimedScans.poll();
+            }
+            return null;
+        }
+
+        private boolean scanRegion(final Scan scan) {
+            try {
+                try (final Table table = store.getTable();
+                     final ResultScanner scanner = table.getScanner(scan)) {
+                    for (final Result result : scanner) {
+                        if (closed) {
+                            return false;
+                        }
+                        buffer.put(result);
+                    }
+                } catch (final IOException | StoreException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+                buffer.put(END_OF_SCAN);
+                return true;
+            } catch (final InterruptedException e) {
+                // The iterator has been closed
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != next) {
+                return true;
+            }
+
+            while (remainingScans > 0) {
+                if (null != inlineScan) {
+                    if (hasNextInline()) {
+                        next = inlineScan.next();
+                        return true;
+                    }
+                    inlineScan.close();
+                    inlineScan = null;
+                    remainingScans--;
+                    continue;
+                }
+
+                Result result = buffer.poll();
+                if (null == result) {
+                    final Scan scan = unclaimedScans.poll();
+                    if (null != scan) {
+                        inlineScan = openInline(scan);
+                        continue;
+                    }
+                    result = take();
+                }
+
+                if (END_OF_SCAN == result) {
+                    remainingScans--;
+                    if (null != failure.get()) {
+                        close();
+                        throw new RuntimeException(failure.get());
+                    }
+                } else {
+                    next = result;
+                    return true;
+                }
+            }
+
+            close();
+            return false;
+        }
+
+        private SingleScanIterator openInline(final Scan scan) {
+            try {
+                return new SingleScanIterator(scan);
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private boolean hasNextInline() {
+            try {
+                return inlineScan.hasNext();
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private Result take() {
+            try {
+                return buffer.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException("Interrupted whilst waiting for region scan results", e);
+            }
+        }
+
+        @Override
+        public Result next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+            final Result result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            remainingScans = 0;
+            next = null;
+            if (null != inlineScan) {
+                inlineScan.close();
+                inlineScan = null;
+            }
+            if (!closed) {
+                closed = true;
+                unclaimedScans.clear();
+                for (final Future<?> worker : workers) {
+                    worker.cancel(true);
+                }
+                buffer.clear();
+            }
+        }
+    }
+}
@@ -518,7 +518,9 @@ public class ElementSerialisation {
         final Pair<Put, Put> puts = new Pair<>(put);
         if (null != row.getSecond()) {
             final Put put2 = new Put(row.getSecond());
-            put2.addColumn(HBaseStoreConstants.getColFam(), cq, value);
+            // The timestamp property is read back from the cell timestamp, so
+            // both rows of an edge must be written with the same timestamp.
+            put2.addColumn(HBaseStoreConstants.getColFam(), cq, ts, value);
             if (null != cellVisibility) {
                 put2.setCellVisibility(cellVisibility);
             }
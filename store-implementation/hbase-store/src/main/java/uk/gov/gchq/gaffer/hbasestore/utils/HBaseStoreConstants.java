@@ -38,6 +38,7 @@ public final class HBaseStoreConstants {
     // Coprocessor options
     public static final String VIEW = "View";
     public static final String SCHEMA = "Schema";
+    public static final String SCHEMA_FINGERPRINT = "SchemaFingerprint";
     public static final String EXTRA_PROCESSORS = "ExtraProcessors";
     public static final String DIRECTED_TYPE = "DirectedType";
     public static final String INCLUDE_MATCHED_VERTEX = "IncludeMatchedVertex";
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Creates a fingerprint of a schema, so a scan can identify the schema it was
+ * created for without sending the whole schema to every region.
+ */
+public final class SchemaFingerprint {
+    private static final String ALGORITHM = "SHA-256";
+
+    private SchemaFingerprint() {
+    }
+
+    /**
+     * Creates the fingerprint of a schema.
+     *
+     * @param schemaJson the schema serialised to compact json
+     * @return the fingerprint of the schema
+     */
+    public static byte[] create(final byte[] schemaJson) {
+        try {
+            return MessageDigest.getInstance(ALGORITHM).digest(schemaJson);
+        } catch (final NoSuchAlgorithmException e) {
+            // All Java platforms are required to support SHA-256
+            throw new IllegalStateException(ALGORITHM + " is not supported", e);
+        }
+    }
+}
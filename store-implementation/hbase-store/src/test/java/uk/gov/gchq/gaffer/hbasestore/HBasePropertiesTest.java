@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HBasePropertiesTest {
     @Test
@@ -39,11 +40,40 @@ public class HBasePropertiesTest {
         properties.setDependencyJarsHdfsDirPath("pathTo/jars");
         properties.setWriteBufferSize(10);
         properties.setZookeepers("zookeeper1,zookeeper2");
+        properties.setBufferedMutatorIngest(true);
+        properties.setBufferedMutatorWriteBufferSizeBytes("4194304");
+        properties.setNumThreadsForIngestEncoding("4");
+        properties.setIngestEncodingBatchSize("500");
+        properties.setRegionParallelScan(true);
+        properties.setNumThreadsForRegionScans("6");
+        properties.setRegionScanBufferSize("200");
+        properties.setMaxRowRangesForSmallScans("3");
 
         // Then
         assertEquals(new Path("pathTo/jars"), properties.getDependencyJarsHdfsDirPath());
         assertEquals(10, properties.getWriteBufferSize());
         assertEquals("zookeeper1,zookeeper2", properties.getZookeepers());
+        assertTrue(properties.getBufferedMutatorIngest());
+        assertEquals(Long.valueOf(4194304L), properties.getBufferedMutatorWriteBufferSizeBytes());
+        assertEquals(4, properties.getNumThreadsForIngestEncoding());
+        assertEquals(500, properties.getIngestEncodingBatchSize());
+        assertEquals(8, properties.getMaxIngestBatchesInFlight());
+        assertTrue(properties.getRegionParallelScan());
+        assertEquals(6, properties.getNumThreadsForRegionScans());
+        assertEquals(200, properties.getRegionScanBufferSize());
+        assertEquals(3, properties.getMaxRowRangesForSmallScans());
+    }
+
+    @Test
+    public void shouldNotUseSmallScansByDefault() {
+        // Given
+        final HBaseProperties properties = new HBaseProperties();
+
+        // When
+        final int maxRowRangesForSmallScans = properties.getMaxRowRangesForSmallScans();
+
+        // Then
+        assertEquals(0, maxRowRangesForSmallScans);
     }
 
     @Test
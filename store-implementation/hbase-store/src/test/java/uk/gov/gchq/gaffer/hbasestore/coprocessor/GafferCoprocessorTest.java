@@ -32,9 +32,11 @@ import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryScanner;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.StoreScanner;
 import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.hbasestore.utils.SchemaFingerprint;
 import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
@@ -45,6 +47,8 @@ import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -134,4 +138,33 @@ public class GafferCoprocessorTest {
         // Then
         assertNotNull(queryScanner);
     }
+
+    @Test
+    public void shouldReuseProcessorsForScansWithTheSameView() throws IOException {
+        // Given
+        final ObserverContext<RegionCoprocessorEnvironment> e = mock(ObserverContext.class);
+        final RegionScanner scanner = mock(RegionScanner.class);
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .build();
+        final View otherView = new View.Builder()
+                .edge(TestGroups.EDGE)
+                .build();
+        final Scan scan1 = new Scan();
+        scan1.setAttribute(HBaseStoreConstants.VIEW, view.toCompactJson());
+        scan1.setAttribute(HBaseStoreConstants.SCHEMA_FINGERPRINT, SchemaFingerprint.create(SCHEMA.toCompactJson()));
+        final Scan scan2 = new Scan();
+        scan2.setAttribute(HBaseStoreConstants.VIEW, view.toCompactJson());
+        final Scan scan3 = new Scan();
+        scan3.setAttribute(HBaseStoreConstants.VIEW, otherView.toCompactJson());
+
+        // When
+        final QueryScanner queryScanner1 = (QueryScanner) coprocessor.postScannerOpen(e, scan1, scanner);
+        final QueryScanner queryScanner2 = (QueryScanner) coprocessor.postScannerOpen(e, scan2, scanner);
+        final QueryScanner queryScanner3 = (QueryScanner) coprocessor.postScannerOpen(e, scan3, scanner);
+
+        // Then
+        assertSame(queryScanner1.getProcessors(), queryScanner2.getProcessors());
+        assertNotSame(queryScanner1.getProcessors(), queryScanner3.getProcessors());
+    }
 }
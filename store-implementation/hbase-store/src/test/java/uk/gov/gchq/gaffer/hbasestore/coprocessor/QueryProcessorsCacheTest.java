@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryProcessorsCacheTest {
+    private static final byte[] SCHEMA_1 = Bytes.toBytes("schema1");
+    private static final byte[] SCHEMA_2 = Bytes.toBytes("schema2");
+
+    @Test
+    public void shouldOnlyCreateProcessorsOnceForTheSameSchemaAndScanOptions() {
+        // Given
+        final QueryProcessorsCache cache = new QueryProcessorsCache(10);
+        final List<Integer> creations = new ArrayList<>();
+
+        // When
+        final List<GafferScannerProcessor> processors1 = cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+        final List<GafferScannerProcessor> processors2 = cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+
+        // Then
+        assertSame(processors1, processors2);
+        assertEquals(1, creations.size());
+    }
+
+    @Test
+    public void shouldNotShareProcessorsBetweenSchemasOrViews() {
+        // Given
+        final QueryProcessorsCache cache = new QueryProcessorsCache(10);
+        final List<Integer> creations = new ArrayList<>();
+
+        // When
+        final List<GafferScannerProcessor> processors = cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+        final List<GafferScannerProcessor> otherSchema = cache.getProcessors(SCHEMA_2, createScan("view1"), () -> create(creations));
+        final List<GafferScannerProcessor> otherView = cache.getProcessors(SCHEMA_1, createScan("view2"), () -> create(creations));
+
+        // Then
+        assertNotSame(processors, otherSchema);
+        assertNotSame(processors, otherView);
+        assertEquals(3, creations.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedProcessors() {
+        // Given
+        final QueryProcessorsCache cache = new QueryProcessorsCache(2);
+        final List<Integer> creations = new ArrayList<>();
+        cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view2"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+
+        // When
+        cache.getProcessors(SCHEMA_1, createScan("view3"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view2"), () -> create(creations));
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals(4, creations.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedProcessorsWhenMaxBytesExceeded() {
+        // Given - each entry is 7 bytes of schema fingerprint and 5 of view
+        final QueryProcessorsCache cache = new QueryProcessorsCache(10, 24);
+        final List<Integer> creations = new ArrayList<>();
+        cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view2"), () -> create(creations));
+
+        // When
+        cache.getProcessors(SCHEMA_1, createScan("view3"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view2"), () -> create(creations));
+        cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals(24, cache.getTotalBytes());
+        assertEquals(4, creations.size());
+    }
+
+    @Test
+    public void shouldNotCacheProcessorsForScanOptionsLargerThanMaxBytes() {
+        // Given
+        final QueryProcessorsCache cache = new QueryProcessorsCache(10, 10);
+        final List<Integer> creations = new ArrayList<>();
+
+        // When
+        final List<GafferScannerProcessor> processors1 = cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+        final List<GafferScannerProcessor> processors2 = cache.getProcessors(SCHEMA_1, createScan("view1"), () -> create(creations));
+
+        // Then
+        assertNotSame(processors1, processors2);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getTotalBytes());
+        assertEquals(2, creations.size());
+    }
+
+    @Test
+    public void shouldNotAllowAMaxBytesLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryProcessorsCache(10, 0));
+    }
+
+    @Test
+    public void shouldNotAllowAMaxSizeLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryProcessorsCache(0));
+    }
+
+    private static Scan createScan(final String view) {
+        final Scan scan = new Scan();
+        scan.setAttribute(HBaseStoreConstants.VIEW, Bytes.toBytes(view));
+        return scan;
+    }
+
+    private static List<GafferScannerProcessor> create(final List<Integer> creations) {
+        creations.add(creations.size());
+        return new ArrayList<>();
+    }
+}
@@ -17,8 +17,10 @@
 package uk.gov.gchq.gaffer.hbasestore.operation.handler;
 
 import com.google.common.collect.Lists;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
 import org.apache.hadoop.hbase.client.Table;
 import org.hamcrest.core.IsCollectionContaining;
 import org.junit.jupiter.api.Test;
@@ -48,18 +50,27 @@ import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class AddElementsHandlerTest {
+    private static final Executor EXECUTOR = Executors.newCachedThreadPool();
+
     private static final Schema SCHEMA = new Schema.Builder()
             .type("string", new TypeDefinition.Builder()
                     .clazz(String.class)
@@ -174,6 +185,133 @@ public class AddElementsHandlerTest {
         assertThat(elementsAdded, IsCollectionContaining.hasItems(expectedElementsArr));
     }
 
+    @Test
+    public void shouldAddElementsWithBufferedMutator() throws OperationException, StoreException, IOException {
+        // Given
+        final AddElementsHandler handler = new AddElementsHandler();
+        final List<Element> elements = createElements();
+        final List<Element> elementsWithNull = new ArrayList<>(elements);
+        elementsWithNull.add(null); // null should be skipped
+
+        final AddElements addElements = new AddElements.Builder()
+                .input(elementsWithNull)
+                .build();
+        final Context context = mock(Context.class);
+        final HBaseStore store = mock(HBaseStore.class);
+
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any(BufferedMutator.ExceptionListener.class))).willReturn(mutator);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
+        properties.setBufferedMutatorIngest(true);
+        properties.setNumThreadsForIngestEncoding("2");
+        properties.setIngestEncodingBatchSize("2");
+        given(store.getProperties()).willReturn(properties);
+
+        given(store.getSchema()).willReturn(SCHEMA);
+
+        // When
+        handler.doOperation(addElements, context, store);
+
+        // Then
+        final ArgumentCaptor<List<Put>> putsCaptor = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        final int numBatches = (elements.size() + 1) / 2;
+        verify(mutator, times(numBatches)).mutate(putsCaptor.capture());
+        verify(mutator, times(numBatches)).flush();
+        verify(mutator).close();
+        verify(store, never()).getTable();
+        final List<Put> combinedPuts = new ArrayList<>();
+        for (final List<Put> puts : putsCaptor.getAllValues()) {
+            combinedPuts.addAll(puts);
+        }
+
+        final List<Element> expectedElements = new ArrayList<>();
+        for (final Element element : elements) {
+            expectedElements.add(element);
+            if (element instanceof Edge && !((Edge) element).getSource().equals(((Edge) element).getDestination())) {
+                expectedElements.add(element);
+            }
+        }
+        final Element[] expectedElementsArr = expectedElements.toArray(new Element[expectedElements.size()]);
+        final List<Element> elementsAdded = CellUtil.getElements(combinedPuts, new ElementSerialisation(SCHEMA), false);
+        assertEquals(expectedElements.size(), elementsAdded.size());
+        assertThat(elementsAdded, IsCollectionContaining.hasItems(expectedElementsArr));
+    }
+
+    @Test
+    public void shouldFailWhenBufferedMutatorFailsToWritePuts() throws OperationException, StoreException, IOException {
+        // Given
+        final AddElementsHandler handler = new AddElementsHandler();
+        final List<Element> elements = createElements();
+        final AddElements addElements = new AddElements.Builder()
+                .input(elements)
+                .build();
+        final Context context = mock(Context.class);
+        final HBaseStore store = mock(HBaseStore.class);
+
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        final ArgumentCaptor<BufferedMutator.ExceptionListener> listenerCaptor = ArgumentCaptor.forClass(BufferedMutator.ExceptionListener.class);
+        given(store.getBufferedMutator(listenerCaptor.capture())).willReturn(mutator);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
+        properties.setBufferedMutatorIngest(true);
+        properties.setIngestEncodingBatchSize("2");
+        given(store.getProperties()).willReturn(properties);
+
+        given(store.getSchema()).willReturn(SCHEMA);
+
+        // The mutator reports a failed put to the listener when it is flushed
+        final Put failedPut = new ElementSerialisation(SCHEMA).getPuts(elements.get(0)).getFirst();
+        final IOException cause = new IOException("Region server unavailable");
+        doAnswer(invocation -> {
+            listenerCaptor.getValue().onException(new RetriesExhaustedWithDetailsException(
+                    Collections.singletonList(cause), Collections.singletonList(failedPut), Collections.singletonList("localhost:16020")), mutator);
+            return null;
+        }).doNothing().when(mutator).flush();
+
+        // When
+        final OperationException exception = assertThrows(OperationException.class, () -> handler.doOperation(addElements, context, store));
+
+        // Then - the remaining batches are still written before failing
+        assertEquals("Failed to add 1 puts to HBase", exception.getMessage());
+        assertSame(cause, exception.getCause());
+        verify(mutator, times((elements.size() + 1) / 2)).flush();
+        verify(mutator).close();
+    }
+
+    @Test
+    public void shouldFailAndCloseBufferedMutatorWhenElementIsInvalid() throws OperationException, StoreException, IOException {
+        // Given
+        final AddElementsHandler handler = new AddElementsHandler();
+        final List<Element> elements = createElements();
+        elements.add(new Edge("Unknown group", "source", "dest", true));
+        final AddElements addElements = new AddElements.Builder()
+                .input(elements)
+                .build();
+        final Context context = mock(Context.class);
+        final HBaseStore store = mock(HBaseStore.class);
+
+        final BufferedMutator mutator = mock(BufferedMutator.class);
+        given(store.getBufferedMutator(any(BufferedMutator.ExceptionListener.class))).willReturn(mutator);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(getClass()));
+        properties.setBufferedMutatorIngest(true);
+        properties.setIngestEncodingBatchSize("2");
+        given(store.getProperties()).willReturn(properties);
+
+        given(store.getSchema()).willReturn(SCHEMA);
+
+        // When
+        final OperationException exception = assertThrows(OperationException.class, () -> handler.doOperation(addElements, context, store));
+
+        // Then
+        assertTrue(exception.getMessage().startsWith("Failed to add elements: Failed to convert element into puts"), exception.getMessage());
+        verify(mutator).close();
+    }
+
     @Test
     public void shouldDoNothingIfNoElementsProvided() throws OperationException, StoreException, IOException {
         // Given
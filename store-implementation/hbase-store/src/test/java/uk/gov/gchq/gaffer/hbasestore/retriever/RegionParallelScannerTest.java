@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class RegionParallelScannerTest {
+    private static final byte[][] START_KEYS = {new byte[0], Bytes.toBytes("c"), Bytes.toBytes("f")};
+    private static final byte[][] END_KEYS = {Bytes.toBytes("c"), Bytes.toBytes("f"), new byte[0]};
+    private static final Executor EXECUTOR = Executors.newCachedThreadPool();
+
+    @Test
+    public void shouldCreateAScanForEachRegionWhenNoRowRanges() throws IOException {
+        // When
+        final List<Scan> scans = RegionParallelScanner.getRegionScans(new Scan(), null, START_KEYS, END_KEYS, false);
+
+        // Then
+        assertEquals(3, scans.size());
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(START_KEYS[i], scans.get(i).getStartRow());
+            assertArrayEquals(END_KEYS[i], scans.get(i).getStopRow());
+        }
+    }
+
+    @Test
+    public void shouldSplitRowRangesByRegion() throws IOException {
+        // Given
+        final List<RowRange> rowRanges = Arrays.asList(
+                new RowRange(Bytes.toBytes("g"), true, Bytes.toBytes("h"), true),
+                new RowRange(Bytes.toBytes("a"), true, Bytes.toBytes("a"), true),
+                new RowRange(Bytes.toBytes("b"), false, Bytes.toBytes("d"), false)
+        );
+
+        // When
+        final List<Scan> scans = RegionParallelScanner.getRegionScans(new Scan(), rowRanges, START_KEYS, END_KEYS, true);
+
+        // Then
+        assertEquals(3, scans.size());
+
+        final List<RowRange> firstRegion = getRowRanges(scans.get(0));
+        assertEquals(2, firstRegion.size());
+        assertRowRange("a", true, "a", true, firstRegion.get(0));
+        assertRowRange("b", false, "c", false, firstRegion.get(1));
+        assertArrayEquals(Bytes.toBytes("a"), scans.get(0).getStartRow());
+        assertArrayEquals(Bytes.toBytes("c"), scans.get(0).getStopRow());
+        assertFalse(scans.get(0).isSmall());
+
+        // Regions containing a single range use a small scan of that range
+        assertNull(scans.get(1).getFilter());
+        assertTrue(scans.get(1).isSmall());
+        assertArrayEquals(Bytes.toBytes("c"), scans.get(1).getStartRow());
+        assertArrayEquals(Bytes.toBytes("d"), scans.get(1).getStopRow());
+
+        assertNull(scans.get(2).getFilter());
+        assertTrue(scans.get(2).isSmall());
+        assertArrayEquals(Bytes.toBytes("g"), scans.get(2).getStartRow());
+        assertArrayEquals(Bytes.add(Bytes.toBytes("h"), new byte[]{0}), scans.get(2).getStopRow());
+    }
+
+    @Test
+    public void shouldNotScanRegionsWithoutRowRanges() throws IOException {
+        // Given
+        final List<RowRange> rowRanges = Arrays.asList(
+                new RowRange(Bytes.toBytes("d"), true, Bytes.toBytes("e"), true)
+        );
+
+        // When
+        final List<Scan> scans = RegionParallelScanner.getRegionScans(new Scan(), rowRanges, START_KEYS, END_KEYS, false);
+
+        // Then
+        assertEquals(1, scans.size());
+        assertFalse(scans.get(0).isSmall());
+        assertArrayEquals(Bytes.toBytes("d"), scans.get(0).getStartRow());
+        assertArrayEquals(Bytes.add(Bytes.toBytes("e"), new byte[]{0}), scans.get(0).getStopRow());
+    }
+
+    @Test
+    public void shouldCreateASmallScanForEachMergedRowRange() throws IOException {
+        // Given
+        final Scan scan = new Scan();
+        scan.setAttribute("attr", Bytes.toBytes("value"));
+        final List<RowRange> rowRanges = Arrays.asList(
+                new RowRange(Bytes.toBytes("e"), false, Bytes.toBytes("f"), false),
+                new RowRange(Bytes.toBytes("a"), true, Bytes.toBytes("b"), true),
+                new RowRange(Bytes.toBytes("b"), true, Bytes.toBytes("c"), true)
+        );
+        scan.setFilter(new MultiRowRangeFilter(rowRanges));
+
+        // When
+        final List<Scan> scans = RegionParallelScanner.getRowRangeScans(scan, rowRanges);
+
+        // Then
+        assertEquals(2, scans.size());
+        assertArrayEquals(Bytes.toBytes("a"), scans.get(0).getStartRow());
+        assertArrayEquals(Bytes.add(Bytes.toBytes("c"), new byte[]{0}), scans.get(0).getStopRow());
+        assertArrayEquals(Bytes.add(Bytes.toBytes("e"), new byte[]{0}), scans.get(1).getStartRow());
+        assertArrayEquals(Bytes.toBytes("f"), scans.get(1).getStopRow());
+        for (final Scan rangeScan : scans) {
+            assertTrue(rangeScan.isSmall());
+            assertNull(rangeScan.getFilter());
+            assertArrayEquals(Bytes.toBytes("value"), rangeScan.getAttribute("attr"));
+        }
+    }
+
+    @Test
+    public void shouldReturnTheResultsOfEveryRegionScan() throws IOException, StoreException {
+        // Given
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+        given(table.getScanner(any(Scan.class))).willAnswer(invocation -> {
+            final String startRow = Bytes.toString(((Scan) invocation.getArgument(0)).getStartRow());
+            return createScanner(startRow + "1", startRow + "2", startRow + "3");
+        });
+        final List<Scan> scans = RegionParallelScanner.getRegionScans(new Scan(), null, START_KEYS, END_KEYS, false);
+
+        // When
+        final Set<String> rows = new HashSet<>();
+        int count = 0;
+        try (final RegionParallelScanner scanner = new RegionParallelScanner(store, scans, 2, 1)) {
+            for (final Result result : scanner) {
+                rows.add(Bytes.toString(result.getRow()));
+                count++;
+            }
+        }
+
+        // Then
+        assertEquals(9, count);
+        assertEquals(new HashSet<>(Arrays.asList("1", "2", "3", "c1", "c2", "c3", "f1", "f2", "f3")), rows);
+    }
+
+    @Test
+    @Timeout(10)
+    public void shouldReturnTheResultsWhenSharedExecutorHasNoFreeThreads() throws IOException, StoreException {
+        // Given - the only thread of the shared executor is busy
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        given(store.getOperationExecutor()).willReturn(executor);
+        given(table.getScanner(any(Scan.class))).willAnswer(invocation -> {
+            final String startRow = Bytes.toString(((Scan) invocation.getArgument(0)).getStartRow());
+            return createScanner(startRow + "1", startRow + "2", startRow + "3");
+        });
+        final List<Scan> scans = RegionParallelScanner.getRegionScans(new Scan(), null, START_KEYS, END_KEYS, false);
+
+        // When
+        final Set<String> rows = new HashSet<>();
+        try (final RegionParallelScanner scanner = new RegionParallelScanner(store, scans, 3, 1)) {
+            for (final Result result : scanner) {
+                rows.add(Bytes.toString(result.getRow()));
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("1", "2", "3", "c1", "c2", "c3", "f1", "f2", "f3")), rows);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfARegionScanFails() throws IOException, StoreException {
+        // Given
+        final HBaseStore store = mock(HBaseStore.class);
+        final Table table = mock(Table.class);
+        given(store.getTable()).willReturn(table);
+        given(store.getOperationExecutor()).willReturn(EXECUTOR);
+        given(table.getScanner(any(Scan.class))).willThrow(new IOException("Region unavailable"));
+        final List<Scan> scans = RegionParallelScanner.getRegionScans(new Scan(), null, START_KEYS, END_KEYS, false);
+
+        // When
+        final RegionParallelScanner scanner = new RegionParallelScanner(store, scans, 2, 10);
+        final CloseableIterator<Result> iterator = scanner.iterator();
+
+        // Then
+        final RuntimeException exception = assertThrows(RuntimeException.class, iterator::hasNext);
+        assertTrue(exception.getCause() instanceof IOException);
+        assertFalse(iterator.hasNext());
+    }
+
+    private static ResultScanner createScanner(final String... rows) {
+        final List<Result> results = new ArrayList<>();
+        for (final String row : rows) {
+            final Cell cell = new KeyValue(Bytes.toBytes(row), Bytes.toBytes("e"), new byte[0], new byte[0]);
+            results.add(Result.create(new Cell[]{cell}));
+        }
+        final ResultScanner scanner = mock(ResultScanner.class);
+        given(scanner.iterator()).willReturn(results.iterator());
+        return scanner;
+    }
+
+    private static List<RowRange> getRowRanges(final Scan scan) {
+        return ((MultiRowRangeFilter) scan.getFilter()).getRowRanges();
+    }
+
+    private static void assertRowRange(final String start, final boolean startInclusive,
+                                       final String stop, final boolean stopInclusive,
+                                       final RowRange range) {
+        assertArrayEquals(Bytes.toBytes(start), range.getStartRow());
+        assertEquals(startInclusive, range.isStartRowInclusive());
+        assertArrayEquals(Bytes.toBytes(stop), range.getStopRow());
+        assertEquals(stopInclusive, range.isStopRowInclusive());
+    }
+}
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.hbasestore.serialisation;
 
+import org.apache.hadoop.hbase.client.Put;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -400,6 +401,24 @@ public class ElementSerialisationTest {
         assertEquals(n, timestamps.size());
     }
 
+    @Test
+    public void shouldUseTheSameTimestampForBothPutsOfAnEdge() throws Exception {
+        // Given
+        final Edge edge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("1")
+                .dest("2")
+                .directed(true)
+                .build();
+
+        // When
+        final Pair<Put, Put> puts = serialisation.getPuts(edge);
+
+        // Then
+        assertNotNull(puts.getSecond());
+        assertEquals(getTimestamp(puts.getFirst()), getTimestamp(puts.getSecond()));
+    }
+
     @Test
     public void shouldGetPropertiesFromTimestamp() throws Exception {
         // Given
@@ -626,6 +645,10 @@ public class ElementSerialisationTest {
         assertEquals(EdgeDirection.UNDIRECTED, direction);
     }
 
+    private long getTimestamp(final Put put) {
+        return put.getFamilyCellMap().get(HBaseStoreConstants.getColFam()).get(0).getTimestamp();
+    }
+
     private Entity getExampleEntity(final int value) {
         final Entity entity = new Entity(TestGroups.ENTITY);
         entity.putProperty(HBasePropertyNames.COLUMN_QUALIFIER, value);
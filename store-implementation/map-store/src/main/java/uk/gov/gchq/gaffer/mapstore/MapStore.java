@@ -23,11 +23,13 @@ import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.mapstore.impl.AddElementsHandler;
+import uk.gov.gchq.gaffer.mapstore.impl.ConcurrentMapImpl;
 import uk.gov.gchq.gaffer.mapstore.impl.CountAllElementsDefaultViewHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetElementsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.impl.MapImplSnapshot;
 import uk.gov.gchq.gaffer.mapstore.operation.CountAllElementsDefaultView;
 import uk.gov.gchq.gaffer.mapstore.optimiser.CountAllElementsOperationChainOptimiser;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
@@ -45,8 +47,14 @@ import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetAllJobDetailsHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
 
@@ -62,6 +70,12 @@ import static java.util.Arrays.asList;
  * Indices can optionally be maintained to allow quick look-up of {@link Element}s based on {@link EntityId}s
  * or {@link uk.gov.gchq.gaffer.data.element.id.EdgeId}s.
  * </p>
+ * <p>
+ * If a snapshot path is configured the store is loaded from the snapshot when it is created, and snapshots can be
+ * written periodically or on demand using {@link #writeSnapshot()}. Periodic snapshots are only supported if the
+ * store is concurrent, and are stopped by {@link #shutdown()}. Snapshots are not point-in-time consistent with
+ * writes that run whilst they are being written, see {@link #writeSnapshot()}.
+ * </p>
  */
 public class MapStore extends Store {
     public static final Set<StoreTrait> TRAITS = new HashSet<>(asList(
@@ -74,6 +88,7 @@ public class MapStore extends Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(MapStore.class);
     private static MapImpl staticMapImpl;
     private MapImpl mapImpl;
+    private ScheduledExecutorService snapshotExecutor;
 
     public static void resetStaticMap() {
         staticMapImpl = null;
@@ -89,6 +104,8 @@ public class MapStore extends Store {
 
         // Initialise maps
         mapImpl = createMapImpl();
+
+        scheduleSnapshots();
     }
 
     public MapImpl getMapImpl() {
@@ -111,17 +128,125 @@ public class MapStore extends Store {
         return MapStoreProperties.class;
     }
 
-    protected MapImpl createMapImpl() {
+    /**
+     * Writes a snapshot of the store to the configured snapshot path.
+     * <p>
+     * The snapshot is not point-in-time consistent with writes that run
+     * whilst it is being written. The maps are read without blocking
+     * ingest, so the snapshot may contain only part of an AddElements that
+     * runs concurrently, and elements added or aggregated after the maps
+     * were read are not included. Call this when the store is not being
+     * updated if a consistent snapshot is required.
+     * </p>
+     *
+     * @throws StoreException if no snapshot path is configured or the snapshot
+     *                        could not be written
+     * @see MapStoreProperties#SNAPSHOT_PATH
+     */
+    public void writeSnapshot() throws StoreException {
+        final String snapshotPath = getProperties().getSnapshotPath();
+        if (null == snapshotPath) {
+            throw new StoreException("Unable to write snapshot as " + MapStoreProperties.SNAPSHOT_PATH + " has not been set");
+        }
+
+        try {
+            MapImplSnapshot.write(mapImpl, Paths.get(snapshotPath));
+        } catch (final IOException e) {
+            throw new StoreException("Unable to write snapshot to " + snapshotPath, e);
+        }
+        LOGGER.debug("Written snapshot to {}", snapshotPath);
+    }
+
+    protected MapImpl createMapImpl() throws StoreException {
         if (getProperties().isStaticMap()) {
             LOGGER.debug("Using static map");
             if (null == staticMapImpl) {
-                staticMapImpl = new MapImpl(getSchema(), getProperties());
+                staticMapImpl = newMapImpl();
             }
 
             return staticMapImpl;
         }
 
-        return new MapImpl(getSchema(), getProperties());
+        return newMapImpl();
+    }
+
+    private MapImpl newMapImpl() throws StoreException {
+        final MapImpl newMapImpl;
+        if (getProperties().isConcurrent()) {
+            LOGGER.debug("Using concurrent map");
+            newMapImpl = new ConcurrentMapImpl(getSchema(), getProperties());
+        } else {
+            newMapImpl = new MapImpl(getSchema(), getProperties());
+        }
+
+        final String snapshotPath = getProperties().getSnapshotPath();
+        if (null != snapshotPath) {
+            try {
+                MapImplSnapshot.load(newMapImpl, Paths.get(snapshotPath));
+            } catch (final IOException e) {
+                throw new StoreException("Unable to load snapshot from " + snapshotPath, e);
+            }
+        }
+
+        return newMapImpl;
+    }
+
+    /**
+     * Stops the background snapshots, if they have been scheduled, and
+     * releases the store's shared operation executor. A snapshot that is
+     * being written is allowed to finish.
+     */
+    @Override
+    public void shutdown() {
+        cancelSnapshots();
+        super.shutdown();
+    }
+
+    private synchronized void scheduleSnapshots() throws StoreException {
+        cancelSnapshots();
+
+        final long interval = getProperties().getSnapshotInterval();
+        if (interval < 1 || null == getProperties().getSnapshotPath()) {
+            return;
+        }
+
+        // A snapshot reads the maps whilst they may be being updated, which
+        // is only safe if the maps are concurrent.
+        if (!getProperties().isConcurrent()) {
+            throw new StoreException("Snapshots can only be written in the background if "
+                    + MapStoreProperties.CONCURRENT + " is true. Either enable it or set "
+                    + MapStoreProperties.SNAPSHOT_INTERVAL + " to 0 and call writeSnapshot() when the store is not being updated.");
+        }
+
+        // The task only holds a weak reference to the store, so a store that
+        // is discarded without being shut down does not keep its thread alive.
+        final String threadName = "MapStore snapshot - " + getGraphId();
+        final WeakReference<MapStore> storeRef = new WeakReference<>(this);
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            final MapStore store = storeRef.get();
+            if (null == store) {
+                executor.shutdown();
+                return;
+            }
+            try {
+                store.writeSnapshot();
+            } catch (final StoreException | RuntimeException e) {
+                LOGGER.error("Unable to write MapStore snapshot", e);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+        snapshotExecutor = executor;
+    }
+
+    private synchronized void cancelSnapshots() {
+        if (null != snapshotExecutor) {
+            snapshotExecutor.shutdown();
+            snapshotExecutor = null;
+        }
     }
 
     @Override
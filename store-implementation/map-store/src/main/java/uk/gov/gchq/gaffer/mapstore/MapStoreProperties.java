@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.mapstore;
 
+import uk.gov.gchq.gaffer.mapstore.factory.ConcurrentMapFactory;
 import uk.gov.gchq.gaffer.mapstore.factory.MapFactory;
 import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
 import uk.gov.gchq.gaffer.store.StoreProperties;
@@ -38,6 +39,15 @@ public class MapStoreProperties extends StoreProperties {
     public static final String STATIC_MAP = "gaffer.store.mapstore.static";
     public static final String STATIC_MAP_DEFAULT = "false";
 
+    /**
+     * Property name for enabling the thread safe
+     * {@link uk.gov.gchq.gaffer.mapstore.impl.ConcurrentMapImpl}. When enabled
+     * the map factory defaults to {@link ConcurrentMapFactory}.
+     */
+    public static final String CONCURRENT = "gaffer.store.mapstore.concurrent";
+    public static final String CONCURRENT_DEFAULT = "false";
+    public static final Class<? extends MapFactory> CONCURRENT_MAP_FACTORY_DEFAULT = ConcurrentMapFactory.class;
+
     /**
      * Property name for the ingest buffer size. If the value is set to less
      * than 1 then
@@ -47,6 +57,36 @@ public class MapStoreProperties extends StoreProperties {
     public static final String INGEST_BUFFER_SIZE = "gaffer.store.mapstore.map.ingest.buffer.size";
     public static final int INGEST_BUFFER_SIZE_DEFAULT = 0;
 
+    /**
+     * Property name for the number of threads used to validate, aggregate and
+     * insert batches of elements. Batches are only added in parallel if the
+     * ingest buffer size is at least 1 and the store is concurrent, otherwise
+     * elements are added on the calling thread. The batches are run on the
+     * store's shared operation executor, so the number of threads is also
+     * limited by {@link StoreProperties#OPERATION_EXECUTOR_THREAD_COUNT}.
+     */
+    public static final String INGEST_THREADS = "gaffer.store.mapstore.map.ingest.threads";
+    public static final int INGEST_THREADS_DEFAULT = 1;
+
+    /**
+     * Property name for the path of the snapshot file. If set, the
+     * {@link MapStore} is loaded from the snapshot when it is initialised and
+     * snapshots are written to this path.
+     */
+    public static final String SNAPSHOT_PATH = "gaffer.store.mapstore.snapshot.path";
+    public static final String SNAPSHOT_PATH_DEFAULT = null;
+
+    /**
+     * Property name for the interval, in seconds, between snapshots of the
+     * {@link MapStore}. If the value is less than 1 snapshots are only written
+     * when {@link MapStore#writeSnapshot()} is called. Periodic snapshots
+     * require {@link #CONCURRENT} to be true, and are written whilst the
+     * store is being updated, so they are not point-in-time consistent with
+     * concurrent writes.
+     */
+    public static final String SNAPSHOT_INTERVAL = "gaffer.store.mapstore.snapshot.interval";
+    public static final long SNAPSHOT_INTERVAL_DEFAULT = 0;
+
     public MapStoreProperties() {
         super(MapStore.class);
     }
@@ -81,6 +121,9 @@ public class MapStoreProperties extends StoreProperties {
     }
 
     public String getMapFactory() {
+        if (isConcurrent()) {
+            return get(MAP_FACTORY, CONCURRENT_MAP_FACTORY_DEFAULT.getName());
+        }
         return get(MAP_FACTORY, MAP_FACTORY_DEFAULT.getName());
     }
 
@@ -113,6 +156,19 @@ public class MapStoreProperties extends StoreProperties {
         set(INGEST_BUFFER_SIZE, String.valueOf(ingestBufferSize));
     }
 
+    public int getIngestThreads() {
+        final String threads = get(INGEST_THREADS, null);
+        if (null == threads) {
+            return INGEST_THREADS_DEFAULT;
+        }
+
+        return Integer.parseInt(threads);
+    }
+
+    public void setIngestThreads(final int ingestThreads) {
+        set(INGEST_THREADS, String.valueOf(ingestThreads));
+    }
+
     public boolean isStaticMap() {
         return Boolean.parseBoolean(get(STATIC_MAP, STATIC_MAP_DEFAULT));
     }
@@ -120,4 +176,33 @@ public class MapStoreProperties extends StoreProperties {
     public void setStaticMap(final boolean staticMap) {
         set(STATIC_MAP, Boolean.toString(staticMap));
     }
+
+    public boolean isConcurrent() {
+        return Boolean.parseBoolean(get(CONCURRENT, CONCURRENT_DEFAULT));
+    }
+
+    public void setConcurrent(final boolean concurrent) {
+        set(CONCURRENT, Boolean.toString(concurrent));
+    }
+
+    public String getSnapshotPath() {
+        return get(SNAPSHOT_PATH, SNAPSHOT_PATH_DEFAULT);
+    }
+
+    public void setSnapshotPath(final String snapshotPath) {
+        set(SNAPSHOT_PATH, snapshotPath);
+    }
+
+    public long getSnapshotInterval() {
+        final String interval = get(SNAPSHOT_INTERVAL, null);
+        if (null == interval) {
+            return SNAPSHOT_INTERVAL_DEFAULT;
+        }
+
+        return Long.parseLong(interval);
+    }
+
+    public void setSnapshotInterval(final long snapshotInterval) {
+        set(SNAPSHOT_INTERVAL, String.valueOf(snapshotInterval));
+    }
 }
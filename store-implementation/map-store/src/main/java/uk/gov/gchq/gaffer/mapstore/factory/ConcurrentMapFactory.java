@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.multimap.ConcurrentMapOfSets;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link SimpleMapFactory} that creates thread safe maps, for use with a
+ * concurrent {@link uk.gov.gchq.gaffer.mapstore.MapStore}.
+ * <p>
+ * The map class defaults to {@link ConcurrentHashMap} and must implement
+ * {@link ConcurrentMap}. Multi maps are {@link ConcurrentMapOfSets}.
+ */
+public class ConcurrentMapFactory extends SimpleMapFactory {
+    public static final String CONCURRENT_MAP_CLASS_DEFAULT = ConcurrentHashMap.class.getName();
+
+    public ConcurrentMapFactory() {
+        super();
+    }
+
+    protected ConcurrentMapFactory(final ElementCloner cloner) {
+        super(cloner);
+    }
+
+    @Override
+    public void initialise(final Schema schema, final MapStoreProperties properties) {
+        super.initialise(schema, properties);
+        if (!ConcurrentMap.class.isAssignableFrom(getMapClass())) {
+            throw new IllegalArgumentException("Map Class must be a " + ConcurrentMap.class.getName() + ": " + getMapClass().getName());
+        }
+    }
+
+    @Override
+    protected String getMapClassDefault() {
+        return CONCURRENT_MAP_CLASS_DEFAULT;
+    }
+
+    @Override
+    protected <K, V> MultiMap<K, V> createMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        return new ConcurrentMapOfSets((ConcurrentMap) getMap(mapName, keyClass, valueClass));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import uk.gov.gchq.gaffer.mapstore.multimap.InternedMultiMap;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
+
+/**
+ * A {@link SimpleMapFactory} that backs the {@link uk.gov.gchq.gaffer.mapstore.MapStore}
+ * indices with {@link InternedMultiMap}s rather than maps of sets.
+ * <p>
+ * Vertices and elements are interned to int ids and the adjacency list of each
+ * vertex is held as a primitive int array, significantly reducing the heap used
+ * by the index for large graphs. The element maps are still created using the
+ * configured map class.
+ * <p>
+ * To use this factory set {@link uk.gov.gchq.gaffer.mapstore.MapStoreProperties#MAP_FACTORY}
+ * to the class name of this factory.
+ */
+public class InternedMapFactory extends SimpleMapFactory {
+    public InternedMapFactory() {
+        super();
+    }
+
+    protected InternedMapFactory(final ElementCloner cloner) {
+        super(cloner);
+    }
+
+    @Override
+    protected <K, V> MultiMap<K, V> createMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        return new InternedMultiMap<>();
+    }
+}
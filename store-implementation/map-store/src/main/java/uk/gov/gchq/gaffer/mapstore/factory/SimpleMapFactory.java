@@ -50,7 +50,7 @@ public class SimpleMapFactory implements MapFactory {
 
     @Override
     public void initialise(final Schema schema, final MapStoreProperties properties) {
-        final String mapClassName = properties.get(MAP_CLASS, MAP_CLASS_DEFAULT);
+        final String mapClassName = properties.get(MAP_CLASS, getMapClassDefault());
         try {
             mapClass = Class.forName(SimpleClassNameIdResolver.getClassName(mapClassName)).asSubclass(Map.class);
         } catch (final ClassNotFoundException | ClassCastException e) {
@@ -74,7 +74,7 @@ public class SimpleMapFactory implements MapFactory {
 
     @Override
     public <K, V> MultiMap<K, V> getMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
-        return multiMaps.computeIfAbsent(mapName, n -> new MapOfSets(getMap(n, keyClass, valueClass)));
+        return multiMaps.computeIfAbsent(mapName, n -> createMultiMap(n, keyClass, valueClass));
     }
 
     @Override
@@ -88,6 +88,25 @@ public class SimpleMapFactory implements MapFactory {
         return cloner.cloneElement(element, schema);
     }
 
+    /**
+     * Create a new {@link MultiMap}. By default this is a {@link MapOfSets}
+     * wrapping a map of the configured map class.
+     *
+     * @param mapName    the name of the multi map to create
+     * @param keyClass   the class type to use for the map keys
+     * @param valueClass the class type to use for the map values
+     * @param <K>        the type of the map keys
+     * @param <V>        the type of the map values
+     * @return the new {@link MultiMap}
+     */
+    protected <K, V> MultiMap<K, V> createMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        return new MapOfSets(getMap(mapName, keyClass, valueClass));
+    }
+
+    protected String getMapClassDefault() {
+        return MAP_CLASS_DEFAULT;
+    }
+
     protected Class<? extends Map> getMapClass() {
         return mapClass;
     }
@@ -25,6 +25,7 @@ import uk.gov.gchq.gaffer.data.element.GroupedProperties;
 import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
@@ -36,9 +37,15 @@ import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 /**
  * An {@link OperationHandler} for the {@link AddElements} operation on the {@link MapStore}.
@@ -48,15 +55,36 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
 
     @Override
     public Void doOperation(final AddElements addElements, final Context context, final Store store) throws OperationException {
+        final MapStore mapStore = (MapStore) store;
+        if (isParallelIngest(mapStore)) {
+            addElementsInParallel(addElements, mapStore);
+            return null;
+        }
+
         Iterable<? extends Element> elements = addElements.getInput();
         if (addElements.isValidate()) {
             elements = new ValidatedElements(elements, store.getSchema(), addElements.isSkipInvalidElements());
         }
 
-        addElements(elements, (MapStore) store);
+        addElements(elements, mapStore);
         return null;
     }
 
+    private boolean isParallelIngest(final MapStore mapStore) {
+        final MapStoreProperties properties = mapStore.getProperties();
+        if (properties.getIngestThreads() < 2 || properties.getIngestBufferSize() < 1) {
+            return false;
+        }
+
+        if (!(mapStore.getMapImpl() instanceof ConcurrentMapImpl)) {
+            LOGGER.warn("Elements can only be added in parallel to a concurrent MapStore, set {} to true. Elements will be added on a single thread.",
+                    MapStoreProperties.CONCURRENT);
+            return false;
+        }
+
+        return true;
+    }
+
     private void addElements(final Iterable<? extends Element> elements, final MapStore mapStore) {
         final MapImpl mapImpl = mapStore.getMapImpl();
         final Schema schema = mapStore.getSchema();
@@ -88,6 +116,83 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
         }
     }
 
+    /**
+     * Reads batches of elements on the calling thread and hands each batch to
+     * the store's shared operation executor, which validates, aggregates and
+     * inserts them into the concurrent {@link MapImpl}. At most twice the
+     * number of ingest threads of batches are waiting for or being processed
+     * at a time, so reading the input is throttled if the executor falls
+     * behind.
+     *
+     * @param addElements the operation containing the elements to add
+     * @param mapStore    the store to add the elements to
+     * @throws OperationException if the elements could not be added
+     */
+    private void addElementsInParallel(final AddElements addElements, final MapStore mapStore) throws OperationException {
+        final MapImpl mapImpl = mapStore.getMapImpl();
+        final Schema schema = mapStore.getSchema();
+        final int bufferSize = mapStore.getProperties().getIngestBufferSize();
+        final int numThreads = mapStore.getProperties().getIngestThreads();
+        LOGGER.info("Adding elements in batches using {} threads, batch size = {}", numThreads, bufferSize);
+
+        final Executor executor = mapStore.getOperationExecutor();
+        final Deque<Future<?>> pending = new ArrayDeque<>();
+        boolean completed = false;
+        try {
+            List<Element> batch = new ArrayList<>(bufferSize);
+            for (final Element element : addElements.getInput()) {
+                if (null != element) {
+                    batch.add(element);
+                    if (batch.size() >= bufferSize) {
+                        pending.add(submitBatch(batch, addElements, mapImpl, schema, executor));
+                        batch = new ArrayList<>(bufferSize);
+                        while (pending.size() >= numThreads * 2) {
+                            ExecutorUtil.get(pending.remove());
+                        }
+                    }
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                pending.add(submitBatch(batch, addElements, mapImpl, schema, executor));
+            }
+
+            while (!pending.isEmpty()) {
+                ExecutorUtil.get(pending.remove());
+            }
+            completed = true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst adding elements", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OperationException("Unable to add elements: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (!completed) {
+                for (final Future<?> future : pending) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private Future<?> submitBatch(final List<Element> batch,
+                                  final AddElements addElements,
+                                  final MapImpl mapImpl,
+                                  final Schema schema,
+                                  final Executor executor) {
+        return ExecutorUtil.submit(executor, () -> {
+            Iterable<? extends Element> elements = batch;
+            if (addElements.isValidate()) {
+                elements = new ValidatedElements(elements, schema, addElements.isSkipInvalidElements());
+            }
+            addBatch(mapImpl, schema, AggregatorUtil.ingestAggregate(elements, schema));
+            return null;
+        });
+    }
+
     private void addBatch(final MapImpl mapImpl, final Schema schema, final Iterable<? extends Element> elements) {
         for (final Element element : elements) {
             if (null != element) {
@@ -143,7 +248,7 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
         return elementClone;
     }
 
-    private void updateElementIndex(final Element element, final MapImpl mapImpl) {
+    static void updateElementIndex(final Element element, final MapImpl mapImpl) {
         if (element instanceof Entity) {
             final Entity entity = (Entity) element;
             final EntityId entityId = new EntitySeed(entity.getVertex());
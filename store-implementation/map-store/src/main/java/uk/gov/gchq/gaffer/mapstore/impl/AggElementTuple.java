@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.ElementTuple;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+
+/**
+ * A read only {@link Tuple} over an aggregated element as it is stored in the
+ * {@link MapImpl}, i.e. the element containing the identifiers and group-by
+ * properties plus the remaining aggregated properties.
+ * <p>
+ * This allows filters to be tested against stored aggregated elements without
+ * first copying them. The full element is only created if a filter selects the
+ * whole element or all of its properties.
+ */
+class AggElementTuple implements Tuple<String> {
+    private final Element elementWithGroupByProperties;
+    private final GroupedProperties properties;
+    private Element element;
+
+    AggElementTuple(final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        this.elementWithGroupByProperties = elementWithGroupByProperties;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object get(final String reference) {
+        if (ElementTuple.ELEMENT.equals(reference)) {
+            return getElement();
+        }
+
+        if (ElementTuple.PROPERTIES.equals(reference)) {
+            return getElement().getProperties();
+        }
+
+        final IdentifierType idType = IdentifierType.fromName(reference);
+        if (null != idType) {
+            return elementWithGroupByProperties.getIdentifier(idType);
+        }
+
+        if (elementWithGroupByProperties.getProperties().containsKey(reference)) {
+            return elementWithGroupByProperties.getProperty(reference);
+        }
+
+        return properties.get(reference);
+    }
+
+    @Override
+    public Iterable<Object> values() {
+        throw new UnsupportedOperationException("Calling values() is not supported for " + getClass().getSimpleName());
+    }
+
+    @Override
+    public void put(final String reference, final Object value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is read only");
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("elementWithGroupByProperties", elementWithGroupByProperties)
+                .append("properties", properties)
+                .toString();
+    }
+
+    private Element getElement() {
+        if (null == element) {
+            element = MapImpl.createAggElement(elementWithGroupByProperties, properties);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.factory.ConcurrentMapFactory;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A thread safe {@link MapImpl}, allowing elements to be added and retrieved
+ * concurrently from multiple threads.
+ * <p>
+ * The backing maps and indices are concurrent maps created by a
+ * {@link ConcurrentMapFactory}, so individual puts and merges are atomic.
+ * Aggregated properties are updated in place, so updates to aggregated elements
+ * are striped by group using a {@link ReadWriteLock} per group: aggregation into
+ * a group holds the write lock, whilst filtering and copying aggregated elements
+ * out of the map holds the read lock. Elements in different groups never contend.
+ */
+public class ConcurrentMapImpl extends MapImpl {
+    private final Map<String, ReadWriteLock> groupLocks = new HashMap<>();
+    private final Schema schema;
+
+    public ConcurrentMapImpl(final Schema schema, final MapStoreProperties mapStoreProperties) {
+        super(schema, mapStoreProperties);
+        if (!(getMapFactory() instanceof ConcurrentMapFactory)) {
+            throw new IllegalArgumentException("A concurrent MapStore requires a " + ConcurrentMapFactory.class.getName()
+                    + " but the MapFactory was: " + getMapFactory().getClass().getName());
+        }
+
+        this.schema = schema;
+        for (final String group : schema.getGroups()) {
+            groupLocks.put(group, new ReentrantReadWriteLock());
+        }
+    }
+
+    @Override
+    void addAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        final ReadWriteLock groupLock = groupLocks.get(elementWithGroupByProperties.getGroup());
+        if (null == groupLock) {
+            // The group is not in the schema so the element will not be added
+            return;
+        }
+
+        final Lock lock = groupLock.writeLock();
+        lock.lock();
+        try {
+            super.addAggElement(elementWithGroupByProperties, properties);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    Element getAggElement(final Element element) {
+        final Lock lock = getLock(element.getGroup()).readLock();
+        lock.lock();
+        try {
+            // Clone whilst holding the lock so the returned properties cannot be modified by a concurrent aggregation
+            return cloneElement(super.getAggElement(element), schema);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    Element cloneAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        final Lock lock = getLock(elementWithGroupByProperties.getGroup()).readLock();
+        lock.lock();
+        try {
+            return super.cloneAggElement(elementWithGroupByProperties, properties);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    boolean testAggElement(final ElementFilter filter, final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        final Lock lock = getLock(elementWithGroupByProperties.getGroup()).readLock();
+        lock.lock();
+        try {
+            return super.testAggElement(filter, elementWithGroupByProperties, properties);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    void readAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties, final BiConsumer<Element, GroupedProperties> consumer) {
+        final Lock lock = getLock(elementWithGroupByProperties.getGroup()).readLock();
+        lock.lock();
+        try {
+            super.readAggElement(elementWithGroupByProperties, properties, consumer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReadWriteLock getLock(final String group) {
+        final ReadWriteLock lock = groupLocks.get(group);
+        if (null == lock) {
+            throw new IllegalArgumentException("Group " + group + " was not recognised");
+        }
+        return lock;
+    }
+}
@@ -29,6 +29,7 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -60,10 +61,10 @@ public class GetAllElementsHandler implements OutputOperationHandler<GetAllEleme
 
         @Override
         public CloseableIterator<Element> iterator() {
-            Stream<Element> elements = mapImpl.getAllElements(getAllElements.getView().getGroups());
-            elements = GetElementsUtil.applyDirectedTypeFilter(elements, getAllElements.getView().hasEdges(), getAllElements.getDirectedType());
-            elements = GetElementsUtil.applyView(elements, schema, getAllElements.getView());
-            elements = elements.map(element -> mapImpl.cloneElement(element, schema));
+            // The filters are applied to the stored elements, so only matching elements are copied
+            final Predicate<Element> directedTypeFilter = GetElementsUtil.getDirectedTypeFilter(getAllElements.getView().hasEdges(), getAllElements.getDirectedType());
+            Stream<Element> elements = mapImpl.getAllElements(getAllElements.getView(), directedTypeFilter);
+            elements = GetElementsUtil.applyView(elements, schema, getAllElements.getView(), false);
             elements = elements.map(element -> {
                 ViewUtil.removeProperties(getAllElements.getView(), element);
                 return element;
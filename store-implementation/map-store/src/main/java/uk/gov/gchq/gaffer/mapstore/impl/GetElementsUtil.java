@@ -123,20 +123,54 @@ public final class GetElementsUtil {
     public static Stream<Element> applyDirectedTypeFilter(final Stream<Element> elements,
                                                           final boolean includeEdges,
                                                           final DirectedType directedType) {
-        Stream<Element> filteredElements = elements;
+        final Predicate<Element> directedTypeFilter = getDirectedTypeFilter(includeEdges, directedType);
+        return null == directedTypeFilter ? elements : elements.filter(directedTypeFilter);
+    }
+
+    /**
+     * Gets a filter to apply the directed type option, or null if no
+     * filtering is required.
+     *
+     * @param includeEdges whether edges are included in the results
+     * @param directedType the directed type option
+     * @return the filter, or null if all elements should be returned
+     */
+    public static Predicate<Element> getDirectedTypeFilter(final boolean includeEdges,
+                                                           final DirectedType directedType) {
         if (includeEdges) {
             if (directedType == DirectedType.DIRECTED) {
-                filteredElements = elements.filter(e -> e instanceof Entity || ((Edge) e).isDirected());
+                return e -> e instanceof Entity || ((Edge) e).isDirected();
             } else if (directedType == DirectedType.UNDIRECTED) {
-                filteredElements = elements.filter(e -> e instanceof Entity || !((Edge) e).isDirected());
+                return e -> e instanceof Entity || !((Edge) e).isDirected();
             }
         }
-        return filteredElements;
+        return null;
     }
 
     public static Stream<Element> applyView(final Stream<Element> elementStream,
                                             final Schema schema,
                                             final View view) {
+        return applyView(elementStream, schema, view, true);
+    }
+
+    /**
+     * Applies the view to the stream of elements.
+     *
+     * @param elementStream the elements
+     * @param schema        the schema
+     * @param view          the view to apply
+     * @param applyFilters  false if the elements have already been filtered by
+     *                      group and by the pre and post aggregation filters
+     * @return the stream of elements with the view applied
+     */
+    public static Stream<Element> applyView(final Stream<Element> elementStream,
+                                            final Schema schema,
+                                            final View view,
+                                            final boolean applyFilters) {
+        if (!applyFilters) {
+            return applyTransform(elementStream, view);
+        }
+
         final Set<String> viewGroups = view.getGroups();
         Stream<Element> stream = elementStream;
         // Check group is valid
@@ -157,6 +191,12 @@ public final class GetElementsUtil {
             return ved.getPostAggregationFilter() == null || ved.getPostAggregationFilter().test(e);
         });
 
+        return applyTransform(stream, view);
+    }
+
+    private static Stream<Element> applyTransform(final Stream<Element> elementStream, final View view) {
+        Stream<Element> stream = elementStream;
+
         // Apply transform
         stream = stream.map(e -> {
             final ViewElementDefinition ved = view.getElement(e.getGroup());
@@ -19,8 +19,11 @@ import uk.gov.gchq.gaffer.commonutil.iterable.RepeatItemIterable;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.factory.MapFactory;
 import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
@@ -29,6 +32,7 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,6 +40,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -135,6 +141,48 @@ public class MapImpl {
         }
     }
 
+    /**
+     * Puts an aggregated element into the map without aggregating it with any
+     * existing element, for example when loading a snapshot.
+     *
+     * @param elementWithGroupByProperties the element containing the identifiers and group-by properties
+     * @param properties                   the aggregated properties
+     */
+    void putAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        if (null != aggElements.get(elementWithGroupByProperties.getGroup())) {
+            aggElements.get(elementWithGroupByProperties.getGroup()).put(elementWithGroupByProperties, properties);
+        }
+    }
+
+    /**
+     * Puts a non aggregated element and its count into the map, replacing any
+     * existing count, for example when loading a snapshot.
+     *
+     * @param element the element
+     * @param count   the number of times the element has been added
+     */
+    void putNonAggElement(final Element element, final long count) {
+        if (null != nonAggElements.get(element.getGroup())) {
+            nonAggElements.get(element.getGroup()).put(element, count);
+        }
+    }
+
+    void forEachAggElement(final BiConsumer<Element, GroupedProperties> consumer) {
+        for (final Map<Element, GroupedProperties> map : aggElements.values()) {
+            map.forEach((key, properties) -> readAggElement(key, properties, consumer));
+        }
+    }
+
+    void forEachNonAggElement(final BiConsumer<Element, Long> consumer) {
+        for (final Map<Element, Long> map : nonAggElements.values()) {
+            map.forEach(consumer);
+        }
+    }
+
+    void readAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties, final BiConsumer<Element, GroupedProperties> consumer) {
+        consumer.accept(elementWithGroupByProperties, properties);
+    }
+
     Collection<Element> lookup(final EntityId entitId) {
         Collection<Element> results = entityIdToElements.get(entitId);
         if (null == results) {
@@ -162,10 +210,11 @@ public class MapImpl {
     }
 
     Element getAggElement(final Element element) {
-        final Element clone = element.emptyClone();
-        clone.copyProperties(element.getProperties());
-        clone.copyProperties(aggElements.get(element.getGroup()).get(element));
-        return clone;
+        return createAggElement(element, aggElements.get(element.getGroup()).get(element));
+    }
+
+    Element cloneAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        return cloneElement(createAggElement(elementWithGroupByProperties, properties), schema);
     }
 
     Iterable<Element> getElements(final Element element) {
@@ -177,31 +226,90 @@ public class MapImpl {
     }
 
     Stream<Element> getAllAggElements(final Set<String> groups) {
+        return getAllAggElements(groups, null, null);
+    }
+
+    /**
+     * Gets copies of the aggregated elements in the provided groups. The key
+     * filter and the pre aggregation filters in the view are tested against the
+     * stored element and properties, so only elements that pass the filters
+     * are copied.
+     *
+     * @param groups    the groups to get elements from
+     * @param keyFilter an optional filter to test against the element containing
+     *                  the identifiers and group-by properties
+     * @param view      an optional view containing the filters to apply
+     * @return a stream of copies of the matching elements
+     */
+    Stream<Element> getAllAggElements(final Set<String> groups, final Predicate<Element> keyFilter, final View view) {
         return aggElements.entrySet().stream()
                 .filter(entry -> groups.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .flatMap(map -> map.entrySet().stream())
-                .map(x -> {
-                    final Element element = x.getKey().emptyClone();
-                    element.copyProperties(x.getKey().getProperties());
-                    element.copyProperties(x.getValue());
-                    return cloneElement(element, schema);
-                });
+                .flatMap(entry -> {
+                    Stream<Map.Entry<Element, GroupedProperties>> entries = entry.getValue().entrySet().stream();
+                    if (null != keyFilter) {
+                        entries = entries.filter(x -> keyFilter.test(x.getKey()));
+                    }
+                    for (final ElementFilter filter : getViewFilters(view, entry.getKey())) {
+                        entries = entries.filter(x -> testAggElement(filter, x.getKey(), x.getValue()));
+                    }
+                    return entries;
+                })
+                .map(x -> cloneAggElement(x.getKey(), x.getValue()));
     }
 
     Stream<Element> getAllNonAggElements(final Set<String> groups) {
+        return getAllNonAggElements(groups, null, null);
+    }
+
+    /**
+     * Gets copies of the non aggregated elements in the provided groups. The
+     * key filter and the pre and post aggregation filters in the view are tested against
+     * the stored elements, so only elements that pass the filters are copied.
+     *
+     * @param groups    the groups to get elements from
+     * @param keyFilter an optional filter to test against the stored elements
+     * @param view      an optional view containing the filters to apply
+     * @return a stream of copies of the matching elements
+     */
+    Stream<Element> getAllNonAggElements(final Set<String> groups, final Predicate<Element> keyFilter, final View view) {
         return nonAggElements.entrySet().stream()
                 .filter(entry -> groups.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .flatMap(map -> map.entrySet().stream())
-                .map(x -> new RepeatItemIterable<>(cloneElement(x.getKey(), schema), x.getValue()))
-                .flatMap(Streams::toStream);
+                .flatMap(entry -> {
+                    Stream<Map.Entry<Element, Long>> entries = entry.getValue().entrySet().stream();
+                    if (null != keyFilter) {
+                        entries = entries.filter(x -> keyFilter.test(x.getKey()));
+                    }
+                    for (final ElementFilter filter : getViewFilters(view, entry.getKey())) {
+                        entries = entries.filter(x -> filter.test(x.getKey()));
+                    }
+                    return entries;
+                })
+                .flatMap(x -> Streams.toStream(new RepeatItemIterable<>(x.getKey(), x.getValue())))
+                .map(element -> cloneElement(element, schema));
     }
 
     Stream<Element> getAllElements(final Set<String> groups) {
         return Stream.concat(getAllAggElements(groups), getAllNonAggElements(groups));
     }
 
+    /**
+     * Gets copies of all elements in the groups in the view that pass the key
+     * filter and the view's pre and post aggregation filters. The filters are applied
+     * before the elements are copied.
+     *
+     * @param view      the view containing the groups and filters to apply
+     * @param keyFilter an optional filter to test against the stored element keys
+     * @return a stream of copies of the matching elements
+     */
+    Stream<Element> getAllElements(final View view, final Predicate<Element> keyFilter) {
+        final Set<String> groups = view.getGroups();
+        return Stream.concat(getAllAggElements(groups, keyFilter, view), getAllNonAggElements(groups, keyFilter, view));
+    }
+
+    boolean testAggElement(final ElementFilter filter, final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        return filter.test(new AggElementTuple(elementWithGroupByProperties, properties));
+    }
+
     void addIndex(final EntityId entityId, final Element element) {
         entityIdToElements.put(entityId, element);
     }
@@ -210,6 +318,10 @@ public class MapImpl {
         edgeIdToElements.put(edgeId, element);
     }
 
+    MapFactory getMapFactory() {
+        return mapFactory;
+    }
+
     boolean isMaintainIndex() {
         return maintainIndex;
     }
@@ -218,6 +330,10 @@ public class MapImpl {
         return mapFactory.cloneElement(element, schema);
     }
 
+    Schema getSchema() {
+        return schema;
+    }
+
     Set<String> getGroupByProperties(final String group) {
         return groupToGroupByProperties.get(group);
     }
@@ -252,6 +368,34 @@ public class MapImpl {
         return totalCount;
     }
 
+    static Element createAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
+        final Element element = elementWithGroupByProperties.emptyClone();
+        element.copyProperties(elementWithGroupByProperties.getProperties());
+        element.copyProperties(properties);
+        return element;
+    }
+
+    private static List<ElementFilter> getViewFilters(final View view, final String group) {
+        if (null == view) {
+            return Collections.emptyList();
+        }
+        final ViewElementDefinition viewElementDef = view.getElement(group);
+        if (null == viewElementDef) {
+            return Collections.emptyList();
+        }
+
+        // Elements are not aggregated at query time, so the post aggregation
+        // filter can be applied to the stored element alongside the pre aggregation filter
+        final List<ElementFilter> filters = new ArrayList<>(2);
+        if (null != viewElementDef.getPreAggregationFilter()) {
+            filters.add(viewElementDef.getPreAggregationFilter());
+        }
+        if (null != viewElementDef.getPostAggregationFilter()) {
+            filters.add(viewElementDef.getPostAggregationFilter());
+        }
+        return filters;
+    }
+
     private MapFactory createMapFactory(final Schema schema,
                                         final MapStoreProperties mapStoreProperties) {
         final MapFactory mapFactory;
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Writes and loads binary snapshots of a {@link MapImpl}.
+ * <p>
+ * A snapshot contains the schema the map was created with followed by a record
+ * for each aggregated element and each non aggregated element (with its count).
+ * Elements are serialised using the serialisers in the schema. Snapshots are
+ * written to a temporary file which is then moved into place, so an existing
+ * snapshot is only replaced by a complete one. The maps are iterated without
+ * any locking, so a snapshot written whilst the map is being updated is not
+ * point-in-time consistent with those updates.
+ * <p>
+ * Snapshots are loaded using memory mapped I/O and the elements are put directly
+ * into the maps, without being validated or aggregated. The indices are rebuilt
+ * from the loaded elements.
+ */
+public final class MapImplSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MapImplSnapshot.class);
+
+    private static final int MAGIC = 0x474D5353;
+    private static final int VERSION = 1;
+    private static final byte END = 0;
+    private static final byte AGG_ELEMENT = 1;
+    private static final byte NON_AGG_ELEMENT = 2;
+
+    private MapImplSnapshot() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Writes a snapshot of the map to the given path, replacing any existing
+     * snapshot.
+     *
+     * @param mapImpl the map to snapshot
+     * @param path    the path of the snapshot file
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void write(final MapImpl mapImpl, final Path path) throws IOException {
+        final Schema schema = mapImpl.getSchema();
+        final ElementSerialiser serialiser = new ElementSerialiser(schema);
+        final Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        final Path tmpPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeBytes(out, schema.toCompactJson());
+
+                mapImpl.forEachAggElement((key, properties) -> {
+                    try {
+                        out.writeByte(AGG_ELEMENT);
+                        writeElement(out, MapImpl.createAggElement(key, properties), schema, serialiser);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                mapImpl.forEachNonAggElement((element, count) -> {
+                    try {
+                        out.writeByte(NON_AGG_ELEMENT);
+                        writeElement(out, element, schema, serialiser);
+                        out.writeLong(count);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.writeByte(END);
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpPath);
+        }
+    }
+
+    /**
+     * Loads a snapshot into the map. The map should be empty. If the snapshot
+     * does not exist, or was written with a different schema, nothing is
+     * loaded.
+     *
+     * @param mapImpl the map to load the elements into
+     * @param path    the path of the snapshot file
+     * @return true if the snapshot was loaded
+     * @throws IOException if the snapshot could not be read
+     */
+    public static boolean load(final MapImpl mapImpl, final Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            LOGGER.info("No MapStore snapshot found at {}", path);
+            return false;
+        }
+
+        final Schema schema = mapImpl.getSchema();
+        final ElementSerialiser serialiser = new ElementSerialiser(schema);
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedInput in = new MappedInput(channel);
+            if (MAGIC != in.readInt()) {
+                throw new IOException(path + " is not a MapStore snapshot");
+            }
+            final int version = in.readInt();
+            if (VERSION != version) {
+                throw new IOException("Unsupported MapStore snapshot version " + version + " in " + path);
+            }
+            if (!Arrays.equals(schema.toCompactJson(), in.readBytes())) {
+                LOGGER.warn("The schema in the MapStore snapshot at {} does not match the store schema, the snapshot will not be loaded", path);
+                return false;
+            }
+
+            long numElements = 0;
+            for (byte type = in.readByte(); END != type; type = in.readByte()) {
+                final Element element = readElement(in, schema, serialiser);
+                if (AGG_ELEMENT == type) {
+                    final Element elementWithGroupByProperties = element.emptyClone();
+                    final GroupedProperties properties = new GroupedProperties(element.getGroup());
+                    copyProperties(element, elementWithGroupByProperties, mapImpl.getGroupByProperties(element.getGroup()));
+                    copyProperties(element, properties, mapImpl.getNonGroupByProperties(element.getGroup()));
+                    mapImpl.putAggElement(elementWithGroupByProperties, properties);
+                    updateIndex(mapImpl, elementWithGroupByProperties);
+                } else if (NON_AGG_ELEMENT == type) {
+                    mapImpl.putNonAggElement(element, in.readLong());
+                    updateIndex(mapImpl, element);
+                } else {
+                    throw new IOException("Unrecognised record type " + type + " in MapStore snapshot " + path);
+                }
+                numElements++;
+            }
+            LOGGER.info("Loaded {} elements from MapStore snapshot {}", numElements, path);
+        } catch (final SerialisationException e) {
+            throw new IOException("Unable to deserialise element in MapStore snapshot " + path, e);
+        }
+        return true;
+    }
+
+    private static void writeElement(final DataOutputStream out, final Element element, final Schema schema, final ElementSerialiser serialiser) throws IOException {
+        writeBytes(out, serialiser.serialise(element));
+
+        // Record which properties are set, as null properties are
+        // deserialised to the serialiser's empty value
+        final BitSet setProperties = new BitSet();
+        final Iterator<String> propertyNames = schema.getElement(element.getGroup()).getProperties().iterator();
+        for (int i = 0; propertyNames.hasNext(); i++) {
+            if (null != element.getProperty(propertyNames.next())) {
+                setProperties.set(i);
+            }
+        }
+        writeBytes(out, setProperties.toByteArray());
+    }
+
+    private static Element readElement(final MappedInput in, final Schema schema, final ElementSerialiser serialiser) throws IOException {
+        final Element element = serialiser.deserialise(in.readBytes());
+        final BitSet setProperties = BitSet.valueOf(in.readBytes());
+        final SchemaElementDefinition elementDef = schema.getElement(element.getGroup());
+        final Iterator<String> propertyNames = elementDef.getProperties().iterator();
+        for (int i = 0; propertyNames.hasNext(); i++) {
+            final String propertyName = propertyNames.next();
+            if (!setProperties.get(i)) {
+                element.getProperties().remove(propertyName);
+            }
+        }
+        return element;
+    }
+
+    private static void copyProperties(final Element element, final Properties properties, final Set<String> propertyNames) {
+        if (null != propertyNames) {
+            for (final String propertyName : propertyNames) {
+                properties.put(propertyName, element.getProperty(propertyName));
+            }
+        }
+    }
+
+    private static void copyProperties(final Element element, final Element target, final Set<String> propertyNames) {
+        if (null != propertyNames) {
+            for (final String propertyName : propertyNames) {
+                target.putProperty(propertyName, element.getProperty(propertyName));
+            }
+        }
+    }
+
+    private static void updateIndex(final MapImpl mapImpl, final Element element) {
+        if (mapImpl.isMaintainIndex()) {
+            AddElementsHandler.updateElementIndex(element, mapImpl);
+        }
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a file through a sequence of memory mapped windows, remapping from
+     * the current position whenever a read would pass the end of a window.
+     */
+    private static final class MappedInput {
+        private static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer buffer;
+
+        private MappedInput(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        private byte readByte() throws IOException {
+            ensureAvailable(Byte.BYTES);
+            return buffer.get();
+        }
+
+        private int readInt() throws IOException {
+            ensureAvailable(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        private long readLong() throws IOException {
+            ensureAvailable(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        private byte[] readBytes() throws IOException {
+            final int length = readInt();
+            if (length < 0) {
+                throw new IOException("Invalid length " + length + " in MapStore snapshot");
+            }
+            ensureAvailable(length);
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private void ensureAvailable(final int length) throws IOException {
+            if (null != buffer && buffer.remaining() >= length) {
+                return;
+            }
+
+            final long position = null == buffer ? 0 : windowStart + buffer.position();
+            if (position + length > size) {
+                throw new EOFException("Unexpected end of MapStore snapshot");
+            }
+            windowStart = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, MAX_WINDOW_SIZE));
+        }
+    }
+}
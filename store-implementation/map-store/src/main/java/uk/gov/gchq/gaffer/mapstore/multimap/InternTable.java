@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.multimap;
+
+import java.util.Arrays;
+
+/**
+ * An {@code InternTable} assigns a dense, sequential int id to each distinct
+ * object added to it. Ids start at 0 and are never reused until the table is
+ * cleared.
+ * <p>
+ * The table is an open addressing hash table holding primitive int slots, so
+ * no map entry or boxed Integer objects are allocated per item.
+ *
+ * @param <T> the type of object to intern
+ */
+public class InternTable<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int EMPTY = 0;
+
+    /**
+     * Interned objects, indexed by id.
+     */
+    private Object[] items;
+
+    /**
+     * Hash slots holding (id + 1) so that 0 can mark an empty slot.
+     */
+    private int[] slots;
+    private int size;
+
+    public InternTable() {
+        clear();
+    }
+
+    /**
+     * Get the id of the provided item, adding it to the table if it has not
+     * been seen before.
+     *
+     * @param item the item to intern
+     * @return the id of the item
+     */
+    public int intern(final T item) {
+        int slot = slotFor(item);
+        if (EMPTY != slots[slot]) {
+            return slots[slot] - 1;
+        }
+
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        final int id = size;
+        items[id] = item;
+        slots[slot] = id + 1;
+        size++;
+
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Get the id of the provided item without adding it to the table.
+     *
+     * @param item the item to look up
+     * @return the id of the item, or -1 if the item has not been interned
+     */
+    public int indexOf(final Object item) {
+        return slots[slotFor(item)] - 1;
+    }
+
+    /**
+     * Get the item with the provided id.
+     *
+     * @param id the id of the item
+     * @return the interned item
+     */
+    @SuppressWarnings("unchecked")
+    public T get(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " is not in the range [0, " + size + ")");
+        }
+        return (T) items[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        items = new Object[DEFAULT_CAPACITY];
+        slots = new int[DEFAULT_CAPACITY * 2];
+        size = 0;
+    }
+
+    private int slotFor(final Object item) {
+        final int mask = slots.length - 1;
+        int slot = hash(item) & mask;
+        while (EMPTY != slots[slot] && !items[slots[slot] - 1].equals(item)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(final int capacity) {
+        final int mask = capacity - 1;
+        final int[] newSlots = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            int slot = hash(items[id]) & mask;
+            while (EMPTY != newSlots[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots[slot] = id + 1;
+        }
+        slots = newSlots;
+    }
+
+    private static int hash(final Object item) {
+        // Spread the bits so that poor hash codes do not cluster the slots
+        final int h = item.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.mapstore.multimap;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link MultiMap} that interns both keys and values to int ids and stores
+ * the values for each key as a sorted primitive int array.
+ * <p>
+ * Compared to {@link MapOfSets} this avoids allocating a {@link java.util.HashMap}
+ * entry per key and a {@link java.util.HashSet} (with its own entries) per key,
+ * which makes it a much more compact index for graphs with many edges. Duplicate
+ * values for a key are detected with a binary search of the sorted id array.
+ * <p>
+ * The collections returned by {@link #get(Object)} are read-only views backed
+ * by this map. Like {@link MapOfSets} backed by a {@link java.util.HashMap},
+ * this class is not thread safe.
+ *
+ * @param <K> the type of key
+ * @param <V> the type of value
+ */
+public class InternedMultiMap<K, V> implements MultiMap<K, V> {
+    private static final int DEFAULT_KEY_CAPACITY = 16;
+    private static final int DEFAULT_VALUES_CAPACITY = 2;
+
+    private final InternTable<K> keyTable = new InternTable<>();
+    private final InternTable<V> valueTable = new InternTable<>();
+
+    /**
+     * The sorted value ids for each key id.
+     */
+    private int[][] valueIds;
+
+    /**
+     * The number of value ids in use for each key id.
+     */
+    private int[] valueCounts;
+
+    public InternedMultiMap() {
+        clear();
+    }
+
+    @Override
+    public boolean put(final K key, final V value) {
+        final int keyId = keyTable.intern(key);
+        ensureKeyCapacity(keyId + 1);
+        return addValueId(keyId, valueTable.intern(value));
+    }
+
+    @Override
+    public void put(final K key, final Collection<V> values) {
+        for (final V value : values) {
+            put(key, value);
+        }
+    }
+
+    @Override
+    public Collection<V> get(final K key) {
+        final int keyId = keyTable.indexOf(key);
+        if (keyId < 0) {
+            return null;
+        }
+        return new ValueCollection(keyId);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public void clear() {
+        keyTable.clear();
+        valueTable.clear();
+        valueIds = new int[DEFAULT_KEY_CAPACITY][];
+        valueCounts = new int[DEFAULT_KEY_CAPACITY];
+    }
+
+    /**
+     * @return the number of distinct keys in the map
+     */
+    public int keyCount() {
+        return keyTable.size();
+    }
+
+    /**
+     * @return the number of distinct values in the map, across all keys
+     */
+    public int valueCount() {
+        return valueTable.size();
+    }
+
+    private boolean addValueId(final int keyId, final int valueId) {
+        int[] ids = valueIds[keyId];
+        final int count = valueCounts[keyId];
+        if (null == ids) {
+            ids = new int[DEFAULT_VALUES_CAPACITY];
+            valueIds[keyId] = ids;
+        }
+
+        final int index = Arrays.binarySearch(ids, 0, count, valueId);
+        if (index >= 0) {
+            return false;
+        }
+
+        final int insertionPoint = -(index + 1);
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            valueIds[keyId] = ids;
+        }
+        System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, count - insertionPoint);
+        ids[insertionPoint] = valueId;
+        valueCounts[keyId] = count + 1;
+        return true;
+    }
+
+    private void ensureKeyCapacity(final int capacity) {
+        if (capacity > valueIds.length) {
+            final int newCapacity = Math.max(capacity, valueIds.length * 2);
+            valueIds = Arrays.copyOf(valueIds, newCapacity);
+            valueCounts = Arrays.copyOf(valueCounts, newCapacity);
+        }
+    }
+
+    private final class ValueCollection extends AbstractCollection<V> {
+        private final int keyId;
+
+        private ValueCollection(final int keyId) {
+            this.keyId = keyId;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            final int[] ids = valueIds[keyId];
+            final int count = valueCounts[keyId];
+            return new Iterator<V>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < count;
+                }
+
+                @Override
+                public V next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return valueTable.get(ids[index++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return valueCounts[keyId];
+        }
+
+        @Override
+        public boolean contains(final Object value) {
+            final int valueId = valueTable.indexOf(value);
+            return valueId >= 0 && Arrays.binarySearch(valueIds[keyId], 0, valueCounts[keyId], valueId) >= 0;
+        }
+    }
+
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            final int count = keyTable.size();
+            return new Iterator<K>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < count;
+                }
+
+                @Override
+                public K next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return keyTable.get(index++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keyTable.size();
+        }
+
+        @Override
+        public boolean contains(final Object key) {
+            return keyTable.indexOf(key) >= 0;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package uk.gov.gchq.gaffer.mapstore.impl;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.SingleUseMapStore;
@@ -27,10 +29,19 @@ import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_ENTITY;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.COUNT;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.PROPERTY1;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.getSchema;
 
 public class AddElementsHandlerTest {
 
@@ -47,4 +58,61 @@ public class AddElementsHandlerTest {
         // When / Then - should not throw NPE
         handler.doOperation(addElements, context, store);
     }
+
+    @Test
+    public void shouldAddElementsInParallelBatches() throws OperationException, StoreException {
+        // Given
+        final MapStore store = new SingleUseMapStore();
+        store.initialise("graphId1", getSchema(), getParallelProperties());
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            elements.add(new Entity.Builder()
+                    .group(BASIC_ENTITY)
+                    .vertex("" + (i % 10))
+                    .property(PROPERTY1, "p")
+                    .property(COUNT, 1)
+                    .build());
+        }
+        final AddElements addElements = new AddElements.Builder()
+                .input(elements)
+                .build();
+
+        // When
+        new AddElementsHandler().doOperation(addElements, new Context(), store);
+
+        // Then
+        final List<Element> results = store.getMapImpl()
+                .getAllElements(getSchema().getGroups())
+                .collect(Collectors.toList());
+        assertEquals(10, results.size());
+        for (final Element result : results) {
+            assertEquals(100, result.getProperty(COUNT));
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidElementWhenAddingInParallel() throws StoreException {
+        // Given
+        final MapStore store = new SingleUseMapStore();
+        store.initialise("graphId1", getSchema(), getParallelProperties());
+        final AddElements addElements = new AddElements.Builder()
+                .input(new Entity.Builder()
+                        .group(BASIC_ENTITY)
+                        .vertex("1")
+                        .property(PROPERTY1, "p")
+                        .property(COUNT, "not an int")
+                        .build())
+                .build();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new AddElementsHandler().doOperation(addElements, new Context(), store));
+    }
+
+    private MapStoreProperties getParallelProperties() {
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setConcurrent(true);
+        properties.setIngestBufferSize(10);
+        properties.setIngestThreads(4);
+        return properties;
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_EDGE1;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_ENTITY;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.COUNT;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.PROPERTY1;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.getSchema;
+
+public class ConcurrentMapImplTest {
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_BATCHES = 50;
+    private static final int BATCH_SIZE = 20;
+
+    @Test
+    public void shouldAggregateElementsAddedConcurrently() throws Exception {
+        // Given
+        final Graph graph = getGraph();
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int thread = 0; thread < NUM_THREADS; thread++) {
+                final int threadId = thread;
+                futures.add(executor.submit(() -> {
+                    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+                        graph.execute(new AddElements.Builder()
+                                .input(getElements(threadId))
+                                .build(), new User());
+                        // Read whilst other threads are writing
+                        consume(graph.execute(new GetElements.Builder()
+                                .input(new EntitySeed("A"))
+                                .build(), new User()));
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        final List<Element> results = new ArrayList<>();
+        for (final Element element : graph.execute(new GetAllElements(), new User())) {
+            results.add(element);
+        }
+
+        final Entity expectedEntity = new Entity.Builder()
+                .group(BASIC_ENTITY)
+                .vertex("A")
+                .property(PROPERTY1, "p")
+                .property(COUNT, NUM_THREADS * NUM_BATCHES * BATCH_SIZE)
+                .build();
+        assertEquals(1 + NUM_THREADS, results.size());
+        assertEquals(expectedEntity, results.stream().filter(e -> e instanceof Entity).findFirst().get());
+        results.stream()
+                .filter(e -> e instanceof Edge)
+                .forEach(e -> assertEquals(NUM_BATCHES * BATCH_SIZE, e.getProperty(COUNT)));
+    }
+
+    @Test
+    public void shouldRejectNonConcurrentMapFactory() {
+        // Given
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setConcurrent(true);
+        storeProperties.setMapFactory(SimpleMapFactory.class);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentMapImpl(getSchema(), storeProperties));
+    }
+
+    private static List<Element> getElements(final int threadId) {
+        final List<Element> elements = new ArrayList<>(BATCH_SIZE * 2);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            elements.add(new Entity.Builder()
+                    .group(BASIC_ENTITY)
+                    .vertex("A")
+                    .property(PROPERTY1, "p")
+                    .property(COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(BASIC_EDGE1)
+                    .source("A")
+                    .dest("B" + threadId)
+                    .directed(true)
+                    .property(PROPERTY1, "q")
+                    .property(COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+
+    private static void consume(final CloseableIterable<? extends Element> elements) {
+        for (final Element ignored : elements) {
+            // Iterate over all results
+        }
+    }
+
+    private static Graph getGraph() {
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setConcurrent(true);
+        return new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("concurrentGraph")
+                        .build())
+                .addSchema(getSchema())
+                .storeProperties(storeProperties)
+                .build();
+    }
+}
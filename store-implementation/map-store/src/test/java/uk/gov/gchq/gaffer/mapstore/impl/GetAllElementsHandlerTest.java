@@ -31,6 +31,7 @@ import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.graph.GraphConfig;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
@@ -45,6 +46,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -195,6 +197,46 @@ public class GetAllElementsHandlerTest {
         assertEquals(expectedResults, resultsSet);
     }
 
+    @Test
+    public void shouldOnlyCloneElementsThatPassTheFilters() throws OperationException {
+        // Given
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setMapFactory(CountingCloneMapFactory.class);
+        final Graph graph = new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId("countingCloneGraph")
+                        .build())
+                .addSchema(getSchema())
+                .storeProperties(storeProperties)
+                .build();
+        graph.execute(new AddElements.Builder()
+                .input(getElements())
+                .build(), new User());
+        CountingCloneMapFactory.CLONE_COUNT.set(0);
+
+        // When
+        final GetAllElements getAllElements = new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .edge(BASIC_EDGE1, new ViewElementDefinition.Builder()
+                                .preAggregationFilter(new ElementFilter.Builder()
+                                        .select(COUNT)
+                                        .execute(new IsMoreThan(5))
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+        final Set<Element> resultsSet = new HashSet<>();
+        Streams.toStream(graph.execute(getAllElements, new User())).forEach(resultsSet::add);
+
+        // Then
+        final Set<Element> expectedResults = new HashSet<>();
+        getElements().stream()
+                .filter(e -> e.getGroup().equals(BASIC_EDGE1) && ((int) e.getProperty(COUNT)) > 5)
+                .forEach(expectedResults::add);
+        assertEquals(expectedResults, resultsSet);
+        assertEquals(expectedResults.size(), CountingCloneMapFactory.CLONE_COUNT.get());
+    }
+
     @Test
     public void testGetAllElementsWithViewRestrictedByGroupAndAPostAggregationFilter() throws OperationException {
         // Given
@@ -503,4 +545,14 @@ public class GetAllElementsHandlerTest {
                 });
         return elements;
     }
+
+    public static final class CountingCloneMapFactory extends SimpleMapFactory {
+        private static final AtomicInteger CLONE_COUNT = new AtomicInteger();
+
+        @Override
+        public Element cloneElement(final Element element, final Schema schema) {
+            CLONE_COUNT.incrementAndGet();
+            return super.cloneElement(element, schema);
+        }
+    }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import com.google.common.collect.HashMultiset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_ENTITY;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.COUNT;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.getDuplicateElements;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.getElements;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.getSchema;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.getSchemaNoAggregation;
+
+public class MapImplSnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldLoadAggregatedElementsFromSnapshot() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        final MapStore store = createStore(getSchema(), properties);
+        final List<Element> elements = getElements();
+        elements.add(new Entity.Builder()
+                .group(BASIC_ENTITY)
+                .vertex("noProperty1")
+                .property(COUNT, 1)
+                .build());
+        addElements(store, elements);
+        final List<Element> expected = getAllElements(store);
+
+        // When
+        store.writeSnapshot();
+        final MapStore loadedStore = createStore(getSchema(), properties);
+
+        // Then
+        assertEquals(HashMultiset.create(expected), HashMultiset.create(getAllElements(loadedStore)));
+        assertEquals(HashMultiset.create(getRelatedElements(store, "A")), HashMultiset.create(getRelatedElements(loadedStore, "A")));
+    }
+
+    @Test
+    public void shouldAggregateElementsAddedAfterLoadingSnapshot() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        final MapStore store = createStore(getSchema(), properties);
+        addElements(store, getDuplicateElements());
+        store.writeSnapshot();
+        addElements(store, getDuplicateElements());
+        final List<Element> expected = getAllElements(store);
+
+        // When
+        final MapStore loadedStore = createStore(getSchema(), properties);
+        addElements(loadedStore, getDuplicateElements());
+
+        // Then
+        assertEquals(HashMultiset.create(expected), HashMultiset.create(getAllElements(loadedStore)));
+    }
+
+    @Test
+    public void shouldLoadNonAggregatedElementCountsFromSnapshot() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        final MapStore store = createStore(getSchemaNoAggregation(), properties);
+        addElements(store, getDuplicateElements());
+        final List<Element> expected = getAllElements(store);
+
+        // When
+        store.writeSnapshot();
+        final MapStore loadedStore = createStore(getSchemaNoAggregation(), properties);
+
+        // Then
+        final List<Element> results = getAllElements(loadedStore);
+        assertEquals(getDuplicateElements().size(), results.size());
+        assertEquals(HashMultiset.create(expected), HashMultiset.create(results));
+    }
+
+    @Test
+    public void shouldNotLoadSnapshotWrittenWithADifferentSchema() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        final MapStore store = createStore(getSchema(), properties);
+        addElements(store, getElements());
+        store.writeSnapshot();
+
+        // When
+        final MapStore loadedStore = createStore(getSchemaNoAggregation(), properties);
+
+        // Then
+        assertTrue(getAllElements(loadedStore).isEmpty());
+    }
+
+    @Test
+    public void shouldNotLoadMissingSnapshot() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        final MapImpl mapImpl = new MapImpl(getSchema(), properties);
+
+        // When
+        final boolean loaded = MapImplSnapshot.load(mapImpl, tempDir.resolve("missing"));
+
+        // Then
+        assertFalse(loaded);
+    }
+
+    @Test
+    public void shouldReplaceExistingSnapshot() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        final MapStore store = createStore(getSchema(), properties);
+        store.writeSnapshot();
+        addElements(store, getElements());
+
+        // When
+        store.writeSnapshot();
+
+        // Then
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(Collections.singletonList(tempDir.resolve("snapshot")), files.collect(Collectors.toList()));
+        }
+        assertEquals(HashMultiset.create(getAllElements(store)), HashMultiset.create(getAllElements(createStore(getSchema(), properties))));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenWritingSnapshotWithoutAPath() throws StoreException {
+        // Given
+        final MapStore store = createStore(getSchema(), new MapStoreProperties());
+
+        // When / Then
+        assertThrows(StoreException.class, store::writeSnapshot);
+    }
+
+    @Test
+    public void shouldNotScheduleSnapshotsWhenStoreIsNotConcurrent() {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        properties.setSnapshotInterval(60);
+
+        // When / Then
+        assertThrows(StoreException.class, () -> createStore(getSchema(), properties));
+    }
+
+    @Test
+    public void shouldStopScheduledSnapshotsOnShutdown() throws Exception {
+        // Given
+        final MapStoreProperties properties = getProperties();
+        properties.setConcurrent(true);
+        properties.setSnapshotInterval(1);
+        final MapStore store = createStore(getSchema(), properties);
+        addElements(store, getElements());
+
+        // When
+        store.shutdown();
+        Thread.sleep(1500);
+
+        // Then
+        assertFalse(Files.exists(tempDir.resolve("snapshot")));
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("MapStore snapshot - graph1")));
+    }
+
+    private MapStoreProperties getProperties() {
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setSnapshotPath(tempDir.resolve("snapshot").toString());
+        return properties;
+    }
+
+    private static MapStore createStore(final Schema schema, final MapStoreProperties properties) throws StoreException {
+        final MapStore store = new MapStore();
+        store.initialise("graph1", schema, properties);
+        return store;
+    }
+
+    private static void addElements(final MapStore store, final List<Element> elements) throws Exception {
+        store.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new Context(new User()));
+    }
+
+    private static List<Element> getAllElements(final MapStore store) throws Exception {
+        return toList(store.execute(new GetAllElements.Builder()
+                .view(getView(store))
+                .build(), new Context(new User())));
+    }
+
+    private static List<Element> getRelatedElements(final MapStore store, final String vertex) throws Exception {
+        return toList(store.execute(new GetElements.Builder()
+                .input(new EntitySeed(vertex))
+                .view(getView(store))
+                .build(), new Context(new User())));
+    }
+
+    private static View getView(final MapStore store) {
+        return new View.Builder()
+                .entities(store.getSchema().getEntityGroups())
+                .edges(store.getSchema().getEdgeGroups())
+                .build();
+    }
+
+    private static List<Element> toList(final CloseableIterable<? extends Element> elements) {
+        final List<Element> list = new ArrayList<>();
+        elements.forEach(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.multimap;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InternedMultiMapTest {
+    @Test
+    public void shouldPutAndGetValues() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+
+        // When
+        final boolean result1 = map.put("key1", "value1");
+        final boolean result2 = map.put("key1", "value2");
+        final boolean result3 = map.put("key2", "value1");
+
+        // Then
+        assertTrue(result1);
+        assertTrue(result2);
+        assertTrue(result3);
+        assertEquals(Sets.newHashSet("value1", "value2"), new HashSet<>(map.get("key1")));
+        assertEquals(Sets.newHashSet("value1"), new HashSet<>(map.get("key2")));
+        assertEquals(2, map.keyCount());
+        assertEquals(2, map.valueCount());
+    }
+
+    @Test
+    public void shouldNotAddDuplicateValuesForKey() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+        map.put("key1", "value1");
+
+        // When
+        final boolean result = map.put("key1", "value1");
+
+        // Then
+        assertFalse(result);
+        assertEquals(1, map.get("key1").size());
+    }
+
+    @Test
+    public void shouldReturnNullForMissingKey() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+        map.put("key1", "value1");
+
+        // When / Then
+        assertNull(map.get("key2"));
+    }
+
+    @Test
+    public void shouldPutCollectionOfValues() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+
+        // When
+        map.put("key1", Arrays.asList("value1", "value2", "value1"));
+
+        // Then
+        assertEquals(Sets.newHashSet("value1", "value2"), new HashSet<>(map.get("key1")));
+        assertTrue(map.get("key1").contains("value2"));
+        assertFalse(map.get("key1").contains("value3"));
+    }
+
+    @Test
+    public void shouldHandleManyKeysAndValues() {
+        // Given
+        final InternedMultiMap<Integer, Integer> map = new InternedMultiMap<>();
+        final int numKeys = 1000;
+        final int numValuesPerKey = 50;
+
+        // When
+        for (int key = 0; key < numKeys; key++) {
+            for (int value = numValuesPerKey - 1; value >= 0; value--) {
+                map.put(key, key + value);
+            }
+        }
+
+        // Then
+        assertEquals(numKeys, map.keyCount());
+        assertEquals(numKeys + numValuesPerKey - 1, map.valueCount());
+        for (int key = 0; key < numKeys; key++) {
+            final Set<Integer> expected = new HashSet<>();
+            for (int value = 0; value < numValuesPerKey; value++) {
+                expected.add(key + value);
+            }
+            assertEquals(expected, new HashSet<>(map.get(key)));
+        }
+    }
+
+    @Test
+    public void shouldReturnKeySet() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+        map.put("key1", "value1");
+        map.put("key2", "value2");
+
+        // When
+        final Set<String> keys = map.keySet();
+
+        // Then
+        assertEquals(Sets.newHashSet("key1", "key2"), keys);
+        assertTrue(keys.contains("key1"));
+        assertFalse(keys.contains("key3"));
+    }
+
+    @Test
+    public void shouldPutAllFromAnotherMultiMap() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+        final InternedMultiMap<String, String> otherMap = new InternedMultiMap<>();
+        otherMap.put("key1", "value1");
+        otherMap.put("key1", "value2");
+
+        // When
+        map.putAll(otherMap);
+
+        // Then
+        assertEquals(Sets.newHashSet("value1", "value2"), new HashSet<>(map.get("key1")));
+    }
+
+    @Test
+    public void shouldClearMap() {
+        // Given
+        final InternedMultiMap<String, String> map = new InternedMultiMap<>();
+        map.put("key1", "value1");
+
+        // When
+        map.clear();
+
+        // Then
+        assertNull(map.get("key1"));
+        assertEquals(0, map.keyCount());
+        assertEquals(0, map.valueCount());
+        assertTrue(map.keySet().isEmpty());
+    }
+}
@@ -23,13 +23,16 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.SparkSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.AddElementsHandler;
@@ -40,6 +43,7 @@ import uk.gov.gchq.gaffer.parquetstore.operation.handler.spark.GetDataFrameOfEle
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.spark.ImportJavaRDDOfElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.spark.ImportRDDOfElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.CalculatePartitioner;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.MergeIntoNewSnapshot;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.GroupPartitioner;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.Partition;
@@ -61,8 +65,10 @@ import uk.gov.gchq.gaffer.parquetstore.serialisation.impl.TreeSetStringParquetSe
 import uk.gov.gchq.gaffer.parquetstore.serialisation.impl.TypeSubTypeValueParquetSerialiser;
 import uk.gov.gchq.gaffer.parquetstore.serialisation.impl.TypeValueParquetSerialiser;
 import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
+import uk.gov.gchq.gaffer.parquetstore.utils.SparkParquetUtils;
 import uk.gov.gchq.gaffer.serialisation.Serialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.spark.SparkContextUtil;
 import uk.gov.gchq.gaffer.spark.operation.dataframe.GetDataFrameOfElements;
 import uk.gov.gchq.gaffer.spark.operation.javardd.ImportJavaRDDOfElements;
 import uk.gov.gchq.gaffer.spark.operation.scalardd.ImportRDDOfElements;
@@ -76,6 +82,7 @@ import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+import uk.gov.gchq.gaffer.store.util.ExecutorUtil;
 import uk.gov.gchq.koryphe.ValidationResult;
 
 import java.io.IOException;
@@ -85,6 +92,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import static uk.gov.gchq.gaffer.store.StoreTrait.INGEST_AGGREGATION;
@@ -106,6 +116,7 @@ public class ParquetStore extends Store {
     public static final String DESTINATION = IdentifierType.DESTINATION.name();
     public static final String DIRECTED = IdentifierType.DIRECTED.name();
     public static final String SNAPSHOT = "snapshot";
+    public static final String DELTA = "delta";
     public static final String REVERSED_EDGES = "reversedEdges";
     public static final String PARTITION = "partition";
     public static final int LENGTH_OF_PARTITION_NUMBER_IN_FILENAME = 7;
@@ -141,10 +152,13 @@ public class ParquetStore extends Store {
 //                    STORE_VALIDATION
             ));
 
-    private GraphPartitioner graphPartitioner;
-    private long currentSnapshot;
     private SchemaUtils schemaUtils;
     private FileSystem fs;
+    private volatile StoreSnapshot snapshot;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Lock compactionLock = new ReentrantLock();
+    private Future<Void> backgroundCompaction;
+    private SparkSession compactionSparkSession;
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties) throws StoreException {
@@ -176,30 +190,34 @@ public class ParquetStore extends Store {
         return SNAPSHOT + "=" + snapshot;
     }
 
+    public static String getDeltaPath(final long delta) {
+        return DELTA + "=" + delta;
+    }
+
     private void initialise() throws IOException, StoreException {
         // If data directory is empty or does not exist then this is the first time the store has been created.
         final Path dataDirPath = new Path(getDataDir());
         if (!fs.exists(dataDirPath) || 0 == fs.listStatus(dataDirPath).length) {
             LOGGER.info("Data directory {} doesn't exist or is empty so initialising directory structure", dataDirPath);
-            currentSnapshot = System.currentTimeMillis();
-            LOGGER.info("Initialising snapshot id to {}", currentSnapshot);
-            final Path snapshotPath = new Path(dataDirPath, getSnapshotPath(currentSnapshot));
+            final long initialSnapshot = System.currentTimeMillis();
+            LOGGER.info("Initialising snapshot id to {}", initialSnapshot);
+            final Path snapshotPath = new Path(dataDirPath, getSnapshotPath(initialSnapshot));
             LOGGER.info("Creating snapshot directory {}", snapshotPath);
             fs.mkdirs(snapshotPath);
             LOGGER.info("Creating group directories under {}", snapshotPath);
             for (final String group : getSchema().getGroups()) {
-                final Path groupDir = getGroupPath(group);
+                final Path groupDir = new Path(snapshotPath, getGroupSubDir(group, false));
                 fs.mkdirs(groupDir);
                 LOGGER.info("Created directory {}", groupDir);
             }
             LOGGER.info("Creating group directories for reversed edges under {}", snapshotPath);
             for (final String group : getSchema().getEdgeGroups()) {
-                final Path groupDir = getGroupPathForReversedEdges(group);
+                final Path groupDir = new Path(snapshotPath, getGroupSubDir(group, true));
                 fs.mkdirs(groupDir);
                 LOGGER.info("Created directory {}", groupDir);
             }
             LOGGER.info("Creating GraphPartitioner with 0 split points for each group");
-            graphPartitioner = new GraphPartitioner();
+            final GraphPartitioner graphPartitioner = new GraphPartitioner();
             for (final String group : getSchema().getGroups()) {
                 graphPartitioner.addGroupPartitioner(group, new GroupPartitioner(group, new ArrayList<>()));
             }
@@ -207,10 +225,11 @@ public class ParquetStore extends Store {
                 graphPartitioner.addGroupPartitionerForReversedEdges(group, new GroupPartitioner(group, new ArrayList<>()));
             }
             LOGGER.info("Writing GraphPartitioner to snapshot directory");
-            final FSDataOutputStream dataOutputStream = fs.create(getGraphPartitionerPath());
+            final Path graphPartitionerPath = getGraphPartitionerPath(initialSnapshot);
+            final FSDataOutputStream dataOutputStream = fs.create(graphPartitionerPath);
             new GraphPartitionerSerialiser().write(graphPartitioner, dataOutputStream);
             dataOutputStream.close();
-            LOGGER.info("Wrote GraphPartitioner to file {}", getGraphPartitionerPath().toString());
+            LOGGER.info("Wrote GraphPartitioner to file {}", graphPartitionerPath);
         } else {
             LOGGER.info("Data directory {} exists and is non-empty, validating a snapshot directory exists", dataDirPath);
             final FileStatus[] fileStatuses = fs.listStatus(dataDirPath, f -> f.getName().startsWith(SNAPSHOT + "="));
@@ -219,48 +238,40 @@ public class ParquetStore extends Store {
                 LOGGER.error("Data directory {} should contain a snapshot directory", dataDirPath);
                 throw new StoreException("Data directory should contain a snapshot directory");
             }
-            this.currentSnapshot = getLatestSnapshot();
-            LOGGER.info("Latest snapshot directory in data directory {} is {}", dataDirPath, this.currentSnapshot);
+            final long latestSnapshot = getLatestSnapshot();
+            LOGGER.info("Latest snapshot directory in data directory {} is {}", dataDirPath, latestSnapshot);
             LOGGER.info("Verifying snapshot directory contains the correct directories");
+            final Path snapshotPath = new Path(dataDirPath, getSnapshotPath(latestSnapshot));
             for (final String group : getSchema().getGroups()) {
-                final Path groupDir = getGroupPath(group);
+                final Path groupDir = new Path(snapshotPath, getGroupSubDir(group, false));
                 if (!fs.exists(groupDir)) {
                     LOGGER.error("Directory {} should exist", groupDir);
-                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(this.currentSnapshot));
+                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(latestSnapshot));
                 }
             }
             for (final String group : getSchema().getEdgeGroups()) {
-                final Path groupDir = getGroupPathForReversedEdges(group);
+                final Path groupDir = new Path(snapshotPath, getGroupSubDir(group, true));
                 if (!fs.exists(groupDir)) {
                     LOGGER.error("Directory {} should exist", groupDir);
-                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(this.currentSnapshot));
+                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(latestSnapshot));
                 }
             }
         }
     }
 
     public Path getGraphPartitionerPath() {
-        return new Path(getProperties().getDataDir() + "/" + SNAPSHOT + "=" + currentSnapshot, "graphPartitioner");
+        return getGraphPartitionerPath(snapshot.getId());
+    }
+
+    private Path getGraphPartitionerPath(final long snapshotId) {
+        return new Path(getProperties().getDataDir() + "/" + SNAPSHOT + "=" + snapshotId, "graphPartitioner");
     }
 
     private void loadGraphPartitioner() throws StoreException {
         final String dataDir = getDataDir();
         try {
             if (fs.exists(new Path(dataDir))) {
-                this.currentSnapshot = getLatestSnapshot(dataDir);
-                LOGGER.info("Setting currentSnapshot to {}", this.currentSnapshot);
-                final Path path = getGraphPartitionerPath();
-                if (!fs.exists(path)) {
-                    LOGGER.info("Graph partitioner does not exist in {} so creating it", path);
-                    final GraphPartitioner partitioner =
-                            new CalculatePartitioner(new Path(dataDir + "/" + getSnapshotPath(this.currentSnapshot)), getSchema(), fs).call();
-                    LOGGER.info("Writing graph partitioner to {}", path);
-                    final FSDataOutputStream stream = fs.create(path);
-                    new GraphPartitionerSerialiser().write(partitioner, stream);
-                    stream.close();
-                }
-                LOGGER.info("Loading graph partitioner from path {}", path);
-                loadGraphPartitioner(path);
+                loadSnapshot(getLatestSnapshot(dataDir));
             } else {
                 throw new StoreException("Data directory " + dataDir + " does not exist - store is in an inconsistent state");
             }
@@ -269,10 +280,50 @@ public class ParquetStore extends Store {
         }
     }
 
-    private void loadGraphPartitioner(final Path graphPartitionerPath) throws IOException {
+    /**
+     * Loads the graph partitioner and the deltas of the given snapshot and then publishes them as the current
+     * {@link StoreSnapshot}, so that queries never see the partitioner or deltas of one snapshot with the files of
+     * another.
+     *
+     * @param snapshotId the id of the snapshot
+     * @throws IOException if the graph partitioner or deltas could not be read
+     */
+    private void loadSnapshot(final long snapshotId) throws IOException {
+        final String dataDir = getDataDir();
+        LOGGER.info("Setting currentSnapshot to {}", snapshotId);
+        final Path path = getGraphPartitionerPath(snapshotId);
+        if (!fs.exists(path)) {
+            LOGGER.info("Graph partitioner does not exist in {} so creating it", path);
+            final GraphPartitioner partitioner =
+                    new CalculatePartitioner(new Path(dataDir + "/" + getSnapshotPath(snapshotId)), getSchema(), fs).call();
+            LOGGER.info("Writing graph partitioner to {}", path);
+            final FSDataOutputStream stream = fs.create(path);
+            new GraphPartitionerSerialiser().write(partitioner, stream);
+            stream.close();
+        }
+        LOGGER.info("Loading graph partitioner from path {}", path);
+        final GraphPartitioner graphPartitioner = loadGraphPartitioner(path);
+        final List<Long> deltas = loadDeltas(new Path(dataDir, getSnapshotPath(snapshotId)));
+        LOGGER.info("Found {} deltas in snapshot {}", deltas.size(), snapshotId);
+        this.snapshot = new StoreSnapshot(dataDir, snapshotId, graphPartitioner, deltas);
+    }
+
+    private GraphPartitioner loadGraphPartitioner(final Path graphPartitionerPath) throws IOException {
         final FSDataInputStream stream = fs.open(graphPartitionerPath);
-        this.graphPartitioner = new GraphPartitionerSerialiser().read(stream);
+        final GraphPartitioner graphPartitioner = new GraphPartitionerSerialiser().read(stream);
         stream.close();
+        return graphPartitioner;
+    }
+
+    private List<Long> loadDeltas(final Path snapshotDir) throws IOException {
+        // Deltas that are still being written end in -tmp and are ignored
+        final FileStatus[] fileStatuses = fs.listStatus(snapshotDir,
+                p -> p.getName().startsWith(DELTA + "=") && !p.getName().endsWith("-tmp"));
+        return Arrays.stream(fileStatuses)
+                .filter(FileStatus::isDirectory)
+                .map(f -> Long.parseLong(f.getPath().getName().replace(DELTA + "=", "")))
+                .sorted()
+                .collect(Collectors.toList());
     }
 
     public FileSystem getFS() {
@@ -301,11 +352,7 @@ public class ParquetStore extends Store {
     }
 
     public String getFile(final String group, final Integer partitionId) {
-        return getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/" + GROUP + "=" + group
-                + "/" + getFile(partitionId);
+        return snapshot.getFile(group, partitionId);
     }
 
     public static String getFile(final Integer partitionId) {
@@ -325,18 +372,26 @@ public class ParquetStore extends Store {
     }
 
     public String getFileForReversedEdges(final String group, final Integer partitionId) {
-        return getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + REVERSED_EDGES
-                + "/" + GROUP + "=" + group
-                + "/" + getFile(partitionId);
+        return snapshot.getFileForReversedEdges(group, partitionId);
+    }
+
+    /**
+     * Returns the delta files, ordered from oldest to newest, for the given partition file of the current snapshot.
+     * The files are not guaranteed to exist as a delta only contains files for the partitions that received data.
+     * Queries should use {@link StoreSnapshot#getDeltaFiles(String, String, boolean)} on the view returned by
+     * {@link #getSnapshot()} so that the deltas match the partition files they read.
+     *
+     * @param group    the group
+     * @param fileName the name of the partition file, e.g. as returned by {@link #getFile(Integer)}
+     * @param reversed whether the files for the reversed edges are required
+     * @return the paths of the delta files for the partition
+     */
+    public List<Path> getDeltaFiles(final String group, final String fileName, final boolean reversed) {
+        return snapshot.getDeltaFiles(group, fileName, reversed);
     }
 
     public List<Path> getFilesForGroup(final String group) throws IOException {
-        final Path dir = new Path(getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/" + GROUP + "=" + group);
+        final Path dir = snapshot.getGroupPath(group, false);
         final FileStatus[] files = fs.listStatus(dir, path -> path.getName().endsWith(".parquet"));
         return Arrays
                 .stream(files)
@@ -345,10 +400,7 @@ public class ParquetStore extends Store {
     }
 
     public Path getGroupPath(final String group) {
-        return new Path(getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/" + GROUP + "=" + group);
+        return snapshot.getGroupPath(group, false);
     }
 
     public static String getGroupSubDir(final String group, final boolean reversed) {
@@ -360,15 +412,16 @@ public class ParquetStore extends Store {
         if (!getSchema().getEdgeGroups().contains(group)) {
             throw new IllegalArgumentException("Invalid group: " + group + " is not an edge group");
         }
-        return new Path(getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + REVERSED_EDGES
-                + "/" + GROUP + "=" + group);
+        return snapshot.getGroupPath(group, true);
+    }
+
+    public Path getSnapshotDir() {
+        return snapshot.getSnapshotDir();
     }
 
     public String getGraphPath() {
         return getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
+                + "/" + getSnapshotPath(snapshot.getId())
                 + "/" + GRAPH
                 + "/";
     }
@@ -449,14 +502,18 @@ public class ParquetStore extends Store {
         }
 
         LOGGER.info("Setting currentSnapshot to {} and reloading graph partitioner", snapshot);
-        this.currentSnapshot = snapshot;
-        loadGraphPartitioner();
+        try {
+            loadSnapshot(snapshot);
+        } catch (final IOException e) {
+            throw new StoreException(e.getMessage(), e);
+        }
     }
 
     private long getLatestSnapshot(final String rootDir) throws StoreException {
         long latestSnapshot = 0L;
         try {
-            for (final FileStatus status : fs.listStatus(new Path(rootDir))) {
+            // Snapshots that are still being written end in -tmp and are ignored
+            for (final FileStatus status : fs.listStatus(new Path(rootDir), p -> !p.getName().endsWith("-tmp"))) {
                 final long currentSnapshot = Long.parseLong(status.getPath().getName().replace("snapshot=", ""));
                 if (latestSnapshot < currentSnapshot) {
                     latestSnapshot = currentSnapshot;
@@ -469,6 +526,226 @@ public class ParquetStore extends Store {
     }
 
     public GraphPartitioner getGraphPartitioner() {
-        return graphPartitioner;
+        return snapshot.getGraphPartitioner();
+    }
+
+    /**
+     * Returns the current immutable view of the snapshot, its graph partitioner and its deltas. A query should read
+     * this once and use it for all the files it reads.
+     *
+     * @return the current view of the store's data
+     */
+    public StoreSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the lock that must be held whilst the data in the store is being changed, i.e. whilst elements are
+     * being added or deltas are being compacted.
+     *
+     * @return the write lock
+     */
+    public Lock getWriteLock() {
+        return writeLock;
+    }
+
+    public List<Long> getDeltas() {
+        return snapshot.getDeltas();
+    }
+
+    /**
+     * Returns an id for a new delta. Ids are timestamps and are strictly increasing within a snapshot.
+     *
+     * @return the id for a new delta
+     */
+    public long getNextDeltaId() {
+        return snapshot.getNextDeltaId();
+    }
+
+    /**
+     * Adds a delta, which must already have been written, to the current snapshot. The caller must hold the write
+     * lock.
+     *
+     * @param delta the id of the delta
+     * @throws StoreException if the delta does not exist
+     */
+    public void addDelta(final long delta) throws StoreException {
+        final StoreSnapshot currentSnapshot = snapshot;
+        final Path deltaPath = currentSnapshot.getDeltaDir(delta);
+        try {
+            if (!fs.exists(deltaPath)) {
+                throw new StoreException(String.format("Failed adding delta: '%s' does not exist", deltaPath.toString()));
+            }
+        } catch (final IOException e) {
+            throw new StoreException("IOException checking Path: ", e);
+        }
+        LOGGER.info("Adding delta {} to snapshot {}", delta, currentSnapshot.getId());
+        this.snapshot = currentSnapshot.withDelta(delta);
+    }
+
+    /**
+     * Checks whether the deltas of the current snapshot have exceeded any of the thresholds on the number, total size
+     * or age of the deltas given in the {@link ParquetStoreProperties}.
+     *
+     * @return true if the deltas should be compacted
+     * @throws StoreException if the size of the deltas could not be calculated
+     */
+    public boolean isCompactionRequired() throws StoreException {
+        final StoreSnapshot currentSnapshot = snapshot;
+        final List<Long> currentDeltas = currentSnapshot.getDeltas();
+        if (currentDeltas.isEmpty()) {
+            return false;
+        }
+        final ParquetStoreProperties properties = getProperties();
+        if (currentDeltas.size() >= properties.getCompactionMaxDeltas()) {
+            LOGGER.info("Compaction required as there are {} deltas", currentDeltas.size());
+            return true;
+        }
+        final long age = System.currentTimeMillis() - currentDeltas.get(0);
+        if (age >= properties.getCompactionMaxDeltaAgeInMillis()) {
+            LOGGER.info("Compaction required as the oldest delta is {}ms old", age);
+            return true;
+        }
+        long size = 0L;
+        try {
+            for (final long delta : currentDeltas) {
+                size += fs.getContentSummary(currentSnapshot.getDeltaDir(delta)).getLength();
+            }
+        } catch (final IOException e) {
+            throw new StoreException("IOException calculating the size of the deltas", e);
+        }
+        if (size >= properties.getCompactionMaxDeltaSizeInBytes()) {
+            LOGGER.info("Compaction required as the deltas contain {} bytes", size);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Folds all deltas of the current snapshot into a new snapshot. The current snapshot remains available for
+     * queries whilst this runs.
+     * <p>
+     * If the caller does not hold the write lock, the deltas are compacted from a fixed view of the store without
+     * holding it, so elements can still be added. The write lock is then only taken to publish the new snapshot, and
+     * any deltas added in the meantime are copied into it. If the snapshot was replaced in the meantime, for example
+     * by a non-incremental add, the compacted snapshot is discarded. If the caller already holds the write lock the
+     * whole compaction runs under it.
+     *
+     * @param spark the {@link SparkSession} used to aggregate and sort the data
+     * @throws StoreException if the compaction failed
+     */
+    public void compactDeltas(final SparkSession spark) throws StoreException {
+        if (writeLock.isHeldByCurrentThread()) {
+            final StoreSnapshot currentSnapshot = snapshot;
+            if (!currentSnapshot.hasDeltas()) {
+                LOGGER.debug("Not compacting as there are no deltas in snapshot {}", currentSnapshot.getId());
+                return;
+            }
+            LOGGER.info("Compacting {} deltas in snapshot {}", currentSnapshot.getDeltas().size(), currentSnapshot.getId());
+            try {
+                new MergeIntoNewSnapshot(this, spark, currentSnapshot, getTempFilesDir()).call();
+            } catch (final OperationException e) {
+                throw new StoreException("Exception compacting deltas", e);
+            }
+            return;
+        }
+
+        compactionLock.lock();
+        try {
+            final StoreSnapshot snapshotToCompact = snapshot;
+            if (!snapshotToCompact.hasDeltas()) {
+                LOGGER.debug("Not compacting as there are no deltas in snapshot {}", snapshotToCompact.getId());
+                return;
+            }
+            LOGGER.info("Compacting {} deltas in snapshot {}", snapshotToCompact.getDeltas().size(), snapshotToCompact.getId());
+            // Temporary files for elements being added are deleted once each add completes, so a compaction that runs
+            // alongside adds needs its own directory
+            final MergeIntoNewSnapshot merge = new MergeIntoNewSnapshot(this, spark, snapshotToCompact,
+                    getTempFilesDir() + "-compaction");
+            final long newSnapshot = merge.writeSnapshot();
+            writeLock.lock();
+            try {
+                publishCompactedSnapshot(merge, snapshotToCompact, newSnapshot);
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (final OperationException e) {
+            throw new StoreException("Exception compacting deltas", e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private void publishCompactedSnapshot(final MergeIntoNewSnapshot merge,
+                                          final StoreSnapshot compactedSnapshot,
+                                          final long newSnapshot) throws StoreException, OperationException {
+        final StoreSnapshot currentSnapshot = snapshot;
+        final Path newSnapshotDir = merge.getTmpSnapshotDir(newSnapshot);
+        try {
+            if (currentSnapshot.getId() != compactedSnapshot.getId()) {
+                LOGGER.info("Discarding compaction of snapshot {} as it has been replaced by snapshot {}",
+                        compactedSnapshot.getId(), currentSnapshot.getId());
+                fs.delete(newSnapshotDir, true);
+                return;
+            }
+            for (final long delta : currentSnapshot.getDeltas()) {
+                if (!compactedSnapshot.getDeltas().contains(delta)) {
+                    LOGGER.info("Copying delta {}, added whilst compacting, to snapshot {}", delta, newSnapshot);
+                    FileUtil.copy(fs, currentSnapshot.getDeltaDir(delta), fs,
+                            new Path(newSnapshotDir, getDeltaPath(delta)), false, fs.getConf());
+                }
+            }
+        } catch (final IOException e) {
+            throw new StoreException("IOException publishing compacted snapshot", e);
+        }
+        merge.publishSnapshot(newSnapshot);
+    }
+
+    /**
+     * Compacts the deltas if {@link #isCompactionRequired()}. The compaction runs on the store's shared operation
+     * executor unless {@link ParquetStoreProperties#getCompactionInBackground()} is false. Only one background
+     * compaction is queued at a time. A background compaction uses a {@link SparkSession} owned by the store rather
+     * than the given one, which belongs to the operation that added the elements and may be stopped once that
+     * operation completes.
+     *
+     * @param spark the {@link SparkSession} used to aggregate and sort the data when compacting in the foreground
+     * @throws StoreException if the compaction failed (only when it runs in the foreground)
+     */
+    public void compactDeltasIfRequired(final SparkSession spark) throws StoreException {
+        if (!isCompactionRequired()) {
+            return;
+        }
+        if (!getProperties().getCompactionInBackground()) {
+            compactDeltas(spark);
+            return;
+        }
+        synchronized (this) {
+            if (null != backgroundCompaction && !backgroundCompaction.isDone()) {
+                LOGGER.debug("Not submitting a compaction of deltas as one is already waiting or running");
+                return;
+            }
+            LOGGER.info("Submitting compaction of deltas to run in the background");
+            // Nothing waits for the result, so if the executor has been shut down the compaction is not run
+            backgroundCompaction = ExecutorUtil.submit(getOperationExecutor(), () -> {
+                try {
+                    // Another compaction may have run whilst this one was queued
+                    if (isCompactionRequired()) {
+                        compactDeltas(getCompactionSparkSession());
+                    }
+                } catch (final StoreException | RuntimeException e) {
+                    LOGGER.error("Background compaction of deltas failed", e);
+                }
+                return null;
+            });
+        }
+    }
+
+    private synchronized SparkSession getCompactionSparkSession() {
+        if (null == compactionSparkSession) {
+            // A new session shares the SparkContext but not the SQL configuration of the other sessions
+            compactionSparkSession = SparkContextUtil.createSparkSession(getProperties()).newSession();
+            SparkParquetUtils.configureSparkForAddElements(compactionSparkSession, getProperties());
+        }
+        return compactionSparkSession;
     }
 }
@@ -45,6 +45,11 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
     public static final String SPARK_MASTER = "spark.master";
     public static final String PARQUET_SKIP_VALIDATION = "parquet.skip_validation";
     public static final String COMPRESSION_CODEC = "parquet.compression.codec";
+    public static final String PARQUET_ADD_ELEMENTS_INCREMENTAL = "parquet.add_elements.incremental";
+    public static final String PARQUET_COMPACTION_MAX_DELTAS = "parquet.compaction.max_deltas";
+    public static final String PARQUET_COMPACTION_MAX_DELTA_SIZE_IN_BYTES = "parquet.compaction.max_delta_size";
+    public static final String PARQUET_COMPACTION_MAX_DELTA_AGE_IN_MILLIS = "parquet.compaction.max_delta_age";
+    public static final String PARQUET_COMPACTION_IN_BACKGROUND = "parquet.compaction.background";
 
     // Default values - NB No default values for DATA_DIR or TEMP_FILES_DIR to
     // avoid the inadvertent storage of data in unexpected folders.
@@ -58,6 +63,11 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
     private static final String SPARK_MASTER_DEFAULT = "local[*]";
     private static final String PARQUET_SKIP_VALIDATION_DEFAULT = "false";
     private static final String COMPRESSION_CODEC_DEFAULT = "GZIP";
+    private static final String PARQUET_ADD_ELEMENTS_INCREMENTAL_DEFAULT = "false";
+    private static final String PARQUET_COMPACTION_MAX_DELTAS_DEFAULT = "10";
+    private static final String PARQUET_COMPACTION_MAX_DELTA_SIZE_IN_BYTES_DEFAULT = "1073741824"; //1GB
+    private static final String PARQUET_COMPACTION_MAX_DELTA_AGE_IN_MILLIS_DEFAULT = "86400000"; //1 day
+    private static final String PARQUET_COMPACTION_IN_BACKGROUND_DEFAULT = "true";
     private static final long serialVersionUID = 7695540336792378185L;
 
     public ParquetStoreProperties() {
@@ -155,6 +165,53 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
         set(PARQUET_SKIP_VALIDATION, String.valueOf(skipValidation));
     }
 
+    /**
+     * If true then {@link uk.gov.gchq.gaffer.operation.impl.add.AddElements} writes the new data as a sorted delta
+     * alongside the current snapshot rather than merging it with the existing data to form a new snapshot. Deltas are
+     * merged with the existing data when queried and are folded into a new snapshot by a compaction.
+     *
+     * @return true if elements should be added incrementally
+     */
+    public boolean getAddElementsIncremental() {
+        return Boolean.parseBoolean(get(PARQUET_ADD_ELEMENTS_INCREMENTAL, PARQUET_ADD_ELEMENTS_INCREMENTAL_DEFAULT));
+    }
+
+    public void setAddElementsIncremental(final boolean incremental) {
+        set(PARQUET_ADD_ELEMENTS_INCREMENTAL, String.valueOf(incremental));
+    }
+
+    public int getCompactionMaxDeltas() {
+        return Integer.parseInt(get(PARQUET_COMPACTION_MAX_DELTAS, PARQUET_COMPACTION_MAX_DELTAS_DEFAULT));
+    }
+
+    public void setCompactionMaxDeltas(final int maxDeltas) {
+        set(PARQUET_COMPACTION_MAX_DELTAS, String.valueOf(maxDeltas));
+    }
+
+    public long getCompactionMaxDeltaSizeInBytes() {
+        return Long.parseLong(get(PARQUET_COMPACTION_MAX_DELTA_SIZE_IN_BYTES, PARQUET_COMPACTION_MAX_DELTA_SIZE_IN_BYTES_DEFAULT));
+    }
+
+    public void setCompactionMaxDeltaSizeInBytes(final long maxDeltaSizeInBytes) {
+        set(PARQUET_COMPACTION_MAX_DELTA_SIZE_IN_BYTES, String.valueOf(maxDeltaSizeInBytes));
+    }
+
+    public long getCompactionMaxDeltaAgeInMillis() {
+        return Long.parseLong(get(PARQUET_COMPACTION_MAX_DELTA_AGE_IN_MILLIS, PARQUET_COMPACTION_MAX_DELTA_AGE_IN_MILLIS_DEFAULT));
+    }
+
+    public void setCompactionMaxDeltaAgeInMillis(final long maxDeltaAgeInMillis) {
+        set(PARQUET_COMPACTION_MAX_DELTA_AGE_IN_MILLIS, String.valueOf(maxDeltaAgeInMillis));
+    }
+
+    public boolean getCompactionInBackground() {
+        return Boolean.parseBoolean(get(PARQUET_COMPACTION_IN_BACKGROUND, PARQUET_COMPACTION_IN_BACKGROUND_DEFAULT));
+    }
+
+    public void setCompactionInBackground(final boolean compactionInBackground) {
+        set(PARQUET_COMPACTION_IN_BACKGROUND, String.valueOf(compactionInBackground));
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
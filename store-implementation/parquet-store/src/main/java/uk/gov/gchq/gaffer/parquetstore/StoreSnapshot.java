@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore;
+
+import org.apache.hadoop.fs.Path;
+
+import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable view of the data in a {@link ParquetStore}: the id of a snapshot, its {@link GraphPartitioner} and the
+ * deltas of the snapshot. The store publishes a new view whenever a snapshot or delta is added, so a query that reads
+ * the view once always sees a consistent set of files, even if the deltas are compacted whilst it runs.
+ */
+public final class StoreSnapshot {
+    private final String dataDir;
+    private final long id;
+    private final GraphPartitioner graphPartitioner;
+    private final List<Long> deltas;
+
+    public StoreSnapshot(final String dataDir,
+                         final long id,
+                         final GraphPartitioner graphPartitioner,
+                         final List<Long> deltas) {
+        this.dataDir = dataDir;
+        this.id = id;
+        this.graphPartitioner = graphPartitioner;
+        this.deltas = Collections.unmodifiableList(new ArrayList<>(deltas));
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public GraphPartitioner getGraphPartitioner() {
+        return graphPartitioner;
+    }
+
+    /**
+     * Returns the ids of the deltas of the snapshot, ordered from oldest to newest.
+     *
+     * @return the ids of the deltas
+     */
+    public List<Long> getDeltas() {
+        return deltas;
+    }
+
+    public boolean hasDeltas() {
+        return !deltas.isEmpty();
+    }
+
+    public Path getSnapshotDir() {
+        return new Path(dataDir, ParquetStore.getSnapshotPath(id));
+    }
+
+    public Path getGroupPath(final String group, final boolean reversed) {
+        return new Path(getSnapshotDir(), ParquetStore.getGroupSubDir(group, reversed));
+    }
+
+    public String getFile(final String group, final Integer partitionId) {
+        return getFile(group, partitionId, false);
+    }
+
+    public String getFileForReversedEdges(final String group, final Integer partitionId) {
+        return getFile(group, partitionId, true);
+    }
+
+    private String getFile(final String group, final Integer partitionId, final boolean reversed) {
+        return dataDir
+                + "/" + ParquetStore.getSnapshotPath(id)
+                + "/" + ParquetStore.getGroupSubDir(group, reversed)
+                + "/" + ParquetStore.getFile(partitionId);
+    }
+
+    public Path getDeltaDir(final long delta) {
+        return new Path(getSnapshotDir(), ParquetStore.getDeltaPath(delta));
+    }
+
+    /**
+     * Returns the group directories of the deltas, ordered from oldest to newest. The directories are not
+     * guaranteed to exist as a delta only contains data for the groups that were added to.
+     *
+     * @param group    the group
+     * @param reversed whether the directories for the reversed edges are required
+     * @return the group directories of the deltas
+     */
+    public List<Path> getDeltaGroupPaths(final String group, final boolean reversed) {
+        final List<Path> paths = new ArrayList<>(deltas.size());
+        for (final long delta : deltas) {
+            paths.add(new Path(getDeltaDir(delta), ParquetStore.getGroupSubDir(group, reversed)));
+        }
+        return paths;
+    }
+
+    /**
+     * Returns the delta files, ordered from oldest to newest, for the given partition file. The files are not
+     * guaranteed to exist as a delta only contains files for the partitions that received data.
+     *
+     * @param group    the group
+     * @param fileName the name of the partition file, e.g. as returned by {@link ParquetStore#getFile(Integer)}
+     * @param reversed whether the files for the reversed edges are required
+     * @return the paths of the delta files for the partition
+     */
+    public List<Path> getDeltaFiles(final String group, final String fileName, final boolean reversed) {
+        final List<Path> deltaFiles = new ArrayList<>(deltas.size());
+        for (final Path groupPath : getDeltaGroupPaths(group, reversed)) {
+            deltaFiles.add(new Path(groupPath, fileName));
+        }
+        return deltaFiles;
+    }
+
+    /**
+     * Returns an id for a new delta. Ids are timestamps and are strictly increasing within a snapshot.
+     *
+     * @return the id for a new delta
+     */
+    public long getNextDeltaId() {
+        final long now = System.currentTimeMillis();
+        return deltas.isEmpty() ? now : Math.max(now, deltas.get(deltas.size() - 1) + 1);
+    }
+
+    /**
+     * Returns a new view of the same snapshot with the given delta added.
+     *
+     * @param delta the id of the delta
+     * @return the new view
+     */
+    public StoreSnapshot withDelta(final long delta) {
+        final List<Long> newDeltas = new ArrayList<>(deltas);
+        newDeltas.add(delta);
+        return new StoreSnapshot(dataDir, id, graphPartitioner, newDeltas);
+    }
+
+    @Override
+    public String toString() {
+        return "StoreSnapshot{"
+                + "id=" + id
+                + ", deltas=" + deltas
+                + '}';
+    }
+}
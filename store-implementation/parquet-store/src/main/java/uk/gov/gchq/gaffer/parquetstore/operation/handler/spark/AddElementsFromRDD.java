@@ -73,13 +73,23 @@ public class AddElementsFromRDD {
     }
 
     void addElementsFromRDD(final JavaRDD<Element> input) throws OperationException {
-        writeInputData(input);
-        aggregateNewAndOldData();
-        sort();
-        sortEdgeGroupsByDestination();
-        calculateAndWritePartitioner();
-        createNewSnapshotDirectory();
-        deleteTempDirectory();
+        store.getWriteLock().lock();
+        try {
+            // The import only merges the new data with the base files of the current snapshot so any deltas are
+            // folded into a new snapshot first
+            store.compactDeltas(spark);
+            writeInputData(input);
+            aggregateNewAndOldData();
+            sort();
+            sortEdgeGroupsByDestination();
+            calculateAndWritePartitioner();
+            createNewSnapshotDirectory();
+            deleteTempDirectory();
+        } catch (final StoreException e) {
+            throw new OperationException("Exception compacting deltas before importing data", e);
+        } finally {
+            store.getWriteLock().unlock();
+        }
     }
 
     void addElementsFromRDD(final RDD<Element> input) throws OperationException {
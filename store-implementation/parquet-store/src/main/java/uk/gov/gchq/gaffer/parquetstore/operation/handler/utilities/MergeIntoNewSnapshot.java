@@ -0,0 +1,331 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.SparkSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.Option;
+
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
+import uk.gov.gchq.gaffer.parquetstore.StoreSnapshot;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.Partition;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.serialisation.GraphPartitionerSerialiser;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * For every group and partition, aggregates and sorts the data in the current snapshot (the base files and any
+ * deltas) together with optional new data, and then atomically creates a new snapshot containing the results. This is
+ * used both to add elements to a {@link ParquetStore} by rewriting the graph and to compact the deltas of a snapshot.
+ * <p>
+ * {@link #call()} writes and publishes the new snapshot and the caller must hold the store's write lock. A compaction
+ * can instead call {@link #writeSnapshot()} without the lock, as it only reads the fixed {@link StoreSnapshot} it was
+ * given, and then take the lock to call {@link #publishSnapshot(long)}.
+ */
+public class MergeIntoNewSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MergeIntoNewSnapshot.class);
+
+    private final ParquetStore store;
+    private final SparkSession spark;
+    private final BiFunction<String, Integer, String> newDataDirectory;
+    private final BiFunction<String, Integer, String> newDataDirectoryForReversedEdges;
+    private final StoreSnapshot snapshotToMerge;
+    private final String tmpDirectory;
+
+    /**
+     * Creates a task to merge the current snapshot, and optionally some new data, into a new snapshot.
+     *
+     * @param store                            the store
+     * @param spark                            the {@link SparkSession} used to aggregate and sort the data
+     * @param newDataDirectory                 maps a group and partition id to the directory containing the new data
+     *                                         for that partition, or null if there is no new data
+     * @param newDataDirectoryForReversedEdges maps a group and partition id to the directory containing the new data
+     *                                         for that partition of the reversed edges, or null if there is no new data
+     */
+    public MergeIntoNewSnapshot(final ParquetStore store,
+                                final SparkSession spark,
+                                final BiFunction<String, Integer, String> newDataDirectory,
+                                final BiFunction<String, Integer, String> newDataDirectoryForReversedEdges) {
+        this.store = store;
+        this.spark = spark;
+        this.newDataDirectory = newDataDirectory;
+        this.newDataDirectoryForReversedEdges = newDataDirectoryForReversedEdges;
+        this.snapshotToMerge = null;
+        this.tmpDirectory = store.getTempFilesDir();
+    }
+
+    /**
+     * Creates a task to compact the deltas of the given snapshot into a new snapshot.
+     *
+     * @param store           the store
+     * @param spark           the {@link SparkSession} used to aggregate and sort the data
+     * @param snapshotToMerge the view of the snapshot and deltas to compact
+     * @param tmpDirectory    the directory to write temporary files to, which is deleted once the data is in place
+     */
+    public MergeIntoNewSnapshot(final ParquetStore store,
+                                final SparkSession spark,
+                                final StoreSnapshot snapshotToMerge,
+                                final String tmpDirectory) {
+        this.store = store;
+        this.spark = spark;
+        this.newDataDirectory = null;
+        this.newDataDirectoryForReversedEdges = null;
+        this.snapshotToMerge = snapshotToMerge;
+        this.tmpDirectory = tmpDirectory;
+    }
+
+    /**
+     * Creates the new snapshot and sets it as the latest snapshot on the store.
+     *
+     * @return the id of the new snapshot
+     * @throws OperationException if the data could not be aggregated and sorted or the new snapshot could not be
+     *                            created
+     */
+    public long call() throws OperationException {
+        final long snapshot = writeSnapshot();
+        publishSnapshot(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Writes the new snapshot to a temporary directory, see {@link #getTmpSnapshotDir(long)}, but does not make it
+     * visible to the store.
+     *
+     * @return the id of the new snapshot
+     * @throws OperationException if the data could not be aggregated and sorted or the new snapshot could not be
+     *                            written
+     */
+    public long writeSnapshot() throws OperationException {
+        final FileSystem fs = store.getFS();
+        // Read the view of the current snapshot once so that the partitioner, base files and deltas are consistent
+        final StoreSnapshot currentSnapshot = null != snapshotToMerge ? snapshotToMerge : store.getSnapshot();
+        final GraphPartitioner currentGraphPartitioner = currentSnapshot.getGraphPartitioner();
+
+        // For every group and partition, aggregate the new data with the old data and then sort
+        final BiFunction<String, Integer, String> directoryForSortedResultsForGroupAndPartitionId = (group, partitionId) ->
+                tmpDirectory
+                        + "/sorted_new_old_merged"
+                        + "/group=" + group
+                        + "/partition=" + partitionId;
+        final BiFunction<String, Integer, String> directoryForSortedResultsForGroupAndPartitionIdForReversedEdges = (group, partitionId) ->
+                tmpDirectory
+                        + "/sorted_new_old_merged"
+                        + "/REVERSED-group=" + group
+                        + "/partition=" + partitionId;
+        final List<Callable<CallableResult>> tasks = new ArrayList<>();
+        for (final String group : store.getSchema().getGroups()) {
+            final List<Partition> partitions = currentGraphPartitioner.getGroupPartitioner(group).getPartitions();
+            for (final Partition partition : partitions) {
+                final List<String> inputFiles = new ArrayList<>();
+                // New data
+                if (null != newDataDirectory) {
+                    inputFiles.add(newDataDirectory.apply(group, partition.getPartitionId()));
+                }
+                // Old data
+                inputFiles.add(currentSnapshot.getFile(group, partition.getPartitionId()));
+                currentSnapshot.getDeltaFiles(group, ParquetStore.getFile(partition.getPartitionId()), false)
+                        .forEach(p -> inputFiles.add(p.toString()));
+                final String outputDir = directoryForSortedResultsForGroupAndPartitionId.apply(group, partition.getPartitionId());
+                final AggregateAndSortData task = new AggregateAndSortData(store.getSchemaUtils(), fs, inputFiles, outputDir,
+                        group, group + "-" + partition.getPartitionId(), false, store.getProperties().getCompressionCodecName(), spark);
+                tasks.add(task);
+                LOGGER.info("Created AggregateAndSortData task for group {}, partition {}", group, partition.getPartitionId());
+            }
+        }
+        for (final String group : store.getSchema().getEdgeGroups()) {
+            final List<Partition> partitions = currentGraphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitions();
+            for (final Partition partition : partitions) {
+                final List<String> inputFiles = new ArrayList<>();
+                // New data
+                if (null != newDataDirectoryForReversedEdges) {
+                    inputFiles.add(newDataDirectoryForReversedEdges.apply(group, partition.getPartitionId()));
+                }
+                // Old data
+                inputFiles.add(currentSnapshot.getFileForReversedEdges(group, partition.getPartitionId()));
+                currentSnapshot.getDeltaFiles(group, ParquetStore.getFile(partition.getPartitionId()), true)
+                        .forEach(p -> inputFiles.add(p.toString()));
+                final String outputDir = directoryForSortedResultsForGroupAndPartitionIdForReversedEdges.apply(group, partition.getPartitionId());
+                final AggregateAndSortData task = new AggregateAndSortData(store.getSchemaUtils(), fs, inputFiles, outputDir,
+                        group, "reversed-" + group + "-" + partition.getPartitionId(), true, store.getProperties().getCompressionCodecName(), spark);
+                tasks.add(task);
+                LOGGER.info("Created AggregateAndSortData task for reversed edge group {}, partition {}", group, partition.getPartitionId());
+            }
+        }
+        invokeAll(spark, store.getProperties(), tasks);
+
+        try {
+            // Move results to a new snapshot directory (the -tmp at the end allows us to add data to the directory,
+            // and then when this is all finished we rename the directory to remove the -tmp; this allows us to make
+            // the replacement of the old data with the new data an atomic operation and ensures that a get operation
+            // against the store will not read the directory when only some of the data has been moved there).
+            final long snapshot = Math.max(System.currentTimeMillis(), currentSnapshot.getId() + 1);
+            final Path newDataDir = getTmpSnapshotDir(snapshot);
+            LOGGER.info("Moving aggregated and sorted data to new snapshot directory {}", newDataDir);
+            fs.mkdirs(newDataDir);
+            for (final String group : store.getSchema().getGroups()) {
+                final Path groupDir = new Path(newDataDir, ParquetStore.getGroupSubDir(group, false));
+                fs.mkdirs(groupDir);
+                LOGGER.info("Created directory {}", groupDir);
+            }
+            for (final String group : store.getSchema().getEdgeGroups()) {
+                final Path groupDir = new Path(newDataDir, ParquetStore.getGroupSubDir(group, true));
+                fs.mkdirs(groupDir);
+                LOGGER.info("Created directory {}", groupDir);
+            }
+            for (final String group : store.getSchema().getGroups()) {
+                final Path groupDir = new Path(newDataDir, ParquetStore.getGroupSubDir(group, false));
+                final List<Partition> partitions = currentGraphPartitioner.getGroupPartitioner(group).getPartitions();
+                for (final Partition partition : partitions) {
+                    final Path outputDir = new Path(directoryForSortedResultsForGroupAndPartitionId.apply(group, partition.getPartitionId()));
+                    moveSortedFile(fs, outputDir, groupDir, partition.getPartitionId());
+                }
+            }
+            for (final String group : store.getSchema().getEdgeGroups()) {
+                final Path groupDir = new Path(newDataDir, ParquetStore.getGroupSubDir(group, true));
+                final List<Partition> partitions = currentGraphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitions();
+                for (final Partition partition : partitions) {
+                    final Path outputDir = new Path(directoryForSortedResultsForGroupAndPartitionIdForReversedEdges.apply(group, partition.getPartitionId()));
+                    moveSortedFile(fs, outputDir, groupDir, partition.getPartitionId());
+                }
+            }
+
+            // Delete temporary data directory
+            LOGGER.info("Deleting temporary directory {}", tmpDirectory);
+            fs.delete(new Path(tmpDirectory), true);
+            // Write out graph partitioner (unchanged from previous one)
+            final Path newGraphPartitionerPath = new Path(newDataDir, "graphPartitioner");
+            final FSDataOutputStream stream = fs.create(newGraphPartitionerPath);
+            LOGGER.info("Writing graph partitioner to {}", newGraphPartitionerPath);
+            new GraphPartitionerSerialiser().write(currentGraphPartitioner, stream);
+            stream.close();
+            return snapshot;
+        } catch (final IOException e) {
+            throw new OperationException("IOException moving results files into new snapshot directory", e);
+        }
+    }
+
+    /**
+     * Renames the directory written by {@link #writeSnapshot()} to remove the -tmp suffix and sets the new snapshot
+     * as the latest snapshot on the store. The caller must hold the store's write lock.
+     *
+     * @param snapshot the id of the new snapshot
+     * @throws OperationException if the new snapshot could not be published
+     */
+    public void publishSnapshot(final long snapshot) throws OperationException {
+        try {
+            // Move snapshot-tmp directory to snapshot
+            final Path directoryWithoutTmp = new Path(store.getDataDir(), ParquetStore.getSnapshotPath(snapshot));
+            LOGGER.info("Renaming {} to {}", getTmpSnapshotDir(snapshot), directoryWithoutTmp);
+            store.getFS().rename(getTmpSnapshotDir(snapshot), directoryWithoutTmp);
+            // Set snapshot on store to new value
+            LOGGER.info("Updating latest snapshot on store to {}", snapshot);
+            store.setLatestSnapshot(snapshot);
+        } catch (final IOException | StoreException e) {
+            throw new OperationException("IOException moving new snapshot directory into place", e);
+        }
+    }
+
+    /**
+     * Returns the directory that {@link #writeSnapshot()} writes the new snapshot to before it is published.
+     *
+     * @param snapshot the id of the new snapshot
+     * @return the temporary directory of the new snapshot
+     */
+    public Path getTmpSnapshotDir(final long snapshot) {
+        return new Path(store.getDataDir(), ParquetStore.getSnapshotPath(snapshot) + "-tmp");
+    }
+
+    /**
+     * Moves the single Parquet file of sorted data in the given directory to the file for the given partition in
+     * the destination directory. Nothing is moved if the directory does not exist, i.e. if the partition is empty.
+     *
+     * @param fs             the file system
+     * @param sortedDir      the directory containing the sorted data for the partition
+     * @param destinationDir the group directory to move the file to
+     * @param partitionId    the id of the partition
+     * @throws IOException        if the file could not be moved
+     * @throws OperationException if the directory does not contain exactly one Parquet file
+     */
+    static void moveSortedFile(final FileSystem fs,
+                               final Path sortedDir,
+                               final Path destinationDir,
+                               final int partitionId) throws IOException, OperationException {
+        if (!fs.exists(sortedDir)) {
+            LOGGER.info("Not moving data for partition id {} as the outputDir {} does not exist", partitionId, sortedDir);
+            return;
+        }
+        // One .parquet file and one .parquet.crc file
+        final FileStatus[] status = fs.listStatus(sortedDir, path -> path.getName().endsWith(".parquet"));
+        if (1 != status.length) {
+            LOGGER.error("Didn't find one Parquet file in path {} (found {} files)", sortedDir, status.length);
+            throw new OperationException("Expected to find one Parquet file in path " + sortedDir
+                    + " (found " + status.length + " files)");
+        }
+        final Path destination = new Path(destinationDir, ParquetStore.getFile(partitionId));
+        LOGGER.info("Renaming {} to {}", status[0].getPath(), destination);
+        fs.rename(status[0].getPath(), destination);
+    }
+
+    static void invokeAll(final SparkSession spark,
+                          final ParquetStoreProperties storeProperties,
+                          final List<Callable<CallableResult>> tasks) throws OperationException {
+        final ExecutorService threadPool = createThreadPool(spark, storeProperties);
+        try {
+            LOGGER.info("Invoking {} AggregateAndSortData tasks", tasks.size());
+            final List<Future<CallableResult>> futures = threadPool.invokeAll(tasks);
+            for (final Future<CallableResult> future : futures) {
+                final CallableResult result = future.get();
+                LOGGER.info("Result {} from task", result);
+            }
+        } catch (final InterruptedException e) {
+            throw new OperationException("InterruptedException running AggregateAndSortData tasks", e);
+        } catch (final ExecutionException e) {
+            throw new OperationException("ExecutionException running AggregateAndSortData tasks", e);
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    private static ExecutorService createThreadPool(final SparkSession spark, final ParquetStoreProperties storeProperties) {
+        final int numberOfThreads;
+        final Option<String> sparkDriverCores = spark.conf().getOption("spark.driver.cores");
+        if (sparkDriverCores.nonEmpty()) {
+            numberOfThreads = Integer.parseInt(sparkDriverCores.get());
+        } else {
+            numberOfThreads = storeProperties.getThreadsAvailable();
+        }
+        LOGGER.debug("Created thread pool of size {}", numberOfThreads);
+        return Executors.newFixedThreadPool(numberOfThreads);
+    }
+}
@@ -98,7 +98,7 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
                     final List<RetrieveElementsFromFile> tasks = new ArrayList<>();
                     tasks.addAll(parquetQuery.getAllParquetFileQueries()
                             .stream()
-                            .map(entry -> new RetrieveElementsFromFile(entry.getFile(), entry.getFilter(),
+                            .map(entry -> new RetrieveElementsFromFile(entry.getFile(), entry.getDeltaFiles(), entry.getFilter(),
                                     store.getSchema(), queue, !entry.isFullyApplied(),
                                     store.getProperties().getSkipValidation(), view, user))
                             .collect(Collectors.toList()));
@@ -28,18 +28,30 @@ import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.ElementVisibility;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.VisibilityEvaluator;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.exception.VisibilityParseException;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
 import uk.gov.gchq.gaffer.parquetstore.io.reader.ParquetElementReader;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
 import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
 import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -50,8 +62,11 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  */
 public class RetrieveElementsFromFile implements Callable<OperationException> {
     private static final Logger LOGGER = LoggerFactory.getLogger(RetrieveElementsFromFile.class);
+    private static final Set<String> IDENTIFIER_COLUMNS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ParquetStore.VERTEX, ParquetStore.SOURCE, ParquetStore.DESTINATION, ParquetStore.DIRECTED)));
 
     private final Path filePath;
+    private final List<Path> deltaFiles;
     private final FilterPredicate filter;
     private final byte[] jsonGafferSchema;
     private transient SchemaUtils schemaUtils;
@@ -65,6 +80,7 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
     private final Schema gafferSchema;
     private final Authorisations auths;
     private final String visibility;
+    private boolean warnedOutOfOrder;
 
     public RetrieveElementsFromFile(final Path filePath,
                                     final FilterPredicate filter,
@@ -74,8 +90,39 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
                                     final boolean skipValidation,
                                     final View view,
                                     final User user) {
-        LOGGER.info("Creating RetrieveElementsFromFile for path {} with predicate {}", filePath, filter);
+        this(filePath, Collections.emptyList(), filter, gafferSchema, queue, needsValidatorsAndFiltersApplying,
+                skipValidation, view, user);
+    }
+
+    /**
+     * Creates a task that reads a partition file and the delta files for the same partition. The elements from the
+     * delta files are aggregated with the elements from the partition file using the schema's ingest aggregation
+     * before any validation or filtering is applied. As all the files are sorted, they are merged in sorted order
+     * and only the elements with the same key are held in memory.
+     *
+     * @param filePath                          the partition file
+     * @param deltaFiles                        the delta files for the partition (may be empty)
+     * @param filter                            the filter to apply when reading the files
+     * @param gafferSchema                      the schema
+     * @param queue                             the queue to add the results to
+     * @param needsValidatorsAndFiltersApplying whether the validators and the view's filters need to be applied
+     * @param skipValidation                    whether to skip validation
+     * @param view                              the view
+     * @param user                              the user
+     */
+    public RetrieveElementsFromFile(final Path filePath,
+                                    final List<Path> deltaFiles,
+                                    final FilterPredicate filter,
+                                    final Schema gafferSchema,
+                                    final ConcurrentLinkedQueue<Element> queue,
+                                    final boolean needsValidatorsAndFiltersApplying,
+                                    final boolean skipValidation,
+                                    final View view,
+                                    final User user) {
+        LOGGER.info("Creating RetrieveElementsFromFile for path {} (and {} delta files) with predicate {}",
+                filePath, deltaFiles.size(), filter);
         this.filePath = filePath;
+        this.deltaFiles = deltaFiles;
         this.filter = filter;
         this.jsonGafferSchema = gafferSchema.toCompactJson();
         this.gafferSchema = gafferSchema;
@@ -113,27 +160,220 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
         if (null == schemaUtils) {
             schemaUtils = new SchemaUtils(Schema.fromJson(jsonGafferSchema));
         }
+        if (!deltaFiles.isEmpty()) {
+            return mergeWithDeltas();
+        }
         try {
-            final ParquetReader<Element> fileReader = openParquetReader();
+            final ParquetReader<Element> fileReader = openParquetReader(filePath);
             Element e = fileReader.read();
             while (null != e) {
-                if (!visibility.isEmpty()) {
-                    if (isVisible(e)) {
-                        if (needsValidatorsAndFiltersApplying) {
-                            final String group = e.getGroup();
-                            final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
-                            if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
-                                if (elementFilter == null || elementFilter.test(e)) {
-                                    ViewUtil.removeProperties(view, e);
-                                    queue.add(e);
-                                }
-                            }
-                        } else {
-                            ViewUtil.removeProperties(view, e);
-                            queue.add(e);
-                        }
+                addToQueueIfRequired(e);
+                e = fileReader.read();
+            }
+            fileReader.close();
+        } catch (final IOException ignore) {
+            // ignore as this file does not exist
+            LOGGER.debug("IOException reading file {}", filePath, ignore);
+        }
+        return null;
+    }
+
+    private OperationException mergeWithDeltas() throws VisibilityParseException {
+        final GafferGroupObjectConverter converter = schemaUtils.getConverter(group);
+        final List<String> keyColumns = getSortKeyColumns(isReversedEdgesFile(filePath));
+        final AggregatorUtil.ToIngestElementKey toKey = new AggregatorUtil.ToIngestElementKey(gafferSchema);
+        final AggregatorUtil.IngestElementBinaryOperator aggregator = new AggregatorUtil.IngestElementBinaryOperator(gafferSchema);
+        final List<Path> files = new ArrayList<>(1 + deltaFiles.size());
+        files.add(filePath);
+        files.addAll(deltaFiles);
+        // The partition file and its deltas are all sorted by the same columns, so they are merged in that order and
+        // only the elements with the same key are held in memory whilst they are aggregated
+        final List<SortedFileReader> readers = new ArrayList<>(files.size());
+        final PriorityQueue<SortedFileReader> heads = new PriorityQueue<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                final SortedFileReader reader = openSortedFileReader(files.get(i), i, converter, keyColumns);
+                if (null != reader) {
+                    readers.add(reader);
+                    heads.add(reader);
+                }
+            }
+            final Map<Element, Element> elementsWithKey = new LinkedHashMap<>();
+            while (!heads.isEmpty()) {
+                final Object[] key = heads.peek().getKey();
+                while (!heads.isEmpty() && 0 == compareKeys(heads.peek().getKey(), key)) {
+                    final SortedFileReader reader = heads.poll();
+                    final Element e = reader.getElement();
+                    elementsWithKey.merge(toKey.apply(e), e, aggregator);
+                    if (reader.next()) {
+                        heads.add(reader);
                     }
-                } else if (needsValidatorsAndFiltersApplying) {
+                }
+                for (final Element e : elementsWithKey.values()) {
+                    addToQueueIfRequired(e);
+                }
+                elementsWithKey.clear();
+            }
+        } catch (final IOException e) {
+            return new OperationException("IOException reading file " + filePath + " and its delta files", e);
+        } finally {
+            for (final SortedFileReader reader : readers) {
+                reader.close();
+            }
+        }
+        return null;
+    }
+
+    // Returns null if the file does not exist (the partition may only contain data in the deltas, and a delta only
+    // contains files for the partitions that received data) or contains no elements that match the filter
+    private SortedFileReader openSortedFileReader(final Path path,
+                                                  final int index,
+                                                  final GafferGroupObjectConverter converter,
+                                                  final List<String> keyColumns) throws SerialisationException {
+        final ParquetReader<Element> fileReader;
+        final Element first;
+        try {
+            fileReader = openParquetReader(path);
+        } catch (final IOException e) {
+            LOGGER.debug("Skipping file {} as it could not be opened", path, e);
+            return null;
+        }
+        try {
+            first = fileReader.read();
+        } catch (final IOException e) {
+            LOGGER.debug("Skipping file {} as it could not be read", path, e);
+            closeQuietly(path, fileReader);
+            return null;
+        }
+        if (null == first) {
+            closeQuietly(path, fileReader);
+            return null;
+        }
+        try {
+            return new SortedFileReader(path, index, fileReader, converter, keyColumns, first);
+        } catch (final SerialisationException e) {
+            closeQuietly(path, fileReader);
+            throw e;
+        }
+    }
+
+    private static boolean isReversedEdgesFile(final Path path) {
+        final Path groupDir = path.getParent();
+        return null != groupDir && null != groupDir.getParent()
+                && ParquetStore.REVERSED_EDGES.equals(groupDir.getParent().getName());
+    }
+
+    // The Gaffer columns that the files of the group are sorted by, see SchemaUtils#columnsToSortBy
+    private List<String> getSortKeyColumns(final boolean reversed) {
+        final List<String> columns = new ArrayList<>();
+        if (schemaUtils.getEntityGroups().contains(group)) {
+            columns.add(ParquetStore.VERTEX);
+        } else if (reversed) {
+            columns.add(ParquetStore.DESTINATION);
+            columns.add(ParquetStore.SOURCE);
+            columns.add(ParquetStore.DIRECTED);
+        } else {
+            columns.add(ParquetStore.SOURCE);
+            columns.add(ParquetStore.DESTINATION);
+            columns.add(ParquetStore.DIRECTED);
+        }
+        for (final String property : gafferSchema.getElement(group).getGroupBy()) {
+            final String[] paths = schemaUtils.getPaths(group, property);
+            if (null != paths && paths.length > 0) {
+                columns.add(property);
+            }
+        }
+        return columns;
+    }
+
+    private static Object[] getSortKey(final GafferGroupObjectConverter converter,
+                                       final List<String> keyColumns,
+                                       final Element element) throws SerialisationException {
+        final List<Object> key = new ArrayList<>();
+        for (final String column : keyColumns) {
+            final Object value = IDENTIFIER_COLUMNS.contains(column)
+                    ? element.getIdentifier(IdentifierType.valueOf(column))
+                    : element.getProperty(column);
+            Collections.addAll(key, converter.gafferObjectToParquetObjects(column, value));
+        }
+        return key.toArray();
+    }
+
+    // Compares keys in the same order as Spark sorts the Parquet columns: nulls first, strings and byte arrays by
+    // their unsigned bytes and other values by their natural ordering
+    static int compareKeys(final Object[] key1, final Object[] key2) {
+        final int length = Math.min(key1.length, key2.length);
+        for (int i = 0; i < length; i++) {
+            final int result = compareValues(key1[i], key2[i]);
+            if (0 != result) {
+                return result;
+            }
+        }
+        return Integer.compare(key1.length, key2.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(final Object value1, final Object value2) {
+        if (value1 == value2) {
+            return 0;
+        }
+        if (null == value1) {
+            return -1;
+        }
+        if (null == value2) {
+            return 1;
+        }
+        if (value1 instanceof String && value2 instanceof String) {
+            return compareStrings((String) value1, (String) value2);
+        }
+        if (value1 instanceof byte[] && value2 instanceof byte[]) {
+            return compareBytes((byte[]) value1, (byte[]) value2);
+        }
+        if (value1 instanceof Comparable && value1.getClass().equals(value2.getClass())) {
+            return ((Comparable<Object>) value1).compareTo(value2);
+        }
+        return value1.getClass().getName().compareTo(value2.getClass().getName());
+    }
+
+    // Comparing code points gives the same order as comparing the UTF-8 bytes
+    private static int compareStrings(final String value1, final String value2) {
+        int i = 0;
+        int j = 0;
+        while (i < value1.length() && j < value2.length()) {
+            final int codePoint1 = value1.codePointAt(i);
+            final int codePoint2 = value2.codePointAt(j);
+            if (codePoint1 != codePoint2) {
+                return Integer.compare(codePoint1, codePoint2);
+            }
+            i += Character.charCount(codePoint1);
+            j += Character.charCount(codePoint2);
+        }
+        return Integer.compare(value1.length() - i, value2.length() - j);
+    }
+
+    private static int compareBytes(final byte[] value1, final byte[] value2) {
+        final int length = Math.min(value1.length, value2.length);
+        for (int i = 0; i < length; i++) {
+            final int result = Integer.compare(value1[i] & 0xff, value2[i] & 0xff);
+            if (0 != result) {
+                return result;
+            }
+        }
+        return Integer.compare(value1.length, value2.length);
+    }
+
+    private static void closeQuietly(final Path path, final ParquetReader<Element> fileReader) {
+        try {
+            fileReader.close();
+        } catch (final IOException e) {
+            LOGGER.debug("IOException closing file {}", path, e);
+        }
+    }
+
+    private void addToQueueIfRequired(final Element e) throws VisibilityParseException {
+        if (!visibility.isEmpty()) {
+            if (isVisible(e)) {
+                if (needsValidatorsAndFiltersApplying) {
                     final String group = e.getGroup();
                     final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
                     if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
@@ -146,28 +386,34 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
                     ViewUtil.removeProperties(view, e);
                     queue.add(e);
                 }
-                e = fileReader.read();
             }
-            fileReader.close();
-        } catch (final IOException ignore) {
-            LOGGER.error("IOException reading file", ignore);
-            // ignore as this file does not exist
+        } else if (needsValidatorsAndFiltersApplying) {
+            final String group = e.getGroup();
+            final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
+            if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
+                if (elementFilter == null || elementFilter.test(e)) {
+                    ViewUtil.removeProperties(view, e);
+                    queue.add(e);
+                }
+            }
+        } else {
+            ViewUtil.removeProperties(view, e);
+            queue.add(e);
         }
-        return null;
     }
 
-    private ParquetReader<Element> openParquetReader() throws IOException {
+    private ParquetReader<Element> openParquetReader(final Path path) throws IOException {
         final boolean isEntity = schemaUtils.getEntityGroups().contains(group);
         final GafferGroupObjectConverter converter = schemaUtils.getConverter(group);
-        LOGGER.debug("Opening a new Parquet reader for file {}", filePath);
+        LOGGER.debug("Opening a new Parquet reader for file {}", path);
         if (null != filter) {
-            return new ParquetElementReader.Builder<Element>(filePath)
+            return new ParquetElementReader.Builder<Element>(path)
                     .isEntity(isEntity)
                     .usingConverter(converter)
                     .withFilter(FilterCompat.get(filter))
                     .build();
         } else {
-            return new ParquetElementReader.Builder<Element>(filePath)
+            return new ParquetElementReader.Builder<Element>(path)
                     .isEntity(isEntity)
                     .usingConverter(converter)
                     .build();
@@ -184,4 +430,77 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
             return true;
         }
     }
+
+    /**
+     * Reads a sorted file, holding the next element and its sort key. Readers are ordered by their next key and then
+     * by their index, so that elements from the partition file are aggregated before those from older deltas, which
+     * are aggregated before those from newer deltas.
+     */
+    private final class SortedFileReader implements Comparable<SortedFileReader> {
+        private final Path path;
+        private final int index;
+        private final ParquetReader<Element> fileReader;
+        private final GafferGroupObjectConverter converter;
+        private final List<String> keyColumns;
+        private Element element;
+        private Object[] key;
+
+        private SortedFileReader(final Path path,
+                                 final int index,
+                                 final ParquetReader<Element> fileReader,
+                                 final GafferGroupObjectConverter converter,
+                                 final List<String> keyColumns,
+                                 final Element first) throws SerialisationException {
+            this.path = path;
+            this.index = index;
+            this.fileReader = fileReader;
+            this.converter = converter;
+            this.keyColumns = keyColumns;
+            this.element = first;
+            this.key = getSortKey(converter, keyColumns, first);
+        }
+
+        private Element getElement() {
+            return element;
+        }
+
+        private Object[] getKey() {
+            return key;
+        }
+
+        private boolean next() throws IOException {
+            element = fileReader.read();
+            if (null == element) {
+                return false;
+            }
+            final Object[] previousKey = key;
+            key = getSortKey(converter, keyColumns, element);
+            if (!warnedOutOfOrder && compareKeys(key, previousKey) < 0) {
+                warnedOutOfOrder = true;
+                LOGGER.warn("File {} is not sorted by {} so some elements may not be aggregated with the elements "
+                        + "in the other files of the partition", path, keyColumns);
+            }
+            return true;
+        }
+
+        private void close() {
+            closeQuietly(path, fileReader);
+        }
+
+        @Override
+        public int compareTo(final SortedFileReader other) {
+            final int result = compareKeys(key, other.key);
+            return 0 != result ? result : Integer.compare(index, other.index);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
 }
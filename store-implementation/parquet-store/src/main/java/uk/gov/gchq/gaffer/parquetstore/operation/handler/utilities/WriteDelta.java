@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.SparkSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.StoreSnapshot;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.Partition;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+
+/**
+ * Aggregates and sorts new data that has been split by group and partition (using the current partitioner) and
+ * writes it to a new delta directory within the current snapshot. Only the partitions that received new data are
+ * processed, and the existing data is not read, so the cost is proportional to the size of the new data. The caller
+ * must hold the store's write lock.
+ */
+public class WriteDelta {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteDelta.class);
+
+    private final ParquetStore store;
+    private final SparkSession spark;
+    private final BiFunction<String, Integer, String> newDataDirectory;
+    private final BiFunction<String, Integer, String> newDataDirectoryForReversedEdges;
+
+    public WriteDelta(final ParquetStore store,
+                      final SparkSession spark,
+                      final BiFunction<String, Integer, String> newDataDirectory,
+                      final BiFunction<String, Integer, String> newDataDirectoryForReversedEdges) {
+        this.store = store;
+        this.spark = spark;
+        this.newDataDirectory = newDataDirectory;
+        this.newDataDirectoryForReversedEdges = newDataDirectoryForReversedEdges;
+    }
+
+    /**
+     * Writes the delta and adds it to the store.
+     *
+     * @return the id of the new delta
+     * @throws OperationException if the data could not be aggregated and sorted or the delta could not be created
+     */
+    public long call() throws OperationException {
+        final FileSystem fs = store.getFS();
+        final StoreSnapshot currentSnapshot = store.getSnapshot();
+        final GraphPartitioner currentGraphPartitioner = currentSnapshot.getGraphPartitioner();
+        final String tmpDirectory = store.getTempFilesDir();
+
+        final BiFunction<String, Integer, String> directoryForSortedResultsForGroupAndPartitionId = (group, partitionId) ->
+                tmpDirectory
+                        + "/sorted_new"
+                        + "/group=" + group
+                        + "/partition=" + partitionId;
+        final BiFunction<String, Integer, String> directoryForSortedResultsForGroupAndPartitionIdForReversedEdges = (group, partitionId) ->
+                tmpDirectory
+                        + "/sorted_new"
+                        + "/REVERSED-group=" + group
+                        + "/partition=" + partitionId;
+        try {
+            // For every group and partition that received new data, aggregate and sort the new data only
+            final List<Callable<CallableResult>> tasks = new ArrayList<>();
+            for (final String group : store.getSchema().getGroups()) {
+                for (final Partition partition : currentGraphPartitioner.getGroupPartitioner(group).getPartitions()) {
+                    final String inputDir = newDataDirectory.apply(group, partition.getPartitionId());
+                    if (fs.exists(new Path(inputDir))) {
+                        tasks.add(new AggregateAndSortData(store.getSchemaUtils(), fs, Collections.singletonList(inputDir),
+                                directoryForSortedResultsForGroupAndPartitionId.apply(group, partition.getPartitionId()),
+                                group, "delta-" + group + "-" + partition.getPartitionId(), false,
+                                store.getProperties().getCompressionCodecName(), spark));
+                    }
+                }
+            }
+            for (final String group : store.getSchema().getEdgeGroups()) {
+                for (final Partition partition : currentGraphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitions()) {
+                    final String inputDir = newDataDirectoryForReversedEdges.apply(group, partition.getPartitionId());
+                    if (fs.exists(new Path(inputDir))) {
+                        tasks.add(new AggregateAndSortData(store.getSchemaUtils(), fs, Collections.singletonList(inputDir),
+                                directoryForSortedResultsForGroupAndPartitionIdForReversedEdges.apply(group, partition.getPartitionId()),
+                                group, "delta-reversed-" + group + "-" + partition.getPartitionId(), true,
+                                store.getProperties().getCompressionCodecName(), spark));
+                    }
+                }
+            }
+            LOGGER.info("Created {} AggregateAndSortData tasks for the partitions that received new data", tasks.size());
+            MergeIntoNewSnapshot.invokeAll(spark, store.getProperties(), tasks);
+
+            // Move results to a new delta directory (as with snapshots, the -tmp suffix is removed once all the data
+            // is in place so that queries never see a partially written delta)
+            final long delta = currentSnapshot.getNextDeltaId();
+            final Path deltaDir = new Path(currentSnapshot.getSnapshotDir(), ParquetStore.getDeltaPath(delta) + "-tmp");
+            LOGGER.info("Moving aggregated and sorted data to new delta directory {}", deltaDir);
+            for (final String group : store.getSchema().getGroups()) {
+                final Path groupDir = new Path(deltaDir, ParquetStore.getGroupSubDir(group, false));
+                fs.mkdirs(groupDir);
+                for (final Partition partition : currentGraphPartitioner.getGroupPartitioner(group).getPartitions()) {
+                    final Path outputDir = new Path(directoryForSortedResultsForGroupAndPartitionId.apply(group, partition.getPartitionId()));
+                    MergeIntoNewSnapshot.moveSortedFile(fs, outputDir, groupDir, partition.getPartitionId());
+                }
+            }
+            for (final String group : store.getSchema().getEdgeGroups()) {
+                final Path groupDir = new Path(deltaDir, ParquetStore.getGroupSubDir(group, true));
+                fs.mkdirs(groupDir);
+                for (final Partition partition : currentGraphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitions()) {
+                    final Path outputDir = new Path(directoryForSortedResultsForGroupAndPartitionIdForReversedEdges.apply(group, partition.getPartitionId()));
+                    MergeIntoNewSnapshot.moveSortedFile(fs, outputDir, groupDir, partition.getPartitionId());
+                }
+            }
+
+            // Delete temporary data directory
+            LOGGER.info("Deleting temporary directory {}", tmpDirectory);
+            fs.delete(new Path(tmpDirectory), true);
+            // Move delta-tmp directory to delta
+            final Path deltaDirWithoutTmp = currentSnapshot.getDeltaDir(delta);
+            LOGGER.info("Renaming {} to {}", deltaDir, deltaDirWithoutTmp);
+            fs.rename(deltaDir, deltaDirWithoutTmp);
+            store.addDelta(delta);
+            return delta;
+        } catch (final IOException | StoreException e) {
+            throw new OperationException("IOException moving results files into new delta directory", e);
+        }
+    }
+}
@@ -23,17 +23,35 @@ import org.apache.parquet.filter2.predicate.FilterPredicate;
 
 import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
 
+import java.util.Collections;
+import java.util.List;
+
 public class ParquetFileQuery {
 
     private Path file;
     private FilterPredicate filter;
     private boolean fullyApplied;
+    private List<Path> deltaFiles;
 
     public ParquetFileQuery(final Path file, final FilterPredicate filter, final boolean fullyApplied) {
+        this(file, filter, fullyApplied, Collections.emptyList());
+    }
+
+    /**
+     * Creates a query for a partition file and the delta files for the same partition. The elements in the delta
+     * files are aggregated with the elements in the file before the results are filtered, so the filter should only
+     * contain predicates on the columns that identify an element.
+     *
+     * @param file         the partition file
+     * @param filter       the filter to apply when reading the file and the delta files
+     * @param fullyApplied whether the filter fully applies the view
+     * @param deltaFiles   the delta files for the partition
+     */
+    public ParquetFileQuery(final Path file, final FilterPredicate filter, final boolean fullyApplied, final List<Path> deltaFiles) {
         this.file = file;
         this.filter = filter;
         this.fullyApplied = fullyApplied;
-
+        this.deltaFiles = deltaFiles;
     }
 
     public Path getFile() {
@@ -48,12 +66,17 @@ public class ParquetFileQuery {
         return fullyApplied;
     }
 
+    public List<Path> getDeltaFiles() {
+        return deltaFiles;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
                 .append("file", file)
                 .append("filter", filter)
                 .append("fullyApplied", fullyApplied)
+                .append("deltaFiles", deltaFiles)
                 .toString();
     }
 
@@ -73,6 +96,7 @@ public class ParquetFileQuery {
                 .append(file, other.file)
                 .append(filter, other.filter)
                 .append(fullyApplied, other.fullyApplied)
+                .append(deltaFiles, other.deltaFiles)
                 .isEquals();
     }
 
@@ -82,6 +106,7 @@ public class ParquetFileQuery {
                 .append(file)
                 .append(filter)
                 .append(fullyApplied)
+                .append(deltaFiles)
                 .toHashCode();
     }
 }
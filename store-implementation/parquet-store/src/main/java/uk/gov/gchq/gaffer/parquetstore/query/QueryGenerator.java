@@ -16,6 +16,8 @@
 
 package uk.gov.gchq.gaffer.parquetstore.query;
 
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.io.api.Binary;
@@ -38,6 +40,7 @@ import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.StoreSnapshot;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
 import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
@@ -51,6 +54,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -69,10 +73,13 @@ public class QueryGenerator {
 
     private final ParquetStore store;
     private final SchemaUtils schemaUtils;
+    private final StoreSnapshot snapshot;
 
     public QueryGenerator(final ParquetStore store) {
         this.store = store;
         this.schemaUtils = new SchemaUtils(store.getSchema());
+        // The view is read once so that every file in the query belongs to the same snapshot and deltas
+        this.snapshot = store.getSnapshot();
     }
 
     public ParquetQuery getParquetQuery(final Operation operation) throws IOException, OperationException {
@@ -93,7 +100,7 @@ public class QueryGenerator {
         // Stage 2: Create map from group to list of files containing data for that group
         final Map<String, List<Path>> groupToPaths = new HashMap<>();
         for (final String group : allRelevantGroups) {
-            groupToPaths.put(group, store.getFilesForGroup(group));
+            groupToPaths.put(group, getFilesForGroup(group));
         }
 
         // Stage 3: For each of the above groups, create a Parquet predicate from the view and directedType
@@ -118,16 +125,45 @@ public class QueryGenerator {
         for (final Map.Entry<String, List<Path>> entry : groupToPaths.entrySet()) {
             for (final Path path : entry.getValue()) {
                 final String group = entry.getKey();
-                final ParquetFileQuery fileQuery = groupToPredicate.containsKey(group) ?
-                        new ParquetFileQuery(path, groupToPredicate.get(group).getFirst(), groupToPredicate.get(group).getSecond())
-                                : new ParquetFileQuery(path, null, false);
-                parquetQuery.add(group, fileQuery);
+                final FilterPredicate directedTypeFilter = schemaUtils.getEdgeGroups().contains(group)
+                        ? getPredicateFromDirectedType(getAllElements.getDirectedType())
+                        : null;
+                if (groupToPredicate.containsKey(group)) {
+                    addFileQueries(parquetQuery, group, path, false, groupToPredicate.get(group).getFirst(),
+                            groupToPredicate.get(group).getSecond(), directedTypeFilter);
+                } else {
+                    addFileQueries(parquetQuery, group, path, false, null, false, directedTypeFilter);
+                }
             }
         }
         LOGGER.info("Created ParquetQuery of {}", parquetQuery);
         return parquetQuery;
     }
 
+    // Returns the partition files of the group that contain data in the snapshot or in any of its deltas. A partition
+    // may only contain data in the deltas, in which case the returned partition file does not exist.
+    private List<Path> getFilesForGroup(final String group) throws IOException {
+        final FileSystem fs = store.getFS();
+        final Path groupPath = snapshot.getGroupPath(group, false);
+        final Set<String> fileNames = new TreeSet<>();
+        addParquetFileNames(fs, groupPath, fileNames);
+        for (final Path deltaGroupPath : snapshot.getDeltaGroupPaths(group, false)) {
+            addParquetFileNames(fs, deltaGroupPath, fileNames);
+        }
+        return fileNames.stream()
+                .map(fileName -> new Path(groupPath, fileName))
+                .collect(Collectors.toList());
+    }
+
+    private static void addParquetFileNames(final FileSystem fs, final Path dir, final Set<String> fileNames)
+            throws IOException {
+        if (fs.exists(dir)) {
+            for (final FileStatus status : fs.listStatus(dir, path -> path.getName().endsWith(".parquet"))) {
+                fileNames.add(status.getPath().getName());
+            }
+        }
+    }
+
     private Set<String> getRelevantGroups(final View view) {
         final Set<String> allRelevantGroups = new HashSet<>();
         if (null != view) {
@@ -199,22 +235,50 @@ public class QueryGenerator {
         final ParquetQuery parquetQuery = new ParquetQuery();
         for (final PathInfo pathInfo : pathToSeeds.keySet()) {
             List<Tuple3<String, Boolean, ParquetElementSeed>> seedList = pathToSeeds.get(pathInfo);
-            FilterPredicate filterPredicate = seedsToPredicate(seedList, includeIncomingOutgoingType, seedMatchingType);
-            if (null != filterPredicate) {
+            final FilterPredicate seedsPredicate = seedsToPredicate(seedList, includeIncomingOutgoingType, seedMatchingType);
+            if (null != seedsPredicate) {
                 final String group = pathInfo.getGroup();
+                FilterPredicate filterPredicate = seedsPredicate;
                 final Pair<FilterPredicate, Boolean> viewFilterPredicate = groupToPredicate.get(group);
                 if (null != viewFilterPredicate) {
                     // Put view predicate first as filter for checking whether it matches one of many seeds could be complex
                     filterPredicate = FilterPredicateUtils.and(viewFilterPredicate.getFirst(), filterPredicate);
                 }
-                final ParquetFileQuery fileQuery = new ParquetFileQuery(pathInfo.getPath(), filterPredicate, viewFilterPredicate.getSecond());
-                parquetQuery.add(group, fileQuery);
+                final FilterPredicate keyPredicate = schemaUtils.getEdgeGroups().contains(group)
+                        ? FilterPredicateUtils.and(getPredicateFromDirectedType(getElements.getDirectedType()), seedsPredicate)
+                        : seedsPredicate;
+                addFileQueries(parquetQuery, group, pathInfo.getPath(), pathInfo.isReversed(), filterPredicate,
+                        viewFilterPredicate.getSecond(), keyPredicate);
             }
         }
         LOGGER.info("Created ParquetQuery of {}", parquetQuery);
         return parquetQuery;
     }
 
+    // Adds queries for a partition file and the delta files for that partition. If the group is aggregated then the
+    // partition file and its deltas are read by a single query which aggregates them before the view is applied, so
+    // only the filter on the columns that identify an element (e.g. the seeds and the directed type) can be pushed
+    // down to the Parquet reader.
+    private void addFileQueries(final ParquetQuery parquetQuery,
+                                final String group,
+                                final Path path,
+                                final boolean reversed,
+                                final FilterPredicate filter,
+                                final boolean fullyApplied,
+                                final FilterPredicate keyFilter) {
+        final List<Path> deltaFiles = snapshot.getDeltaFiles(group, path.getName(), reversed);
+        if (deltaFiles.isEmpty()) {
+            parquetQuery.add(group, new ParquetFileQuery(path, filter, fullyApplied));
+        } else if (store.getSchema().getAggregatedGroups().contains(group)) {
+            parquetQuery.add(group, new ParquetFileQuery(path, keyFilter, false, deltaFiles));
+        } else {
+            parquetQuery.add(group, new ParquetFileQuery(path, filter, fullyApplied));
+            for (final Path deltaFile : deltaFiles) {
+                parquetQuery.add(group, new ParquetFileQuery(deltaFile, filter, fullyApplied));
+            }
+        }
+    }
+
     // TODO raise issue saying that could optimise so that only the filters that have not been fully applied
     // are reapplied, and it should be able to return the fact that all filters have been applied
     // Either the result is:
@@ -294,7 +358,7 @@ public class QueryGenerator {
     }
 
     private Set<PathInfo> getPathsForSeed(final ParquetElementSeed parquetElementSeed, final String group) {
-        final GraphPartitioner graphPartitioner = store.getGraphPartitioner();
+        final GraphPartitioner graphPartitioner = snapshot.getGraphPartitioner();
         final boolean isEntityGroup = store.getSchema().getEntityGroups().contains(group);
         final List<Object[]> seeds = new ArrayList<>();
         if (parquetElementSeed instanceof ParquetEntitySeed) {
@@ -321,10 +385,10 @@ public class QueryGenerator {
             final List<Integer> partitionIds = graphPartitioner.getGroupPartitioner(group).getPartitionIds(seed);
             LOGGER.debug("Partition ids for seed {} in group {}: {}", seed, group, partitionIds);
             final PathInfo.FILETYPE fileType = isEntityGroup ? PathInfo.FILETYPE.ENTITY : PathInfo.FILETYPE.EDGE;
-            partitionIds.forEach(id -> paths.add(new PathInfo(new Path(store.getFile(group, id)), group, fileType)));
+            partitionIds.forEach(id -> paths.add(new PathInfo(new Path(snapshot.getFile(group, id)), group, fileType)));
             if (!isEntityGroup && parquetElementSeed instanceof ParquetEntitySeed) {
                 final List<Integer> partitionIdsFromReversed = graphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitionIds(seed);
-                partitionIdsFromReversed.forEach(id -> paths.add(new PathInfo(new Path(store.getFileForReversedEdges(group, id)), group, PathInfo.FILETYPE.REVERSED_EDGE)));
+                partitionIdsFromReversed.forEach(id -> paths.add(new PathInfo(new Path(snapshot.getFileForReversedEdges(group, id)), group, PathInfo.FILETYPE.REVERSED_EDGE)));
             }
         }
         LOGGER.debug("Returning {} paths for seed {} and group {} (paths are {})",
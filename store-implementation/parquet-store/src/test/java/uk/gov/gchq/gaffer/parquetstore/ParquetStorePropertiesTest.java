@@ -27,6 +27,8 @@ import uk.gov.gchq.gaffer.sketches.serialisation.json.SketchesJsonModules;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ParquetStorePropertiesTest {
 
@@ -92,6 +94,29 @@ public class ParquetStorePropertiesTest {
         assertEquals(CompressionCodecName.UNCOMPRESSED, props.getCompressionCodecName());
     }
 
+    @Test
+    public void addElementsIncrementalTest() {
+        assertFalse(props.getAddElementsIncremental());
+        props.setAddElementsIncremental(true);
+        assertTrue(props.getAddElementsIncremental());
+    }
+
+    @Test
+    public void compactionPolicyTest() {
+        assertEquals(10, props.getCompactionMaxDeltas());
+        assertEquals(1073741824L, props.getCompactionMaxDeltaSizeInBytes());
+        assertEquals(86400000L, props.getCompactionMaxDeltaAgeInMillis());
+        assertTrue(props.getCompactionInBackground());
+        props.setCompactionMaxDeltas(3);
+        props.setCompactionMaxDeltaSizeInBytes(1000L);
+        props.setCompactionMaxDeltaAgeInMillis(60000L);
+        props.setCompactionInBackground(false);
+        assertEquals(3, props.getCompactionMaxDeltas());
+        assertEquals(1000L, props.getCompactionMaxDeltaSizeInBytes());
+        assertEquals(60000L, props.getCompactionMaxDeltaAgeInMillis());
+        assertFalse(props.getCompactionInBackground());
+    }
+
     @Test
     public void shouldMergeParquetJsonModules() {
         // Given
@@ -33,10 +33,18 @@ import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.RetrieveElementsFromFile;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetFileQuery;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetQuery;
+import uk.gov.gchq.gaffer.parquetstore.query.QueryGenerator;
 import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
 import uk.gov.gchq.gaffer.parquetstore.utils.AggregateAndSortDataTest;
 import uk.gov.gchq.gaffer.parquetstore.utils.WriteUnsortedDataTest;
@@ -45,17 +53,26 @@ import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.types.FreqMap;
+import uk.gov.gchq.gaffer.user.User;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AddElementsHandlerTest {
@@ -661,4 +678,244 @@ public class AddElementsHandlerTest {
     public void testWhenInputIsEmpty() {
         // TODO
     }
+
+    @Test
+    public void testIncrementalAddElementsWritesDeltasAndCompacts(@TempDir java.nio.file.Path tempDir)
+            throws IOException, OperationException, StoreException {
+        // Given
+        final AddElements add = new AddElements.Builder()
+                .input(AggregateAndSortDataTest.generateData())
+                .build();
+        final Context context = new Context();
+        final Schema schema = TestUtils.gafferSchema("schemaUsingLongVertexType");
+        final ParquetStoreProperties storeProperties = new ParquetStoreProperties();
+        final String testDir = tempDir.toString();
+        storeProperties.setDataDir(testDir + "/data");
+        storeProperties.setTempFilesDir(testDir + "/tmpdata");
+        storeProperties.setAddElementsIncremental(true);
+        storeProperties.setCompactionInBackground(false);
+        storeProperties.setCompactionMaxDeltas(3);
+        final ParquetStore store = (ParquetStore) ParquetStore.createStore("graphId", schema, storeProperties);
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final long initialSnapshotId = store.getLatestSnapshot();
+
+        // When1 - Add elements twice
+        new AddElementsHandler().doOperation(add, context, store);
+        new AddElementsHandler().doOperation(add, context, store);
+
+        // Then1
+        // - The snapshot should be unchanged and should contain two deltas, each containing the new data
+        assertEquals(initialSnapshotId, store.getLatestSnapshot());
+        assertEquals(2, store.getDeltas().size());
+        for (final long delta : store.getDeltas()) {
+            assertTrue(fs.exists(new Path(store.getSnapshotDir(), ParquetStore.getDeltaPath(delta)
+                    + "/" + ParquetStore.getGroupSubDir(TestGroups.ENTITY, false) + "/" + ParquetStore.getFile(0))));
+        }
+        // - Queries should aggregate the data in the deltas
+        List<Element> results = getEntities(store, context);
+        assertEquals(40, results.size());
+        for (final Element element : results) {
+            assertEquals(2, element.getProperty("count"));
+        }
+
+        // When2 - Add elements again, reaching the maximum number of deltas
+        new AddElementsHandler().doOperation(add, context, store);
+
+        // Then2
+        // - The deltas should have been compacted into a new snapshot
+        assertNotEquals(initialSnapshotId, store.getLatestSnapshot());
+        assertTrue(store.getDeltas().isEmpty());
+        results = getEntities(store, context);
+        assertEquals(40, results.size());
+        for (final Element element : results) {
+            assertEquals(3, element.getProperty("count"));
+        }
+    }
+
+    @Test
+    public void testIncrementalAddElementsAggregatesEdgesAcrossMultipleDeltas(@TempDir java.nio.file.Path tempDir)
+            throws IOException, OperationException, StoreException {
+        // Given
+        final ParquetStore store = createIncrementalStore(tempDir, 10);
+        final Context context = new Context();
+        final List<Element> firstEdges = new ArrayList<>();
+        firstEdges.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(1L, 10L, true, new Date(100L)));
+        firstEdges.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(100L, 1000L, false, new Date(200L)));
+        final List<Element> secondEdges = new ArrayList<>(firstEdges);
+        secondEdges.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(5L, 50L, true, new Date(300L)));
+        final List<Element> thirdEdges = new ArrayList<>();
+        thirdEdges.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(1L, 10L, true, new Date(100L)));
+        thirdEdges.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(1L, 10L, true, new Date(400L)));
+
+        // When
+        for (final List<Element> edges : Arrays.asList(firstEdges, secondEdges, thirdEdges)) {
+            new AddElementsHandler().doOperation(new AddElements.Builder().input(edges).build(), context, store);
+        }
+
+        // Then
+        // - Each add should have written a delta
+        assertEquals(3, store.getDeltas().size());
+        // - Edges should be aggregated across the deltas when read from the edge files
+        final Map<String, Integer> expectedCounts = new HashMap<>();
+        expectedCounts.put("1-10-100", 300);
+        expectedCounts.put("100-1000-200", 200);
+        expectedCounts.put("5-50-300", 100);
+        expectedCounts.put("1-10-400", 100);
+        checkEdgeCounts(expectedCounts, getEdges(store, context));
+        // - Edges should be aggregated across the deltas when read from the reversed edge files
+        final List<Element> results = new ArrayList<>();
+        store.execute(new GetElements.Builder()
+                .input(new EntitySeed(10L))
+                .view(new View.Builder().edge(TestGroups.EDGE).build())
+                .build(), context)
+                .forEach(results::add);
+        expectedCounts.clear();
+        expectedCounts.put("1-10-100", 300);
+        expectedCounts.put("1-10-400", 100);
+        checkEdgeCounts(expectedCounts, results);
+    }
+
+    @Test
+    public void testQueryCreatedBeforeCompactionReadsConsistentData(@TempDir java.nio.file.Path tempDir)
+            throws Exception {
+        // Given
+        final ParquetStore store = createIncrementalStore(tempDir, 10);
+        final Context context = new Context();
+        final AddElements add = new AddElements.Builder()
+                .input(AggregateAndSortDataTest.generateData())
+                .build();
+        new AddElementsHandler().doOperation(add, context, store);
+        new AddElementsHandler().doOperation(add, context, store);
+        final GetAllElements getAllElements = new GetAllElements.Builder()
+                .view(new View.Builder().entity(TestGroups.ENTITY).build())
+                .build();
+        final ParquetQuery query = new QueryGenerator(store).getParquetQuery(getAllElements);
+
+        // When - the deltas are compacted after the files to query have been chosen
+        store.compactDeltas(SparkSessionProvider.getSparkSession());
+
+        // Then - the query should still read the old snapshot together with its deltas
+        assertTrue(store.getDeltas().isEmpty());
+        final ConcurrentLinkedQueue<Element> queue = new ConcurrentLinkedQueue<>();
+        for (final ParquetFileQuery fileQuery : query.getAllParquetFileQueries()) {
+            assertNull(new RetrieveElementsFromFile(fileQuery.getFile(), fileQuery.getDeltaFiles(), fileQuery.getFilter(),
+                    store.getSchema(), queue, !fileQuery.isFullyApplied(), false, getAllElements.getView(), new User())
+                    .call());
+        }
+        checkEntityCounts(2, new ArrayList<>(queue));
+    }
+
+    @Test
+    public void testQueriesWhilstCompactingReturnConsistentResults(@TempDir java.nio.file.Path tempDir)
+            throws Exception {
+        // Given
+        final ParquetStore store = createIncrementalStore(tempDir, 10);
+        final Context context = new Context();
+        final AddElements add = new AddElements.Builder()
+                .input(AggregateAndSortDataTest.generateData())
+                .build();
+        new AddElementsHandler().doOperation(add, context, store);
+        new AddElementsHandler().doOperation(add, context, store);
+        final long initialSnapshotId = store.getLatestSnapshot();
+
+        // When - query repeatedly whilst the deltas are compacted
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Void> compaction = executor.submit(() -> {
+                store.compactDeltas(SparkSessionProvider.getSparkSession());
+                return null;
+            });
+            do {
+                // Then - every query should see either the old snapshot and its deltas or the new snapshot
+                checkEntityCounts(2, getEntities(store, context));
+            } while (!compaction.isDone());
+            compaction.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertNotEquals(initialSnapshotId, store.getLatestSnapshot());
+        assertTrue(store.getDeltas().isEmpty());
+        checkEntityCounts(2, getEntities(store, context));
+    }
+
+    @Test
+    public void testElementsAddedWhilstCompactingAreKept(@TempDir java.nio.file.Path tempDir)
+            throws Exception {
+        // Given
+        final ParquetStore store = createIncrementalStore(tempDir, 10);
+        final Context context = new Context();
+        final AddElements add = new AddElements.Builder()
+                .input(AggregateAndSortDataTest.generateData())
+                .build();
+        new AddElementsHandler().doOperation(add, context, store);
+        new AddElementsHandler().doOperation(add, context, store);
+        final long initialSnapshotId = store.getLatestSnapshot();
+
+        // When - add elements whilst the deltas are compacted
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Void> compaction = executor.submit(() -> {
+                store.compactDeltas(SparkSessionProvider.getSparkSession());
+                return null;
+            });
+            new AddElementsHandler().doOperation(add, context, store);
+            compaction.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - the elements should be in either the compacted snapshot or a delta of it
+        assertNotEquals(initialSnapshotId, store.getLatestSnapshot());
+        assertTrue(store.getDeltas().size() <= 1);
+        checkEntityCounts(3, getEntities(store, context));
+    }
+
+    private ParquetStore createIncrementalStore(final java.nio.file.Path tempDir, final int compactionMaxDeltas)
+            throws StoreException {
+        final ParquetStoreProperties storeProperties = new ParquetStoreProperties();
+        final String testDir = tempDir.toString();
+        storeProperties.setDataDir(testDir + "/data");
+        storeProperties.setTempFilesDir(testDir + "/tmpdata");
+        storeProperties.setAddElementsIncremental(true);
+        storeProperties.setCompactionInBackground(false);
+        storeProperties.setCompactionMaxDeltas(compactionMaxDeltas);
+        return (ParquetStore) ParquetStore.createStore("graphId", TestUtils.gafferSchema("schemaUsingLongVertexType"), storeProperties);
+    }
+
+    private void checkEntityCounts(final int expectedCount, final List<Element> results) {
+        assertEquals(40, results.size());
+        for (final Element element : results) {
+            assertEquals(expectedCount, element.getProperty("count"));
+        }
+    }
+
+    private void checkEdgeCounts(final Map<String, Integer> expectedCounts, final List<Element> results) {
+        final Map<String, Integer> counts = new HashMap<>();
+        for (final Element element : results) {
+            final Edge edge = (Edge) element;
+            final String key = edge.getSource() + "-" + edge.getDestination() + "-" + ((Date) edge.getProperty("date")).getTime();
+            assertNull(counts.put(key, (Integer) edge.getProperty("count")), "Duplicate edge " + key);
+        }
+        assertEquals(expectedCounts, counts);
+    }
+
+    private List<Element> getEdges(final ParquetStore store, final Context context) throws OperationException {
+        final List<Element> results = new ArrayList<>();
+        store.execute(new GetAllElements.Builder()
+                .view(new View.Builder().edge(TestGroups.EDGE).build())
+                .build(), context)
+                .forEach(results::add);
+        return results;
+    }
+
+    private List<Element> getEntities(final ParquetStore store, final Context context) throws OperationException {
+        final List<Element> results = new ArrayList<>();
+        store.execute(new GetAllElements.Builder()
+                .view(new View.Builder().entity(TestGroups.ENTITY).build())
+                .build(), context)
+                .forEach(results::add);
+        return results;
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetrieveElementsFromFileTest {
+
+    @Test
+    public void shouldCompareKeysColumnByColumn() {
+        assertEquals(0, RetrieveElementsFromFile.compareKeys(new Object[]{1L, true}, new Object[]{1L, true}));
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{1L, true}, new Object[]{2L, false}) < 0);
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{1L, false}, new Object[]{1L, true}) < 0);
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{1L}, new Object[]{1L, true}) < 0);
+    }
+
+    @Test
+    public void shouldCompareNullsFirst() {
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{null}, new Object[]{Long.MIN_VALUE}) < 0);
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{"a"}, new Object[]{null}) > 0);
+        assertEquals(0, RetrieveElementsFromFile.compareKeys(new Object[]{null}, new Object[]{null}));
+    }
+
+    @Test
+    public void shouldCompareByteArraysAsUnsignedBytes() {
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{new byte[]{1}}, new Object[]{new byte[]{-1}}) < 0);
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{new byte[]{1}}, new Object[]{new byte[]{1, 0}}) < 0);
+        assertEquals(0, RetrieveElementsFromFile.compareKeys(new Object[]{new byte[]{1, 2}}, new Object[]{new byte[]{1, 2}}));
+    }
+
+    @Test
+    public void shouldCompareStringsInTheOrderOfTheirUtf8Bytes() {
+        // U+FF5E is a single UTF-16 char that is greater than the surrogate pair for U+1F600 but has smaller UTF-8 bytes
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{"\uFF5E"}, new Object[]{"\uD83D\uDE00"}) < 0);
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{"ab"}, new Object[]{"b"}) < 0);
+        assertTrue(RetrieveElementsFromFile.compareKeys(new Object[]{"a"}, new Object[]{"ab"}) < 0);
+    }
+}